@@ -0,0 +1,31 @@
+package com.banking.common.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+
+/**
+ * Provides the {@link IdempotencyService} to every application with this module on its classpath.
+ * Its purge runs on the application's scheduler, so the application must enable scheduling.
+ */
+@AutoConfiguration(after = {IdempotencyJpaAutoConfiguration.class, HibernateJpaAutoConfiguration.class, JacksonAutoConfiguration.class})
+public class IdempotencyAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public IdempotencyService idempotencyService(IdempotencyRecordRepository repository,
+                                                 ObjectMapper objectMapper,
+                                                 PlatformTransactionManager transactionManager,
+                                                 @Value("${idempotency.ttl:PT24H}") Duration ttl,
+                                                 @Value("${idempotency.lease:PT1M}") Duration lease,
+                                                 @Value("${idempotency.cache.max-size:10000}") long maxSize) {
+        return new IdempotencyService(repository, objectMapper, transactionManager, ttl, lease, maxSize);
+    }
+}
@@ -0,0 +1,16 @@
+package com.banking.common.idempotency;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+
+/**
+ * Adds {@link IdempotencyRecord} and its repository to the application's entity and repository
+ * scan, which otherwise only covers the application's own packages. Also imported by
+ * {@code @DataJpaTest}, so the table exists in the services' repository tests.
+ */
+@AutoConfiguration(before = {HibernateJpaAutoConfiguration.class, JpaRepositoriesAutoConfiguration.class})
+@AutoConfigurationPackage(basePackageClasses = IdempotencyRecord.class)
+public class IdempotencyJpaAutoConfiguration {
+}
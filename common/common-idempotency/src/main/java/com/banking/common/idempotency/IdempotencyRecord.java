@@ -0,0 +1,56 @@
+package com.banking.common.idempotency;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Durable copy of an idempotent response. The id is a SHA-256 over operation, caller and the
+ * client's Idempotency-Key, so keys from different users or endpoints never collide.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_expires", columnList = "expires_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    @Column(nullable = false)
+    private String operation;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(nullable = false)
+    private boolean completed;
+
+    @Lob
+    private String responseBody;
+
+    // Start of the lease on an uncompleted reservation, moved on while the holder renews it
+    @Column(name = "reserved_at")
+    private LocalDateTime reservedAt;
+
+    // Fencing token of the current holder; completion and release only apply with it
+    @Column(name = "lease_token", length = 36)
+    private String leaseToken;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,34 @@
+package com.banking.common.idempotency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.reservedAt = :now, r.leaseToken = :token WHERE r.id = :id AND r.completed = false "
+        + "AND r.requestHash = :requestHash AND (r.reservedAt IS NULL OR r.reservedAt < :staleBefore)")
+    int takeOverReservation(@Param("id") String id, @Param("requestHash") String requestHash, @Param("token") String token,
+                            @Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.reservedAt = :now WHERE r.id = :id AND r.leaseToken = :token AND r.completed = false")
+    int renewLease(@Param("id") String id, @Param("token") String token, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.completed = true, r.responseBody = :body "
+        + "WHERE r.id = :id AND r.leaseToken = :token AND r.completed = false")
+    int completeReservation(@Param("id") String id, @Param("token") String token, @Param("body") String body);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.leaseToken = :token AND r.completed = false")
+    int releaseReservation(@Param("id") String id, @Param("token") String token);
+}
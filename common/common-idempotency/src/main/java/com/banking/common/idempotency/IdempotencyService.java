@@ -0,0 +1,238 @@
+package com.banking.common.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Replays the stored response for a repeated Idempotency-Key instead of executing the request
+ * again. Completed responses are served from a bounded in-memory cache first and from the
+ * {@code idempotency_keys} table after a restart or on another instance.
+ * <p>
+ * The key is reserved before the action runs, so a concurrent duplicate gets 409 rather than a
+ * second execution; reusing a key with a different request body gets 422. If the action fails
+ * the reservation is released and the client may retry with the same key.
+ * <p>
+ * A reservation is a lease: if the instance holding it dies before completing, a retry with the
+ * same key and body takes the key over once {@code idempotency.lease} has passed, instead of
+ * getting 409 until the key expires. The instance running the action renews its lease every
+ * {@code idempotency.lease-renew-interval-ms}, so a slow action is not taken over while it runs.
+ * Each reservation carries a token that completion and release are fenced on: an instance that
+ * lost its lease anyway cannot overwrite or delete the reservation of the retry that took over.
+ */
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate requiresNew;
+    private final Duration ttl;
+    private final Duration lease;
+    private final Cache<String, IdempotencyRecord> cache;
+    // Lease token by record id, for the reservations this instance is running right now
+    private final Map<String, String> running = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              Duration ttl,
+                              Duration lease,
+                              long maxSize) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttl = ttl;
+        this.lease = lease;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .build();
+    }
+
+    public <T> T execute(String operation, String key, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String id = sha256(operation + '\n' + currentCaller() + '\n' + key);
+        String requestHash = sha256(toJson(request));
+
+        IdempotencyRecord cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return replay(cached, requestHash, responseType);
+        }
+
+        String token = UUID.randomUUID().toString();
+        Optional<IdempotencyRecord> stored = findLive(id);
+        if (stored.isPresent()) {
+            if (!takeOver(stored.get(), requestHash, token)) {
+                return replay(stored.get(), requestHash, responseType);
+            }
+        } else if (!reserve(id, operation, requestHash, token)) {
+            return findLive(id)
+                .map(existing -> replay(existing, requestHash, responseType))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT, "Request with this " + HEADER + " is already in progress"));
+        }
+
+        T response;
+        running.put(id, token);
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            requiresNew.execute(status -> repository.releaseReservation(id, token));
+            throw e;
+        } finally {
+            running.remove(id, token);
+        }
+
+        String body = toJson(response);
+        Integer completed = requiresNew.execute(status -> repository.completeReservation(id, token, body));
+        if (completed == null || completed == 0) {
+            // Another request took the key over; its outcome is the one the key answers with
+            log.error("Lost the lease of idempotent {} request before it completed; its response was not stored", operation);
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Request with this " + HEADER + " was taken over by a retry");
+        }
+        cache.put(id, IdempotencyRecord.builder()
+            .id(id)
+            .operation(operation)
+            .requestHash(requestHash)
+            .completed(true)
+            .responseBody(body)
+            .build());
+        return response;
+    }
+
+    /** Keeps the reservations of running actions from going stale while they run. */
+    @Scheduled(fixedDelayString = "${idempotency.lease-renew-interval-ms:15000}")
+    public void renewLeases() {
+        if (running.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        running.forEach((id, token) -> {
+            try {
+                requiresNew.execute(status -> repository.renewLease(id, token, now));
+            } catch (RuntimeException e) {
+                log.warn("Could not renew an idempotency lease: {}", e.getMessage());
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        Integer removed = requiresNew.execute(status -> repository.deleteExpired(LocalDateTime.now()));
+        if (removed != null && removed > 0) {
+            log.info("Purged {} expired idempotency keys", removed);
+        }
+    }
+
+    private Optional<IdempotencyRecord> findLive(String id) {
+        return repository.findById(id).filter(r -> r.getExpiresAt().isAfter(LocalDateTime.now()));
+    }
+
+    private boolean reserve(String id, String operation, String requestHash, String token) {
+        try {
+            requiresNew.executeWithoutResult(status -> {
+                repository.findById(id)
+                    .filter(r -> !r.getExpiresAt().isAfter(LocalDateTime.now()))
+                    .ifPresent(expired -> {
+                        repository.delete(expired);
+                        repository.flush();
+                    });
+                repository.saveAndFlush(IdempotencyRecord.builder()
+                    .id(id)
+                    .operation(operation)
+                    .requestHash(requestHash)
+                    .completed(false)
+                    .leaseToken(token)
+                    .reservedAt(LocalDateTime.now())
+                    .expiresAt(LocalDateTime.now().plus(ttl))
+                    .build());
+            });
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    /** Claims a reservation whose lease has run out; the conditional UPDATE lets only one retry win. */
+    private boolean takeOver(IdempotencyRecord record, String requestHash, String token) {
+        if (record.isCompleted() || !record.getRequestHash().equals(requestHash)) {
+            return false;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = requiresNew.execute(status ->
+            repository.takeOverReservation(record.getId(), requestHash, token, now, now.minus(lease)));
+        if (claimed == null || claimed == 0) {
+            return false;
+        }
+        log.info("Took over the stale reservation of idempotent {} request", record.getOperation());
+        return true;
+    }
+
+    private <T> T replay(IdempotencyRecord record, String requestHash, Class<T> responseType) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, HEADER + " was already used for a different request");
+        }
+        if (!record.isCompleted()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Request with this " + HEADER + " is already in progress");
+        }
+        cache.put(record.getId(), record);
+        try {
+            return objectMapper.readValue(record.getResponseBody(), responseType);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Stored idempotent response is unreadable", e);
+        }
+    }
+
+    private String currentCaller() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "anonymous";
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize idempotent payload", e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.banking.common.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTests {
+
+    @Mock private IdempotencyRecordRepository repository;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private final Map<String, IdempotencyRecord> table = new HashMap<>();
+    private IdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(repository.findById(any())).thenAnswer(inv -> Optional.ofNullable(table.get(inv.<String>getArgument(0))));
+        lenient().when(repository.saveAndFlush(any())).thenAnswer(inv -> {
+            IdempotencyRecord r = inv.getArgument(0);
+            if (table.putIfAbsent(r.getId(), r) != null) {
+                throw new DataIntegrityViolationException("duplicate");
+            }
+            return r;
+        });
+        lenient().when(repository.takeOverReservation(any(), any(), any(), any(), any())).thenAnswer(inv -> {
+            IdempotencyRecord r = table.get(inv.<String>getArgument(0));
+            LocalDateTime staleBefore = inv.getArgument(4);
+            if (r == null || r.isCompleted() || !r.getRequestHash().equals(inv.getArgument(1))
+                    || !r.getReservedAt().isBefore(staleBefore)) {
+                return 0;
+            }
+            r.setLeaseToken(inv.getArgument(2));
+            r.setReservedAt(inv.getArgument(3));
+            return 1;
+        });
+        lenient().when(repository.renewLease(any(), any(), any())).thenAnswer(inv -> {
+            IdempotencyRecord r = held(inv.getArgument(0), inv.getArgument(1));
+            if (r == null) {
+                return 0;
+            }
+            r.setReservedAt(inv.getArgument(2));
+            return 1;
+        });
+        lenient().when(repository.completeReservation(any(), any(), any())).thenAnswer(inv -> {
+            IdempotencyRecord r = held(inv.getArgument(0), inv.getArgument(1));
+            if (r == null) {
+                return 0;
+            }
+            r.setCompleted(true);
+            r.setResponseBody(inv.getArgument(2));
+            return 1;
+        });
+        lenient().when(repository.releaseReservation(any(), any())).thenAnswer(inv ->
+                held(inv.getArgument(0), inv.getArgument(1)) != null && table.remove(inv.<String>getArgument(0)) != null ? 1 : 0);
+        lenient().doAnswer(inv -> table.remove(inv.<IdempotencyRecord>getArgument(0).getId())).when(repository).delete(any());
+        service = new IdempotencyService(repository, new ObjectMapper().findAndRegisterModules(),
+                transactionManager, Duration.ofHours(1), Duration.ofMinutes(1), 100);
+    }
+
+    @Test
+    @DisplayName("without a key the action always runs")
+    void noKey_runsEveryTime() {
+        AtomicInteger calls = new AtomicInteger();
+        service.execute("op", null, "req", String.class, () -> "r" + calls.incrementAndGet());
+        service.execute("op", null, "req", String.class, () -> "r" + calls.incrementAndGet());
+        assertEquals(2, calls.get());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("repeated key replays the stored response from memory")
+    void repeatedKey_replaysFromCache() {
+        Map<String, Object> req = Map.of("from", 1, "to", 2, "amount", "10.00");
+        AtomicInteger calls = new AtomicInteger();
+
+        Receipt first = service.execute("payment.transfer", "k1", req, Receipt.class,
+                () -> new Receipt((long) calls.incrementAndGet(), "COMPLETED"));
+        clearInvocations(repository);
+        Receipt second = service.execute("payment.transfer", "k1", req, Receipt.class,
+                () -> new Receipt((long) calls.incrementAndGet(), null));
+
+        assertEquals(1, calls.get());
+        assertEquals(first.id(), second.id());
+        assertEquals("COMPLETED", second.status());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("durable record is replayed after the in-memory cache is lost")
+    void repeatedKey_replaysFromTable() {
+        service.execute("payment.transfer", "k2", "req", String.class, () -> "done");
+        IdempotencyService restarted = new IdempotencyService(repository, new ObjectMapper(),
+                transactionManager, Duration.ofHours(1), Duration.ofMinutes(1), 100);
+
+        assertEquals("done", restarted.execute("payment.transfer", "k2", "req", String.class,
+                () -> fail("action must not run again")));
+    }
+
+    @Test
+    @DisplayName("same key with a different body is rejected with 422")
+    void reusedKeyDifferentRequest_unprocessable() {
+        service.execute("payment.transfer", "k3", "req-a", String.class, () -> "a");
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> service.execute("payment.transfer", "k3", "req-b", String.class, () -> "b"));
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, ex.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("key still in progress elsewhere yields 409")
+    void inProgressKey_conflict() {
+        service.execute("payment.transfer", "k4", "req", String.class, () -> {
+            ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                    () -> service.execute("payment.transfer", "k4", "req", String.class, () -> "dup"));
+            assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
+            return "first";
+        });
+    }
+
+    @Test
+    @DisplayName("failed action releases the key so the client can retry")
+    void failedAction_releasesKey() {
+        assertThrows(RuntimeException.class, () -> service.execute("payment.transfer", "k5", "req", String.class,
+                () -> { throw new RuntimeException("boom"); }));
+        assertEquals("ok", service.execute("payment.transfer", "k5", "req", String.class, () -> "ok"));
+    }
+
+    @Test
+    @DisplayName("expired durable record does not replay")
+    void expiredRecord_runsAgain() {
+        service.execute("payment.transfer", "k6", "req", String.class, () -> "old");
+        table.values().forEach(r -> r.setExpiresAt(LocalDateTime.now().minusSeconds(1)));
+        IdempotencyService restarted = new IdempotencyService(repository, new ObjectMapper(),
+                transactionManager, Duration.ofHours(1), Duration.ofMinutes(1), 100);
+
+        assertEquals("new", restarted.execute("payment.transfer", "k6", "req", String.class, () -> "new"));
+    }
+
+    @Test
+    @DisplayName("a reservation left behind by a crash is taken over once its lease runs out")
+    void staleReservation_takenOver() {
+        // An Error skips the release, leaving the key reserved as a crashed instance would
+        assertThrows(AssertionError.class, () -> service.execute("payment.transfer", "k7", "req", String.class,
+                () -> { throw new AssertionError("instance died"); }));
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> service.execute("payment.transfer", "k7", "req", String.class, () -> "too early"));
+        assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
+
+        table.values().forEach(r -> r.setReservedAt(LocalDateTime.now().minusMinutes(2)));
+        assertEquals("retried", service.execute("payment.transfer", "k7", "req", String.class, () -> "retried"));
+        assertEquals("retried", service.execute("payment.transfer", "k7", "req", String.class,
+                () -> fail("action must not run again")));
+    }
+
+    @Test
+    @DisplayName("a running action renews its lease, so a retry cannot take it over")
+    void runningReservation_isRenewed() {
+        service.execute("payment.transfer", "k8", "req", String.class, () -> {
+            table.values().forEach(r -> r.setReservedAt(LocalDateTime.now().minusMinutes(2)));
+            service.renewLeases();
+
+            ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                    () -> service.execute("payment.transfer", "k8", "req", String.class, () -> "second run"));
+            assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
+            return "first";
+        });
+        assertEquals("\"first\"", table.values().iterator().next().getResponseBody());
+    }
+
+    @Test
+    @DisplayName("an action whose reservation was taken over does not store its response")
+    void lostLease_completionRejected() {
+        AtomicInteger runs = new AtomicInteger();
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> service.execute("payment.transfer", "k9", "req", String.class, () -> {
+                    runs.incrementAndGet();
+                    // Renewals failed for a whole lease and a retry took the key over meanwhile
+                    table.values().forEach(r -> r.setReservedAt(LocalDateTime.now().minusMinutes(2)));
+                    assertEquals("retry", service.execute("payment.transfer", "k9", "req", String.class, () -> "retry"));
+                    return "stale";
+                }));
+
+        assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
+        assertEquals("retry", service.execute("payment.transfer", "k9", "req", String.class,
+                () -> fail("action must not run again")));
+        assertEquals(1, runs.get());
+    }
+
+    private IdempotencyRecord held(String id, String token) {
+        IdempotencyRecord r = table.get(id);
+        return r != null && !r.isCompleted() && token.equals(r.getLeaseToken()) ? r : null;
+    }
+
+    record Receipt(Long id, String status) {
+    }
+}
@@ -0,0 +1,182 @@
+package com.banking.common.loadbalancer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Outstanding requests and a peak-EWMA of response time for every instance the load balancer has
+ * sent traffic to. A response slower than the average replaces it at once, a faster one pulls it
+ * down gradually, and with no responses it decays towards zero over {@code decay}, so an instance
+ * that was slow is tried again after a while. A failed call counts as at least
+ * {@code failurePenalty}, so an instance that fails fast does not attract traffic.
+ * <p>
+ * Published per instance as {@code loadbalancer.instance.outstanding},
+ * {@code loadbalancer.instance.latency} (the decayed average) and
+ * {@code loadbalancer.instance.requests{outcome}}, tagged with {@code service} and {@code instance}.
+ */
+public class InstanceLoadTracker {
+
+    // Cost of an instance whose first request is still outstanding; well above any real cost
+    private static final double UNKNOWN_LATENCY_PENALTY = Long.MAX_VALUE >> 16;
+
+    private final MeterRegistry meterRegistry;
+    private final double decayNanos;
+    private final long failurePenaltyNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    public InstanceLoadTracker(MeterRegistry meterRegistry, Duration decay, Duration failurePenalty,
+                               LongSupplier nanoClock) {
+        this.meterRegistry = meterRegistry;
+        this.decayNanos = Math.max(1, decay.toNanos());
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Relative cost of sending one more request to the instance: its average response time times
+     * the requests it would then have in flight. An instance with no response yet costs nothing
+     * while idle, so it gets a first request, and is avoided while that request is outstanding.
+     */
+    public double cost(ServiceInstance instance) {
+        Stats instanceStats = stats.get(key(instance));
+        return instanceStats == null ? 0 : instanceStats.cost(nanoClock.getAsLong());
+    }
+
+    /** Counts a request sent to the instance and returns its start time for {@link #complete}. */
+    public long start(ServiceInstance instance) {
+        statsFor(instance).outstanding.incrementAndGet();
+        return nanoClock.getAsLong();
+    }
+
+    /** Records the outcome of a request {@link #start started} at {@code startNanos}, or -1 if unknown. */
+    public void complete(ServiceInstance instance, long startNanos, boolean failed) {
+        Stats instanceStats = statsFor(instance);
+        instanceStats.outstanding.decrementAndGet();
+        (failed ? instanceStats.failures : instanceStats.successes).increment();
+        if (startNanos >= 0) {
+            long now = nanoClock.getAsLong();
+            long elapsed = now - startNanos;
+            instanceStats.observe(failed ? Math.max(elapsed, failurePenaltyNanos) : elapsed, now);
+        }
+    }
+
+    /** Feeds the tracker from Spring Cloud LoadBalancer's request lifecycle (gateway routes and Feign clients). */
+    public LoadBalancerLifecycle<Object, Object, ServiceInstance> lifecycle() {
+        return new LoadBalancerLifecycle<>() {
+            @Override
+            public void onStart(Request<Object> request) {
+            }
+
+            @Override
+            public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+                if (lbResponse.hasServer()) {
+                    long startNanos = start(lbResponse.getServer());
+                    if (request.getContext() instanceof TimedRequestContext timed) {
+                        timed.setRequestStartTime(startNanos);
+                    }
+                }
+            }
+
+            @Override
+            public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+                Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+                if (completionContext.status() == CompletionContext.Status.DISCARD
+                        || lbResponse == null || !lbResponse.hasServer()) {
+                    return;
+                }
+                Request<Object> request = completionContext.getLoadBalancerRequest();
+                long startNanos = request != null && request.getContext() instanceof TimedRequestContext timed
+                    ? timed.getRequestStartTime()
+                    : -1;
+                boolean failed = completionContext.status() == CompletionContext.Status.FAILED
+                    || (completionContext.getClientResponse() instanceof ResponseData response
+                        && response.getHttpStatus() != null && response.getHttpStatus().is5xxServerError());
+                complete(lbResponse.getServer(), startNanos, failed);
+            }
+        };
+    }
+
+    private Stats statsFor(ServiceInstance instance) {
+        return stats.computeIfAbsent(key(instance), key -> new Stats(instance));
+    }
+
+    private static String key(ServiceInstance instance) {
+        String id = instance.getInstanceId() != null ? instance.getInstanceId() : instance.getHost() + ":" + instance.getPort();
+        return instance.getServiceId() + "/" + id;
+    }
+
+    private final class Stats {
+
+        final AtomicInteger outstanding = new AtomicInteger();
+        final Counter successes;
+        final Counter failures;
+        // Guarded by this
+        private double ewmaNanos;
+        private long stampNanos = -1;
+
+        Stats(ServiceInstance instance) {
+            String service = String.valueOf(instance.getServiceId());
+            String id = key(instance).substring(service.length() + 1);
+            Gauge.builder("loadbalancer.instance.outstanding", outstanding, AtomicInteger::get)
+                .description("Requests in flight to the instance")
+                .tags("service", service, "instance", id)
+                .register(meterRegistry);
+            TimeGauge.builder("loadbalancer.instance.latency", this, TimeUnit.NANOSECONDS,
+                    stats -> stats.latency(nanoClock.getAsLong()))
+                .description("Decayed peak-EWMA response time of the instance")
+                .tags("service", service, "instance", id)
+                .register(meterRegistry);
+            this.successes = requests(service, id, "success");
+            this.failures = requests(service, id, "failure");
+        }
+
+        private Counter requests(String service, String id, String outcome) {
+            return Counter.builder("loadbalancer.instance.requests")
+                .description("Requests completed by the instance")
+                .tags("service", service, "instance", id, "outcome", outcome)
+                .register(meterRegistry);
+        }
+
+        synchronized void observe(long sampleNanos, long now) {
+            double weight = weight(now);
+            double decayed = ewmaNanos * weight;
+            ewmaNanos = sampleNanos > decayed ? sampleNanos : decayed + sampleNanos * (1 - weight);
+            stampNanos = now;
+        }
+
+        synchronized double latency(long now) {
+            return ewmaNanos * weight(now);
+        }
+
+        // Share of the average that survives since the last response
+        private double weight(long now) {
+            return stampNanos < 0 ? 0 : Math.exp(-Math.max(0, now - stampNanos) / decayNanos);
+        }
+
+        double cost(long now) {
+            int inFlight = outstanding.get();
+            double latency = latency(now);
+            if (latency == 0) {
+                return inFlight == 0 ? 0 : UNKNOWN_LATENCY_PENALTY + inFlight;
+            }
+            return latency * (inFlight + 1);
+        }
+    }
+}
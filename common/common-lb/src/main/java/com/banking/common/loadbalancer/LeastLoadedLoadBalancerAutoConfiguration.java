@@ -0,0 +1,28 @@
+package com.banking.common.loadbalancer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Duration;
+
+/**
+ * Sends gateway routes ({@code lb://} URIs) and Feign calls through {@link LeastLoadedLoadBalancer}
+ * instead of round-robin, in every application that has this module on its classpath. Set
+ * {@code loadbalancer.least-loaded.enabled=false} to go back to round-robin.
+ */
+@AutoConfiguration
+@ConditionalOnProperty(prefix = "loadbalancer.least-loaded", name = "enabled", havingValue = "true", matchIfMissing = true)
+@LoadBalancerClients(defaultConfiguration = LeastLoadedLoadBalancerConfiguration.class)
+public class LeastLoadedLoadBalancerAutoConfiguration {
+
+    @Bean
+    public InstanceLoadTracker instanceLoadTracker(MeterRegistry meterRegistry,
+                                                   @Value("${loadbalancer.least-loaded.decay:PT10S}") Duration decay,
+                                                   @Value("${loadbalancer.least-loaded.failure-penalty:PT1S}") Duration failurePenalty) {
+        return new InstanceLoadTracker(meterRegistry, decay, failurePenalty, System::nanoTime);
+    }
+}
@@ -0,0 +1,30 @@
+package com.banking.common.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Load balancer client configuration applied to every service (see {@link LeastLoadedLoadBalancerAutoConfiguration}).
+ * Not a {@code @Configuration}: it is loaded into each service's own load balancer context.
+ */
+public class LeastLoadedLoadBalancerConfiguration {
+
+    @Bean
+    ReactorLoadBalancer<ServiceInstance> leastLoadedLoadBalancer(Environment environment,
+                                                                 LoadBalancerClientFactory loadBalancerClientFactory,
+                                                                 InstanceLoadTracker instanceLoadTracker) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new LeastLoadedLoadBalancer(serviceId,
+            loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class), instanceLoadTracker);
+    }
+
+    @Bean
+    LoadBalancerLifecycle<Object, Object, ServiceInstance> instanceLoadLifecycle(InstanceLoadTracker instanceLoadTracker) {
+        return instanceLoadTracker.lifecycle();
+    }
+}
@@ -0,0 +1,130 @@
+package com.banking.common.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Simulates traffic in virtual time against stub instances with fixed (jittered) response times,
+ * and compares the least-loaded choice with round-robin.
+ */
+class LeastLoadedLoadBalancerTests {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int REQUESTS = 20_000;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong();
+    private final InstanceLoadTracker tracker =
+        new InstanceLoadTracker(meterRegistry, Duration.ofSeconds(10), Duration.ofSeconds(1), now::get);
+    private final LeastLoadedLoadBalancer loadBalancer = new LeastLoadedLoadBalancer("payment-service", null, tracker);
+
+    private final ServiceInstance fast1 = instance("payment-service:8085");
+    private final ServiceInstance fast2 = instance("payment-service:8185");
+    private final ServiceInstance slow = instance("payment-service:8285");
+    private final List<ServiceInstance> instances = List.of(fast1, fast2, slow);
+
+    @Test
+    @DisplayName("a slow instance gets almost no traffic, so p99 stays at the fast instances' latency")
+    void choose_avoidsSlowInstance() {
+        Map<ServiceInstance, Long> latency = Map.of(fast1, 10 * MILLIS, fast2, 10 * MILLIS, slow, 100 * MILLIS);
+
+        Result leastLoaded = simulate(latency, Map.of(), true);
+        Result roundRobin = simulate(latency, Map.of(), false);
+
+        assertTrue(leastLoaded.share(slow) < 0.01, "slow share " + leastLoaded.share(slow));
+        assertTrue(leastLoaded.p99() < 15 * MILLIS, "least-loaded p99 " + leastLoaded.p99());
+        assertTrue(roundRobin.p99() > 80 * MILLIS, "round-robin p99 " + roundRobin.p99());
+    }
+
+    @Test
+    @DisplayName("instances with the same latency share the traffic evenly")
+    void choose_balancesEqualInstances() {
+        Result result = simulate(Map.of(fast1, 10 * MILLIS, fast2, 10 * MILLIS, slow, 10 * MILLIS), Map.of(), true);
+
+        for (ServiceInstance instance : instances) {
+            assertEquals(1.0 / 3, result.share(instance), 0.05);
+        }
+    }
+
+    @Test
+    @DisplayName("an instance that fails fast does not attract traffic")
+    void choose_avoidsFailingInstance() {
+        Result result = simulate(Map.of(fast1, 10 * MILLIS, fast2, 10 * MILLIS, slow, MILLIS),
+            Map.of(slow, true), true);
+
+        assertTrue(result.share(slow) < 0.01, "failing share " + result.share(slow));
+    }
+
+    @Test
+    @DisplayName("per-instance load is published as metrics")
+    void tracker_publishesMetrics() {
+        long start = tracker.start(fast1);
+        tracker.start(fast1);
+        now.addAndGet(20 * MILLIS);
+        tracker.complete(fast1, start, false);
+
+        assertEquals(1, meterRegistry.get("loadbalancer.instance.outstanding")
+            .tags("service", "payment-service", "instance", "payment-service:8085").gauge().value());
+        assertEquals(20, meterRegistry.get("loadbalancer.instance.latency")
+            .tags("instance", "payment-service:8085").timeGauge().value(TimeUnit.MILLISECONDS), 0.001);
+        assertEquals(1, meterRegistry.get("loadbalancer.instance.requests")
+            .tags("instance", "payment-service:8085", "outcome", "success").counter().count());
+    }
+
+    /** One request per millisecond; each completes after its instance's latency, +/-20%. */
+    private Result simulate(Map<ServiceInstance, Long> latency, Map<ServiceInstance, Boolean> failing,
+                            boolean leastLoaded) {
+        Random random = new Random(42);
+        PriorityQueue<long[]> inFlight = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        Map<ServiceInstance, Integer> chosen = new HashMap<>();
+        long[] latencies = new long[REQUESTS];
+        long origin = now.get();
+        for (int i = 0; i < REQUESTS; i++) {
+            long arrival = origin + i * MILLIS;
+            while (!inFlight.isEmpty() && inFlight.peek()[0] <= arrival) {
+                long[] done = inFlight.poll();
+                now.set(done[0]);
+                ServiceInstance instance = instances.get((int) done[1]);
+                tracker.complete(instance, done[2], failing.getOrDefault(instance, false));
+            }
+            now.set(arrival);
+            ServiceInstance instance = leastLoaded
+                ? loadBalancer.choose(instances, random)
+                : instances.get(i % instances.size());
+            chosen.merge(instance, 1, Integer::sum);
+            long start = tracker.start(instance);
+            long elapsed = (long) (latency.get(instance) * (0.8 + 0.4 * random.nextDouble()));
+            latencies[i] = elapsed;
+            inFlight.add(new long[] {start + elapsed, instances.indexOf(instance), start});
+        }
+        Arrays.sort(latencies);
+        return new Result(chosen, latencies[(int) (REQUESTS * 0.99)]);
+    }
+
+    private record Result(Map<ServiceInstance, Integer> chosen, long p99) {
+
+        double share(ServiceInstance instance) {
+            return chosen.getOrDefault(instance, 0) / (double) REQUESTS;
+        }
+    }
+
+    private static ServiceInstance instance(String id) {
+        int port = Integer.parseInt(id.substring(id.indexOf(':') + 1));
+        return new DefaultServiceInstance(id, "payment-service", "localhost", port, false);
+    }
+}
@@ -0,0 +1,37 @@
+package com.banking.common.outbox;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Embedded append-only log for tests and local runs ({@code outbox.sink=in-memory}). Keeps every
+ * delivered event in arrival order; {@link #failOn} makes the next delivery of a given event
+ * throw, to exercise retries.
+ */
+public class InMemoryOutboxEventSink implements OutboxEventSink {
+
+    private final List<OutboxEvent> log = new ArrayList<>();
+    private final List<Long> failOnce = new ArrayList<>();
+
+    @Override
+    public synchronized void publish(OutboxEvent event) {
+        if (failOnce.remove(event.getId())) {
+            throw new IllegalStateException("Simulated delivery failure for event " + event.getId());
+        }
+        log.add(event);
+    }
+
+    public synchronized List<OutboxEvent> events() {
+        return List.copyOf(log);
+    }
+
+    public synchronized void failOn(Long eventId) {
+        failOnce.add(eventId);
+    }
+
+    public synchronized void clear() {
+        log.clear();
+        failOnce.clear();
+    }
+}
@@ -0,0 +1,18 @@
+package com.banking.common.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Default sink until a broker is wired in: logs each event's id and type. Payloads can carry
+ * account and personal data, so they are only written at DEBUG.
+ */
+@Slf4j
+public class LoggingOutboxEventSink implements OutboxEventSink {
+
+    @Override
+    public void publish(OutboxEvent event) {
+        log.info("outbox event {} {} {}#{}", event.getId(), event.getEventType(),
+            event.getAggregateType(), event.getAggregateId());
+        log.debug("outbox event {} payload {}", event.getId(), event.getPayload());
+    }
+}
@@ -0,0 +1,60 @@
+package com.banking.common.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+/**
+ * Provides the {@link OutboxService}, the {@link OutboxRelay} and the sink chosen by
+ * {@code outbox.sink} ({@code log} or {@code in-memory}) to every application with this module on
+ * its classpath. The relay runs on the application's scheduler, so the application must enable
+ * scheduling.
+ */
+@AutoConfiguration(after = {OutboxJpaAutoConfiguration.class, HibernateJpaAutoConfiguration.class, JacksonAutoConfiguration.class,
+    TransactionAutoConfiguration.class})
+public class OutboxAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public OutboxService outboxService(OutboxEventRepository outboxEventRepository, JdbcTemplate jdbcTemplate,
+                                       ObjectMapper objectMapper) {
+        return new OutboxService(outboxEventRepository, jdbcTemplate, objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public OutboxRelay outboxRelay(OutboxEventRepository outboxEventRepository,
+                                   OutboxEventSink sink,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${outbox.relay.batch-size:200}") int batchSize,
+                                   @Value("${outbox.retention:P7D}") Duration retention,
+                                   @Value("${outbox.relay.max-attempts:20}") int maxAttempts,
+                                   MeterRegistry meterRegistry) {
+        return new OutboxRelay(outboxEventRepository, sink, transactionTemplate, batchSize, retention, maxAttempts, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(OutboxEventSink.class)
+    @ConditionalOnProperty(name = "outbox.sink", havingValue = "log", matchIfMissing = true)
+    public OutboxEventSink loggingOutboxEventSink() {
+        return new LoggingOutboxEventSink();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(OutboxEventSink.class)
+    @ConditionalOnProperty(name = "outbox.sink", havingValue = "in-memory")
+    public OutboxEventSink inMemoryOutboxEventSink() {
+        return new InMemoryOutboxEventSink();
+    }
+}
@@ -0,0 +1,68 @@
+package com.banking.common.outbox;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * A domain event waiting to leave the service. Rows are written in the same transaction as the
+ * change they describe, so an event exists if and only if the change was committed; the relay
+ * publishes them afterwards and stamps {@code publishedAt}. An event that still fails after
+ * {@code outbox.relay.max-attempts} is stamped {@code parkedAt} instead and left for an operator.
+ */
+@Entity
+@Table(
+    name = "outbox_events",
+    indexes = {
+        @Index(name = "idx_outbox_unpublished", columnList = "published_at, parked_at, id"),
+        @Index(name = "idx_outbox_aggregate", columnList = "aggregateType, aggregateId, published_at")
+    }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    // Identity keeps one insert per event on the request path without borrowing a second connection
+    // for an id block; bulk appends bypass Hibernate and go out as a single JDBC batch instead.
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String aggregateType; // e.g. Payment
+
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    @Column(nullable = false, length = 64)
+    private String eventType; // e.g. PaymentStatusChanged
+
+    @Lob
+    @Column(nullable = false)
+    private String payload; // JSON
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    private int attempts;
+
+    @Column(length = 500)
+    private String lastError;
+
+    // Dead letter: delivery gave up, the relay skips it until parked_at is cleared again
+    @Column(name = "parked_at")
+    private LocalDateTime parkedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,28 @@
+package com.banking.common.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // SKIP LOCKED lets concurrent relays claim disjoint batches instead of queueing behind each
+    // other's row locks. Native because Hibernate does not render it for every dialect.
+    @Query(value = "SELECT * FROM outbox_events WHERE published_at IS NULL AND parked_at IS NULL ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<OutboxEvent> claimUnpublished(@Param("limit") int limit);
+
+    @Query("SELECT e.aggregateType, e.aggregateId, MIN(e.id) FROM OutboxEvent e " +
+           "WHERE e.publishedAt IS NULL AND e.parkedAt IS NULL AND e.aggregateId IN :aggregateIds " +
+           "GROUP BY e.aggregateType, e.aggregateId")
+    List<Object[]> findOldestUnpublished(@Param("aggregateIds") Collection<Long> aggregateIds);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
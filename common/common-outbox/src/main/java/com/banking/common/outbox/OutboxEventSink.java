@@ -0,0 +1,13 @@
+package com.banking.common.outbox;
+
+
+/**
+ * Where the outbox relay delivers events. Delivery is at-least-once: an event can be handed over
+ * again if the relay fails before recording it as published, so consumers must de-duplicate on
+ * the event id. Events of one aggregate are always delivered in the order they were written.
+ */
+public interface OutboxEventSink {
+
+    /** Delivers one event; throwing leaves it in the outbox to be retried. */
+    void publish(OutboxEvent event);
+}
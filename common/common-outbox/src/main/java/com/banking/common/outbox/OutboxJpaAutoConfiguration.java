@@ -0,0 +1,16 @@
+package com.banking.common.outbox;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+
+/**
+ * Adds {@link OutboxEvent} and its repository to the application's entity and repository scan.
+ * Also imported by {@code @DataJpaTest}, so the outbox table exists in the services' repository
+ * tests.
+ */
+@AutoConfiguration(before = {HibernateJpaAutoConfiguration.class, JpaRepositoriesAutoConfiguration.class})
+@AutoConfigurationPackage(basePackageClasses = OutboxEvent.class)
+public class OutboxJpaAutoConfiguration {
+}
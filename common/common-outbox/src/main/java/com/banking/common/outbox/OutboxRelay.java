@@ -0,0 +1,136 @@
+package com.banking.common.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the outbox off the request path. Each batch is claimed with SKIP LOCKED inside its own
+ * transaction, handed to the sink and stamped as published when that transaction commits; a crash
+ * in between means the batch is delivered again (at-least-once).
+ * <p>
+ * Per-aggregate order is kept even with several relays running: an event is held back while an
+ * older unpublished event of the same aggregate is outside this batch (claimed by another relay)
+ * or failed earlier in this batch.
+ * <p>
+ * After {@code outbox.relay.max-attempts} failed deliveries an event is parked: it is no longer
+ * claimed, no longer holds back its aggregate, and is counted in {@code outbox.events.parked}.
+ */
+@Slf4j
+public class OutboxRelay {
+
+    private static final int MAX_BATCHES_PER_RUN = 50;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxEventSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retention;
+    private final int maxAttempts;
+    private final Counter published;
+    private final Counter failed;
+    private final Counter parked;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxEventSink sink,
+                       TransactionTemplate transactionTemplate,
+                       int batchSize,
+                       Duration retention,
+                       int maxAttempts,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sink = sink;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.maxAttempts = maxAttempts;
+        this.published = Counter.builder("outbox.events.published").description("Outbox events delivered to the sink").register(meterRegistry);
+        this.failed = Counter.builder("outbox.events.failed").description("Failed outbox delivery attempts").register(meterRegistry);
+        this.parked = Counter.builder("outbox.events.parked").description("Outbox events given up on after max-attempts").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:1000}")
+    public void drain() {
+        // Keep going while batches come back full, but hand the scheduler thread back eventually
+        for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+            Integer delivered = transactionTemplate.execute(status -> relayBatch());
+            if (delivered == null || delivered < batchSize) {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.purge-interval-ms:3600000}")
+    public void purgePublished() {
+        Integer removed = transactionTemplate.execute(status ->
+            outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention)));
+        if (removed != null && removed > 0) {
+            log.info("Purged {} published outbox events", removed);
+        }
+    }
+
+    /** Publishes one claimed batch and returns how many events were delivered. */
+    int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.claimUnpublished(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Set<Long> claimed = batch.stream().map(OutboxEvent::getId).collect(Collectors.toSet());
+        Map<String, Long> oldestUnpublished = new HashMap<>();
+        List<Long> aggregateIds = batch.stream().map(OutboxEvent::getAggregateId).distinct().collect(Collectors.toList());
+        for (Object[] row : outboxEventRepository.findOldestUnpublished(aggregateIds)) {
+            oldestUnpublished.put(row[0] + "#" + row[1], ((Number) row[2]).longValue());
+        }
+
+        Set<String> held = new HashSet<>();
+        LocalDateTime now = LocalDateTime.now();
+        int delivered = 0;
+        for (OutboxEvent event : batch) {
+            String aggregate = event.getAggregateType() + "#" + event.getAggregateId();
+            Long oldest = oldestUnpublished.get(aggregate);
+            if (held.contains(aggregate) || (oldest != null && oldest < event.getId() && !claimed.contains(oldest))) {
+                held.add(aggregate);
+                continue;
+            }
+            try {
+                sink.publish(event);
+                event.setPublishedAt(now);
+                published.increment();
+                delivered++;
+            } catch (RuntimeException e) {
+                event.setAttempts(event.getAttempts() + 1);
+                event.setLastError(truncate(e.getMessage()));
+                failed.increment();
+                if (event.getAttempts() >= maxAttempts) {
+                    event.setParkedAt(now);
+                    parked.increment();
+                    log.error("Outbox event {} ({} {}) parked after {} failed attempts: {}", event.getId(), event.getEventType(),
+                        aggregate, event.getAttempts(), e.getMessage());
+                    continue;
+                }
+                held.add(aggregate);
+                log.warn("Outbox event {} ({} {}) failed delivery attempt {}: {}", event.getId(), event.getEventType(),
+                    aggregate, event.getAttempts(), e.getMessage());
+            }
+        }
+        return delivered;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+}
@@ -0,0 +1,70 @@
+package com.banking.common.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records domain events in the outbox table. Both methods join the caller's transaction and refuse
+ * to run without one: an event written outside the transaction of its change could be published
+ * for a change that was rolled back, or lost for one that was committed.
+ */
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload, created_at, attempts) " +
+        "VALUES (?, ?, ?, ?, ?, 0)";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String aggregateType, Long aggregateId, String eventType, Object payload) {
+        outboxEventRepository.save(event(aggregateType, aggregateId, eventType, payload));
+    }
+
+    /**
+     * One event per aggregate, in the map's iteration order. Written as a single JDBC batch on the
+     * transaction's connection rather than entity by entity, since identity keys rule out
+     * Hibernate's insert batching.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(String aggregateType, String eventType, Map<Long, ?> payloadsByAggregateId) {
+        if (payloadsByAggregateId.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(payloadsByAggregateId.size());
+        payloadsByAggregateId.forEach((id, payload) ->
+            rows.add(new Object[]{aggregateType, id, eventType, json(eventType, payload), now}));
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    private OutboxEvent event(String aggregateType, Long aggregateId, String eventType, Object payload) {
+        return OutboxEvent.builder()
+            .aggregateType(aggregateType)
+            .aggregateId(aggregateId)
+            .eventType(eventType)
+            .payload(json(eventType, payload))
+            .build();
+    }
+
+    private String json(String eventType, Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialise " + eventType + " payload", e);
+        }
+    }
+}
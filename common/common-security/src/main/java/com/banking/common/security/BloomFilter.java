@@ -0,0 +1,73 @@
+package com.banking.common.security;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over strings, sized at 10 bits per expected key for about 1% false positives at
+ * capacity. Inserts are lock-free, so a filter can take new keys while it is being read.
+ */
+public final class BloomFilter {
+
+    private static final int BITS_PER_KEY = 10;
+    private static final int MIN_BITS = 1024;
+    private static final int HASHES = 7;
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+
+    /** An empty filter for up to {@code expectedKeys} keys; size it once, for every key it will hold. */
+    public BloomFilter(long expectedKeys) {
+        long words = (Math.max(MIN_BITS, expectedKeys * BITS_PER_KEY) + 63) >>> 6;
+        this.bits = new AtomicLongArray((int) Math.min(words, Integer.MAX_VALUE));
+        this.bitCount = (long) bits.length() << 6;
+    }
+
+    public static BloomFilter of(Collection<String> keys) {
+        BloomFilter filter = new BloomFilter(keys.size());
+        for (String key : keys) {
+            filter.put(key);
+        }
+        return filter;
+    }
+
+    public void put(String key) {
+        long hash = hash(key);
+        long h1 = hash & 0xffffffffL;
+        long h2 = (hash >>> 32) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            long value;
+            while (((value = bits.get(word)) & mask) == 0 && !bits.compareAndSet(word, value, value | mask)) {
+                // Another bit of this word changed underneath us; retry
+            }
+        }
+    }
+
+    public boolean mightContain(String key) {
+        long hash = hash(key);
+        long h1 = hash & 0xffffffffL;
+        long h2 = (hash >>> 32) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 64-bit FNV-1a, finished with a MurmurHash3 mix so both halves are usable as hashes
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        return hash ^ (hash >>> 33);
+    }
+}
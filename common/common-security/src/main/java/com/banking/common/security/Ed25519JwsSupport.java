@@ -0,0 +1,122 @@
+package com.banking.common.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.factories.DefaultJWSVerifierFactory;
+import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSKeySelector;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.JWSVerifierFactory;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.Base64URL;
+
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * EdDSA (Ed25519) token verification with the JDK's own Ed25519 provider. Nimbus's key selector
+ * skips OKP keys and its verifier needs Tink, so EdDSA keys are selected and checked here while
+ * RS256 and ES256 go through Nimbus's defaults.
+ */
+public final class Ed25519JwsSupport {
+
+    // X.509 SubjectPublicKeyInfo header of an Ed25519 key, followed by the 32-byte key itself
+    private static final byte[] X509_PREFIX = HexFormat.of().parseHex("302a300506032b6570032100");
+
+    private Ed25519JwsSupport() {
+    }
+
+    public static JWSKeySelector<SecurityContext> keySelector(Set<JWSAlgorithm> algorithms,
+                                                              JWKSource<SecurityContext> jwkSource) {
+        JWSVerificationKeySelector<SecurityContext> defaults = new JWSVerificationKeySelector<>(algorithms, jwkSource);
+        return (header, context) -> {
+            if (!JWSAlgorithm.EdDSA.equals(header.getAlgorithm())) {
+                return defaults.selectJWSKeys(header, context);
+            }
+            List<Key> keys = new ArrayList<>();
+            if (algorithms.contains(JWSAlgorithm.EdDSA)) {
+                for (JWK jwk : jwkSource.get(new JWKSelector(JWKMatcher.forJWSHeader(header)), context)) {
+                    if (jwk instanceof OctetKeyPair okp && Curve.Ed25519.equals(okp.getCurve())) {
+                        keys.add(publicKey(okp.getX()));
+                    }
+                }
+            }
+            return keys;
+        };
+    }
+
+    public static JWSVerifierFactory verifierFactory() {
+        return new DefaultJWSVerifierFactory() {
+            @Override
+            public JWSVerifier createJWSVerifier(JWSHeader header, Key key) throws JOSEException {
+                if (JWSAlgorithm.EdDSA.equals(header.getAlgorithm()) && key instanceof PublicKey publicKey) {
+                    return new Verifier(publicKey);
+                }
+                return super.createJWSVerifier(header, key);
+            }
+        };
+    }
+
+    private static PublicKey publicKey(Base64URL x) {
+        byte[] raw = x.decode();
+        byte[] encoded = new byte[X509_PREFIX.length + raw.length];
+        System.arraycopy(X509_PREFIX, 0, encoded, 0, X509_PREFIX.length);
+        System.arraycopy(raw, 0, encoded, X509_PREFIX.length, raw.length);
+        try {
+            return KeyFactory.getInstance("Ed25519").generatePublic(new X509EncodedKeySpec(encoded));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Invalid Ed25519 key", e);
+        }
+    }
+
+    private static final class Verifier implements JWSVerifier {
+
+        private final PublicKey publicKey;
+        private final JCAContext jcaContext = new JCAContext();
+
+        Verifier(PublicKey publicKey) {
+            this.publicKey = publicKey;
+        }
+
+        @Override
+        public boolean verify(JWSHeader header, byte[] signingInput, Base64URL signature) throws JOSEException {
+            try {
+                Signature verifier = Signature.getInstance("Ed25519");
+                verifier.initVerify(publicKey);
+                verifier.update(signingInput);
+                return verifier.verify(signature.decode());
+            } catch (SignatureException e) {
+                return false;
+            } catch (GeneralSecurityException e) {
+                throw new JOSEException("Ed25519 verification failed: " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+            return Set.of(JWSAlgorithm.EdDSA);
+        }
+
+        @Override
+        public JCAContext getJCAContext() {
+            return jcaContext;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.banking.common.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Compact identity header the api-gateway adds once it has verified a request's access token, so
+ * the services behind it can authenticate the request without checking the token's signature
+ * again. The value is {@code base64url(claims).base64url(HMAC-SHA256(claims))} under a secret the
+ * gateway shares with the services ({@code gateway.identity.secret}). The claims include a digest
+ * of the token, so the header is only accepted next to the token it was issued for. A blank secret
+ * turns the header off; there is no built-in default, since anyone holding the secret can forge an
+ * identity. A secret shorter than {@value #MIN_SECRET_BYTES} bytes is refused at startup.
+ */
+public final class GatewayIdentity {
+
+    public static final String HEADER = "X-Auth-Identity";
+    public static final int MIN_SECRET_BYTES = 32;
+    /** Role of a call a service makes on its own behalf, see {@link #serviceHeaders}. */
+    public static final String SERVICE_ROLE = "SERVICE";
+
+    private static final String VERSION = "v1";
+    private static final Duration SERVICE_TOKEN_TTL = Duration.ofMinutes(1);
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /** The token claims carried by the header. */
+    public record Claims(String jti, String subject, Long userId, String role, Instant issuedAt, Instant expiresAt) {
+    }
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+
+    public GatewayIdentity(String secret) {
+        if (secret == null || secret.isBlank()) {
+            this.key = null;
+        } else {
+            byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length < MIN_SECRET_BYTES) {
+                throw new IllegalStateException(
+                    "gateway.identity.secret must be at least " + MIN_SECRET_BYTES + " bytes, or blank to turn it off");
+            }
+            this.key = new SecretKeySpec(bytes, "HmacSHA256");
+        }
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public boolean isEnabled() {
+        return key != null;
+    }
+
+    public String sign(String token, Claims claims) {
+        byte[] payload = String.join("\n",
+            VERSION,
+            tokenDigest(token),
+            nullToEmpty(claims.jti()),
+            claims.userId() == null ? "" : claims.userId().toString(),
+            nullToEmpty(claims.role()),
+            claims.issuedAt() == null ? "" : Long.toString(claims.issuedAt().getEpochSecond()),
+            Long.toString(claims.expiresAt().getEpochSecond()),
+            nullToEmpty(claims.subject())
+        ).getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(macs.get().doFinal(payload));
+    }
+
+    /**
+     * Authorization and identity headers for a call a service makes on its own behalf, with no
+     * user's token to forward (scheduled jobs). The bearer value is a random one-off token that only
+     * the signed header vouches for; the claims carry {@value #SERVICE_ROLE} as the role and the
+     * service's name as the subject, and expire after a minute. Empty when the header is turned
+     * off, in which case such calls go out unauthenticated and are refused.
+     */
+    public Map<String, String> serviceHeaders(String serviceName) {
+        if (key == null) {
+            return Map.of();
+        }
+        byte[] nonce = new byte[32];
+        RANDOM.nextBytes(nonce);
+        String token = "service." + ENCODER.encodeToString(nonce);
+        Instant now = Instant.now();
+        String identity = sign(token, new Claims(UUID.randomUUID().toString(), serviceName, null, SERVICE_ROLE,
+            now, now.plus(SERVICE_TOKEN_TTL)));
+        return Map.of("Authorization", "Bearer " + token, HEADER, identity);
+    }
+
+    /**
+     * The claims of a header signed for this token, or empty if the header is malformed, forged,
+     * issued for another token or expired.
+     */
+    public Optional<Claims> verify(String header, String token, Instant now) {
+        if (key == null || header == null || token == null) {
+            return Optional.empty();
+        }
+        int dot = header.indexOf('.');
+        if (dot < 0) {
+            return Optional.empty();
+        }
+        try {
+            byte[] payload = DECODER.decode(header.substring(0, dot));
+            byte[] signature = DECODER.decode(header.substring(dot + 1));
+            if (!MessageDigest.isEqual(macs.get().doFinal(payload), signature)) {
+                return Optional.empty();
+            }
+            // The subject is last and may itself contain the separator
+            String[] fields = new String(payload, StandardCharsets.UTF_8).split("\n", 8);
+            if (fields.length != 8 || !VERSION.equals(fields[0]) || !tokenDigest(token).equals(fields[1])) {
+                return Optional.empty();
+            }
+            Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(fields[6]));
+            if (!expiresAt.isAfter(now)) {
+                return Optional.empty();
+            }
+            return Optional.of(new Claims(
+                emptyToNull(fields[2]),
+                emptyToNull(fields[7]),
+                fields[3].isEmpty() ? null : Long.valueOf(fields[3]),
+                emptyToNull(fields[4]),
+                fields[5].isEmpty() ? null : Instant.ofEpochSecond(Long.parseLong(fields[5])),
+                expiresAt));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    // 128 bits of the token's SHA-256 digest
+    private static String tokenDigest(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return ENCODER.encodeToString(Arrays.copyOf(digest, 16));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
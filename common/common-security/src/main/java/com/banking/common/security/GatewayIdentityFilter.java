@@ -0,0 +1,89 @@
+package com.banking.common.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Authenticates requests the api-gateway has already verified from its signed
+ * {@link GatewayIdentity#HEADER}, skipping the token's signature check. The principal is the same
+ * {@link Jwt} a full verification would give. Requests without a valid header, or whose token is on
+ * the revocation list, fall through to the bearer token filter and are verified as before.
+ */
+public class GatewayIdentityFilter extends OncePerRequestFilter {
+
+    private static final String AUTHENTICATED = GatewayIdentityFilter.class.getName() + ".AUTHENTICATED";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final GatewayIdentity gatewayIdentity;
+    private final TokenRevocationList tokenRevocationList;
+    private final JwtAuthenticationConverter authenticationConverter = new JwtAuthenticationConverter();
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
+    private final BearerTokenResolver bearerTokenResolver = new DefaultBearerTokenResolver();
+
+    public GatewayIdentityFilter(GatewayIdentity gatewayIdentity, TokenRevocationList tokenRevocationList) {
+        this.gatewayIdentity = gatewayIdentity;
+        this.tokenRevocationList = tokenRevocationList;
+    }
+
+    /** The bearer token to verify, or null once the request has been authenticated here. */
+    public String resolveBearerToken(HttpServletRequest request) {
+        return request.getAttribute(AUTHENTICATED) != null ? null : bearerTokenResolver.resolve(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(GatewayIdentity.HEADER);
+        String authorization = request.getHeader("Authorization");
+        if (header != null && authorization != null && authorization.startsWith(BEARER_PREFIX)) {
+            String token = authorization.substring(BEARER_PREFIX.length());
+            Optional<GatewayIdentity.Claims> claims = gatewayIdentity.verify(header, token, Instant.now());
+            if (claims.isPresent() && !tokenRevocationList.isRevoked(claims.get().jti())) {
+                AbstractAuthenticationToken authentication = authenticationConverter.convert(toJwt(token, claims.get()));
+                authentication.setDetails(detailsSource.buildDetails(request));
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(authentication);
+                SecurityContextHolder.setContext(context);
+                request.setAttribute(AUTHENTICATED, Boolean.TRUE);
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static Jwt toJwt(String token, GatewayIdentity.Claims claims) {
+        Jwt.Builder jwt = Jwt.withTokenValue(token)
+            .header("typ", "JWT")
+            .expiresAt(claims.expiresAt());
+        if (claims.jti() != null) {
+            jwt.jti(claims.jti());
+        }
+        if (claims.subject() != null) {
+            jwt.subject(claims.subject());
+        }
+        if (claims.userId() != null) {
+            jwt.claim("userId", claims.userId());
+        }
+        if (claims.role() != null) {
+            jwt.claim("role", claims.role());
+        }
+        if (claims.issuedAt() != null) {
+            jwt.issuedAt(claims.issuedAt());
+        }
+        return jwt.build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.banking.common.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Provides the {@link TokenRevocationList} to applications that verify access tokens. Its pull
+ * runs on the application's scheduler, so the application must enable scheduling.
+ */
+@AutoConfiguration
+@ConditionalOnProperty("jwt.revocations-uri")
+public class TokenRevocationAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public TokenRevocationList tokenRevocationList(@Value("${jwt.revocations-uri}") String revocationsUri) {
+        return new TokenRevocationList(revocationsUri);
+    }
+}
@@ -0,0 +1,99 @@
+package com.banking.common.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.client.RestClient;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local copy of auth-service's access-token revocation list, checked on every request without a
+ * network call. A bloom filter answers the usual "not revoked" case in a few bit probes, and only
+ * its hits are confirmed against the exact jti set.
+ * <p>
+ * The list is pulled from {@code jwt.revocations-uri} every {@code jwt.revocations.pull-interval-ms}
+ * as the changes since the version held. A revoked token therefore keeps working here for up to one
+ * interval. If auth-service cannot be reached, the last list stays in use. Registered by
+ * {@link TokenRevocationAutoConfiguration} in every application that sets {@code jwt.revocations-uri}.
+ */
+@Slf4j
+public class TokenRevocationList implements OAuth2TokenValidator<Jwt> {
+
+    private static final OAuth2Error REVOKED =
+        new OAuth2Error(OAuth2ErrorCodes.INVALID_TOKEN, "Token has been revoked", null);
+
+    /** Response of auth-service's {@code GET /auth/revocations}. */
+    public record Changes(String epoch, long version, boolean full, List<Entry> revoked) {
+    }
+
+    public record Entry(String jti, long exp) {
+    }
+
+    // The exact set and its bloom filter are replaced together, so a reader never sees them disagree
+    private record Snapshot(String epoch, long version, Map<String, Instant> revoked, BloomFilter bloom) {
+    }
+
+    private final String revocationsUri;
+    private final RestClient restClient = RestClient.create();
+    private volatile Snapshot snapshot = new Snapshot("", 0, Map.of(), BloomFilter.of(List.of()));
+
+    public TokenRevocationList(String revocationsUri) {
+        this.revocationsUri = revocationsUri;
+    }
+
+    @Override
+    public OAuth2TokenValidatorResult validate(Jwt jwt) {
+        return isRevoked(jwt.getId())
+            ? OAuth2TokenValidatorResult.failure(REVOKED)
+            : OAuth2TokenValidatorResult.success();
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        Snapshot current = snapshot;
+        return current.bloom().mightContain(jti) && current.revoked().containsKey(jti);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocations.pull-interval-ms:5000}")
+    public void pull() {
+        Snapshot current = snapshot;
+        try {
+            Changes changes = restClient.get()
+                .uri(revocationsUri + "?epoch={epoch}&since={since}", current.epoch(), current.version())
+                .retrieve()
+                .body(Changes.class);
+            if (changes != null) {
+                apply(changes);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not pull token revocations from {}: {}", revocationsUri, e.getMessage());
+        }
+    }
+
+    /** Merge a pulled change set, dropping tokens that have expired anyway. Called from one thread. */
+    public void apply(Changes changes) {
+        Instant now = Instant.now();
+        Snapshot current = snapshot;
+        Map<String, Instant> revoked = new HashMap<>(changes.full() ? Map.of() : current.revoked());
+        boolean changed = changes.full() | revoked.values().removeIf(exp -> !exp.isAfter(now));
+        for (Entry entry : changes.revoked()) {
+            Instant exp = Instant.ofEpochSecond(entry.exp());
+            if (exp.isAfter(now)) {
+                revoked.put(entry.jti(), exp);
+                changed = true;
+            }
+        }
+        BloomFilter bloom = changed ? BloomFilter.of(revoked.keySet()) : current.bloom();
+        snapshot = new Snapshot(changes.epoch(), changes.version(), Map.copyOf(revoked), bloom);
+    }
+}
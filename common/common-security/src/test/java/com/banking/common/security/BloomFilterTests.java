@@ -0,0 +1,40 @@
+package com.banking.common.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTests {
+
+    @Test
+    @DisplayName("the filter never misses a member and keeps false positives near 1% at capacity")
+    void mightContain_falsePositiveRate() {
+        List<String> members = Stream.generate(() -> UUID.randomUUID().toString()).limit(20_000).toList();
+        BloomFilter bloom = BloomFilter.of(members);
+        members.forEach(key -> assertTrue(bloom.mightContain(key)));
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (bloom.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, falsePositives + " false positives in 100000");
+    }
+
+    @Test
+    @DisplayName("keys put from many threads at once are all kept")
+    void put_concurrently() {
+        BloomFilter bloom = new BloomFilter(50_000);
+
+        IntStream.range(0, 50_000).parallel().forEach(i -> bloom.put("user-" + i));
+
+        IntStream.range(0, 50_000).forEach(i -> assertTrue(bloom.mightContain("user-" + i)));
+    }
+}
@@ -0,0 +1,115 @@
+package com.banking.common.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GatewayIdentityFilterTests {
+
+    private static final String TOKEN = "header.payload.signature";
+    private static final String SECRET = "test-secret-of-at-least-thirty-two-bytes";
+
+    private final GatewayIdentity gatewayIdentity = new GatewayIdentity(SECRET);
+    private final TokenRevocationList revocations = new TokenRevocationList("http://127.0.0.1:1/auth/revocations");
+    private final GatewayIdentityFilter filter = new GatewayIdentityFilter(gatewayIdentity, revocations);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("a signed header authenticates the request with the token's claims and skips bearer verification")
+    void doFilter_trustsSignedHeader() throws Exception {
+        MockHttpServletRequest request = request(gatewayIdentity.sign(TOKEN, claims("jti-1")));
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Jwt jwt = (Jwt) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        assertEquals(TOKEN, jwt.getTokenValue());
+        assertEquals(7L, (Long) jwt.getClaim("userId"));
+        assertEquals("alice", jwt.getSubject());
+        assertEquals("CUSTOMER", jwt.getClaimAsString("role"));
+        assertNull(filter.resolveBearerToken(request));
+    }
+
+    @Test
+    @DisplayName("forged, foreign-token and revoked headers fall through to bearer verification")
+    void doFilter_fallsThrough() throws Exception {
+        revocations.apply(new TokenRevocationList.Changes("e1", 1, true,
+            List.of(new TokenRevocationList.Entry("jti-3", Instant.now().plusSeconds(300).getEpochSecond()))));
+        String signed = gatewayIdentity.sign(TOKEN, claims("jti-2"));
+        List<MockHttpServletRequest> requests = List.of(
+            request(new GatewayIdentity(SECRET.replace('t', 'x')).sign(TOKEN, claims("jti-2"))),
+            request(gatewayIdentity.sign("another.token.value", claims("jti-2"))),
+            request(signed.substring(0, signed.indexOf('.')) + ".AAAA"),
+            request(gatewayIdentity.sign(TOKEN, claims("jti-3"))));
+
+        for (MockHttpServletRequest request : requests) {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            assertNull(SecurityContextHolder.getContext().getAuthentication());
+            assertEquals(TOKEN, filter.resolveBearerToken(request));
+        }
+    }
+
+    @Test
+    @DisplayName("an expired header is refused")
+    void verify_refusesExpired() {
+        String header = gatewayIdentity.sign(TOKEN, claims("jti-4"));
+        assertTrue(gatewayIdentity.verify(header, TOKEN, Instant.now()).isPresent());
+        assertTrue(gatewayIdentity.verify(header, TOKEN, Instant.now().plusSeconds(600)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("without a secret the header is ignored, and a short secret is refused")
+    void gatewayIdentity_requiresStrongSecret() throws Exception {
+        GatewayIdentityFilter disabled = new GatewayIdentityFilter(new GatewayIdentity(""), revocations);
+        MockHttpServletRequest request = request(gatewayIdentity.sign(TOKEN, claims("jti-5")));
+
+        disabled.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(TOKEN, disabled.resolveBearerToken(request));
+        assertThrows(IllegalStateException.class, () -> new GatewayIdentity("dev-only-gateway-identity-secret"));
+    }
+
+    @Test
+    @DisplayName("service headers authenticate a call as the service, and only with a secret")
+    void serviceHeaders_authenticateAsService() throws Exception {
+        Map<String, String> headers = gatewayIdentity.serviceHeaders("payment-service");
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/accounts/transfers/batch");
+        headers.forEach(request::addHeader);
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Jwt jwt = (Jwt) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        assertEquals("payment-service", jwt.getSubject());
+        assertEquals(GatewayIdentity.SERVICE_ROLE, jwt.getClaimAsString("role"));
+        assertNull(jwt.getClaim("userId"));
+        assertNotEquals(headers.get("Authorization"), gatewayIdentity.serviceHeaders("payment-service").get("Authorization"));
+        assertTrue(new GatewayIdentity("").serviceHeaders("payment-service").isEmpty());
+    }
+
+    private static GatewayIdentity.Claims claims(String jti) {
+        Instant now = Instant.now();
+        return new GatewayIdentity.Claims(jti, "alice", 7L, "CUSTOMER", now, now.plusSeconds(300));
+    }
+
+    private static MockHttpServletRequest request(String identity) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/accounts/1");
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+        request.addHeader(GatewayIdentity.HEADER, identity);
+        return request;
+    }
+}
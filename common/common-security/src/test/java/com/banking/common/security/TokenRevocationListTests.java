@@ -0,0 +1,36 @@
+package com.banking.common.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenRevocationListTests {
+
+    private final TokenRevocationList revocations = new TokenRevocationList("http://127.0.0.1:1/auth/revocations");
+
+    @Test
+    @DisplayName("deltas add to the list, a full snapshot replaces it and expired entries are dropped")
+    void apply_deltasAndSnapshots() {
+        long live = Instant.now().plusSeconds(300).getEpochSecond();
+        long expired = Instant.now().minusSeconds(1).getEpochSecond();
+
+        revocations.apply(new TokenRevocationList.Changes("e1", 1, true, List.of(entry("a", live))));
+        revocations.apply(new TokenRevocationList.Changes("e1", 3, false, List.of(entry("b", live), entry("c", expired))));
+        assertTrue(revocations.isRevoked("a"));
+        assertTrue(revocations.isRevoked("b"));
+        assertFalse(revocations.isRevoked("c"));
+        assertFalse(revocations.isRevoked(null));
+
+        revocations.apply(new TokenRevocationList.Changes("e2", 1, true, List.of(entry("b", live))));
+        assertFalse(revocations.isRevoked("a"));
+        assertTrue(revocations.isRevoked("b"));
+    }
+
+    private static TokenRevocationList.Entry entry(String jti, long exp) {
+        return new TokenRevocationList.Entry(jti, exp);
+    }
+}
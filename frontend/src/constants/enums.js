@@ -189,13 +189,15 @@ export const PaymentTypeOptions = [
 
 export const PaymentStatus = {
   PENDING: 'PENDING',
+  PROCESSING: 'PROCESSING',
   COMPLETED: 'COMPLETED',
   FAILED: 'FAILED',
   REJECTED: 'REJECTED'
 };
 
 export const PaymentStatusOptions = [
-  { value: PaymentStatus.PENDING, label: '⏳ Processing', variant: 'warning', icon: 'hourglass-split' },
+  { value: PaymentStatus.PENDING, label: '⏳ Pending Approval', variant: 'warning', icon: 'hourglass-split' },
+  { value: PaymentStatus.PROCESSING, label: '⏳ Processing', variant: 'warning', icon: 'hourglass-split' },
   { value: PaymentStatus.COMPLETED, label: '✅ Completed', variant: 'success', icon: 'check-circle-fill' },
   { value: PaymentStatus.FAILED, label: '❌ Failed', variant: 'danger', icon: 'exclamation-triangle' },
   { value: PaymentStatus.REJECTED, label: '🚫 Rejected', variant: 'danger', icon: 'x-circle' }
@@ -203,6 +205,7 @@ export const PaymentStatusOptions = [
 
 export const PaymentStatusVariant = {
   [PaymentStatus.PENDING]: 'warning',
+  [PaymentStatus.PROCESSING]: 'warning',
   [PaymentStatus.COMPLETED]: 'success',
   [PaymentStatus.FAILED]: 'danger',
   [PaymentStatus.REJECTED]: 'danger'
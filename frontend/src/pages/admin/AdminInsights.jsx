@@ -73,6 +73,19 @@ const sumByCurrency = (arr, amountKey = 'amount', currencyKey = 'currency') => {
   return map;
 };
 
+// Follows the keyset cursor until the last page; each request stays small on the server.
+// A page that cannot be read is a 503, which rejects the whole load rather than showing partial totals
+const fetchAllPages = async (endpoint, size = 500) => {
+  const items = [];
+  let after = null;
+  do {
+    const { data } = await api.get(endpoint, { params: { size, ...(after != null && { after }) } });
+    items.push(...(data?.items || []));
+    after = data?.nextCursor ?? null;
+  } while (after != null);
+  return items;
+};
+
 const AdminInsights = () => {
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
@@ -85,16 +98,16 @@ const AdminInsights = () => {
     setLoading(true);
     setError(null);
     try {
-      const [cRes, aRes, pRes, crRes] = await Promise.all([
-        api.get(API_ENDPOINTS.ADMIN.CUSTOMERS_ALL),
-        api.get(API_ENDPOINTS.ADMIN.ACCOUNTS_ALL),
-        api.get(API_ENDPOINTS.ADMIN.PAYMENTS_ALL),
-        api.get(API_ENDPOINTS.ADMIN.CREDITS_ALL),
+      const [allCustomers, allAccounts, allPayments, allCredits] = await Promise.all([
+        fetchAllPages(API_ENDPOINTS.ADMIN.CUSTOMERS_PAGE),
+        fetchAllPages(API_ENDPOINTS.ADMIN.ACCOUNTS_PAGE),
+        fetchAllPages(API_ENDPOINTS.ADMIN.PAYMENTS_PAGE),
+        fetchAllPages(API_ENDPOINTS.ADMIN.CREDITS_PAGE),
       ]);
-      setCustomers(cRes.data || []);
-      setAccounts(aRes.data || []);
-      setPayments(pRes.data || []);
-      setCredits(crRes.data || []);
+      setCustomers(allCustomers);
+      setAccounts(allAccounts);
+      setPayments(allPayments);
+      setCredits(allCredits);
     } catch (e) {
       setError(e?.response?.data?.message || e.message || 'Failed to load insights');
     } finally {
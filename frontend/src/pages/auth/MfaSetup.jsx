@@ -1,11 +1,31 @@
-import React from 'react';
+import React, { useEffect, useState } from 'react';
 import { useLocation, useNavigate, Link } from 'react-router-dom';
 import { Card, Button } from 'react-bootstrap';
+import { authService } from '../../services/authService';
 
 export default function MfaSetup() {
   const location = useLocation();
   const navigate = useNavigate();
-  const qr = location.state?.mfaQrCode;
+  const qrUrl = location.state?.mfaQrCodeUrl;
+  const [qr, setQr] = useState(null);
+
+  // The QR code is rendered on request, so signup returns without waiting for it
+  useEffect(() => {
+    if (!qrUrl) return undefined;
+    let objectUrl = null;
+    let cancelled = false;
+    authService.getMfaQrCode(qrUrl)
+      .then((blob) => {
+        if (cancelled) return;
+        objectUrl = URL.createObjectURL(blob);
+        setQr(objectUrl);
+      })
+      .catch(() => setQr(null));
+    return () => {
+      cancelled = true;
+      if (objectUrl) URL.revokeObjectURL(objectUrl);
+    };
+  }, [qrUrl]);
 
   const handleContinue = () => {
     navigate('/onboarding/profile');
@@ -25,7 +45,7 @@ export default function MfaSetup() {
               {qr ? (
                 <img src={qr} alt="MFA QR Code" style={{ width: 260, height: 260, borderRadius: 12, border: '1px solid var(--border)' }} />
               ) : (
-                <div className="text-center text-muted">QR code unavailable. You can proceed and set up later from your profile.</div>
+                <div className="text-center text-muted">QR code unavailable. It is only shown right after signup, until your first sign-in with a code.</div>
               )}
             </div>
 
@@ -34,8 +34,8 @@ const Register = () => {
       const { confirmPassword, ...registerData } = formData;
       const result = await register(registerData);
       // If MFA was requested and QR provided, route to setup page first
-      if (result?.mfaQrCode) {
-        navigate('/mfa-setup', { state: { mfaQrCode: result.mfaQrCode } });
+      if (result?.mfaQrCodeUrl) {
+        navigate('/mfa-setup', { state: { mfaQrCodeUrl: result.mfaQrCodeUrl } });
         return;
       }
       if (result?.success) {
@@ -226,7 +226,7 @@ const TransactionsPage = () => {
                         <td style={{ fontWeight: '600' }}>{formatCurrencyAmount(p.currency, p.amount)}</td>
                         <td>{type}</td>
                         <td>
-                          <Badge bg={p.status === 'COMPLETED' ? 'success' : p.status === 'PENDING' ? 'warning' : 'danger'}>
+                          <Badge bg={p.status === 'COMPLETED' ? 'success' : ['PENDING', 'PROCESSING'].includes(p.status) ? 'warning' : 'danger'}>
                             {p.status}
                           </Badge>
                         </td>
@@ -303,7 +303,7 @@ const TransactionsPage = () => {
               <Row className="mb-3">
                 <Col sm={5} className="fw-semibold" style={{ color: 'var(--muted)' }}>Status:</Col>
                 <Col sm={7}>
-                  <Badge bg={selectedTransaction.status === 'COMPLETED' ? 'success' : selectedTransaction.status === 'PENDING' ? 'warning' : 'danger'}>
+                  <Badge bg={selectedTransaction.status === 'COMPLETED' ? 'success' : ['PENDING', 'PROCESSING'].includes(selectedTransaction.status) ? 'warning' : 'danger'}>
                     {selectedTransaction.status}
                   </Badge>
                 </Col>
@@ -16,11 +16,12 @@ export const API_ENDPOINTS = {
     SIGNUP: '/auth/signup',                     // POST - Register new user
     SIGNIN: '/auth/signin',                     // POST - Login with username/password
     REFRESH: '/auth/refresh',                   // POST - Refresh access token
-    PUBLIC_KEY: '/auth/public-key',             // GET - Get RSA public key
+    PUBLIC_KEY: '/auth/public-key',             // GET - Deprecated, use /auth/.well-known/jwks.json
     
     // Protected Endpoints
     LOGOUT: '/auth/logout',                     // POST - Logout and invalidate token
     ME: '/auth/me',                             // GET - Get current user info
+    MFA_QR_CODE: '/auth/mfa/qr-code',           // GET - MFA enrolment QR code (PNG)
     VALIDATE: '/auth/validate',                 // POST - Validate JWT token
     
     // User Management (Protected)
@@ -129,11 +130,11 @@ export const API_ENDPOINTS = {
     PAYMENT_APPROVALS: '/admin/payments/approvals',       // GET
     PAYMENT_BULK: '/admin/payments/approvals/bulk',       // POST
 
-    // Insights - Fetch all entities (Admin)
-    CUSTOMERS_ALL: '/admin/customers/all',
-    ACCOUNTS_ALL: '/admin/accounts/all',
-    PAYMENTS_ALL: '/admin/payments/all',
-    CREDITS_ALL: '/admin/credits/all',
+    // Insights - Keyset pages of all entities (Admin): ?after=<nextCursor>&size=<n>
+    CUSTOMERS_PAGE: '/admin/customers/page',
+    ACCOUNTS_PAGE: '/admin/accounts/page',
+    PAYMENTS_PAGE: '/admin/payments/page',
+    CREDITS_PAGE: '/admin/credits/page',
   },
 };
 
@@ -25,6 +25,12 @@ export const authService = {
     return response.data;
   },
 
+  // MFA enrolment QR code as a PNG blob
+  getMfaQrCode: async (url = '/auth/mfa/qr-code') => {
+    const response = await api.get(url, { responseType: 'blob' });
+    return response.data;
+  },
+
   // Get current user
   getCurrentUser: async () => {
     const response = await api.get('/auth/me');
@@ -13,9 +13,9 @@ export const paymentService = {
     return response.data;
   },
 
-  // Get payments by user
-  getPaymentsByUserId: async (userId) => {
-    const response = await api.get(`/payments/user/${userId}`);
+  // Get payments by user, newest first; pass the last payment's id as `before` for the next page
+  getPaymentsByUserId: async (userId, before) => {
+    const response = await api.get(`/payments/user/${userId}`, { params: before ? { before } : undefined });
     return response.data;
   },
 
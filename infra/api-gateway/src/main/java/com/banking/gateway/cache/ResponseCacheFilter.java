@@ -0,0 +1,306 @@
+package com.banking.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HTTP cache for the read-mostly GET routes in {@link ResponseCacheProperties}. 200 responses are
+ * kept for the route's TTL in a Caffeine cache (W-TinyLFU eviction) bounded by total body bytes,
+ * and get a strong ETag from a digest of the body unless the service sent one. A request whose
+ * {@code If-None-Match} matches is answered with 304 and no body, from the cache or after a miss.
+ * <p>
+ * Entries are keyed by route, scope (user, role or none), Accept header, path and query. Each
+ * route has a generation that is part of the key; a mutating request matching the route's
+ * {@code invalidate-on} patterns bumps it, which orphans every entry of the route at once. A GET
+ * that was in flight during the change is stored under the old generation, so it is never served.
+ * Responses the service marks {@code no-store}, or {@code private} on a route not scoped to the
+ * user, are not kept. Cache statistics are published as {@code cache.*{cache=gateway-responses}}
+ * and 304s as {@code gateway.cache.not-modified}.
+ */
+public class ResponseCacheFilter extends OncePerRequestFilter implements Ordered {
+
+    public static final int ORDER = SecurityProperties.DEFAULT_FILTER_ORDER + 15;
+    public static final String CACHE_NAME = "gateway-responses";
+
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+    private static final Set<String> MUTATING_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    // Connection-level and per-exchange headers; CORS headers are set for each request's origin
+    private static final Set<String> UNCACHED_HEADERS = Set.of(
+        "content-length", "transfer-encoding", "connection", "keep-alive", "set-cookie", "content-type",
+        "etag", "date", CACHE_STATUS_HEADER.toLowerCase(Locale.ROOT));
+
+    record CachedResponse(String etag, String contentType, Map<String, List<String>> headers, byte[] body,
+                          long ttlNanos) {
+    }
+
+    private record Key(String route, long generation, String scope, String accept, String uri) {
+    }
+
+    private record Route(String id, PathPattern pattern, long ttlNanos, ResponseCacheProperties.Scope scope,
+                         List<PathPattern> invalidateOn, AtomicLong generation) {
+    }
+
+    private final List<Route> routes;
+    private final int maxBodyBytes;
+    private final Cache<Key, CachedResponse> cache;
+    private final Counter notModified;
+
+    public ResponseCacheFilter(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.maxBodyBytes = properties.maxBodyBytes();
+        this.routes = properties.routes().stream()
+            .map(route -> new Route(route.id(), PathPatternParser.defaultInstance.parse(route.path()),
+                route.ttl().toNanos(), route.scope(),
+                route.invalidateOn().stream().map(PathPatternParser.defaultInstance::parse).toList(),
+                new AtomicLong()))
+            .toList();
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(properties.maxBytes())
+            .weigher((Key key, CachedResponse response) -> response.body().length + 512)
+            .expireAfter(new Expiry<Key, CachedResponse>() {
+                @Override
+                public long expireAfterCreate(Key key, CachedResponse response, long currentTime) {
+                    return response.ttlNanos();
+                }
+
+                @Override
+                public long expireAfterUpdate(Key key, CachedResponse response, long currentTime, long currentDuration) {
+                    return response.ttlNanos();
+                }
+
+                @Override
+                public long expireAfterRead(Key key, CachedResponse response, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.notModified = Counter.builder("gateway.cache.not-modified")
+            .description("Conditional GETs answered with 304 by the gateway")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return routes.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        if (MUTATING_METHODS.contains(request.getMethod())) {
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                invalidate(path);
+            }
+            return;
+        }
+
+        Route route = HttpMethod.GET.matches(request.getMethod()) ? match(path) : null;
+        if (route == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Key key = key(route, request);
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            response.setHeader(CACHE_STATUS_HEADER, "HIT");
+            if (!answerNotModified(request, response, cached.etag())) {
+                write(cached, response);
+            }
+            return;
+        }
+
+        ContentCachingResponseWrapper capturing = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, capturing);
+            CachedResponse fresh = capture(route, capturing);
+            capturing.setHeader(CACHE_STATUS_HEADER, "MISS");
+            if (fresh != null) {
+                cache.put(key, fresh);
+                capturing.setHeader(HttpHeaders.ETAG, fresh.etag());
+                if (answerNotModified(request, capturing, fresh.etag())) {
+                    capturing.resetBuffer();
+                }
+            }
+        } finally {
+            capturing.copyBodyToResponse();
+        }
+    }
+
+    // Drops every entry of the routes this change may affect
+    void invalidate(PathContainer path) {
+        for (Route route : routes) {
+            for (PathPattern pattern : route.invalidateOn()) {
+                if (pattern.matches(path)) {
+                    route.generation().incrementAndGet();
+                    break;
+                }
+            }
+        }
+    }
+
+    private boolean answerNotModified(HttpServletRequest request, HttpServletResponse response, String etag) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null || !matchesAny(ifNoneMatch, etag)) {
+            return false;
+        }
+        response.setStatus(HttpStatus.NOT_MODIFIED.value());
+        response.setHeader(HttpHeaders.ETAG, etag);
+        notModified.increment();
+        return true;
+    }
+
+    // If-None-Match uses the weak comparison (RFC 9110 13.1.2)
+    private static boolean matchesAny(String ifNoneMatch, String etag) {
+        String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || (trimmed.startsWith("W/") ? trimmed.substring(2) : trimmed).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private CachedResponse capture(Route route, ContentCachingResponseWrapper response) {
+        if (response.getStatus() != HttpStatus.OK.value() || response.getContentSize() > maxBodyBytes
+                || response.getHeader(HttpHeaders.SET_COOKIE) != null) {
+            return null;
+        }
+        String cacheControl = response.getHeader(HttpHeaders.CACHE_CONTROL);
+        if (cacheControl != null) {
+            String directives = cacheControl.toLowerCase(Locale.ROOT);
+            if (directives.contains("no-store")
+                    || (directives.contains("private") && route.scope() != ResponseCacheProperties.Scope.USER)) {
+                return null;
+            }
+        }
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : response.getHeaderNames()) {
+            String lowerCaseName = name.toLowerCase(Locale.ROOT);
+            if (!UNCACHED_HEADERS.contains(lowerCaseName) && !lowerCaseName.startsWith("access-control-")) {
+                headers.put(name, new ArrayList<>(response.getHeaders(name)));
+            }
+        }
+        byte[] body = response.getContentAsByteArray();
+        String etag = response.getHeader(HttpHeaders.ETAG);
+        return new CachedResponse(etag != null ? etag : strongEtag(body), response.getContentType(), headers, body,
+            route.ttlNanos());
+    }
+
+    private static void write(CachedResponse cached, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        cached.headers().forEach((name, values) -> {
+            if (HttpHeaders.VARY.equalsIgnoreCase(name)) {
+                mergeVary(values, response);
+            } else {
+                values.forEach(value -> response.addHeader(name, value));
+            }
+        });
+        response.setHeader(HttpHeaders.ETAG, cached.etag());
+        if (cached.contentType() != null) {
+            response.setContentType(cached.contentType());
+        }
+        response.setContentLength(cached.body().length);
+        response.getOutputStream().write(cached.body());
+    }
+
+    // This request's CORS handling already set Vary: Origin; add the service's fields it lacks
+    private static void mergeVary(List<String> values, HttpServletResponse response) {
+        Set<String> present = new HashSet<>();
+        for (String value : response.getHeaders(HttpHeaders.VARY)) {
+            for (String field : value.split(",")) {
+                present.add(field.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        for (String value : values) {
+            for (String field : value.split(",")) {
+                String trimmed = field.trim();
+                if (!trimmed.isEmpty() && present.add(trimmed.toLowerCase(Locale.ROOT))) {
+                    response.addHeader(HttpHeaders.VARY, trimmed);
+                }
+            }
+        }
+    }
+
+    private Route match(PathContainer path) {
+        for (Route route : routes) {
+            if (route.pattern().matches(path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private static Key key(Route route, HttpServletRequest request) {
+        String scope = "";
+        if (route.scope() != ResponseCacheProperties.Scope.SHARED) {
+            scope = "anonymous";
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication instanceof JwtAuthenticationToken jwtAuth) {
+                scope = route.scope() == ResponseCacheProperties.Scope.ROLE
+                    ? "role:" + jwtAuth.getToken().getClaimAsString("role")
+                    : "user:" + jwtAuth.getToken().getClaims().get("userId");
+            }
+        }
+        String query = request.getQueryString();
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return new Key(route.id(), route.generation().get(), scope, accept == null ? "" : accept,
+            request.getRequestURI() + (query == null ? "" : "?" + query));
+    }
+
+    // 128 bits of the body's SHA-256 digest
+    private static String strongEtag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.banking.gateway.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * {@code gateway.response-cache.*}: read-mostly GET routes whose responses the gateway keeps for
+ * {@code ttl}. Entries are shared within a route's {@link Scope}. A mutating request whose path
+ * matches one of a route's {@code invalidate-on} patterns (by default its own path) drops all of
+ * that route's entries.
+ */
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public record ResponseCacheProperties(long maxBytes, int maxBodyBytes, List<Route> routes) {
+
+    public ResponseCacheProperties {
+        maxBytes = maxBytes > 0 ? maxBytes : 64L * 1024 * 1024;
+        maxBodyBytes = maxBodyBytes > 0 ? maxBodyBytes : 256 * 1024;
+        routes = routes == null ? List.of() : routes;
+    }
+
+    /** Who may be served a cached entry: the same user, anyone with the same role, or anyone. */
+    public enum Scope {
+        USER,
+        ROLE,
+        SHARED
+    }
+
+    public record Route(String id, String path, Duration ttl, Scope scope, List<String> invalidateOn) {
+
+        public Route {
+            ttl = ttl == null ? Duration.ofMinutes(1) : ttl;
+            scope = scope == null ? Scope.USER : scope;
+            invalidateOn = invalidateOn == null || invalidateOn.isEmpty() ? List.of(path) : invalidateOn;
+        }
+    }
+}
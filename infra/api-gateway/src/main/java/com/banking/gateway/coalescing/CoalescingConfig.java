@@ -0,0 +1,16 @@
+package com.banking.gateway.coalescing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(CoalescingProperties.class)
+public class CoalescingConfig {
+
+    @Bean
+    public CoalescingFilter coalescingFilter(CoalescingProperties properties, MeterRegistry meterRegistry) {
+        return new CoalescingFilter(properties, meterRegistry);
+    }
+}
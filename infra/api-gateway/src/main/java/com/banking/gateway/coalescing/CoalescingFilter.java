@@ -0,0 +1,227 @@
+package com.banking.gateway.coalescing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single-flight for the GET routes in {@link CoalescingProperties}: while one request for a given
+ * path, query, Accept header and principal scope is being proxied, identical requests wait for its
+ * response instead of calling the backend themselves. A waiter that gives up after
+ * {@code max-wait}, or whose leader failed or returned a body over {@code max-body-bytes}, makes its
+ * own call. Only requests that overlap share; nothing is kept once the leader has answered.
+ * <p>
+ * Counted as {@code gateway.coalescing.requests{route,outcome}} with outcome {@code leader},
+ * {@code shared} or {@code fallback}; the coalescing ratio is shared over the total.
+ */
+public class CoalescingFilter extends OncePerRequestFilter implements Ordered {
+
+    public static final int ORDER = SecurityProperties.DEFAULT_FILTER_ORDER + 20;
+
+    // Connection-level headers, cookies and CORS headers (already set for each follower's origin)
+    private static final Set<String> UNSHARED_HEADERS = Set.of(
+        "content-length", "transfer-encoding", "connection", "keep-alive", "set-cookie", "content-type");
+
+    /** A leader's response as replayed to its followers; null when it cannot be shared. */
+    record SharedResponse(int status, String contentType, Map<String, List<String>> headers, byte[] body) {
+    }
+
+    private record Route(String id, PathPattern pattern, CoalescingProperties.Scope scope,
+                         Counter leaders, Counter shared, Counter fallbacks) {
+    }
+
+    private final List<Route> routes;
+    private final long maxWaitNanos;
+    private final int maxBodyBytes;
+    private final ConcurrentHashMap<String, CompletableFuture<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public CoalescingFilter(CoalescingProperties properties, MeterRegistry meterRegistry) {
+        this.maxWaitNanos = properties.maxWait().toNanos();
+        this.maxBodyBytes = properties.maxBodyBytes();
+        this.routes = properties.routes().stream()
+            .map(route -> new Route(route.id(), PathPatternParser.defaultInstance.parse(route.path()), route.scope(),
+                counter(meterRegistry, route.id(), "leader"),
+                counter(meterRegistry, route.id(), "shared"),
+                counter(meterRegistry, route.id(), "fallback")))
+            .toList();
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return routes.isEmpty() || !HttpMethod.GET.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Route route = match(request);
+        if (route == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String key = key(route, request);
+        CompletableFuture<SharedResponse> flight = new CompletableFuture<>();
+        CompletableFuture<SharedResponse> leader = inFlight.putIfAbsent(key, flight);
+        if (leader == null) {
+            route.leaders().increment();
+            lead(key, flight, request, response, chain);
+            return;
+        }
+
+        SharedResponse shared = await(leader);
+        if (shared != null) {
+            route.shared().increment();
+            write(shared, response);
+            return;
+        }
+        route.fallbacks().increment();
+        chain.doFilter(request, response);
+    }
+
+    private void lead(String key, CompletableFuture<SharedResponse> flight, HttpServletRequest request,
+                      HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        ContentCachingResponseWrapper capturing = new ContentCachingResponseWrapper(response);
+        SharedResponse shared = null;
+        try {
+            chain.doFilter(request, capturing);
+            shared = capture(capturing);
+        } finally {
+            // Unblock the followers before this response is written out
+            inFlight.remove(key, flight);
+            flight.complete(shared);
+            capturing.copyBodyToResponse();
+        }
+    }
+
+    // Followers currently blocked on a leader
+    int waitingFollowers() {
+        return inFlight.values().stream().mapToInt(CompletableFuture::getNumberOfDependents).sum();
+    }
+
+    private SharedResponse await(CompletableFuture<SharedResponse> leader) {
+        try {
+            return leader.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        }
+    }
+
+    private SharedResponse capture(ContentCachingResponseWrapper response) {
+        if (response.getContentSize() > maxBodyBytes || response.isCommitted()) {
+            return null;
+        }
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : response.getHeaderNames()) {
+            String lowerCaseName = name.toLowerCase(Locale.ROOT);
+            if (!UNSHARED_HEADERS.contains(lowerCaseName) && !lowerCaseName.startsWith("access-control-")) {
+                headers.put(name, new ArrayList<>(response.getHeaders(name)));
+            }
+        }
+        return new SharedResponse(response.getStatus(), response.getContentType(), headers,
+            response.getContentAsByteArray());
+    }
+
+    private static void write(SharedResponse shared, HttpServletResponse response) throws IOException {
+        response.setStatus(shared.status());
+        shared.headers().forEach((name, values) -> {
+            if (HttpHeaders.VARY.equalsIgnoreCase(name)) {
+                mergeVary(values, response);
+            } else {
+                values.forEach(value -> response.addHeader(name, value));
+            }
+        });
+        if (shared.contentType() != null) {
+            response.setContentType(shared.contentType());
+        }
+        response.setContentLength(shared.body().length);
+        response.getOutputStream().write(shared.body());
+    }
+
+    // The follower's CORS handling already set Vary: Origin; add the backend's fields it lacks
+    private static void mergeVary(List<String> values, HttpServletResponse response) {
+        Set<String> present = new HashSet<>();
+        for (String value : response.getHeaders(HttpHeaders.VARY)) {
+            for (String field : value.split(",")) {
+                present.add(field.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        for (String value : values) {
+            for (String field : value.split(",")) {
+                String trimmed = field.trim();
+                if (!trimmed.isEmpty() && present.add(trimmed.toLowerCase(Locale.ROOT))) {
+                    response.addHeader(HttpHeaders.VARY, trimmed);
+                }
+            }
+        }
+    }
+
+    private Route match(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        for (Route route : routes) {
+            if (route.pattern().matches(path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private static String key(Route route, HttpServletRequest request) {
+        String scope = "anonymous";
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication instanceof JwtAuthenticationToken jwtAuth) {
+            scope = route.scope() == CoalescingProperties.Scope.ROLE
+                ? "role:" + jwtAuth.getToken().getClaimAsString("role")
+                : "user:" + jwtAuth.getToken().getClaims().get("userId");
+        }
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        String query = request.getQueryString();
+        return route.id() + '\n' + scope + '\n' + (accept == null ? "" : accept) + '\n'
+            + request.getRequestURI() + (query == null ? "" : "?" + query);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String route, String outcome) {
+        return Counter.builder("gateway.coalescing.requests")
+            .description("GET requests on coalesced routes, by whether they called the backend or shared a response")
+            .tag("route", route)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,34 @@
+package com.banking.gateway.coalescing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * {@code gateway.coalescing.*}: GET routes whose concurrent identical requests share one backend
+ * call. Requests only share a response within their {@link Scope}, so a route that answers
+ * differently per user must stay on {@code USER}.
+ */
+@ConfigurationProperties(prefix = "gateway.coalescing")
+public record CoalescingProperties(Duration maxWait, int maxBodyBytes, List<Route> routes) {
+
+    public CoalescingProperties {
+        maxWait = maxWait == null ? Duration.ofSeconds(2) : maxWait;
+        maxBodyBytes = maxBodyBytes > 0 ? maxBodyBytes : 1024 * 1024;
+        routes = routes == null ? List.of() : routes;
+    }
+
+    /** Who may share a response: the same user, or anyone with the same role. */
+    public enum Scope {
+        USER,
+        ROLE
+    }
+
+    public record Route(String id, String path, Scope scope) {
+
+        public Route {
+            scope = scope == null ? Scope.USER : scope;
+        }
+    }
+}
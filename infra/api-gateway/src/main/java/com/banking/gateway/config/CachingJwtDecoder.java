@@ -0,0 +1,75 @@
+package com.banking.gateway.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Keeps tokens that passed signature verification for a short while, so a client's burst of
+ * requests costs one signature check. A cached token is still run through the validator on every
+ * use, which is cheap (expiry and the local revocation list), so a revoked token is refused as soon
+ * as the revocation list has it. Entries never outlive the token.
+ */
+final class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final OAuth2TokenValidator<Jwt> validator;
+    private final Cache<String, Jwt> verified;
+
+    CachingJwtDecoder(JwtDecoder delegate, OAuth2TokenValidator<Jwt> validator, Duration ttl, long maxSize) {
+        this.delegate = delegate;
+        this.validator = validator;
+        this.verified = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new Expiry<String, Jwt>() {
+                @Override
+                public long expireAfterCreate(String token, Jwt jwt, long currentTime) {
+                    Duration untilExpiry = jwt.getExpiresAt() == null
+                        ? ttl
+                        : Duration.between(Instant.now(), jwt.getExpiresAt());
+                    return Math.max(0, Math.min(ttl.toNanos(), untilExpiry.toNanos()));
+                }
+
+                @Override
+                public long expireAfterUpdate(String token, Jwt jwt, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String token, Jwt jwt, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+    }
+
+    Cache<String, Jwt> cache() {
+        return verified;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        Jwt jwt = verified.getIfPresent(token);
+        if (jwt == null) {
+            jwt = delegate.decode(token);
+            verified.put(token, jwt);
+            return jwt;
+        }
+        OAuth2TokenValidatorResult result = validator.validate(jwt);
+        if (result.hasErrors()) {
+            verified.invalidate(token);
+            throw new JwtValidationException(result.getErrors().iterator().next().getDescription(), result.getErrors());
+        }
+        return jwt;
+    }
+}
@@ -3,20 +3,21 @@ package com.banking.gateway.config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
-import org.springframework.web.filter.CorsFilter;
 
 import java.util.Arrays;
 
 /**
  * CORS configuration for API Gateway (Servlet-based).
  * Allows cross-origin requests from frontend (localhost:3000).
+ * Applied by Spring Security, ahead of token checks, so preflights and 401s carry CORS headers.
  */
 @Configuration
 public class CorsConfig {
     
     @Bean
-    public CorsFilter corsFilter() {
+    public CorsConfigurationSource corsConfigurationSource() {
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         CorsConfiguration config = new CorsConfiguration();
         
@@ -33,7 +34,7 @@ public class CorsConfig {
         config.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         
         // Expose headers to frontend
-        config.setExposedHeaders(Arrays.asList("Authorization"));
+        config.setExposedHeaders(Arrays.asList("Authorization", "ETag", "X-Cache"));
         
         // Cache preflight response for 1 hour
         config.setMaxAge(3600L);
@@ -41,7 +42,7 @@ public class CorsConfig {
         // Apply CORS configuration to all endpoints
         source.registerCorsConfiguration("/**", config);
         
-        return new CorsFilter(source);
+        return source;
     }
 }
 
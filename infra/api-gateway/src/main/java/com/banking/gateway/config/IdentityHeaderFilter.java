@@ -0,0 +1,97 @@
+package com.banking.gateway.config;
+
+import com.banking.common.security.GatewayIdentity;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.Ordered;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Replaces any {@link GatewayIdentity#HEADER} a client sent with one signed for the access token
+ * the gateway has just verified, so the services behind it can trust the identity without
+ * verifying the token again. Runs after Spring Security and the gateway's other filters, right
+ * before the request is proxied.
+ */
+@Component
+public class IdentityHeaderFilter extends OncePerRequestFilter implements Ordered {
+
+    public static final int ORDER = SecurityProperties.DEFAULT_FILTER_ORDER + 30;
+
+    private final GatewayIdentity gatewayIdentity;
+
+    public IdentityHeaderFilter(@Value("${gateway.identity.secret:}") String secret) {
+        this.gatewayIdentity = new GatewayIdentity(secret);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String identity = null;
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (gatewayIdentity.isEnabled() && authentication instanceof JwtAuthenticationToken jwtAuth) {
+            Jwt jwt = jwtAuth.getToken();
+            Object userId = jwt.getClaims().get("userId");
+            identity = gatewayIdentity.sign(jwt.getTokenValue(), new GatewayIdentity.Claims(
+                jwt.getId(),
+                jwt.getSubject(),
+                userId instanceof Number number ? number.longValue() : null,
+                jwt.getClaimAsString("role"),
+                jwt.getIssuedAt(),
+                jwt.getExpiresAt()));
+        }
+        chain.doFilter(new IdentityRequest(request, identity), response);
+    }
+
+    private static final class IdentityRequest extends HttpServletRequestWrapper {
+
+        private final String identity;
+
+        IdentityRequest(HttpServletRequest request, String identity) {
+            super(request);
+            this.identity = identity;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return GatewayIdentity.HEADER.equalsIgnoreCase(name) ? identity : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (GatewayIdentity.HEADER.equalsIgnoreCase(name)) {
+                return identity == null ? Collections.emptyEnumeration() : Collections.enumeration(List.of(identity));
+            }
+            return super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = Collections.list(super.getHeaderNames());
+            names.removeIf(GatewayIdentity.HEADER::equalsIgnoreCase);
+            if (identity != null) {
+                names.add(GatewayIdentity.HEADER);
+            }
+            return Collections.enumeration(names);
+        }
+    }
+}
@@ -1,31 +1,171 @@
 package com.banking.gateway.config;
 
+import com.banking.common.security.Ed25519JwsSupport;
+import com.banking.common.security.TokenRevocationList;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.ConfigurableJWTProcessor;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Access tokens are verified here, at the edge, so invalid ones are refused before they reach a
+ * service. Verified requests are forwarded with a signed identity header (see
+ * {@link IdentityHeaderFilter}) that the services trust in place of verifying the token again.
+ */
+@Slf4j
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
-    
+
+    // Routes that work without a token; a stale token sent to them is ignored rather than refused
+    private static final String[] PUBLIC_PATHS = {
+        "/auth/signin",
+        "/auth/signup",
+        "/auth/availability",
+        "/auth/refresh",
+        "/auth/validate",
+        "/auth/public-key",
+        "/auth/.well-known/jwks.json",
+        "/auth/revocations",
+        "/actuator/health",
+        "/actuator/info",
+        "/v3/api-docs/**",
+        "/swagger-ui/**",
+        "/swagger-ui.html"
+    };
+
+    @Value("${jwt.jwk-set-uri}")
+    private String jwkSetUri;
+
+    // Must include the algorithm auth-service signs with (jwt.keys.algorithm)
+    @Value("${jwt.jws-algorithms:RS256}")
+    private String[] jwsAlgorithms;
+
+    @Value("${jwt.jwk-set.cache-ttl:PT5M}")
+    private Duration jwkSetCacheTtl;
+
+    @Value("${jwt.jwk-set.outage-tolerance:PT1H}")
+    private Duration jwkSetOutageTolerance;
+
+    @Value("${jwt.verified-cache.ttl:PT30S}")
+    private Duration verifiedCacheTtl;
+
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private long verifiedCacheMaxSize;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+        RequestMatcher publicPaths = new OrRequestMatcher(Arrays.stream(PUBLIC_PATHS)
+            .map(path -> (RequestMatcher) new AntPathRequestMatcher(path))
+            .toList());
+        BearerTokenResolver defaultResolver = new DefaultBearerTokenResolver();
+
         http
             .csrf(csrf -> csrf.disable())
+            .cors(Customizer.withDefaults())
+            .sessionManagement(session ->
+                session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
-                // Allow health check and swagger
-                .requestMatchers("/actuator/health").permitAll()
-                .requestMatchers("/actuator/info").permitAll()
-                .requestMatchers("/v3/api-docs/**").permitAll()
-                .requestMatchers("/swagger-ui/**").permitAll()
-                .requestMatchers("/swagger-ui.html").permitAll()
-                // Allow all gateway routes (downstream services handle auth)
-                .anyRequest().permitAll()
-            );
-        
+                .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                .requestMatchers(publicPaths).permitAll()
+                .anyRequest().authenticated()
+            )
+            .oauth2ResourceServer(oauth2 -> oauth2
+                .bearerTokenResolver(request -> publicPaths.matches(request) ? null : defaultResolver.resolve(request))
+                .jwt(jwt -> jwt.decoder(jwtDecoder())));
+
         return http.build();
     }
-}
 
+    @Bean
+    public JwtDecoder jwtDecoder() {
+        JWKSource<SecurityContext> jwkSource = jwkSource();
+        ConfigurableJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        Set<JWSAlgorithm> algorithms = Arrays.stream(jwsAlgorithms)
+            .map(String::trim)
+            .map(JWSAlgorithm::parse)
+            .collect(Collectors.toSet());
+        jwtProcessor.setJWSKeySelector(Ed25519JwsSupport.keySelector(algorithms, jwkSource));
+        jwtProcessor.setJWSVerifierFactory(Ed25519JwsSupport.verifierFactory());
+        // Claims are checked by Spring's JwtValidators, as in NimbusJwtDecoder's own builders
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> { });
+
+        // Fetch the key set once at startup so the first request does not wait for it
+        Thread.ofVirtual().name("jwks-prefetch").start(() -> {
+            try {
+                jwkSource.get(new JWKSelector(new JWKMatcher.Builder().build()), null);
+            } catch (Exception e) {
+                log.warn("Could not prefetch JWKS from {}: {}", jwkSetUri, e.getMessage());
+            }
+        });
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(jwtProcessor);
+        // The default expiry checks, then auth-service's revocation list as held locally
+        OAuth2TokenValidator<Jwt> validator =
+            new DelegatingOAuth2TokenValidator<>(JwtValidators.createDefault(), tokenRevocationList);
+        decoder.setJwtValidator(validator);
+
+        CachingJwtDecoder cachingDecoder =
+            new CachingJwtDecoder(decoder, validator, verifiedCacheTtl, verifiedCacheMaxSize);
+        CaffeineCacheMetrics.monitor(meterRegistry, cachingDecoder.cache(), "verified-tokens");
+        return cachingDecoder;
+    }
+
+    /**
+     * auth-service's JWK set, cached locally and refreshed in the background before it expires,
+     * so tokens are verified without calling auth-service and rotated keys arrive without a
+     * restart. A token with an unknown kid triggers a rate-limited refresh; if auth-service is
+     * down the last key set keeps being used for {@code jwt.jwk-set.outage-tolerance}.
+     */
+    private JWKSource<SecurityContext> jwkSource() {
+        try {
+            return JWKSourceBuilder.<SecurityContext>create(new URL(jwkSetUri))
+                .cache(jwkSetCacheTtl.toMillis(), JWKSourceBuilder.DEFAULT_CACHE_REFRESH_TIMEOUT)
+                .refreshAheadCache(JWKSourceBuilder.DEFAULT_REFRESH_AHEAD_TIME, true)
+                .outageTolerant(jwkSetOutageTolerance.toMillis())
+                .build();
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException("Invalid jwt.jwk-set-uri: " + jwkSetUri, e);
+        }
+    }
+}
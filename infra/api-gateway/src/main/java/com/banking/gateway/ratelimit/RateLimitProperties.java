@@ -0,0 +1,27 @@
+package com.banking.gateway.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * {@code gateway.rate-limit.*}: a token bucket per client and rule. Requests are matched against
+ * {@code routes} in order, and the first rule whose path (and method, if given) matches applies;
+ * anything else uses {@code defaults}. A rule with a capacity of 0 is not limited.
+ */
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public record RateLimitProperties(boolean enabled, Limit defaults, List<Rule> routes, long maxKeys) {
+
+    public RateLimitProperties {
+        routes = routes == null ? List.of() : routes;
+        defaults = defaults == null ? new Limit(0, 0) : defaults;
+        maxKeys = maxKeys > 0 ? maxKeys : 100_000;
+    }
+
+    /** Bucket size (the burst allowed) and how many tokens are added back per second. */
+    public record Limit(long capacity, double refillPerSecond) {
+    }
+
+    public record Rule(String id, String path, List<String> methods, long capacity, double refillPerSecond) {
+    }
+}
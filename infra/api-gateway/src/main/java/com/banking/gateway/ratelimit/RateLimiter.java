@@ -0,0 +1,115 @@
+package com.banking.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Per-client token buckets for each rule of {@link RateLimitProperties}. Buckets live in a
+ * size-bounded cache per rule and are dropped once idle long enough to have refilled, which is
+ * exactly when a fresh bucket would behave the same. Rejections are counted as
+ * {@code gateway.ratelimit.rejected{rule}}, tracked clients as {@code gateway.ratelimit.keys{rule}}.
+ */
+public class RateLimiter {
+
+    private static final String DEFAULT_RULE = "default";
+
+    private final List<Rule> rules;
+    private final Rule defaults;
+    private final LongSupplier nanoClock;
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.rules = properties.routes().stream()
+            .map(rule -> new Rule(rule.id(), PathPatternParser.defaultInstance.parse(rule.path()), methods(rule.methods()),
+                rule.capacity(), rule.refillPerSecond(), properties.maxKeys(), meterRegistry))
+            .toList();
+        this.defaults = new Rule(DEFAULT_RULE, null, Set.of(), properties.defaults().capacity(),
+            properties.defaults().refillPerSecond(), properties.maxKeys(), meterRegistry);
+    }
+
+    /**
+     * Take a token from the client's bucket for the first rule matching this request. Returns 0 if
+     * the request may proceed, otherwise the nanoseconds until the client may try again.
+     */
+    public long tryAcquire(String method, PathContainer path, String clientKey) {
+        Rule rule = defaults;
+        for (Rule candidate : rules) {
+            if (candidate.matches(method, path)) {
+                rule = candidate;
+                break;
+            }
+        }
+        return rule.tryAcquire(clientKey, nanoClock.getAsLong());
+    }
+
+    private static Set<String> methods(List<String> methods) {
+        return methods == null
+            ? Set.of()
+            : methods.stream().map(method -> method.toUpperCase(Locale.ROOT)).collect(Collectors.toUnmodifiableSet());
+    }
+
+    private static final class Rule {
+
+        private final PathPattern pattern;
+        private final Set<String> methods;
+        private final long intervalNanos;
+        private final long burstNanos;
+        private final Cache<String, TokenBucket> buckets;
+        private final Counter rejected;
+
+        Rule(String id, PathPattern pattern, Set<String> methods, long capacity, double refillPerSecond,
+             long maxKeys, MeterRegistry meterRegistry) {
+            this.pattern = pattern;
+            this.methods = methods;
+            boolean limited = capacity > 0 && refillPerSecond > 0;
+            this.intervalNanos = limited ? Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond)) : 0;
+            this.burstNanos = intervalNanos * capacity;
+            this.buckets = limited
+                ? Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(Duration.ofNanos(burstNanos))
+                    .build()
+                : null;
+            this.rejected = Counter.builder("gateway.ratelimit.rejected")
+                .description("Requests refused with 429 by the gateway rate limiter")
+                .tag("rule", id)
+                .register(meterRegistry);
+            if (buckets != null) {
+                Gauge.builder("gateway.ratelimit.keys", buckets, Cache::estimatedSize)
+                    .description("Clients with a token bucket")
+                    .tag("rule", id)
+                    .register(meterRegistry);
+            }
+        }
+
+        boolean matches(String method, PathContainer path) {
+            return (methods.isEmpty() || methods.contains(method)) && pattern.matches(path);
+        }
+
+        long tryAcquire(String clientKey, long nowNanos) {
+            if (buckets == null) {
+                return 0;
+            }
+            long wait = buckets.get(clientKey, key -> new TokenBucket(nowNanos))
+                .tryAcquire(nowNanos, intervalNanos, burstNanos);
+            if (wait > 0) {
+                rejected.increment();
+            }
+            return wait;
+        }
+    }
+}
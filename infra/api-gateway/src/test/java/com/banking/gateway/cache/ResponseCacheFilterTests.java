@@ -0,0 +1,156 @@
+package com.banking.gateway.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.PathContainer;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheFilterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger backendCalls = new AtomicInteger();
+
+    private final FilterChain backend = (request, response) -> {
+        int call = backendCalls.incrementAndGet();
+        response.setContentType("application/json");
+        ((HttpServletResponse) response).setHeader("Access-Control-Allow-Origin", "http://localhost:3000");
+        ((HttpServletResponse) response).addHeader("Vary", "Accept-Encoding");
+        response.getWriter().write("{\"call\":" + call + "}");
+    };
+
+    private final ResponseCacheFilter filter = new ResponseCacheFilter(new ResponseCacheProperties(0, 0, List.of(
+        new ResponseCacheProperties.Route("public-key", "/auth/public-key", Duration.ofMinutes(10),
+            ResponseCacheProperties.Scope.SHARED, null),
+        new ResponseCacheProperties.Route("customer-by-user", "/customers/user/*", Duration.ofMinutes(5),
+            ResponseCacheProperties.Scope.USER, List.of("/customers/{id:\\d+}")))), meterRegistry);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("a repeated GET is served from the cache with the same ETag")
+    void doFilter_servesRepeatedGetFromCache() throws Exception {
+        MockHttpServletResponse first = call("GET", "/auth/public-key", null);
+        MockHttpServletResponse second = call("GET", "/auth/public-key", null);
+
+        assertEquals(1, backendCalls.get());
+        assertEquals("MISS", first.getHeader("X-Cache"));
+        assertEquals("HIT", second.getHeader("X-Cache"));
+        assertEquals("{\"call\":1}", second.getContentAsString());
+        assertTrue(second.getContentType().startsWith("application/json"));
+        assertNotNull(first.getHeader("ETag"));
+        assertEquals(first.getHeader("ETag"), second.getHeader("ETag"));
+        assertNull(second.getHeader("Access-Control-Allow-Origin"));
+        assertEquals(List.of("Accept-Encoding"), second.getHeaders("Vary"));
+    }
+
+    @Test
+    @DisplayName("a matching If-None-Match is answered with 304 and no body")
+    void doFilter_answersNotModified() throws Exception {
+        String etag = call("GET", "/auth/public-key", null).getHeader("ETag");
+
+        MockHttpServletResponse notModified = call("GET", "/auth/public-key", "W/" + etag);
+        MockHttpServletResponse changed = call("GET", "/auth/public-key", "\"other\"");
+
+        assertEquals(304, notModified.getStatus());
+        assertEquals(0, notModified.getContentAsByteArray().length);
+        assertEquals(etag, notModified.getHeader("ETag"));
+        assertEquals(200, changed.getStatus());
+        assertEquals(1, meterRegistry.get("gateway.cache.not-modified").counter().count());
+    }
+
+    @Test
+    @DisplayName("user-scoped entries are not shared between users")
+    void doFilter_keepsUserEntriesApart() throws Exception {
+        signIn(1L);
+        call("GET", "/customers/user/1", null);
+        signIn(2L);
+        MockHttpServletResponse other = call("GET", "/customers/user/1", null);
+
+        assertEquals(2, backendCalls.get());
+        assertEquals("MISS", other.getHeader("X-Cache"));
+    }
+
+    @Test
+    @DisplayName("a write matching invalidate-on drops the route's entries")
+    void doFilter_invalidatesOnWrite() throws Exception {
+        signIn(1L);
+        call("GET", "/customers/user/1", null);
+        call("PUT", "/customers/7", null);
+        MockHttpServletResponse after = call("GET", "/customers/user/1", null);
+
+        assertEquals(3, backendCalls.get());
+        assertEquals("{\"call\":3}", after.getContentAsString());
+
+        call("GET", "/auth/public-key", null);
+        filter.invalidate(PathContainer.parsePath("/customers/7"));
+        assertEquals("HIT", call("GET", "/auth/public-key", null).getHeader("X-Cache"));
+    }
+
+    @Test
+    @DisplayName("a read-only POST outside invalidate-on keeps the route's entries")
+    void doFilter_keepsEntriesOnBatchLookup() throws Exception {
+        signIn(1L);
+        call("GET", "/customers/user/1", null);
+        call("POST", "/customers/batch", null);
+
+        assertEquals("HIT", call("GET", "/customers/user/1", null).getHeader("X-Cache"));
+        assertEquals(2, backendCalls.get());
+    }
+
+    @Test
+    @DisplayName("errors and no-store responses are not cached")
+    void doFilter_skipsUncacheableResponses() throws Exception {
+        FilterChain noStore = (request, response) -> {
+            backendCalls.incrementAndGet();
+            ((HttpServletResponse) response).setHeader("Cache-Control", "no-store");
+            response.getWriter().write("{}");
+        };
+        FilterChain failing = (request, response) -> {
+            backendCalls.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(503);
+        };
+
+        for (int i = 0; i < 2; i++) {
+            filter.doFilter(new MockHttpServletRequest("GET", "/auth/public-key"), new MockHttpServletResponse(), noStore);
+            filter.doFilter(new MockHttpServletRequest("GET", "/auth/public-key"), new MockHttpServletResponse(), failing);
+        }
+
+        assertEquals(4, backendCalls.get());
+    }
+
+    private MockHttpServletResponse call(String method, String path, String ifNoneMatch) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, backend);
+        return response;
+    }
+
+    private static void signIn(long userId) {
+        Jwt jwt = Jwt.withTokenValue("token-" + userId)
+            .header("alg", "none")
+            .claim("userId", userId)
+            .claim("role", "CUSTOMER")
+            .build();
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+    }
+}
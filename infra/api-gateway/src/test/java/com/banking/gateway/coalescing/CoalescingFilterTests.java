@@ -0,0 +1,145 @@
+package com.banking.gateway.coalescing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescingFilterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger backendCalls = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final FilterChain backend = (request, response) -> {
+        backendCalls.incrementAndGet();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        response.setContentType("application/json");
+        ((HttpServletResponse) response).setHeader("X-Backend", "1");
+        ((HttpServletResponse) response).setHeader("Access-Control-Allow-Origin", "http://localhost:3000");
+        ((HttpServletResponse) response).addHeader("Vary", "Accept-Encoding");
+        response.getWriter().write("{\"balance\":100}");
+    };
+
+    @Test
+    @DisplayName("concurrent identical GETs share the leader's response")
+    void doFilter_sharesInFlightResponse() throws Exception {
+        CoalescingFilter filter = filter(Duration.ofSeconds(5));
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                String origin = "http://client-" + i;
+                responses.add(pool.submit(() -> call(filter, "/accounts/1/balance", origin)));
+            }
+            awaitFollowers(filter, 3);
+            release.countDown();
+
+            int followersWithOwnOrigin = 0;
+            for (int i = 0; i < responses.size(); i++) {
+                MockHttpServletResponse done = responses.get(i).get(5, TimeUnit.SECONDS);
+                assertEquals(200, done.getStatus());
+                assertEquals("{\"balance\":100}", done.getContentAsString());
+                assertEquals("1", done.getHeader("X-Backend"));
+                assertTrue(done.getContentType().startsWith("application/json"));
+                assertEquals(List.of("Origin", "Accept-Encoding"), varyFields(done));
+                List<String> origins = done.getHeaders("Access-Control-Allow-Origin");
+                assertEquals(1, origins.size());
+                if (origins.get(0).equals("http://client-" + i)) {
+                    followersWithOwnOrigin++;
+                }
+            }
+            // The leader's origin header is whatever its own call produced; each follower keeps its own
+            assertEquals(3, followersWithOwnOrigin);
+            assertEquals(1, backendCalls.get());
+            assertEquals(3, meterRegistry.get("gateway.coalescing.requests")
+                .tags("route", "balance", "outcome", "shared").counter().count());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("a follower that waits past max-wait makes its own call, and other routes are untouched")
+    void doFilter_fallsBackAfterMaxWait() throws Exception {
+        CoalescingFilter filter = filter(Duration.ofMillis(50));
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<MockHttpServletResponse> leader = pool.submit(() -> call(filter, "/accounts/1/balance"));
+            while (backendCalls.get() == 0) {
+                Thread.onSpinWait();
+            }
+            // The leader is held well past the follower's max-wait
+            pool.submit(() -> {
+                Thread.sleep(300);
+                release.countDown();
+                return null;
+            });
+
+            assertEquals("{\"balance\":100}", call(filter, "/accounts/1/balance").getContentAsString());
+            leader.get(5, TimeUnit.SECONDS);
+            call(filter, "/accounts/1");
+
+            assertEquals(3, backendCalls.get());
+            assertEquals(1, meterRegistry.get("gateway.coalescing.requests")
+                .tags("route", "balance", "outcome", "fallback").counter().count());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private CoalescingFilter filter(Duration maxWait) {
+        return new CoalescingFilter(new CoalescingProperties(maxWait, 0, List.of(
+            new CoalescingProperties.Route("balance", "/accounts/*/balance", null))), meterRegistry);
+    }
+
+    private MockHttpServletResponse call(CoalescingFilter filter, String uri) throws Exception {
+        return call(filter, uri, "http://localhost:3000");
+    }
+
+    // Spring Security's CORS filter has already answered for the caller's origin by the time this filter runs
+    private MockHttpServletResponse call(CoalescingFilter filter, String uri, String origin) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setHeader("Access-Control-Allow-Origin", origin);
+        response.addHeader("Vary", "Origin");
+        filter.doFilter(new MockHttpServletRequest("GET", uri), response, backend);
+        return response;
+    }
+
+    private static List<String> varyFields(MockHttpServletResponse response) {
+        List<String> fields = new ArrayList<>();
+        for (String value : response.getHeaders("Vary")) {
+            for (String field : value.split(",")) {
+                fields.add(field.trim());
+            }
+        }
+        return fields;
+    }
+
+    private static void awaitFollowers(CoalescingFilter filter, int followers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (filter.waitingFollowers() < followers && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(followers, filter.waitingFollowers());
+    }
+}
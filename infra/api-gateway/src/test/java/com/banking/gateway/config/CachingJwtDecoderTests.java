@@ -0,0 +1,50 @@
+package com.banking.gateway.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingJwtDecoderTests {
+
+    private final AtomicInteger verifications = new AtomicInteger();
+    private final AtomicBoolean revoked = new AtomicBoolean();
+    private final CachingJwtDecoder decoder = new CachingJwtDecoder(
+        token -> {
+            verifications.incrementAndGet();
+            return Jwt.withTokenValue(token).header("alg", "RS256").subject("alice")
+                .issuedAt(Instant.now()).expiresAt(Instant.now().plusSeconds(900)).build();
+        },
+        jwt -> revoked.get()
+            ? OAuth2TokenValidatorResult.failure(new OAuth2Error("invalid_token", "Token has been revoked", null))
+            : OAuth2TokenValidatorResult.success(),
+        Duration.ofSeconds(30), 100);
+
+    @Test
+    @DisplayName("a token's signature is verified once while it is cached")
+    void decode_verifiesOnce() {
+        assertEquals("alice", decoder.decode("t1").getSubject());
+        assertEquals("alice", decoder.decode("t1").getSubject());
+        decoder.decode("t2");
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    @DisplayName("a cached token is refused and dropped once it is revoked")
+    void decode_revalidatesCachedTokens() {
+        decoder.decode("t1");
+        revoked.set(true);
+
+        assertThrows(JwtValidationException.class, () -> decoder.decode("t1"));
+        assertNull(decoder.cache().getIfPresent("t1"));
+    }
+}
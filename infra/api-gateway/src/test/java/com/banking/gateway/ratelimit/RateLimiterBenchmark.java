@@ -0,0 +1,114 @@
+package com.banking.gateway.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.server.PathContainer;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Throughput of the rate limiter under contention: 8 threads spread over {@code keys} clients (1
+ * is every thread hammering one bucket). The CAS-based {@link RateLimiter} is compared with a
+ * token-counting bucket behind a lock, kept in a plain map. Opt-in:
+ * <pre>
+ * mvn test -pl infra/api-gateway -Dtest=RateLimiterBenchmark -Dbenchmark=true
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+public class RateLimiterBenchmark {
+
+    @Param({"1", "1000", "100000"})
+    public int keys;
+
+    private RateLimiter rateLimiter;
+    private ConcurrentHashMap<String, LockedBucket> lockedBuckets;
+    private String[] clientKeys;
+    private PathContainer path;
+
+    @Setup
+    public void setUp() {
+        // Generous limits, so the benchmark measures bookkeeping rather than refusals
+        rateLimiter = new RateLimiter(
+            new RateLimitProperties(true, new RateLimitProperties.Limit(1_000_000, 1_000_000), List.of(), 200_000),
+            new SimpleMeterRegistry(), System::nanoTime);
+        lockedBuckets = new ConcurrentHashMap<>();
+        clientKeys = IntStream.range(0, keys).mapToObj(i -> "user:" + i).toArray(String[]::new);
+        path = PathContainer.parsePath("/payments/transfer");
+    }
+
+    @Benchmark
+    public long casBuckets() {
+        return rateLimiter.tryAcquire("POST", path, randomKey());
+    }
+
+    @Benchmark
+    public boolean lockedBuckets() {
+        return lockedBuckets.computeIfAbsent(randomKey(), key -> new LockedBucket(1_000_000, 1_000_000))
+            .tryAcquire(System.nanoTime());
+    }
+
+    private String randomKey() {
+        return clientKeys[ThreadLocalRandom.current().nextInt(clientKeys.length)];
+    }
+
+    /** Tokens counted as a double and refilled on each call, under the bucket's monitor. */
+    static final class LockedBucket {
+
+        private final double capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+
+        LockedBucket(double capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.tokens = capacity;
+        }
+
+        synchronized boolean tryAcquire(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("benchmark: CAS token buckets vs locked token buckets under contention")
+    void runBenchmark() throws RunnerException {
+        // In-process run: surefire's classpath is not visible to a forked JMH JVM
+        new Runner(new OptionsBuilder()
+                .include(RateLimiterBenchmark.class.getName())
+                .forks(0)
+                .build()).run();
+    }
+}
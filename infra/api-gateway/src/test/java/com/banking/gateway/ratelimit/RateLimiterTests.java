@@ -0,0 +1,56 @@
+package com.banking.gateway.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.PathContainer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTests {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong now = new AtomicLong(1_000 * SECOND);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimiter rateLimiter = new RateLimiter(
+        new RateLimitProperties(true, new RateLimitProperties.Limit(100, 50), List.of(
+            new RateLimitProperties.Rule("signin", "/auth/signin", List.of("post"), 3, 1),
+            new RateLimitProperties.Rule("health", "/actuator/**", null, 0, 0)), 1000),
+        meterRegistry, now::get);
+
+    @Test
+    @DisplayName("a burst of capacity passes, then requests wait for the refill")
+    void tryAcquire_burstThenRefill() {
+        PathContainer signin = PathContainer.parsePath("/auth/signin");
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("POST", signin, "ip:1.2.3.4"));
+        }
+        assertEquals(SECOND, rateLimiter.tryAcquire("POST", signin, "ip:1.2.3.4"));
+        // Another client has its own bucket
+        assertEquals(0, rateLimiter.tryAcquire("POST", signin, "ip:5.6.7.8"));
+
+        now.addAndGet(SECOND);
+        assertEquals(0, rateLimiter.tryAcquire("POST", signin, "ip:1.2.3.4"));
+        assertTrue(rateLimiter.tryAcquire("POST", signin, "ip:1.2.3.4") > 0);
+        assertEquals(2, meterRegistry.get("gateway.ratelimit.rejected").tag("rule", "signin").counter().count());
+    }
+
+    @Test
+    @DisplayName("the first matching rule applies, by path and method, and a zero capacity is unlimited")
+    void tryAcquire_matchesRules() {
+        PathContainer signin = PathContainer.parsePath("/auth/signin");
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("GET", signin, "user:7"));
+            assertEquals(0, rateLimiter.tryAcquire("GET", PathContainer.parsePath("/actuator/health"), "user:7"));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("GET", PathContainer.parsePath("/accounts/1"), "user:8"));
+        }
+        assertTrue(rateLimiter.tryAcquire("GET", PathContainer.parsePath("/accounts/1"), "user:8") > 0);
+    }
+}
@@ -4,7 +4,7 @@ Write-Host "Starting Banking Microservices Development Environment..." -Foregrou
 # Build all services first
 Write-Host "Building all services..." -ForegroundColor Yellow
 Set-Location $PSScriptRoot\..
-mvn -T1C clean package -DskipTests
+mvn -T1C clean install -DskipTests
 
 # Start Eureka Server
 Write-Host "Starting Eureka Server..." -ForegroundColor Yellow
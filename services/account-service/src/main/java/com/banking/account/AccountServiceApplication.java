@@ -2,8 +2,12 @@ package com.banking.account;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableFeignClients(basePackages = "com.banking.account.feign")
+@EnableScheduling
 public class AccountServiceApplication {
 
 	public static void main(String[] args) {
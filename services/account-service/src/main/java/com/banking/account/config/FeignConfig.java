@@ -0,0 +1,39 @@
+package com.banking.account.config;
+
+import com.banking.common.security.GatewayIdentity;
+import feign.Logger;
+import feign.RequestInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+public class FeignConfig {
+    @Bean
+    Logger.Level feignLoggerLevel() {
+        return Logger.Level.NONE;
+    }
+
+    // Propagate Authorization header (and the gateway's identity header for it) to downstream services;
+    // calls made with no caller (the ownership notifier) authenticate as this service instead
+    @Bean
+    public RequestInterceptor authHeaderForwardingInterceptor(@Value("${gateway.identity.secret:}") String identitySecret,
+                                                              @Value("${spring.application.name}") String applicationName) {
+        GatewayIdentity serviceIdentity = new GatewayIdentity(identitySecret);
+        return template -> {
+            var attrs = RequestContextHolder.getRequestAttributes();
+            if (attrs instanceof ServletRequestAttributes sra) {
+                String auth = sra.getRequest().getHeader("Authorization");
+                if (auth != null && !auth.isBlank()) {
+                    template.header("Authorization", auth);
+                    String identity = sra.getRequest().getHeader(GatewayIdentity.HEADER);
+                    if (identity != null) {
+                        template.header(GatewayIdentity.HEADER, identity);
+                    }
+                    return;
+                }
+            }
+            serviceIdentity.serviceHeaders(applicationName).forEach(template::header);
+        };
+    }
+}
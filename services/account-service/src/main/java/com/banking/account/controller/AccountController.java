@@ -2,15 +2,26 @@ package com.banking.account.controller;
 
 import com.banking.account.dto.*;
 import com.banking.account.service.AccountService;
+import com.banking.account.service.LedgerService;
+import com.banking.common.idempotency.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/accounts")
@@ -20,6 +31,9 @@ import java.util.List;
 public class AccountController {
     
     private final AccountService accountService;
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
+    private final LedgerService ledgerService;
     
     @PostMapping
     @Operation(summary = "Create new account")
@@ -47,9 +61,26 @@ public class AccountController {
     
     @PostMapping("/approvals/bulk")
     @Operation(summary = "Bulk approve/reject accounts")
-    public ResponseEntity<String> bulkApprove(@Valid @RequestBody ApprovalRequest request) {
-        accountService.bulkApprove(request);
-        return ResponseEntity.ok("Approvals processed successfully");
+    public ResponseEntity<BulkApprovalResponse> bulkApprove(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody ApprovalRequest request) {
+        return ResponseEntity.ok(idempotencyService.execute("account.bulk-approve", idempotencyKey, request,
+                BulkApprovalResponse.class, () -> accountService.bulkApprove(request)));
+    }
+    
+    @PostMapping("/transfers")
+    @Operation(summary = "Post a transfer to the ledger", description = "Debits the source and credits the destination account atomically and records balanced journal lines. Re-posting the same reference is a no-op; re-posting it with other accounts or another amount is refused. A refused posting is answered with 422. Service identity only.")
+    @PreAuthorize("principal.claims['role'] == 'SERVICE'")
+    public ResponseEntity<TransferPostingResponse> postTransfer(@Valid @RequestBody TransferPostingRequest request) {
+        return ResponseEntity.ok(ledgerService.postTransfer(request));
+    }
+    
+    @PostMapping("/transfers/batch")
+    @Operation(summary = "Post a batch of transfers to the ledger", description = "Each transfer is posted in its own transaction; refused lines come back with status REJECTED, and lines that failed otherwise with ERROR, instead of failing the batch. At most 500 transfers per call. Service identity only.")
+    @PreAuthorize("principal.claims['role'] == 'SERVICE'")
+    public ResponseEntity<List<TransferPostingResponse>> postTransfers(
+            @Valid @Size(max = LedgerService.MAX_BATCH_SIZE) @RequestBody List<@Valid TransferPostingRequest> requests) {
+        return ResponseEntity.ok(ledgerService.postTransfers(requests));
     }
     
     @PutMapping("/{id}")
@@ -83,5 +114,35 @@ public class AccountController {
     public ResponseEntity<List<AccountResponse>> getAllAccounts() {
         return ResponseEntity.ok(accountService.getAllAccounts());
     }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Get accounts by ids", description = "Body is a JSON array of ids (at most 5000). Returns a map of id to account; unknown ids are left out.")
+    public ResponseEntity<Map<Long, AccountResponse>> getAccountsByIds(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(accountService.getAccountsByIds(ids));
+    }
+
+    @GetMapping("/page")
+    @Operation(summary = "Get accounts page by cursor", description = "Keyset pagination ordered by id. Pass the returned nextCursor as 'after' to continue; nextCursor is null on the last page.")
+    public ResponseEntity<CursorPage<AccountResponse>> getAccountsPage(
+            @RequestParam(name = "after", required = false) Long after,
+            @RequestParam(name = "size", defaultValue = "100") int size) {
+        return ResponseEntity.ok(accountService.getAccountsPage(after, size));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all accounts as NDJSON", description = "One JSON object per line, read from a database cursor; memory use does not grow with the table.")
+    public ResponseEntity<StreamingResponseBody> streamAllAccounts() {
+        StreamingResponseBody body = out -> accountService.streamAllAccounts(item -> writeLine(out, item));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void writeLine(OutputStream out, Object item) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(item));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
 
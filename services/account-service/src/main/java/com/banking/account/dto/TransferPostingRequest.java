@@ -0,0 +1,30 @@
+package com.banking.account.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferPostingRequest {
+
+    @NotBlank(message = "Reference is required")
+    private String reference; // caller's business key, e.g. PAYMENT-42
+
+    @NotNull(message = "Source account is required")
+    private Long fromAccountId;
+
+    @NotNull(message = "Destination account is required")
+    private Long toAccountId;
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be positive")
+    private BigDecimal amount;
+
+    private String currency; // defaults to USD
+}
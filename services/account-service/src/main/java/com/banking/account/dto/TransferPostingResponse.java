@@ -0,0 +1,23 @@
+package com.banking.account.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransferPostingResponse {
+    private String reference;
+    private Long fromAccountId;
+    private Long toAccountId;
+    private BigDecimal amount;
+    private String currency;
+    private String status; // POSTED; batch postings also REJECTED or ERROR (not posted, may be retried)
+    private String message;
+    private LocalDateTime postedAt;
+}
@@ -18,6 +18,9 @@ import java.time.LocalDateTime;
 @Builder
 public class Account {
     
+    // Aggregate type of this entity's outbox events
+    public static final String AGGREGATE_TYPE = "Account";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -0,0 +1,56 @@
+package com.banking.account.entity;
+
+import com.banking.account.enums.LedgerEntryType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One side of a double-entry posting. Every transfer writes exactly one DEBIT and one CREDIT
+ * line sharing the same reference; the unique constraint makes a replayed posting fail instead
+ * of moving money twice.
+ */
+@Entity
+@Table(
+    name = "ledger_entries",
+    uniqueConstraints = @UniqueConstraint(name = "uk_ledger_reference_type", columnNames = {"reference", "entryType"}),
+    indexes = @Index(name = "idx_ledger_account", columnList = "accountId")
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String reference; // e.g. PAYMENT-42
+
+    @Column(nullable = false)
+    private Long accountId;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private LedgerEntryType entryType;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private String currency;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
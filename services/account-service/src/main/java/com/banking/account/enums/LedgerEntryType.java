@@ -0,0 +1,6 @@
+package com.banking.account.enums;
+
+public enum LedgerEntryType {
+    DEBIT,
+    CREDIT
+}
@@ -0,0 +1,8 @@
+package com.banking.account.event;
+
+/**
+ * Published when a customer gains or loses an account, so caches of "which accounts belong to
+ * this customer" elsewhere can be dropped.
+ */
+public record AccountOwnershipChangedEvent(Long customerId) {
+}
@@ -0,0 +1,16 @@
+package com.banking.account.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The ledger's definite refusal of a posting (insufficient funds, unknown account, invalid
+ * amount). Answered with 422, so callers can tell it from a failure that may have posted.
+ */
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class TransferRejectedException extends RuntimeException {
+
+    public TransferRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.banking.account.feign;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+@FeignClient(
+        name = "payment-service",
+        path = "/payments",
+        configuration = com.banking.account.config.FeignConfig.class
+)
+public interface PaymentServiceClient {
+
+    @DeleteMapping("/account-ownership/{userId}")
+    void evictAccountOwnership(@PathVariable("userId") Long userId);
+}
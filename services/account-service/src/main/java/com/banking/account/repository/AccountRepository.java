@@ -1,12 +1,24 @@
 package com.banking.account.repository;
 
+import com.banking.account.dto.AccountResponse;
 import com.banking.account.entity.Account;
 import com.banking.account.enums.AccountStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
@@ -14,5 +26,39 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     List<Account> findByCustomerId(Long customerId);
     List<Account> findByCustomerIdAndStatus(Long customerId, AccountStatus status);
     List<Account> findByStatus(AccountStatus status);
-}
 
+    // Conditional single-row updates used by the ledger: the row lock taken by the UPDATE is the
+    // only synchronisation, so concurrent postings never read-modify-write a stale balance.
+    @Modifying
+    @Query("UPDATE Account a SET a.balance = a.balance - :amount, a.updatedAt = :now " +
+           "WHERE a.id = :id AND a.balance >= :amount")
+    int debitIfSufficient(@Param("id") Long id, @Param("amount") BigDecimal amount, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Account a SET a.balance = a.balance + :amount, a.updatedAt = :now WHERE a.id = :id")
+    int credit(@Param("id") Long id, @Param("amount") BigDecimal amount, @Param("now") LocalDateTime now);
+
+    // Bulk approval works a chunk of ids at a time: lock the rows and read their statuses, then
+    // move every row still in the expected state with a single set-based UPDATE.
+    @Query(value = "SELECT id, status FROM accounts WHERE id IN (:ids) FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Account x SET x.status = :to, x.updatedAt = :now WHERE x.id IN :ids AND x.status = :from")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids, @Param("from") AccountStatus from,
+                           @Param("to") AccountStatus to, @Param("now") LocalDateTime now);
+
+    // Keyset pagination: ids are monotonically assigned, so "id > cursor ORDER BY id" walks the
+    // table in creation order with an index seek per page instead of an OFFSET scan.
+    List<Account> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT x FROM Account x ORDER BY x.id")
+    Stream<Account> streamAllByOrderByIdAsc();
+
+    // Batch lookup by id: one IN query straight into the response DTO, no entities loaded
+    @Query("SELECT new com.banking.account.dto.AccountResponse(" +
+           "x.id, x.customerId, x.accountNumber, CAST(x.accountType AS String), x.balance, x.currency, CAST(x.status AS String), x.createdAt, x.updatedAt) " +
+           "FROM Account x WHERE x.id IN :ids")
+    List<AccountResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+}
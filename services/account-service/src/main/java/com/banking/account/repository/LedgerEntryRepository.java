@@ -0,0 +1,13 @@
+package com.banking.account.repository;
+
+import com.banking.account.entity.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+    boolean existsByReference(String reference);
+    List<LedgerEntry> findByReference(String reference);
+}
@@ -0,0 +1,48 @@
+package com.banking.account.service;
+
+import com.banking.account.event.AccountOwnershipChangedEvent;
+import com.banking.account.feign.PaymentServiceClient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tells payment-service to drop its cached account list for a customer once the change is
+ * committed. The commit only queues the customer id; a scheduled flush makes the calls off the
+ * request thread, once per customer however many of their accounts changed, as this service
+ * (the endpoint is not open to customers). Best effort: if a call fails, the cache entry simply
+ * ages out on its TTL.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountOwnershipNotifier {
+
+    private final PaymentServiceClient paymentServiceClient;
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    @TransactionalEventListener
+    public void onOwnershipChanged(AccountOwnershipChangedEvent event) {
+        pending.add(event.customerId());
+    }
+
+    @Scheduled(fixedDelayString = "${account.ownership-eviction.interval-ms:500}")
+    public void flush() {
+        List<Long> customerIds = new ArrayList<>(pending);
+        pending.removeAll(customerIds);
+        for (Long customerId : customerIds) {
+            try {
+                paymentServiceClient.evictAccountOwnership(customerId);
+            } catch (RuntimeException e) {
+                log.warn("Could not evict account ownership cache for customer {}: {}", customerId, e.getMessage());
+            }
+        }
+    }
+}
@@ -2,23 +2,47 @@ package com.banking.account.service;
 
 import com.banking.account.dto.*;
 import com.banking.account.entity.Account;
+import com.banking.account.event.AccountOwnershipChangedEvent;
 import com.banking.account.repository.AccountRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.Random;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import com.banking.account.enums.AccountStatus;
 import com.banking.account.enums.AccountType;
+import com.banking.common.outbox.OutboxService;
 
 @Service
 @RequiredArgsConstructor
 public class AccountService {
     
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BATCH_LOOKUP = 5000;
+    private static final int BULK_CHUNK_SIZE = 1000;
+    
     private final AccountRepository accountRepository;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
     
     @Transactional
     public AccountResponse createAccount(AccountRequest request) {
@@ -32,6 +56,8 @@ public class AccountService {
             .build();
         
         account = accountRepository.save(account);
+        outboxService.append(Account.AGGREGATE_TYPE, account.getId(), "AccountCreated", toResponse(account));
+        eventPublisher.publishEvent(new AccountOwnershipChangedEvent(account.getCustomerId()));
         return toResponse(account);
     }
     
@@ -66,12 +92,59 @@ public class AccountService {
             .collect(Collectors.toList());
     }
     
-    @Transactional
-    public void bulkApprove(ApprovalRequest request) {
-        List<Account> accounts = accountRepository.findAllById(request.getIds());
-        
-        accounts.forEach(a -> a.setStatus(AccountStatus.valueOf(request.getStatus().toUpperCase())));
-        accountRepository.saveAll(accounts);
+    /**
+     * Moves every PENDING id in the request to the target status with set-based UPDATEs, one chunk
+     * at a time, so the cost grows with the number of chunks rather than the number of rows and no
+     * entity is ever loaded. Each chunk commits in its own transaction, so its row locks are released
+     * before the next chunk is locked. Ids that are unknown or no longer PENDING are reported, not
+     * touched.
+     */
+    public BulkApprovalResponse bulkApprove(ApprovalRequest request) {
+        AccountStatus target = AccountStatus.valueOf(request.getStatus().toUpperCase());
+        List<Long> ids = distinctIds(request.getIds());
+        List<BulkApprovalResponse.Outcome> outcomes = new ArrayList<>(ids.size());
+        int updated = 0;
+        for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size()));
+            Map<Long, String> current = transactionTemplate.execute(status -> movePending(chunk, target));
+            for (Long id : chunk) {
+                String outcome = !current.containsKey(id) ? "NOT_FOUND"
+                    : AccountStatus.PENDING.name().equals(current.get(id)) ? "UPDATED" : "NOT_PENDING";
+                outcomes.add(new BulkApprovalResponse.Outcome(id, outcome));
+                if (outcome.equals("UPDATED")) {
+                    updated++;
+                }
+            }
+        }
+        return new BulkApprovalResponse(ids.size(), updated, outcomes);
+    }
+    
+    private Map<Long, String> movePending(List<Long> chunk, AccountStatus to) {
+        Map<Long, String> current = new HashMap<>();
+        for (Object[] row : accountRepository.lockStatusesByIdIn(chunk)) {
+            current.put(((Number) row[0]).longValue(), String.valueOf(row[1]));
+        }
+        List<Long> pending = chunk.stream()
+            .filter(id -> AccountStatus.PENDING.name().equals(current.get(id)))
+            .collect(Collectors.toList());
+        if (!pending.isEmpty()) {
+            accountRepository.updateStatusByIdIn(pending, AccountStatus.PENDING, to, LocalDateTime.now());
+            Map<Long, Object> changes = new LinkedHashMap<>();
+            pending.forEach(id -> changes.put(id, statusChange(id, to)));
+            outboxService.appendAll(Account.AGGREGATE_TYPE, "AccountStatusChanged", changes);
+        }
+        return current;
+    }
+    
+    private static Map<String, Object> statusChange(Long accountId, AccountStatus status) {
+        return Map.of("accountId", accountId, "status", status.name());
+    }
+    
+    private static List<Long> distinctIds(List<Long> ids) {
+        if (ids == null) {
+            return List.of();
+        }
+        return ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
     }
     
     @Transactional
@@ -84,6 +157,7 @@ public class AccountService {
         }
         
         account = accountRepository.save(account);
+        outboxService.append(Account.AGGREGATE_TYPE, account.getId(), "AccountUpdated", toResponse(account));
         return toResponse(account);
     }
     
@@ -94,6 +168,8 @@ public class AccountService {
         
         account.setStatus(AccountStatus.CLOSED);
         accountRepository.save(account);
+        outboxService.append(Account.AGGREGATE_TYPE, account.getId(), "AccountStatusChanged", statusChange(account.getId(), AccountStatus.CLOSED));
+        eventPublisher.publishEvent(new AccountOwnershipChangedEvent(account.getCustomerId()));
     }
     
     public List<AccountResponse> getAccountsByUserId(Long userId) {
@@ -143,5 +219,47 @@ public class AccountService {
         List<Account> accounts = accountRepository.findAll();
         return accounts.stream().map(this::toResponse).collect(Collectors.toList());
     }
+
+    /** Looks up many accounts in one query; ids that do not exist are simply absent from the map. */
+    public Map<Long, AccountResponse> getAccountsByIds(List<Long> requestedIds) {
+        List<Long> ids = distinctIds(requestedIds);
+        if (ids.size() > MAX_BATCH_LOOKUP) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "At most " + MAX_BATCH_LOOKUP + " ids per batch lookup, got " + ids.size());
+        }
+        Map<Long, AccountResponse> byId = new LinkedHashMap<>();
+        if (ids.isEmpty()) {
+            return byId;
+        }
+        Map<Long, AccountResponse> found = accountRepository.findResponsesByIdIn(ids).stream()
+            .collect(Collectors.toMap(AccountResponse::getId, r -> r));
+        // Answer in the caller's order so the response is stable for identical requests
+        for (Long id : ids) {
+            AccountResponse response = found.get(id);
+            if (response != null) {
+                byId.put(id, response);
+            }
+        }
+        return byId;
+    }
+
+    public CursorPage<AccountResponse> getAccountsPage(Long after, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        List<Account> rows = accountRepository.findByIdGreaterThanOrderByIdAsc(after != null ? after : 0L, PageRequest.of(0, pageSize + 1));
+        List<AccountResponse> items = rows.stream().limit(pageSize).map(this::toResponse).collect(Collectors.toList());
+        Long nextCursor = rows.size() > pageSize ? items.get(items.size() - 1).getId() : null;
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAllAccounts(Consumer<AccountResponse> sink) {
+        try (Stream<Account> rows = accountRepository.streamAllByOrderByIdAsc()) {
+            rows.forEach(row -> {
+                sink.accept(toResponse(row));
+                entityManager.detach(row); // keep the persistence context from growing with the table
+            });
+        }
+    }
 }
 
@@ -0,0 +1,167 @@
+package com.banking.account.service;
+
+import com.banking.account.dto.TransferPostingRequest;
+import com.banking.account.dto.TransferPostingResponse;
+import com.banking.account.entity.Account;
+import com.banking.account.entity.LedgerEntry;
+import com.banking.account.enums.LedgerEntryType;
+import com.banking.account.exception.TransferRejectedException;
+import com.banking.account.repository.AccountRepository;
+import com.banking.account.repository.LedgerEntryRepository;
+import com.banking.common.outbox.OutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Double-entry posting engine. A transfer debits the source account only if it has enough funds
+ * (conditional UPDATE), credits the destination, and writes a balanced DEBIT/CREDIT pair - all in
+ * one transaction. Rows are always touched in ascending id order so two opposing transfers cannot
+ * deadlock on each other's row locks. A refused posting throws {@link TransferRejectedException}
+ * (422); any other failure is a 5xx and the caller may post the same reference again. A reference
+ * already in the journal is answered from it, and refused if the request names other accounts or
+ * another amount.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LedgerService {
+
+    /** Most transfers one batch call may carry; payment-service posts in chunks of this size. */
+    public static final int MAX_BATCH_SIZE = 500;
+
+    private final AccountRepository accountRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxService outboxService;
+
+    @Transactional
+    public TransferPostingResponse postTransfer(TransferPostingRequest request) {
+        Long fromId = request.getFromAccountId();
+        Long toId = request.getToAccountId();
+        if (fromId.equals(toId)) {
+            throw new TransferRejectedException("Cannot transfer to the same account");
+        }
+        if (request.getAmount() == null || request.getAmount().signum() <= 0) {
+            throw new TransferRejectedException("Transfer amount must be positive");
+        }
+        String currency = request.getCurrency() != null ? request.getCurrency() : "USD";
+
+        // Replays of an already-posted reference are answered from the journal, not re-applied
+        List<LedgerEntry> existing = ledgerEntryRepository.findByReference(request.getReference());
+        if (!existing.isEmpty()) {
+            if (!matches(existing, request, currency)) {
+                throw new TransferRejectedException("Reference " + request.getReference()
+                    + " was already posted with other accounts or another amount");
+            }
+            return toResponse(request, currency, existing.get(0).getCreatedAt());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (fromId < toId) {
+            debit(fromId, request, now);
+            credit(toId, request, now);
+        } else {
+            credit(toId, request, now);
+            debit(fromId, request, now);
+        }
+
+        ledgerEntryRepository.saveAll(List.of(
+            line(request, fromId, LedgerEntryType.DEBIT, currency),
+            line(request, toId, LedgerEntryType.CREDIT, currency)
+        ));
+        outboxService.append(Account.AGGREGATE_TYPE, fromId, "AccountDebited", movement(request, fromId, currency));
+        outboxService.append(Account.AGGREGATE_TYPE, toId, "AccountCredited", movement(request, toId, currency));
+        return toResponse(request, currency, now);
+    }
+
+    /**
+     * Posts a batch of transfers, each in its own transaction, so a line that is rejected
+     * (insufficient funds, unknown account) is reported without rolling back the others. A line
+     * that fails for any other reason comes back as ERROR: it was not posted, and may be posted
+     * again under the same reference.
+     */
+    public List<TransferPostingResponse> postTransfers(List<TransferPostingRequest> requests) {
+        List<TransferPostingResponse> results = new ArrayList<>(requests.size());
+        for (TransferPostingRequest request : requests) {
+            try {
+                results.add(transactionTemplate.execute(status -> postTransfer(request)));
+            } catch (TransferRejectedException e) {
+                results.add(unposted(request, "REJECTED", e.getMessage()));
+            } catch (RuntimeException e) {
+                log.warn("Posting {} failed: {}", request.getReference(), e.getMessage());
+                results.add(unposted(request, "ERROR", "Posting failed, retry with the same reference"));
+            }
+        }
+        return results;
+    }
+
+    private TransferPostingResponse unposted(TransferPostingRequest request, String status, String message) {
+        TransferPostingResponse response = toResponse(request, request.getCurrency(), null);
+        response.setStatus(status);
+        response.setMessage(message);
+        return response;
+    }
+
+    private static boolean matches(List<LedgerEntry> posted, TransferPostingRequest request, String currency) {
+        for (LedgerEntry entry : posted) {
+            Long expectedAccount = entry.getEntryType() == LedgerEntryType.DEBIT ? request.getFromAccountId() : request.getToAccountId();
+            if (!entry.getAccountId().equals(expectedAccount)
+                    || entry.getAmount().compareTo(request.getAmount()) != 0
+                    || !entry.getCurrency().equals(currency)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void debit(Long accountId, TransferPostingRequest request, LocalDateTime now) {
+        if (accountRepository.debitIfSufficient(accountId, request.getAmount(), now) == 0) {
+            throw new TransferRejectedException("Insufficient funds or account not found: " + accountId);
+        }
+    }
+
+    private void credit(Long accountId, TransferPostingRequest request, LocalDateTime now) {
+        if (accountRepository.credit(accountId, request.getAmount(), now) == 0) {
+            throw new TransferRejectedException("Account not found: " + accountId);
+        }
+    }
+
+    private static Map<String, Object> movement(TransferPostingRequest request, Long accountId, String currency) {
+        return Map.of(
+            "accountId", accountId,
+            "reference", request.getReference(),
+            "amount", request.getAmount(),
+            "currency", currency
+        );
+    }
+
+    private LedgerEntry line(TransferPostingRequest request, Long accountId, LedgerEntryType type, String currency) {
+        return LedgerEntry.builder()
+            .reference(request.getReference())
+            .accountId(accountId)
+            .entryType(type)
+            .amount(request.getAmount())
+            .currency(currency)
+            .build();
+    }
+
+    private TransferPostingResponse toResponse(TransferPostingRequest request, String currency, LocalDateTime postedAt) {
+        return TransferPostingResponse.builder()
+            .reference(request.getReference())
+            .fromAccountId(request.getFromAccountId())
+            .toAccountId(request.getToAccountId())
+            .amount(request.getAmount())
+            .currency(currency)
+            .status("POSTED")
+            .postedAt(postedAt)
+            .build();
+    }
+}
@@ -0,0 +1,138 @@
+package com.banking.account.config;
+
+import com.banking.common.security.TokenRevocationList;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The resource-server decoder against a stub JWKS endpoint: tokens verify locally from the cached
+ * key set, so repeated requests do not fetch it again.
+ */
+class JwksDecoderTests {
+
+    private HttpServer server;
+
+    @AfterEach
+    void stop() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    @DisplayName("jwtDecoder verifies RS256, ES256 and EdDSA tokens by kid from one cached JWKS fetch")
+    void jwtDecoder_cachesKeySet() throws Exception {
+        RSAKey rsaKey = new RSAKeyGenerator(2048).keyID("rsa-1").algorithm(JWSAlgorithm.RS256).generate();
+        ECKey ecKey = new ECKeyGenerator(Curve.P_256).keyID("ec-1").algorithm(JWSAlgorithm.ES256).generate();
+        // Nimbus generates and signs Ed25519 through Tink, so the EdDSA key comes from the JDK
+        KeyPair edPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        byte[] edEncoded = edPair.getPublic().getEncoded();
+        OctetKeyPair edKey = new OctetKeyPair.Builder(Curve.Ed25519,
+                Base64URL.encode(Arrays.copyOfRange(edEncoded, edEncoded.length - 32, edEncoded.length)))
+                .keyID("ed-1").algorithm(JWSAlgorithm.EdDSA).build();
+        RSAKey unpublishedKey = new RSAKeyGenerator(2048).keyID("rsa-2").generate();
+        AtomicInteger fetches = new AtomicInteger();
+        String jwks = new JWKSet(List.of(rsaKey.toPublicJWK(), ecKey.toPublicJWK(), edKey.toPublicJWK())).toString();
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/auth/.well-known/jwks.json", exchange -> {
+            fetches.incrementAndGet();
+            byte[] body = jwks.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+
+        SecurityConfig config = new SecurityConfig();
+        ReflectionTestUtils.setField(config, "jwkSetUri",
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/auth/.well-known/jwks.json");
+        ReflectionTestUtils.setField(config, "jwsAlgorithms", new String[] {"RS256", "ES256", "EdDSA"});
+        ReflectionTestUtils.setField(config, "jwkSetCacheTtl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(config, "jwkSetOutageTolerance", Duration.ofHours(1));
+        TokenRevocationList revocations = new TokenRevocationList("http://127.0.0.1:1/auth/revocations");
+        revocations.apply(new TokenRevocationList.Changes("e1", 1, true,
+                List.of(new TokenRevocationList.Entry("revoked-jti", Instant.now().plusSeconds(300).getEpochSecond()))));
+        ReflectionTestUtils.setField(config, "tokenRevocationList", revocations);
+        JwtDecoder decoder = config.jwtDecoder();
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("alice", decoder.decode(token(rsaKey, JWSAlgorithm.RS256, new RSASSASigner(rsaKey), "alice")).getSubject());
+        }
+        assertEquals("bob", decoder.decode(token(ecKey, JWSAlgorithm.ES256, new ECDSASigner(ecKey), "bob")).getSubject());
+        assertEquals("carol", decoder.decode(ed25519Token(edKey, edPair.getPrivate(), "carol")).getSubject());
+        // Signature-valid but revoked
+        assertThrows(JwtException.class, () -> decoder.decode(
+                token(rsaKey, JWSAlgorithm.RS256, new RSASSASigner(rsaKey), "revoked-jti", "dave")));
+        assertThrows(JwtException.class, () -> decoder.decode(
+                token(unpublishedKey, JWSAlgorithm.RS256, new RSASSASigner(unpublishedKey), "mallory")));
+        assertTrue(fetches.get() <= 2, "key set fetched " + fetches.get() + " times");
+    }
+
+    private static String token(JWK key, JWSAlgorithm algorithm, JWSSigner signer, String subject) throws Exception {
+        return token(key, algorithm, signer, null, subject);
+    }
+
+    private static String token(JWK key, JWSAlgorithm algorithm, JWSSigner signer, String jti, String subject)
+            throws Exception {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder(claims(subject)).jwtID(jti).build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(algorithm).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(signer);
+        return jwt.serialize();
+    }
+
+    private static String ed25519Token(JWK key, PrivateKey privateKey, String subject) throws Exception {
+        Base64URL header = new JWSHeader.Builder(JWSAlgorithm.EdDSA).keyID(key.getKeyID()).build().toBase64URL();
+        Base64URL payload = Base64URL.encode(claims(subject).toString());
+        Signature signer = Signature.getInstance("Ed25519");
+        signer.initSign(privateKey);
+        signer.update((header + "." + payload).getBytes(StandardCharsets.US_ASCII));
+        return header + "." + payload + "." + Base64URL.encode(signer.sign());
+    }
+
+    private static JWTClaimsSet claims(String subject) {
+        return new JWTClaimsSet.Builder()
+                .subject(subject)
+                .claim("role", "CUSTOMER")
+                .issueTime(new Date())
+                .expirationTime(Date.from(Instant.now().plusSeconds(300)))
+                .build();
+    }
+}
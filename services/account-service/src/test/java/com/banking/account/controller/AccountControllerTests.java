@@ -2,7 +2,10 @@ package com.banking.account.controller;
 
 import com.banking.account.dto.*;
 import com.banking.account.service.AccountService;
+import com.banking.common.idempotency.IdempotencyService;
+import com.banking.account.service.LedgerService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -18,6 +21,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -33,6 +37,14 @@ class AccountControllerTests {
     @Autowired private ObjectMapper objectMapper;
 
     @MockBean private AccountService accountService;
+    @MockBean private IdempotencyService idempotencyService;
+    @MockBean private LedgerService ledgerService;
+
+    @BeforeEach
+    void idempotencyPassThrough() {
+        when(idempotencyService.execute(any(), any(), any(), any(), any()))
+                .thenAnswer(inv -> inv.<java.util.function.Supplier<?>>getArgument(4).get());
+    }
 
     @Test
     @DisplayName("GET /accounts/{id} returns account (200)")
@@ -91,4 +103,91 @@ class AccountControllerTests {
         verify(accountService).getAccountsByUserId(5L, "ACTIVE");
         verify(accountService, never()).getAccountsByUserId(5L);
     }
+
+    @Test
+    @DisplayName("POST /accounts/transfers posts to the ledger (200)")
+    void postTransfer_ok() throws Exception {
+        TransferPostingRequest req = new TransferPostingRequest("PAYMENT-1", 1L, 2L, new BigDecimal("25.00"), "USD");
+        TransferPostingResponse resp = TransferPostingResponse.builder()
+                .reference("PAYMENT-1").fromAccountId(1L).toAccountId(2L).status("POSTED").build();
+        when(ledgerService.postTransfer(any(TransferPostingRequest.class))).thenReturn(resp);
+
+        mockMvc.perform(post("/accounts/transfers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("POSTED"));
+    }
+
+    @Test
+    @DisplayName("POST /accounts/transfers rejects non-positive amount (400)")
+    void postTransfer_invalidAmount() throws Exception {
+        TransferPostingRequest req = new TransferPostingRequest("PAYMENT-2", 1L, 2L, BigDecimal.ZERO, "USD");
+
+        mockMvc.perform(post("/accounts/transfers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isBadRequest());
+
+        verify(ledgerService, never()).postTransfer(any());
+    }
+
+    @Test
+    @DisplayName("POST /accounts/transfers/batch validates every line and the batch size (400)")
+    void postTransfers_invalid() throws Exception {
+        TransferPostingRequest valid = new TransferPostingRequest("PAYMENT-3", 1L, 2L, new BigDecimal("5.00"), "USD");
+        TransferPostingRequest noReference = new TransferPostingRequest(null, 1L, 2L, new BigDecimal("5.00"), "USD");
+
+        mockMvc.perform(post("/accounts/transfers/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(valid, noReference))))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/accounts/transfers/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                java.util.Collections.nCopies(LedgerService.MAX_BATCH_SIZE + 1, valid))))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/accounts/transfers/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(valid))))
+                .andExpect(status().isOk());
+
+        verify(ledgerService, times(1)).postTransfers(any());
+    }
+
+    @Test
+    @DisplayName("GET /accounts/page returns items and next cursor (200)")
+    void getAccountsPage_ok() throws Exception {
+        when(accountService.getAccountsPage(10L, 2)).thenReturn(new CursorPage<>(List.of(
+                AccountResponse.builder().id(11L).build(),
+                AccountResponse.builder().id(12L).build()), 12L));
+
+        mockMvc.perform(get("/accounts/page").param("after", "10").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.nextCursor").value(12));
+    }
+
+    @Test
+    @DisplayName("GET /accounts/stream writes one JSON object per line")
+    void streamAccounts_ndjson() throws Exception {
+        doAnswer(inv -> {
+            java.util.function.Consumer<AccountResponse> sink = inv.getArgument(0);
+            sink.accept(AccountResponse.builder().id(1L).build());
+            sink.accept(AccountResponse.builder().id(2L).build());
+            return null;
+        }).when(accountService).streamAllAccounts(any());
+
+        org.springframework.test.web.servlet.MvcResult result = mockMvc.perform(get("/accounts/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.trim().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(2L, objectMapper.readTree(lines[1]).get("id").asLong());
+    }
 }
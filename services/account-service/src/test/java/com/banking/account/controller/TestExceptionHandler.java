@@ -1,6 +1,7 @@
 package com.banking.account.controller;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
@@ -12,5 +13,11 @@ public class TestExceptionHandler {
     public ResponseEntity<Object> handleRuntime(RuntimeException ex) {
         return ResponseEntity.status(500).body(Map.of("error", ex.getMessage()));
     }
+
+    // Method validation failures (e.g. a constrained list body) carry their own 4xx status
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<Object> handleStatus(ResponseStatusException ex) {
+        return ResponseEntity.status(ex.getStatusCode()).body(Map.of("error", String.valueOf(ex.getReason())));
+    }
 }
 
@@ -0,0 +1,80 @@
+package com.banking.account.service;
+
+import com.banking.account.dto.AccountResponse;
+import com.banking.account.entity.Account;
+import com.banking.account.enums.AccountStatus;
+import com.banking.account.enums.AccountType;
+import com.banking.account.repository.AccountRepository;
+import com.banking.common.outbox.OutboxService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the batch lookup's DTO projection against a real database, enum columns included.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:batch-lookup;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import({AccountService.class, OutboxService.class, JacksonAutoConfiguration.class})
+class AccountBatchLookupTests {
+
+    @Autowired private AccountService accountService;
+    @Autowired private AccountRepository accountRepository;
+
+    @Test
+    @DisplayName("getAccountsByIds maps found ids in request order and leaves unknown ids out")
+    void getAccountsByIds_projectsFoundAccounts() {
+        Account savings = save("LOOKUP-1", AccountType.SAVINGS, AccountStatus.ACTIVE);
+        Account checking = save("LOOKUP-2", AccountType.CHECKING, AccountStatus.PENDING);
+
+        Map<Long, AccountResponse> byId = accountService.getAccountsByIds(
+                List.of(checking.getId(), -1L, savings.getId(), checking.getId()));
+
+        assertEquals(List.of(checking.getId(), savings.getId()), new ArrayList<>(byId.keySet()));
+        AccountResponse response = byId.get(checking.getId());
+        assertEquals("LOOKUP-2", response.getAccountNumber());
+        assertEquals("CHECKING", response.getAccountType());
+        assertEquals("PENDING", response.getStatus());
+        assertEquals(0, new BigDecimal("25.00").compareTo(response.getBalance()));
+    }
+
+    @Test
+    @DisplayName("getAccountsByIds refuses oversized requests")
+    void getAccountsByIds_rejectsTooManyIds() {
+        List<Long> ids = new ArrayList<>();
+        for (long i = 1; i <= 5_001; i++) {
+            ids.add(i);
+        }
+        assertThrows(ResponseStatusException.class, () -> accountService.getAccountsByIds(ids));
+        assertTrue(accountService.getAccountsByIds(Collections.emptyList()).isEmpty());
+    }
+
+    private Account save(String number, AccountType type, AccountStatus status) {
+        return accountRepository.save(Account.builder()
+                .customerId(1L)
+                .accountNumber(number)
+                .accountType(type)
+                .balance(new BigDecimal("25.00"))
+                .currency("USD")
+                .status(status)
+                .build());
+    }
+}
@@ -0,0 +1,71 @@
+package com.banking.account.service;
+
+import com.banking.account.dto.ApprovalRequest;
+import com.banking.account.dto.BulkApprovalResponse;
+import com.banking.account.entity.Account;
+import com.banking.account.enums.AccountStatus;
+import com.banking.account.enums.AccountType;
+import com.banking.account.repository.AccountRepository;
+import com.banking.common.outbox.OutboxService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs bulk approval against a real database with more ids than fit in one chunk, including ids
+ * that are already approved and ids that do not exist.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulk-approval;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import({AccountService.class, OutboxService.class, JacksonAutoConfiguration.class})
+class AccountBulkApprovalTests {
+
+    @Autowired private AccountService accountService;
+    @Autowired private AccountRepository accountRepository;
+
+    @Test
+    @DisplayName("bulkApprove spans chunks and reports every id")
+    void bulkApprove_acrossChunks() {
+        List<Account> seed = new ArrayList<>();
+        for (int i = 0; i < 2_500; i++) {
+            seed.add(Account.builder()
+                    .customerId((long) i)
+                    .accountNumber("BULK-" + i)
+                    .accountType(AccountType.SAVINGS)
+                    .balance(BigDecimal.ZERO)
+                    .currency("USD")
+                    .status(i % 10 == 0 ? AccountStatus.ACTIVE : AccountStatus.PENDING)
+                    .build());
+        }
+        List<Long> ids = accountRepository.saveAll(seed).stream().map(Account::getId).collect(Collectors.toList());
+        ids.add(-1L);
+
+        BulkApprovalResponse resp = accountService.bulkApprove(new ApprovalRequest(ids, "active"));
+
+        assertEquals(2_501, resp.getRequested());
+        assertEquals(2_250, resp.getUpdated());
+        Map<String, Long> counts = resp.getOutcomes().stream()
+                .collect(Collectors.groupingBy(BulkApprovalResponse.Outcome::getOutcome, Collectors.counting()));
+        assertEquals(Map.of("UPDATED", 2_250L, "NOT_PENDING", 250L, "NOT_FOUND", 1L), counts);
+
+        accountRepository.flush();
+        assertTrue(accountRepository.findByStatus(AccountStatus.PENDING).isEmpty());
+    }
+}
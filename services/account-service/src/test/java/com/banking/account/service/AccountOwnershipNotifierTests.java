@@ -0,0 +1,46 @@
+package com.banking.account.service;
+
+import com.banking.account.event.AccountOwnershipChangedEvent;
+import com.banking.account.feign.PaymentServiceClient;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountOwnershipNotifierTests {
+
+    @Mock private PaymentServiceClient paymentServiceClient;
+    @InjectMocks private AccountOwnershipNotifier notifier;
+
+    @Test
+    @DisplayName("a commit only queues the customer; the flush evicts each customer once")
+    void flush_evictsOncePerCustomer() {
+        notifier.onOwnershipChanged(new AccountOwnershipChangedEvent(1L));
+        notifier.onOwnershipChanged(new AccountOwnershipChangedEvent(2L));
+        notifier.onOwnershipChanged(new AccountOwnershipChangedEvent(1L));
+        verifyNoInteractions(paymentServiceClient);
+
+        notifier.flush();
+        notifier.flush();
+
+        verify(paymentServiceClient, times(1)).evictAccountOwnership(1L);
+        verify(paymentServiceClient, times(1)).evictAccountOwnership(2L);
+    }
+
+    @Test
+    @DisplayName("a failed eviction is logged and does not stop the others")
+    void flush_isBestEffort() {
+        doThrow(new IllegalStateException("payment-service down")).when(paymentServiceClient).evictAccountOwnership(1L);
+        notifier.onOwnershipChanged(new AccountOwnershipChangedEvent(1L));
+        notifier.onOwnershipChanged(new AccountOwnershipChangedEvent(2L));
+
+        notifier.flush();
+
+        verify(paymentServiceClient).evictAccountOwnership(2L);
+    }
+}
@@ -4,20 +4,27 @@ import com.banking.account.dto.*;
 import com.banking.account.entity.Account;
 import com.banking.account.enums.AccountStatus;
 import com.banking.account.enums.AccountType;
+import com.banking.account.event.AccountOwnershipChangedEvent;
 import com.banking.account.repository.AccountRepository;
+import com.banking.common.outbox.OutboxService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -27,6 +34,10 @@ import static org.mockito.Mockito.*;
 class AccountServiceTests {
 
     @Mock private AccountRepository accountRepository;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private OutboxService outboxService;
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    @Spy private TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
     @InjectMocks private AccountService accountService;
 
     @Test
@@ -47,6 +58,8 @@ class AccountServiceTests {
         assertEquals("USD", resp.getCurrency());
         assertEquals("PENDING", resp.getStatus());
         assertEquals(1L, resp.getCustomerId());
+        verify(eventPublisher).publishEvent(new AccountOwnershipChangedEvent(1L));
+        verify(outboxService).append(eq(Account.AGGREGATE_TYPE), eq(100L), eq("AccountCreated"), any());
     }
 
     @Test
@@ -82,16 +95,35 @@ class AccountServiceTests {
     }
 
     @Test
-    @DisplayName("bulkApprove updates statuses and saves")
+    @DisplayName("bulkApprove updates PENDING rows in one statement and reports skipped ids")
     void bulkApprove_ok() {
-        Account a = Account.builder().id(1L).status(AccountStatus.PENDING).build();
-        when(accountRepository.findAllById(any())).thenReturn(List.of(a));
+        when(accountRepository.lockStatusesByIdIn(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                new Object[]{1L, "PENDING"}, new Object[]{2L, "ACTIVE"}));
+        when(accountRepository.updateStatusByIdIn(eq(List.of(1L)), eq(AccountStatus.PENDING), eq(AccountStatus.ACTIVE), any()))
+                .thenReturn(1);
+
+        BulkApprovalResponse resp = accountService.bulkApprove(new ApprovalRequest(List.of(1L, 2L, 3L, 1L), "ACTIVE"));
+
+        assertEquals(3, resp.getRequested());
+        assertEquals(1, resp.getUpdated());
+        assertEquals(List.of("UPDATED", "NOT_PENDING", "NOT_FOUND"),
+                resp.getOutcomes().stream().map(BulkApprovalResponse.Outcome::getOutcome).toList());
+        verify(accountRepository, never()).saveAll(any());
+        verify(outboxService).appendAll(eq(Account.AGGREGATE_TYPE), eq("AccountStatusChanged"), argThat(m -> m.keySet().equals(Set.of(1L))));
+    }
+
+    @Test
+    @DisplayName("bulkApprove commits every chunk in its own transaction")
+    void bulkApprove_transactionPerChunk() {
+        List<Long> ids = LongStream.rangeClosed(1, 1_500).boxed().toList();
+        when(accountRepository.lockStatusesByIdIn(anyList())).thenReturn(List.of());
 
-        accountService.bulkApprove(new ApprovalRequest(List.of(1L), "ACTIVE"));
+        BulkApprovalResponse resp = accountService.bulkApprove(new ApprovalRequest(ids, "ACTIVE"));
 
-        ArgumentCaptor<List<Account>> captor = ArgumentCaptor.forClass(List.class);
-        verify(accountRepository).saveAll(captor.capture());
-        assertEquals(AccountStatus.ACTIVE, captor.getValue().get(0).getStatus());
+        assertEquals(1_500, resp.getRequested());
+        assertEquals(0, resp.getUpdated());
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(transactionManager, times(2)).commit(any());
     }
 
     @Test
@@ -139,10 +171,30 @@ class AccountServiceTests {
     @Test
     @DisplayName("closeAccount sets CLOSED")
     void closeAccount_ok() {
-        Account a = Account.builder().id(7L).status(AccountStatus.ACTIVE).build();
+        Account a = Account.builder().id(7L).customerId(4L).status(AccountStatus.ACTIVE).build();
         when(accountRepository.findById(7L)).thenReturn(Optional.of(a));
         accountService.closeAccount(7L);
         assertEquals(AccountStatus.CLOSED, a.getStatus());
         verify(accountRepository).save(a);
+        verify(eventPublisher).publishEvent(new AccountOwnershipChangedEvent(4L));
+    }
+
+    @Test
+    @DisplayName("getAccountsPage returns a cursor only when more rows exist")
+    void getAccountsPage_cursor() {
+        List<Account> rows = List.of(
+                Account.builder().id(4L).build(),
+                Account.builder().id(5L).build(),
+                Account.builder().id(6L).build());
+        when(accountRepository.findByIdGreaterThanOrderByIdAsc(eq(3L), any())).thenReturn(rows);
+
+        CursorPage<AccountResponse> page = accountService.getAccountsPage(3L, 2);
+        assertEquals(2, page.getItems().size());
+        assertEquals(5L, page.getNextCursor());
+
+        when(accountRepository.findByIdGreaterThanOrderByIdAsc(eq(5L), any())).thenReturn(rows.subList(2, 3));
+        CursorPage<AccountResponse> last = accountService.getAccountsPage(5L, 2);
+        assertEquals(1, last.getItems().size());
+        assertNull(last.getNextCursor());
     }
 }
@@ -0,0 +1,205 @@
+package com.banking.account.service;
+
+import com.banking.account.dto.TransferPostingRequest;
+import com.banking.account.dto.TransferPostingResponse;
+import com.banking.account.entity.Account;
+import com.banking.account.entity.LedgerEntry;
+import com.banking.account.enums.AccountStatus;
+import com.banking.account.enums.AccountType;
+import com.banking.account.enums.LedgerEntryType;
+import com.banking.account.exception.TransferRejectedException;
+import com.banking.account.repository.AccountRepository;
+import com.banking.account.repository.LedgerEntryRepository;
+import com.banking.common.outbox.OutboxEventRepository;
+import com.banking.common.outbox.OutboxService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hammers the posting engine from many threads against an in-memory database and checks the
+ * invariants that must survive any interleaving: money is conserved, no balance goes negative
+ * and the journal stays balanced. The transfer count can be lowered locally with
+ * -Dledger.stress.transfers=N.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ledger;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import({LedgerService.class, OutboxService.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LedgerServiceConcurrencyTests {
+
+    private static final int ACCOUNTS = 50;
+    private static final int THREADS = 16;
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000.00");
+
+    @Autowired private LedgerService ledgerService;
+    @Autowired private AccountRepository accountRepository;
+    @Autowired private LedgerEntryRepository ledgerEntryRepository;
+    @Autowired private OutboxEventRepository outboxEventRepository;
+
+    private final List<Long> accountIds = new ArrayList<>();
+
+    @BeforeEach
+    void seedAccounts() {
+        ledgerEntryRepository.deleteAllInBatch();
+        outboxEventRepository.deleteAllInBatch();
+        accountRepository.deleteAllInBatch();
+        accountIds.clear();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = accountRepository.save(Account.builder()
+                    .customerId((long) i)
+                    .accountNumber("ACC-" + i)
+                    .accountType(AccountType.CHECKING)
+                    .balance(OPENING_BALANCE)
+                    .currency("USD")
+                    .status(AccountStatus.ACTIVE)
+                    .build());
+            accountIds.add(account.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("random concurrent transfers conserve the total balance")
+    void randomTransfers_conserveTotalBalance() throws Exception {
+        int transfers = Integer.getInteger("ledger.stress.transfers", 100_000);
+        AtomicInteger sequence = new AtomicInteger();
+        AtomicInteger posted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int n;
+                while ((n = sequence.getAndIncrement()) < transfers) {
+                    Long from = accountIds.get(random.nextInt(ACCOUNTS));
+                    Long to = accountIds.get(random.nextInt(ACCOUNTS));
+                    if (from.equals(to)) {
+                        to = accountIds.get((accountIds.indexOf(from) + 1) % ACCOUNTS);
+                    }
+                    BigDecimal amount = BigDecimal.valueOf(random.nextInt(1, 50_000), 2);
+                    try {
+                        ledgerService.postTransfer(new TransferPostingRequest("T-" + n, from, to, amount, "USD"));
+                        posted.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        // Only a business rejection is acceptable; lock timeouts or deadlocks fail the test
+                        if (e.getMessage() == null || !e.getMessage().startsWith("Insufficient funds")) {
+                            throw e;
+                        }
+                        rejected.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+
+        List<Account> accounts = accountRepository.findAll();
+        BigDecimal total = accounts.stream().map(Account::getBalance).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, OPENING_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS)).compareTo(total));
+        assertTrue(accounts.stream().allMatch(a -> a.getBalance().signum() >= 0));
+
+        List<LedgerEntry> lines = ledgerEntryRepository.findAll();
+        assertEquals(transfers, posted.get() + rejected.get());
+        assertEquals(2L * posted.get(), lines.size());
+        assertEquals(0, sum(lines, LedgerEntryType.DEBIT).compareTo(sum(lines, LedgerEntryType.CREDIT)));
+        // Every posting leaves one debit and one credit event, rejected ones leave none
+        assertEquals(2L * posted.get(), outboxEventRepository.count());
+    }
+
+    @Test
+    @DisplayName("posting the same reference twice moves money once")
+    void replayedReference_isPostedOnce() {
+        Long from = accountIds.get(0);
+        Long to = accountIds.get(1);
+        TransferPostingRequest request = new TransferPostingRequest("PAYMENT-7", from, to, new BigDecimal("100.00"), "USD");
+
+        ledgerService.postTransfer(request);
+        ledgerService.postTransfer(request);
+
+        assertEquals(0, new BigDecimal("900.00").compareTo(accountRepository.findById(from).orElseThrow().getBalance()));
+        assertEquals(0, new BigDecimal("1100.00").compareTo(accountRepository.findById(to).orElseThrow().getBalance()));
+        assertEquals(2, ledgerEntryRepository.findByReference("PAYMENT-7").size());
+    }
+
+    @Test
+    @DisplayName("a replayed reference with other accounts or another amount is refused")
+    void replayedReference_withOtherTerms_isRefused() {
+        Long from = accountIds.get(0);
+        Long to = accountIds.get(1);
+        ledgerService.postTransfer(new TransferPostingRequest("PAYMENT-12", from, to, new BigDecimal("100.00"), "USD"));
+
+        assertThrows(TransferRejectedException.class, () -> ledgerService.postTransfer(
+                new TransferPostingRequest("PAYMENT-12", from, to, new BigDecimal("999.00"), "USD")));
+        assertThrows(TransferRejectedException.class, () -> ledgerService.postTransfer(
+                new TransferPostingRequest("PAYMENT-12", from, accountIds.get(2), new BigDecimal("100.00"), "USD")));
+        assertEquals(0, new BigDecimal("900.00").compareTo(accountRepository.findById(from).orElseThrow().getBalance()));
+        assertEquals(2, ledgerEntryRepository.findByReference("PAYMENT-12").size());
+    }
+
+    @Test
+    @DisplayName("overdraft is rejected as a definite refusal and leaves both balances untouched")
+    void insufficientFunds_rollsBack() {
+        Long from = accountIds.get(2);
+        Long to = accountIds.get(3);
+
+        assertThrows(TransferRejectedException.class, () -> ledgerService.postTransfer(
+                new TransferPostingRequest("PAYMENT-8", from, to, new BigDecimal("1000.01"), "USD")));
+
+        assertEquals(0, OPENING_BALANCE.compareTo(accountRepository.findById(from).orElseThrow().getBalance()));
+        assertEquals(0, OPENING_BALANCE.compareTo(accountRepository.findById(to).orElseThrow().getBalance()));
+        assertTrue(ledgerEntryRepository.findByReference("PAYMENT-8").isEmpty());
+    }
+
+    @Test
+    @DisplayName("a rejected line in a batch does not roll back the other postings")
+    void batch_rejectedLineIsIsolated() {
+        Long a = accountIds.get(4);
+        Long b = accountIds.get(5);
+
+        List<TransferPostingResponse> results = ledgerService.postTransfers(List.of(
+                new TransferPostingRequest("PAYMENT-9", a, b, new BigDecimal("10.00"), "USD"),
+                new TransferPostingRequest("PAYMENT-10", a, b, new BigDecimal("5000.00"), "USD"),
+                new TransferPostingRequest("PAYMENT-11", b, a, new BigDecimal("1.00"), "USD")));
+
+        assertEquals(List.of("POSTED", "REJECTED", "POSTED"), results.stream().map(TransferPostingResponse::getStatus).toList());
+        assertTrue(results.get(1).getMessage().startsWith("Insufficient funds"));
+        assertEquals(0, new BigDecimal("991.00").compareTo(accountRepository.findById(a).orElseThrow().getBalance()));
+        assertTrue(ledgerEntryRepository.findByReference("PAYMENT-10").isEmpty());
+    }
+
+    private static BigDecimal sum(List<LedgerEntry> lines, LedgerEntryType type) {
+        return lines.stream()
+                .filter(l -> l.getEntryType() == type)
+                .map(LedgerEntry::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -0,0 +1,170 @@
+package com.banking.account.service;
+
+import com.banking.account.entity.Account;
+import com.banking.common.outbox.InMemoryOutboxEventSink;
+import com.banking.common.outbox.OutboxEvent;
+import com.banking.common.outbox.OutboxEventRepository;
+import com.banking.common.outbox.OutboxEventSink;
+import com.banking.common.outbox.OutboxRelay;
+import com.banking.common.outbox.OutboxService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import({OutboxService.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxRelayTests {
+
+    @Autowired private OutboxService outboxService;
+    @Autowired private OutboxEventRepository outboxEventRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    private final InMemoryOutboxEventSink sink = new InMemoryOutboxEventSink();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clean() {
+        outboxEventRepository.deleteAllInBatch();
+        sink.clear();
+    }
+
+    @Test
+    @DisplayName("events written in a transaction are delivered in order and marked published")
+    void drain_deliversInOrder() {
+        List<Long> ids = append(1L, 2L, 1L);
+
+        relay(sink, 10).drain();
+
+        assertEquals(ids, sink.events().stream().map(OutboxEvent::getId).toList());
+        assertTrue(outboxEventRepository.findAll().stream().allMatch(e -> e.getPublishedAt() != null));
+    }
+
+    @Test
+    @DisplayName("appending outside a transaction is refused")
+    void append_requiresTransaction() {
+        assertThrows(RuntimeException.class, () -> outboxService.append(Account.AGGREGATE_TYPE, 1L, "Test", Map.of()));
+    }
+
+    @Test
+    @DisplayName("a failed delivery holds back later events of that aggregate only, and is retried")
+    void failedDelivery_holdsBackAggregate() {
+        List<Long> ids = append(1L, 2L, 1L);
+        sink.failOn(ids.get(0));
+
+        relay(sink, 10).drain();
+        assertEquals(List.of(ids.get(1)), sink.events().stream().map(OutboxEvent::getId).toList());
+        OutboxEvent failed = outboxEventRepository.findById(ids.get(0)).orElseThrow();
+        assertEquals(1, failed.getAttempts());
+        assertNull(failed.getPublishedAt());
+
+        relay(sink, 10).drain();
+        assertEquals(List.of(ids.get(1), ids.get(0), ids.get(2)), sink.events().stream().map(OutboxEvent::getId).toList());
+    }
+
+    @Test
+    @DisplayName("an event that keeps failing is parked after max-attempts and stops holding back its aggregate")
+    void failingEvent_isParked() {
+        List<Long> ids = append(1L, 2L, 1L); // A1, B1, A2
+        sink.failOn(ids.get(0));
+        sink.failOn(ids.get(0));
+
+        relay(sink, 10, 2).drain();
+        assertEquals(List.of(ids.get(1)), sink.events().stream().map(OutboxEvent::getId).toList());
+
+        relay(sink, 10, 2).drain();
+        OutboxEvent parked = outboxEventRepository.findById(ids.get(0)).orElseThrow();
+        assertNotNull(parked.getParkedAt());
+        assertNull(parked.getPublishedAt());
+        assertEquals(2, parked.getAttempts());
+        assertEquals(List.of(ids.get(1), ids.get(2)), sink.events().stream().map(OutboxEvent::getId).toList());
+        assertEquals(1, meterRegistry.get("outbox.events.parked").counter().count());
+        assertEquals(2, meterRegistry.get("outbox.events.failed").counter().count());
+
+        relay(sink, 10, 2).drain();
+        assertEquals(2, sink.events().size(), "a parked event is not claimed again");
+    }
+
+    @Test
+    @DisplayName("a second relay skips locked rows but never overtakes an aggregate's older event")
+    void concurrentRelays_keepPerAggregateOrder() throws Exception {
+        // H2 returns nothing for SKIP LOCKED once it walks the published_at index past a locked row
+        // (MySQL does not), so let the claim scan the primary key here
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_outbox_unpublished");
+        List<Long> ids = append(1L, 2L, 1L); // A1, B1, A2
+        CountDownLatch firstClaimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        OutboxEventSink slowSink = event -> {
+            firstClaimed.countDown();
+            await(release);
+            sink.publish(event);
+        };
+
+        // Relay one claims only A1 and stalls while holding its row lock
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> relay(slowSink, 1).drain());
+        assertTrue(firstClaimed.await(10, TimeUnit.SECONDS));
+
+        // Relay two must skip A1, deliver B1, and hold A2 back until A1 is out
+        relay(sink, 10).drain();
+        assertEquals(List.of(ids.get(1)), sink.events().stream().map(OutboxEvent::getId).toList());
+
+        release.countDown();
+        first.get(10, TimeUnit.SECONDS);
+        relay(sink, 10).drain();
+        assertEquals(List.of(ids.get(1), ids.get(0), ids.get(2)), sink.events().stream().map(OutboxEvent::getId).toList());
+    }
+
+    private List<Long> append(Long... aggregateIds) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Long aggregateId : aggregateIds) {
+                outboxService.append(Account.AGGREGATE_TYPE, aggregateId, "AccountUpdated", Map.of("accountId", aggregateId));
+            }
+        });
+        return outboxEventRepository.findAll().stream().map(OutboxEvent::getId).sorted().toList();
+    }
+
+    private OutboxRelay relay(OutboxEventSink target, int batchSize) {
+        return relay(target, batchSize, 20);
+    }
+
+    private OutboxRelay relay(OutboxEventSink target, int batchSize, int maxAttempts) {
+        return new OutboxRelay(outboxEventRepository, target, transactionTemplate, batchSize, Duration.ofDays(7),
+                maxAttempts, meterRegistry);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
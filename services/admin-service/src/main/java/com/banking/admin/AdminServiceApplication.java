@@ -2,12 +2,14 @@ package com.banking.admin;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 
 @SpringBootApplication
 @EnableFeignClients(basePackages = "com.banking.admin.feign")
 @EnableDiscoveryClient
+@EnableScheduling
 public class AdminServiceApplication {
 
 	public static void main(String[] args) {
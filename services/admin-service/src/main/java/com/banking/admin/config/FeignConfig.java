@@ -1,11 +1,14 @@
 package com.banking.admin.config;
 
+import com.banking.common.security.GatewayIdentity;
 import feign.RequestInterceptor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 @Configuration
 public class FeignConfig {
@@ -17,6 +20,13 @@ public class FeignConfig {
             if (authentication instanceof JwtAuthenticationToken jwtAuth) {
                 String tokenValue = jwtAuth.getToken().getTokenValue();
                 requestTemplate.header("Authorization", "Bearer " + tokenValue);
+                // The gateway's identity header for the same token, so the next service can skip verifying it
+                if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes sra) {
+                    String identity = sra.getRequest().getHeader(GatewayIdentity.HEADER);
+                    if (identity != null) {
+                        requestTemplate.header(GatewayIdentity.HEADER, identity);
+                    }
+                }
             }
         };
     }
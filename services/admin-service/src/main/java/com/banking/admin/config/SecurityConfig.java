@@ -1,33 +1,71 @@
 package com.banking.admin.config;
 
+import com.banking.common.security.Ed25519JwsSupport;
+import com.banking.common.security.GatewayIdentity;
+import com.banking.common.security.GatewayIdentityFilter;
+import com.banking.common.security.TokenRevocationList;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.ConfigurableJWTProcessor;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.Resource;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 
-import java.io.InputStream;
-import java.security.KeyFactory;
-import java.security.interfaces.RSAPublicKey;
-import java.security.spec.X509EncodedKeySpec;
-import java.util.Base64;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
 public class SecurityConfig {
     
-    @Value("${jwt.public-key-path}")
-    private Resource publicKeyResource;
+    @Value("${jwt.jwk-set-uri}")
+    private String jwkSetUri;
+    
+    // Must include the algorithm auth-service signs with (jwt.keys.algorithm)
+    @Value("${jwt.jws-algorithms:RS256}")
+    private String[] jwsAlgorithms;
+    
+    @Value("${jwt.jwk-set.cache-ttl:PT5M}")
+    private Duration jwkSetCacheTtl;
+    
+    @Value("${jwt.jwk-set.outage-tolerance:PT1H}")
+    private Duration jwkSetOutageTolerance;
+    
+    // Shared with the api-gateway, whose signed identity header stands in for verifying the token
+    @Value("${gateway.identity.secret:}")
+    private String gatewayIdentitySecret;
+    
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
     
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+        GatewayIdentityFilter gatewayIdentityFilter =
+            new GatewayIdentityFilter(new GatewayIdentity(gatewayIdentitySecret), tokenRevocationList);
+        
         http
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> 
@@ -40,33 +78,56 @@ public class SecurityConfig {
                 .requestMatchers("/actuator/info").permitAll()
                 .anyRequest().authenticated()
             )
-            .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt.decoder(jwtDecoder())));
+            .addFilterBefore(gatewayIdentityFilter, BearerTokenAuthenticationFilter.class)
+            .oauth2ResourceServer(oauth2 -> oauth2
+                .bearerTokenResolver(gatewayIdentityFilter::resolveBearerToken)
+                .jwt(jwt -> jwt.decoder(jwtDecoder())));
         
         return http.build();
     }
     
     @Bean
     public JwtDecoder jwtDecoder() {
-        try {
-            RSAPublicKey publicKey = loadPublicKey();
-            return NimbusJwtDecoder.withPublicKey(publicKey).build();
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to load JWT public key", e);
-        }
+        JWKSource<SecurityContext> jwkSource = jwkSource();
+        ConfigurableJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        Set<JWSAlgorithm> algorithms = Arrays.stream(jwsAlgorithms)
+            .map(String::trim)
+            .map(JWSAlgorithm::parse)
+            .collect(Collectors.toSet());
+        jwtProcessor.setJWSKeySelector(Ed25519JwsSupport.keySelector(algorithms, jwkSource));
+        jwtProcessor.setJWSVerifierFactory(Ed25519JwsSupport.verifierFactory());
+        // Claims are checked by Spring's JwtValidators, as in NimbusJwtDecoder's own builders
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> { });
+        
+        // Fetch the key set once at startup so the first request does not wait for it
+        Thread.ofVirtual().name("jwks-prefetch").start(() -> {
+            try {
+                jwkSource.get(new JWKSelector(new JWKMatcher.Builder().build()), null);
+            } catch (Exception e) {
+                log.warn("Could not prefetch JWKS from {}: {}", jwkSetUri, e.getMessage());
+            }
+        });
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(jwtProcessor);
+        // The default expiry checks, then auth-service's revocation list as held locally
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(JwtValidators.createDefault(), tokenRevocationList));
+        return decoder;
     }
     
-    private RSAPublicKey loadPublicKey() throws Exception {
-        try (InputStream is = publicKeyResource.getInputStream()) {
-            byte[] keyBytes = is.readAllBytes();
-            String publicKeyPEM = new String(keyBytes)
-                .replace("-----BEGIN PUBLIC KEY-----", "")
-                .replace("-----END PUBLIC KEY-----", "")
-                .replaceAll("\\s", "");
-            
-            byte[] decoded = Base64.getDecoder().decode(publicKeyPEM);
-            X509EncodedKeySpec spec = new X509EncodedKeySpec(decoded);
-            KeyFactory kf = KeyFactory.getInstance("RSA");
-            return (RSAPublicKey) kf.generatePublic(spec);
+    /**
+     * auth-service's JWK set, cached locally and refreshed in the background before it expires,
+     * so tokens are verified without calling auth-service and rotated keys arrive without a
+     * restart. A token with an unknown kid triggers a rate-limited refresh; if auth-service is
+     * down the last key set keeps being used for {@code jwt.jwk-set.outage-tolerance}.
+     */
+    private JWKSource<SecurityContext> jwkSource() {
+        try {
+            return JWKSourceBuilder.<SecurityContext>create(new URL(jwkSetUri))
+                .cache(jwkSetCacheTtl.toMillis(), JWKSourceBuilder.DEFAULT_CACHE_REFRESH_TIMEOUT)
+                .refreshAheadCache(JWKSourceBuilder.DEFAULT_REFRESH_AHEAD_TIME, true)
+                .outageTolerant(jwkSetOutageTolerance.toMillis())
+                .build();
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException("Invalid jwt.jwk-set-uri: " + jwkSetUri, e);
         }
     }
 }
@@ -2,6 +2,9 @@ package com.banking.admin.controller;
 
 import com.banking.admin.dto.ApprovalRequest;
 import com.banking.admin.dto.ApprovalResponse;
+import com.banking.admin.dto.BulkApprovalResponse;
+import com.banking.admin.dto.NotificationJobStatus;
+import com.banking.admin.feign.dto.CursorPage;
 import com.banking.admin.service.AdminService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -31,7 +34,7 @@ public class AdminController {
 
     @PostMapping("/customers/approvals/bulk")
     @Operation(summary = "Bulk approve/reject customer KYC")
-    public ResponseEntity<String> bulkApproveCustomers(@RequestBody ApprovalRequest request) {
+    public ResponseEntity<BulkApprovalResponse> bulkApproveCustomers(@RequestBody ApprovalRequest request) {
         return ResponseEntity.ok(adminService.bulkApproveCustomers(request));
     }
 
@@ -43,7 +46,7 @@ public class AdminController {
 
     @PostMapping("/accounts/approvals/bulk")
     @Operation(summary = "Bulk approve/reject accounts")
-    public ResponseEntity<String> bulkApproveAccounts(@RequestBody ApprovalRequest request) {
+    public ResponseEntity<BulkApprovalResponse> bulkApproveAccounts(@RequestBody ApprovalRequest request) {
         return ResponseEntity.ok(adminService.bulkApproveAccounts(request));
     }
 
@@ -55,7 +58,7 @@ public class AdminController {
 
     @PostMapping("/credits/approvals/bulk")
     @Operation(summary = "Bulk approve/reject credit products")
-    public ResponseEntity<String> bulkApproveCredits(@RequestBody ApprovalRequest request) {
+    public ResponseEntity<BulkApprovalResponse> bulkApproveCredits(@RequestBody ApprovalRequest request) {
         return ResponseEntity.ok(adminService.bulkApproveCredits(request));
     }
 
@@ -67,33 +70,47 @@ public class AdminController {
 
     @PostMapping("/payments/approvals/bulk")
     @Operation(summary = "Bulk approve/reject payments")
-    public ResponseEntity<String> bulkApprovePayments(@RequestBody ApprovalRequest request) {
+    public ResponseEntity<BulkApprovalResponse> bulkApprovePayments(@RequestBody ApprovalRequest request) {
         return ResponseEntity.ok(adminService.bulkApprovePayments(request));
     }
 
-    // Insights - fetch all entities for admin dashboards
-    @GetMapping("/customers/all")
-    @Operation(summary = "Get all customers (any status)")
-    public ResponseEntity<java.util.List<com.banking.admin.feign.dto.CustomerResponse>> getAllCustomers() {
-        return ResponseEntity.ok(adminService.getAllCustomers());
+    @GetMapping("/notifications/jobs/{jobId}")
+    @Operation(summary = "Get progress and failures of the notifications queued by a bulk approval")
+    public ResponseEntity<NotificationJobStatus> getNotificationJob(@PathVariable("jobId") String jobId) {
+        return ResponseEntity.ok(adminService.getNotificationJob(jobId));
     }
 
-    @GetMapping("/accounts/all")
-    @Operation(summary = "Get all accounts (any status)")
-    public ResponseEntity<java.util.List<com.banking.admin.feign.dto.AccountResponse>> getAllAccounts() {
-        return ResponseEntity.ok(adminService.getAllAccounts());
+    // Insights - page through all entities for admin dashboards
+    @GetMapping("/customers/page")
+    @Operation(summary = "Get a page of customers (any status)", description = "Keyset pagination ordered by id. Pass the returned nextCursor as 'after' to continue; nextCursor is null on the last page.")
+    public ResponseEntity<CursorPage<com.banking.admin.feign.dto.CustomerResponse>> getCustomersPage(
+            @RequestParam(name = "after", required = false) Long after,
+            @RequestParam(name = "size", defaultValue = "100") int size) {
+        return ResponseEntity.ok(adminService.getCustomersPage(after, size));
     }
 
-    @GetMapping("/payments/all")
-    @Operation(summary = "Get all payments (any status)")
-    public ResponseEntity<java.util.List<com.banking.admin.feign.dto.PaymentResponse>> getAllPayments() {
-        return ResponseEntity.ok(adminService.getAllPayments());
+    @GetMapping("/accounts/page")
+    @Operation(summary = "Get a page of accounts (any status)", description = "Keyset pagination ordered by id. Pass the returned nextCursor as 'after' to continue; nextCursor is null on the last page.")
+    public ResponseEntity<CursorPage<com.banking.admin.feign.dto.AccountResponse>> getAccountsPage(
+            @RequestParam(name = "after", required = false) Long after,
+            @RequestParam(name = "size", defaultValue = "100") int size) {
+        return ResponseEntity.ok(adminService.getAccountsPage(after, size));
     }
 
-    @GetMapping("/credits/all")
-    @Operation(summary = "Get all credit products (any status)")
-    public ResponseEntity<java.util.List<com.banking.admin.feign.dto.CreditProductResponse>> getAllCredits() {
-        return ResponseEntity.ok(adminService.getAllCredits());
+    @GetMapping("/payments/page")
+    @Operation(summary = "Get a page of payments (any status)", description = "Keyset pagination ordered by id. Pass the returned nextCursor as 'after' to continue; nextCursor is null on the last page.")
+    public ResponseEntity<CursorPage<com.banking.admin.feign.dto.PaymentResponse>> getPaymentsPage(
+            @RequestParam(name = "after", required = false) Long after,
+            @RequestParam(name = "size", defaultValue = "100") int size) {
+        return ResponseEntity.ok(adminService.getPaymentsPage(after, size));
+    }
+
+    @GetMapping("/credits/page")
+    @Operation(summary = "Get a page of credit products (any status)", description = "Keyset pagination ordered by id. Pass the returned nextCursor as 'after' to continue; nextCursor is null on the last page.")
+    public ResponseEntity<CursorPage<com.banking.admin.feign.dto.CreditProductResponse>> getCreditsPage(
+            @RequestParam(name = "after", required = false) Long after,
+            @RequestParam(name = "size", defaultValue = "100") int size) {
+        return ResponseEntity.ok(adminService.getCreditsPage(after, size));
     }
 }
 
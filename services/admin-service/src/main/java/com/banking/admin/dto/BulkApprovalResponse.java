@@ -0,0 +1,28 @@
+package com.banking.admin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkApprovalResponse {
+    private int requested;
+    private int updated;
+    private List<Outcome> outcomes;
+    private String notificationJobId; // set by admin-service when notifications were queued
+
+    public BulkApprovalResponse(int requested, int updated, List<Outcome> outcomes) {
+        this(requested, updated, outcomes, null);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Outcome {
+        private Long id;
+        private String outcome; // UPDATED, NOT_PENDING, NOT_FOUND, LEDGER_REJECTED, PROCESSING (payments)
+    }
+}
@@ -0,0 +1,32 @@
+package com.banking.admin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationJobStatus {
+    private String jobId;
+    private String kind; // CUSTOMER, ACCOUNT, CREDIT, PAYMENT
+    private String state; // RUNNING, COMPLETED, COMPLETED_WITH_FAILURES
+    private int total;
+    private int sent;
+    private int skipped;
+    private int failed;
+    private Instant createdAt;
+    private Instant finishedAt;
+    private List<Failure> failures;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Failure {
+        private Long id;
+        private String reason;
+    }
+}
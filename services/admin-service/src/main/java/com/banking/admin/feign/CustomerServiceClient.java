@@ -2,10 +2,13 @@ package com.banking.admin.feign;
 
 import com.banking.admin.dto.ApprovalRequest;
 import com.banking.admin.dto.ApprovalResponse;
+import com.banking.admin.dto.BulkApprovalResponse;
+import com.banking.admin.feign.dto.CursorPage;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
 
@@ -20,13 +23,18 @@ public interface CustomerServiceClient {
     List<ApprovalResponse> getPendingApprovals();
 
     @PostMapping("/approvals/bulk")
-    String bulkApprove(@RequestBody ApprovalRequest request);
+    BulkApprovalResponse bulkApprove(@RequestBody ApprovalRequest request);
 
     // For notification targeting
     @GetMapping("/{id}")
     com.banking.admin.feign.dto.CustomerResponse getCustomer(@org.springframework.web.bind.annotation.PathVariable("id") Long id);
 
-    @GetMapping("/all")
-    java.util.List<com.banking.admin.feign.dto.CustomerResponse> getAllCustomers();
+    @PostMapping("/batch")
+    java.util.Map<Long, com.banking.admin.feign.dto.CustomerResponse> getCustomersByIds(@RequestBody List<Long> ids);
+
+    @GetMapping("/page")
+    CursorPage<com.banking.admin.feign.dto.CustomerResponse> getCustomersPage(
+        @RequestParam(name = "after", required = false) Long after,
+        @RequestParam(name = "size") int size);
 }
 
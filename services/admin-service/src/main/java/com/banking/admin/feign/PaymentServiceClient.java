@@ -2,10 +2,13 @@ package com.banking.admin.feign;
 
 import com.banking.admin.dto.ApprovalRequest;
 import com.banking.admin.dto.ApprovalResponse;
+import com.banking.admin.dto.BulkApprovalResponse;
+import com.banking.admin.feign.dto.CursorPage;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.PathVariable;
 
 import java.util.List;
@@ -21,12 +24,17 @@ public interface PaymentServiceClient {
     List<ApprovalResponse> getPendingApprovals();
     
     @PostMapping("/approvals/bulk")
-    String bulkApprove(@RequestBody ApprovalRequest request);
+    BulkApprovalResponse bulkApprove(@RequestBody ApprovalRequest request);
 
     @GetMapping("/{id}")
     com.banking.admin.feign.dto.PaymentResponse getPayment(@PathVariable("id") Long id);
 
-    @GetMapping("/all")
-    java.util.List<com.banking.admin.feign.dto.PaymentResponse> getAllPayments();
+    @PostMapping("/batch")
+    java.util.Map<Long, com.banking.admin.feign.dto.PaymentResponse> getPaymentsByIds(@RequestBody List<Long> ids);
+
+    @GetMapping("/page")
+    CursorPage<com.banking.admin.feign.dto.PaymentResponse> getPaymentsPage(
+        @RequestParam(name = "after", required = false) Long after,
+        @RequestParam(name = "size") int size);
 }
 
@@ -0,0 +1,18 @@
+package com.banking.admin.feign.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * One keyset page from a service's {@code /page} endpoint. Pass {@code nextCursor} back as
+ * {@code after} to fetch the following page; it is null once the last page has been returned.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private Long nextCursor;
+}
@@ -2,17 +2,32 @@ package com.banking.admin.service;
 
 import com.banking.admin.dto.ApprovalRequest;
 import com.banking.admin.dto.ApprovalResponse;
+import com.banking.admin.dto.BulkApprovalResponse;
+import com.banking.admin.dto.NotificationJobStatus;
+import com.banking.admin.dto.NotificationRequest;
 import com.banking.admin.feign.AccountServiceClient;
 import com.banking.admin.feign.CreditServiceClient;
 import com.banking.admin.feign.CustomerServiceClient;
 import com.banking.admin.feign.PaymentServiceClient;
+import com.banking.admin.feign.dto.AccountResponse;
+import com.banking.admin.feign.dto.CreditProductResponse;
+import com.banking.admin.feign.dto.CursorPage;
+import com.banking.admin.feign.dto.CustomerResponse;
+import com.banking.admin.feign.dto.PaymentResponse;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 
 @Service
 public class AdminService {
@@ -23,19 +38,19 @@ public class AdminService {
     private final AccountServiceClient accountServiceClient;
     private final CreditServiceClient creditServiceClient;
     private final PaymentServiceClient paymentServiceClient;
-    private final com.banking.admin.feign.NotificationServiceClient notificationServiceClient;
+    private final NotificationDispatcher notificationDispatcher;
 
     public AdminService(
             CustomerServiceClient customerServiceClient,
             AccountServiceClient accountServiceClient,
             CreditServiceClient creditServiceClient,
             PaymentServiceClient paymentServiceClient,
-            com.banking.admin.feign.NotificationServiceClient notificationServiceClient) {
+            NotificationDispatcher notificationDispatcher) {
         this.customerServiceClient = customerServiceClient;
         this.accountServiceClient = accountServiceClient;
         this.creditServiceClient = creditServiceClient;
         this.paymentServiceClient = paymentServiceClient;
-        this.notificationServiceClient = notificationServiceClient;
+        this.notificationDispatcher = notificationDispatcher;
     }
     
     @CircuitBreaker(name = "admin-service", fallbackMethod = "fallbackEmptyList")
@@ -43,30 +58,18 @@ public class AdminService {
         return customerServiceClient.getPendingApprovals();
     }
 
-    public String bulkApproveCustomers(ApprovalRequest request) {
-        String result = customerServiceClient.bulkApprove(request);
-        // Best-effort notifications for each customer id
-        if (request != null && request.getIds() != null) {
-            for (Long id : request.getIds()) {
-                try {
-                    var cust = customerServiceClient.getCustomer(id);
-                    if (cust != null && cust.getUserId() != null) {
-                        String subject = "KYC " + request.getStatus().toUpperCase();
-                        String message = "Your KYC request (Customer ID: " + id + ") has been " + request.getStatus().toUpperCase() + ".";
-                        var nreq = new com.banking.admin.dto.NotificationRequest(
-                                cust.getUserId(),
-                                "PUSH",
-                                cust.getEmail() != null ? cust.getEmail() : String.valueOf(cust.getUserId()),
-                                subject,
-                                message
-                        );
-                        notificationServiceClient.send(nreq);
-                    }
-                } catch (Exception e) {
-                    // swallow; don't block approvals on notification failure
-                }
+    public BulkApprovalResponse bulkApproveCustomers(ApprovalRequest request) {
+        BulkApprovalResponse result = customerServiceClient.bulkApprove(request);
+        notifyUpdated(request, result, "CUSTOMER", (job, statusUp) -> {
+            var customers = notificationDispatcher.lookupBatched(job.getItemIds(), customerServiceClient::getCustomersByIds);
+            Map<Long, NotificationRequest> plan = new LinkedHashMap<>();
+            for (Long id : job.getItemIds()) {
+                CustomerResponse cust = resolve(job, id, "customer", id, customers);
+                plan(job, plan, id, cust, "KYC " + statusUp,
+                        "Your KYC request (Customer ID: " + id + ") has been " + statusUp + ".");
             }
-        }
+            return plan;
+        });
         return result;
     }
 
@@ -75,30 +78,23 @@ public class AdminService {
         return accountServiceClient.getPendingApprovals();
     }
 
-    public String bulkApproveAccounts(ApprovalRequest request) {
-        String result = accountServiceClient.bulkApprove(request);
-        if (request != null && request.getIds() != null) {
-            for (Long id : request.getIds()) {
-                try {
-                    var acc = accountServiceClient.getAccount(id);
-                    if (acc != null && acc.getCustomerId() != null) {
-                        var cust = customerServiceClient.getCustomer(acc.getCustomerId());
-                        if (cust != null && cust.getUserId() != null) {
-                            String subject = "Account " + request.getStatus().toUpperCase();
-                            String message = "Your account (ID: " + id + ") status updated to " + request.getStatus().toUpperCase() + ".";
-                            var nreq = new com.banking.admin.dto.NotificationRequest(
-                                    cust.getUserId(),
-                                    "PUSH",
-                                    cust.getEmail() != null ? cust.getEmail() : String.valueOf(cust.getUserId()),
-                                    subject,
-                                    message
-                            );
-                            notificationServiceClient.send(nreq);
-                        }
-                    }
-                } catch (Exception ignored) { }
+    public BulkApprovalResponse bulkApproveAccounts(ApprovalRequest request) {
+        BulkApprovalResponse result = accountServiceClient.bulkApprove(request);
+        notifyUpdated(request, result, "ACCOUNT", (job, statusUp) -> {
+            var accounts = notificationDispatcher.lookupBatched(job.getItemIds(), accountServiceClient::getAccountsByIds);
+            var customers = notificationDispatcher.lookupBatched(
+                    keys(accounts.found().values(), AccountResponse::getCustomerId), customerServiceClient::getCustomersByIds);
+            Map<Long, NotificationRequest> plan = new LinkedHashMap<>();
+            for (Long id : job.getItemIds()) {
+                AccountResponse acc = resolve(job, id, "account", id, accounts);
+                CustomerResponse cust = acc == null ? null : resolve(job, id, "customer", acc.getCustomerId(), customers);
+                if (acc != null) {
+                    plan(job, plan, id, cust, "Account " + statusUp,
+                            "Your account (ID: " + id + ") status updated to " + statusUp + ".");
+                }
             }
-        }
+            return plan;
+        });
         return result;
     }
 
@@ -107,39 +103,24 @@ public class AdminService {
         return creditServiceClient.getPendingApprovals();
     }
 
-    public String bulkApproveCredits(ApprovalRequest request) {
-        String result = creditServiceClient.bulkApprove(request);
-        if (request != null && request.getIds() != null) {
-            for (Long id : request.getIds()) {
-                try {
-                    var credit = creditServiceClient.getCredit(id);
-                    if (credit != null && credit.getCustomerId() != null) {
-                        var cust = customerServiceClient.getCustomer(credit.getCustomerId());
-                        if (cust != null && cust.getUserId() != null) {
-                            String typeLabel = (credit.getProductType() != null && credit.getProductType().toUpperCase().contains("CARD"))
-                                    ? "Card"
-                                    : "Loan";
-                            if ("Loan".equals(typeLabel) && credit.getLoanType() != null) {
-                                typeLabel = credit.getLoanType().charAt(0) + credit.getLoanType().substring(1).toLowerCase() + " Loan";
-                            } else if ("Card".equals(typeLabel) && credit.getCardType() != null) {
-                                typeLabel = credit.getCardType().charAt(0) + credit.getCardType().substring(1).toLowerCase() + " Card";
-                            }
-                            String statusUp = request.getStatus().toUpperCase();
-                            String subject = typeLabel + " " + statusUp;
-                            String message = "Your " + typeLabel.toLowerCase() + " (ID: " + id + ") is " + statusUp + ".";
-                            var nreq = new com.banking.admin.dto.NotificationRequest(
-                                    cust.getUserId(),
-                                    "PUSH",
-                                    cust.getEmail() != null ? cust.getEmail() : String.valueOf(cust.getUserId()),
-                                    subject,
-                                    message
-                            );
-                            notificationServiceClient.send(nreq);
-                        }
-                    }
-                } catch (Exception ignored) { }
+    public BulkApprovalResponse bulkApproveCredits(ApprovalRequest request) {
+        BulkApprovalResponse result = creditServiceClient.bulkApprove(request);
+        notifyUpdated(request, result, "CREDIT", (job, statusUp) -> {
+            var credits = notificationDispatcher.lookupBatched(job.getItemIds(), creditServiceClient::getCreditsByIds);
+            var customers = notificationDispatcher.lookupBatched(
+                    keys(credits.found().values(), CreditProductResponse::getCustomerId), customerServiceClient::getCustomersByIds);
+            Map<Long, NotificationRequest> plan = new LinkedHashMap<>();
+            for (Long id : job.getItemIds()) {
+                CreditProductResponse credit = resolve(job, id, "credit", id, credits);
+                CustomerResponse cust = credit == null ? null : resolve(job, id, "customer", credit.getCustomerId(), customers);
+                if (credit != null) {
+                    String typeLabel = creditLabel(credit);
+                    plan(job, plan, id, cust, typeLabel + " " + statusUp,
+                            "Your " + typeLabel.toLowerCase() + " (ID: " + id + ") is " + statusUp + ".");
+                }
             }
-        }
+            return plan;
+        });
         return result;
     }
 
@@ -148,84 +129,166 @@ public class AdminService {
         return paymentServiceClient.getPendingApprovals();
     }
 
-    public String bulkApprovePayments(ApprovalRequest request) {
-        String result = paymentServiceClient.bulkApprove(request);
-        if (request != null && request.getIds() != null) {
-            for (Long id : request.getIds()) {
-                try {
-                    var payment = paymentServiceClient.getPayment(id);
-                    Long fromAccId = payment != null ? payment.getFromAccountId() : null;
-                    if (fromAccId != null) {
-                        var acc = accountServiceClient.getAccount(fromAccId);
-                        if (acc != null && acc.getCustomerId() != null) {
-                            var cust = customerServiceClient.getCustomer(acc.getCustomerId());
-                            if (cust != null && cust.getUserId() != null) {
-                                String statusUp = request.getStatus().toUpperCase();
-                                String subject = "Payment " + statusUp;
-                                String amount = payment.getAmount() != null ? payment.getAmount().toPlainString() : "";
-                                String currency = payment.getCurrency() != null ? payment.getCurrency() : "";
-                                String message = "Your payment (ID: " + id + ") for " + amount + " " + currency + " is " + statusUp + ".";
-                                var nreq = new com.banking.admin.dto.NotificationRequest(
-                                        cust.getUserId(),
-                                        "PUSH",
-                                        cust.getEmail() != null ? cust.getEmail() : String.valueOf(cust.getUserId()),
-                                        subject,
-                                        message
-                                );
-                                notificationServiceClient.send(nreq);
-                            }
-                        }
-                    }
-                } catch (Exception ignored) { }
+    public BulkApprovalResponse bulkApprovePayments(ApprovalRequest request) {
+        BulkApprovalResponse result = paymentServiceClient.bulkApprove(request);
+        notifyUpdated(request, result, "PAYMENT", (job, statusUp) -> {
+            var payments = notificationDispatcher.lookupBatched(job.getItemIds(), paymentServiceClient::getPaymentsByIds);
+            var accounts = notificationDispatcher.lookupBatched(
+                    keys(payments.found().values(), PaymentResponse::getFromAccountId), accountServiceClient::getAccountsByIds);
+            var customers = notificationDispatcher.lookupBatched(
+                    keys(accounts.found().values(), AccountResponse::getCustomerId), customerServiceClient::getCustomersByIds);
+            Map<Long, NotificationRequest> plan = new LinkedHashMap<>();
+            for (Long id : job.getItemIds()) {
+                PaymentResponse payment = resolve(job, id, "payment", id, payments);
+                AccountResponse acc = payment == null ? null : resolve(job, id, "account", payment.getFromAccountId(), accounts);
+                CustomerResponse cust = acc == null ? null : resolve(job, id, "customer", acc.getCustomerId(), customers);
+                if (acc != null) {
+                    String amount = payment.getAmount() != null ? payment.getAmount().toPlainString() : "";
+                    String currency = payment.getCurrency() != null ? payment.getCurrency() : "";
+                    plan(job, plan, id, cust, "Payment " + statusUp,
+                            "Your payment (ID: " + id + ") for " + amount + " " + currency + " is " + statusUp + ".");
+                }
             }
-        }
+            return plan;
+        });
         return result;
     }
 
+    public NotificationJobStatus getNotificationJob(String jobId) {
+        return notificationDispatcher.status(jobId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Notification job not found: " + jobId));
+    }
+
+    private interface NotificationPlanner {
+        Map<Long, NotificationRequest> plan(NotificationJob job, String statusUp);
+    }
+
+    // Only ids the owning service actually moved are notified; the approval itself returns before any
+    // lookup or send happens, with the job id to follow them by.
+    private void notifyUpdated(ApprovalRequest request, BulkApprovalResponse result, String kind, NotificationPlanner planner) {
+        List<Long> ids = updatedIds(result);
+        if (request == null || request.getStatus() == null || ids.isEmpty()) {
+            return;
+        }
+        String statusUp = request.getStatus().toUpperCase();
+        result.setNotificationJobId(notificationDispatcher.submit(kind, ids, job -> planner.plan(job, statusUp)));
+    }
+
+    private static List<Long> updatedIds(BulkApprovalResponse result) {
+        if (result == null || result.getOutcomes() == null) {
+            return List.of();
+        }
+        return result.getOutcomes().stream()
+                .filter(o -> "UPDATED".equals(o.getOutcome()))
+                .map(BulkApprovalResponse.Outcome::getId)
+                .toList();
+    }
+
+    private static <T> List<Long> keys(Collection<T> values, Function<T, Long> key) {
+        return values.stream().map(key).filter(Objects::nonNull).distinct().toList();
+    }
+
+    /**
+     * Returns the looked-up value for one hop of an item's chain, or null after recording why the
+     * item cannot be notified: a failed lookup is a failure, a missing link just means nobody to tell.
+     */
+    private static <T> T resolve(NotificationJob job, Long itemId, String what, Long key,
+                                 NotificationDispatcher.Lookup<T> lookup) {
+        if (key == null) {
+            job.skipped();
+            return null;
+        }
+        String error = lookup.errors().get(key);
+        if (error != null) {
+            job.failed(itemId, what + " " + key + ": " + error);
+            return null;
+        }
+        T value = lookup.found().get(key);
+        if (value == null) {
+            job.skipped();
+        }
+        return value;
+    }
+
+    private static void plan(NotificationJob job, Map<Long, NotificationRequest> plan, Long itemId,
+                             CustomerResponse cust, String subject, String message) {
+        if (cust == null) {
+            return; // already counted by resolve
+        }
+        if (cust.getUserId() == null) {
+            job.skipped();
+            return;
+        }
+        plan.put(itemId, new NotificationRequest(
+                cust.getUserId(),
+                "PUSH",
+                cust.getEmail() != null ? cust.getEmail() : String.valueOf(cust.getUserId()),
+                subject,
+                message
+        ));
+    }
+
+    private static String creditLabel(CreditProductResponse credit) {
+        String typeLabel = (credit.getProductType() != null && credit.getProductType().toUpperCase().contains("CARD"))
+                ? "Card"
+                : "Loan";
+        if ("Loan".equals(typeLabel) && credit.getLoanType() != null) {
+            typeLabel = credit.getLoanType().charAt(0) + credit.getLoanType().substring(1).toLowerCase() + " Loan";
+        } else if ("Card".equals(typeLabel) && credit.getCardType() != null) {
+            typeLabel = credit.getCardType().charAt(0) + credit.getCardType().substring(1).toLowerCase() + " Card";
+        }
+        return typeLabel;
+    }
+
     private List<ApprovalResponse> fallbackEmptyList(Exception e) {
         log.error("Circuit breaker fallback: {}", e.getMessage());
         return new ArrayList<>();
     }
 
-    // Insights: fetch-all aggregations (no filtering)
+    // Insights: keyset pages of every entity (no filtering)
     @io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker(name = "admin-service", fallbackMethod = "fallbackCustomers")
-    public java.util.List<com.banking.admin.feign.dto.CustomerResponse> getAllCustomers() {
-        return customerServiceClient.getAllCustomers();
+    public CursorPage<com.banking.admin.feign.dto.CustomerResponse> getCustomersPage(Long after, int size) {
+        return customerServiceClient.getCustomersPage(after, size);
     }
 
     @io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker(name = "admin-service", fallbackMethod = "fallbackAccounts")
-    public java.util.List<com.banking.admin.feign.dto.AccountResponse> getAllAccounts() {
-        return accountServiceClient.getAllAccounts();
+    public CursorPage<com.banking.admin.feign.dto.AccountResponse> getAccountsPage(Long after, int size) {
+        return accountServiceClient.getAccountsPage(after, size);
     }
 
     @io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker(name = "admin-service", fallbackMethod = "fallbackPayments")
-    public java.util.List<com.banking.admin.feign.dto.PaymentResponse> getAllPayments() {
-        return paymentServiceClient.getAllPayments();
+    public CursorPage<com.banking.admin.feign.dto.PaymentResponse> getPaymentsPage(Long after, int size) {
+        return paymentServiceClient.getPaymentsPage(after, size);
     }
 
     @io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker(name = "admin-service", fallbackMethod = "fallbackCredits")
-    public java.util.List<com.banking.admin.feign.dto.CreditProductResponse> getAllCredits() {
-        return creditServiceClient.getAllCredits();
+    public CursorPage<com.banking.admin.feign.dto.CreditProductResponse> getCreditsPage(Long after, int size) {
+        return creditServiceClient.getCreditsPage(after, size);
     }
 
-    // Fallbacks for insights fetch-all endpoints
-    private java.util.List<com.banking.admin.feign.dto.CustomerResponse> fallbackCustomers(Exception e) {
+    // Fallbacks for insights page endpoints: 503, never an empty page. A null nextCursor means the
+    // last page, so an empty one would pass partial totals off as complete
+    private CursorPage<com.banking.admin.feign.dto.CustomerResponse> fallbackCustomers(Long after, int size, Exception e) {
         log.error("Insights fallback (customers): {}", e.getMessage());
-        return new ArrayList<>();
+        throw unavailable("customers", e);
     }
 
-    private java.util.List<com.banking.admin.feign.dto.AccountResponse> fallbackAccounts(Exception e) {
+    private CursorPage<com.banking.admin.feign.dto.AccountResponse> fallbackAccounts(Long after, int size, Exception e) {
         log.error("Insights fallback (accounts): {}", e.getMessage());
-        return new ArrayList<>();
+        throw unavailable("accounts", e);
     }
 
-    private java.util.List<com.banking.admin.feign.dto.PaymentResponse> fallbackPayments(Exception e) {
+    private CursorPage<com.banking.admin.feign.dto.PaymentResponse> fallbackPayments(Long after, int size, Exception e) {
         log.error("Insights fallback (payments): {}", e.getMessage());
-        return new ArrayList<>();
+        throw unavailable("payments", e);
     }
 
-    private java.util.List<com.banking.admin.feign.dto.CreditProductResponse> fallbackCredits(Exception e) {
+    private CursorPage<com.banking.admin.feign.dto.CreditProductResponse> fallbackCredits(Long after, int size, Exception e) {
         log.error("Insights fallback (credits): {}", e.getMessage());
-        return new ArrayList<>();
+        throw unavailable("credits", e);
+    }
+
+    private static ResponseStatusException unavailable(String entity, Exception e) {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Could not read the " + entity + " page, try again", e);
     }
 }
@@ -0,0 +1,174 @@
+package com.banking.admin.service;
+
+import com.banking.admin.dto.NotificationJobStatus;
+import com.banking.admin.dto.NotificationRequest;
+import com.banking.admin.feign.NotificationServiceClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs the notification fan-out of bulk approvals off the request thread. Lookups and sends run on
+ * virtual threads, but a shared semaphore caps how many remote calls are in flight at once so a
+ * large approval cannot flood the downstream services.
+ * <p>
+ * Every task carries the SecurityContext of the thread that submitted it, so the Feign calls of a
+ * job go out with the approving admin's token long after the request thread has moved on.
+ */
+@Slf4j
+@Component
+public class NotificationDispatcher implements DisposableBean {
+
+    /** Results of looking up many ids at once: what was found and why the rest could not be. */
+    public record Lookup<T>(Map<Long, T> found, Map<Long, String> errors) {
+    }
+
+    // Well under the 5000-id limit of the services' batch endpoints
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private final NotificationServiceClient notificationServiceClient;
+    private final ExecutorService executor =
+        new DelegatingSecurityContextExecutorService(Executors.newVirtualThreadPerTaskExecutor());
+    private final Semaphore permits;
+    private final Duration retention;
+    private final Map<String, NotificationJob> jobs = new ConcurrentHashMap<>();
+
+    public NotificationDispatcher(NotificationServiceClient notificationServiceClient,
+                                  @Value("${admin.notifications.max-concurrency:16}") int maxConcurrency,
+                                  @Value("${admin.notifications.job-retention:PT1H}") Duration retention) {
+        this.notificationServiceClient = notificationServiceClient;
+        this.permits = new Semaphore(maxConcurrency);
+        this.retention = retention;
+    }
+
+    /**
+     * Starts a job for the given items and returns its id straight away. The planner runs on the
+     * job's thread, resolves who to notify for each item, and records items it cannot plan for.
+     */
+    public String submit(String kind, List<Long> itemIds, Function<NotificationJob, Map<Long, NotificationRequest>> planner) {
+        purgeFinished();
+        NotificationJob job = new NotificationJob(UUID.randomUUID().toString(), kind, itemIds);
+        jobs.put(job.getId(), job);
+        executor.execute(() -> run(job, planner));
+        return job.getId();
+    }
+
+    public Optional<NotificationJobStatus> status(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(NotificationJob::snapshot);
+    }
+
+    /**
+     * Fetches the distinct ids through a batch endpoint, a chunk per call with the chunks running in
+     * parallel within the concurrency cap. A failed call marks every id of its chunk as an error.
+     */
+    public <T> Lookup<T> lookupBatched(Collection<Long> ids, Function<List<Long>, Map<Long, T>> fetch) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, T> found = new ConcurrentHashMap<>();
+        Map<Long, String> errors = new ConcurrentHashMap<>();
+        List<Future<?>> calls = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, distinct.size()));
+            calls.add(executor.submit(() -> {
+                try {
+                    Map<Long, T> values = bounded(() -> fetch.apply(chunk));
+                    if (values != null) {
+                        values.forEach((id, value) -> {
+                            if (value != null) {
+                                found.put(id, value);
+                            }
+                        });
+                    }
+                } catch (RuntimeException e) {
+                    String reason = describe(e);
+                    chunk.forEach(id -> errors.put(id, reason));
+                }
+            }));
+        }
+        awaitAll(calls);
+        return new Lookup<>(found, errors);
+    }
+
+    private void run(NotificationJob job, Function<NotificationJob, Map<Long, NotificationRequest>> planner) {
+        try {
+            Map<Long, NotificationRequest> plan = planner.apply(job);
+            List<Future<?>> sends = new ArrayList<>(plan.size());
+            plan.forEach((itemId, request) -> sends.add(executor.submit(() -> {
+                try {
+                    bounded(() -> notificationServiceClient.send(request));
+                    job.sent();
+                } catch (RuntimeException e) {
+                    job.failed(itemId, "send: " + describe(e));
+                }
+            })));
+            awaitAll(sends);
+        } catch (RuntimeException e) {
+            log.error("Notification job {} aborted: {}", job.getId(), e.getMessage(), e);
+            job.failed(null, "job aborted: " + describe(e));
+        } finally {
+            job.finish();
+        }
+    }
+
+    private <T> T bounded(Supplier<T> call) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a notification slot", e);
+        }
+        try {
+            return call.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static void awaitAll(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for notification calls", e);
+            } catch (ExecutionException e) {
+                // Tasks record their own failures; anything reaching here is a bug in the task itself
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    private void purgeFinished() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    private static String describe(RuntimeException e) {
+        String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        return message.length() <= 300 ? message : message.substring(0, 300);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
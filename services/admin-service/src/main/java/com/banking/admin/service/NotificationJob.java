@@ -0,0 +1,83 @@
+package com.banking.admin.service;
+
+import com.banking.admin.dto.NotificationJobStatus;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress of the notifications sent for one bulk approval. Every approved item ends up counted
+ * exactly once as sent, skipped (nobody to notify) or failed; failures keep their reason so they
+ * can be inspected through the job endpoint instead of disappearing into a catch block.
+ */
+@Slf4j
+public class NotificationJob {
+
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String COMPLETED_WITH_FAILURES = "COMPLETED_WITH_FAILURES";
+
+    // Reasons beyond this are only counted, so a job over a dead service stays small
+    private static final int MAX_RECORDED_FAILURES = 200;
+
+    private final String id;
+    private final String kind;
+    private final List<Long> itemIds;
+    private final Instant createdAt = Instant.now();
+    private volatile Instant finishedAt;
+    private final AtomicInteger sent = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final ConcurrentLinkedQueue<NotificationJobStatus.Failure> failures = new ConcurrentLinkedQueue<>();
+
+    NotificationJob(String id, String kind, List<Long> itemIds) {
+        this.id = id;
+        this.kind = kind;
+        this.itemIds = List.copyOf(itemIds);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public List<Long> getItemIds() {
+        return itemIds;
+    }
+
+    public void sent() {
+        sent.incrementAndGet();
+    }
+
+    public void skipped() {
+        skipped.incrementAndGet();
+    }
+
+    public void failed(Long itemId, String reason) {
+        if (failed.incrementAndGet() <= MAX_RECORDED_FAILURES) {
+            failures.add(new NotificationJobStatus.Failure(itemId, reason));
+        }
+        log.warn("Notification job {} ({}): item {} not notified: {}", id, kind, itemId, reason);
+    }
+
+    void finish() {
+        finishedAt = Instant.now();
+    }
+
+    boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    NotificationJobStatus snapshot() {
+        String state = finishedAt == null ? RUNNING : failed.get() > 0 ? COMPLETED_WITH_FAILURES : COMPLETED;
+        return new NotificationJobStatus(id, kind, state, itemIds.size(), sent.get(), skipped.get(), failed.get(),
+                createdAt, finishedAt, new ArrayList<>(failures));
+    }
+}
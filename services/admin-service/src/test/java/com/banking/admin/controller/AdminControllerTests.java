@@ -2,6 +2,10 @@ package com.banking.admin.controller;
 
 import com.banking.admin.dto.ApprovalRequest;
 import com.banking.admin.dto.ApprovalResponse;
+import com.banking.admin.dto.BulkApprovalResponse;
+import com.banking.admin.dto.NotificationJobStatus;
+import com.banking.admin.feign.dto.CursorPage;
+import com.banking.admin.feign.dto.PaymentResponse;
 import com.banking.admin.service.AdminService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
@@ -14,6 +18,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 
@@ -56,9 +61,10 @@ class AdminControllerTests {
     }
 
     @Test
-    @DisplayName("POST /admin/customers/approvals/bulk returns message (200)")
+    @DisplayName("POST /admin/customers/approvals/bulk returns per-id outcomes (200)")
     void bulkApproveCustomers_ok() throws Exception {
-        when(adminService.bulkApproveCustomers(any(ApprovalRequest.class))).thenReturn("Approvals processed successfully");
+        when(adminService.bulkApproveCustomers(any(ApprovalRequest.class))).thenReturn(new BulkApprovalResponse(2, 1, List.of(
+                new BulkApprovalResponse.Outcome(1L, "UPDATED"), new BulkApprovalResponse.Outcome(2L, "NOT_FOUND"))));
 
         ApprovalRequest req = new ApprovalRequest(Arrays.asList(1L, 2L), "APPROVED");
 
@@ -66,7 +72,35 @@ class AdminControllerTests {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(req)))
                 .andExpect(status().isOk())
-                .andExpect(content().string("Approvals processed successfully"));
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.outcomes[1].outcome").value("NOT_FOUND"));
+    }
+
+    @Test
+    @DisplayName("GET /admin/notifications/jobs/{jobId} returns job progress (200)")
+    void getNotificationJob_ok() throws Exception {
+        when(adminService.getNotificationJob("job-1")).thenReturn(new NotificationJobStatus("job-1", "ACCOUNT",
+                "COMPLETED_WITH_FAILURES", 3, 2, 0, 1, Instant.now(), Instant.now(),
+                List.of(new NotificationJobStatus.Failure(9L, "send: timeout"))));
+
+        mockMvc.perform(get("/admin/notifications/jobs/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("COMPLETED_WITH_FAILURES"))
+                .andExpect(jsonPath("$.failures[0].id").value(9));
+    }
+
+    @Test
+    @DisplayName("GET /admin/payments/page passes the cursor through and returns the next one (200)")
+    void getPaymentsPage_ok() throws Exception {
+        PaymentResponse payment = new PaymentResponse();
+        payment.setId(42L);
+        when(adminService.getPaymentsPage(41L, 500)).thenReturn(new CursorPage<>(List.of(payment), 42L));
+
+        mockMvc.perform(get("/admin/payments/page").param("after", "41").param("size", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id").value(42))
+                .andExpect(jsonPath("$.nextCursor").value(42));
     }
 
     @Test
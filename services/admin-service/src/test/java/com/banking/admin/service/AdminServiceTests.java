@@ -2,23 +2,37 @@ package com.banking.admin.service;
 
 import com.banking.admin.dto.ApprovalRequest;
 import com.banking.admin.dto.ApprovalResponse;
+import com.banking.admin.dto.BulkApprovalResponse;
+import com.banking.admin.dto.NotificationJobStatus;
+import com.banking.admin.dto.NotificationRequest;
 import com.banking.admin.feign.AccountServiceClient;
 import com.banking.admin.feign.CreditServiceClient;
 import com.banking.admin.feign.CustomerServiceClient;
+import com.banking.admin.feign.NotificationServiceClient;
 import com.banking.admin.feign.PaymentServiceClient;
+import com.banking.admin.feign.dto.AccountResponse;
+import com.banking.admin.feign.dto.CustomerResponse;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -29,10 +43,16 @@ class AdminServiceTests {
     @Mock private AccountServiceClient accountClient;
     @Mock private CreditServiceClient creditClient;
     @Mock private PaymentServiceClient paymentClient;
+    @Mock private NotificationServiceClient notificationClient;
 
-    @InjectMocks
     private AdminService adminService;
 
+    @BeforeEach
+    void setUp() {
+        NotificationDispatcher dispatcher = new NotificationDispatcher(notificationClient, 4, Duration.ofHours(1));
+        adminService = new AdminService(customerClient, accountClient, creditClient, paymentClient, dispatcher);
+    }
+
     @Test
     @DisplayName("getCustomerPendingApprovals returns list")
     void getCustomerPendingApprovals_ok() {
@@ -55,10 +75,49 @@ class AdminServiceTests {
     @Test
     @DisplayName("bulkApproveCustomers delegates to client and returns message")
     void bulkApproveCustomers_ok() {
-        when(customerClient.bulkApprove(any(ApprovalRequest.class))).thenReturn("OK");
-        String msg = adminService.bulkApproveCustomers(new ApprovalRequest(Arrays.asList(1L), "APPROVED"));
-        assertEquals("OK", msg);
+        BulkApprovalResponse result = new BulkApprovalResponse(1, 1, List.of(new BulkApprovalResponse.Outcome(1L, "UPDATED")));
+        when(customerClient.bulkApprove(any(ApprovalRequest.class))).thenReturn(result);
+        assertSame(result, adminService.bulkApproveCustomers(new ApprovalRequest(Arrays.asList(1L), "APPROVED")));
         verify(customerClient).bulkApprove(any(ApprovalRequest.class));
+        awaitJob(result.getNotificationJobId());
+    }
+
+    @Test
+    @DisplayName("bulkApproveAccounts returns a job id; lookups are batched and failures are reported on the job")
+    void bulkApproveAccounts_notifiesAsynchronously() {
+        when(accountClient.bulkApprove(any(ApprovalRequest.class))).thenReturn(new BulkApprovalResponse(4, 4, List.of(
+                new BulkApprovalResponse.Outcome(1L, "UPDATED"), new BulkApprovalResponse.Outcome(2L, "UPDATED"),
+                new BulkApprovalResponse.Outcome(3L, "UPDATED"), new BulkApprovalResponse.Outcome(4L, "UPDATED"))));
+        // Account 4 has vanished since the approval
+        when(accountClient.getAccountsByIds(List.of(1L, 2L, 3L, 4L))).thenReturn(Map.of(
+                1L, account(1L, 7L), 2L, account(2L, 7L), 3L, account(3L, 8L)));
+        when(customerClient.getCustomersByIds(any())).thenReturn(Map.of(7L, customer(70L), 8L, customer(null)));
+        when(notificationClient.send(any(NotificationRequest.class))).thenAnswer(inv -> {
+            if (inv.<NotificationRequest>getArgument(0).getMessage().contains("ID: 2)")) {
+                throw new RuntimeException("notification-service unavailable");
+            }
+            return null;
+        });
+
+        BulkApprovalResponse result = adminService.bulkApproveAccounts(new ApprovalRequest(List.of(1L, 2L, 3L, 4L), "approved"));
+        NotificationJobStatus job = awaitJob(result.getNotificationJobId());
+
+        assertEquals("COMPLETED_WITH_FAILURES", job.getState());
+        assertEquals(1, job.getSent());
+        assertEquals(2, job.getSkipped());
+        assertEquals(1, job.getFailed());
+        assertEquals(2L, job.getFailures().get(0).getId());
+        assertTrue(job.getFailures().get(0).getReason().contains("notification-service unavailable"));
+        // One round trip per hop, customer 7 asked for once
+        verify(accountClient, times(1)).getAccountsByIds(any());
+        verify(customerClient, times(1)).getCustomersByIds(argThat(ids -> ids.size() == 2));
+    }
+
+    @Test
+    @DisplayName("an unknown notification job is a 404")
+    void getNotificationJob_unknown() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> adminService.getNotificationJob("nope"));
+        assertEquals(404, ex.getStatusCode().value());
     }
 
     @Test
@@ -66,10 +125,37 @@ class AdminServiceTests {
     void accountApprovals_ok() {
         when(accountClient.getPendingApprovals()).thenReturn(Arrays.asList(
                 new ApprovalResponse(10L, "ACCOUNT_OPENING", "PENDING", "desc", "account-service")));
-        when(accountClient.bulkApprove(any(ApprovalRequest.class))).thenReturn("done");
+        when(accountClient.bulkApprove(any(ApprovalRequest.class))).thenReturn(
+                new BulkApprovalResponse(1, 0, List.of(new BulkApprovalResponse.Outcome(10L, "NOT_PENDING"))));
 
         assertEquals(1, adminService.getAccountPendingApprovals().size());
-        assertEquals("done", adminService.bulkApproveAccounts(new ApprovalRequest(Arrays.asList(10L), "APPROVED")));
+        assertEquals(0, adminService.bulkApproveAccounts(new ApprovalRequest(Arrays.asList(10L), "APPROVED")).getUpdated());
+        // Nothing changed, so nobody is notified
+        verify(accountClient, never()).getAccountsByIds(any());
+    }
+
+    private NotificationJobStatus awaitJob(String jobId) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        NotificationJobStatus job;
+        while (NotificationJob.RUNNING.equals((job = adminService.getNotificationJob(jobId)).getState())) {
+            assertTrue(System.currentTimeMillis() < deadline, "notification job did not finish");
+            Thread.onSpinWait();
+        }
+        return job;
+    }
+
+    private static AccountResponse account(Long id, Long customerId) {
+        AccountResponse acc = new AccountResponse();
+        acc.setId(id);
+        acc.setCustomerId(customerId);
+        return acc;
+    }
+
+    private static CustomerResponse customer(Long userId) {
+        CustomerResponse cust = new CustomerResponse();
+        cust.setUserId(userId);
+        cust.setEmail("user@example.com");
+        return cust;
     }
 }
 
@@ -0,0 +1,87 @@
+package com.banking.admin.service;
+
+import com.banking.admin.config.FeignConfig;
+import com.banking.admin.dto.NotificationJobStatus;
+import com.banking.admin.dto.NotificationRequest;
+import com.banking.admin.feign.NotificationServiceClient;
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDispatcherTests {
+
+    @Mock private NotificationServiceClient notificationClient;
+
+    private final RequestInterceptor feignInterceptor = new FeignConfig().requestInterceptor();
+    private final Queue<String> authorizationHeaders = new ConcurrentLinkedQueue<>();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("lookups and sends on the job's threads carry the submitting admin's token")
+    void submit_propagatesCallerToken() {
+        when(notificationClient.send(any())).thenAnswer(inv -> feignCall());
+        NotificationDispatcher dispatcher = new NotificationDispatcher(notificationClient, 4, Duration.ofHours(1));
+
+        Jwt jwt = Jwt.withTokenValue("admin-token").header("alg", "none").subject("admin").claim("role", "ADMIN").build();
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+        String jobId = dispatcher.submit("CUSTOMER", List.of(1L, 2L), job -> {
+            NotificationDispatcher.Lookup<String> emails = dispatcher.lookupBatched(List.of(1L, 2L), ids -> {
+                feignCall();
+                return Map.of(1L, "a@bank.test", 2L, "b@bank.test");
+            });
+            return Map.of(
+                1L, new NotificationRequest(1L, "EMAIL", emails.found().get(1L), "s", "m"),
+                2L, new NotificationRequest(2L, "EMAIL", emails.found().get(2L), "s", "m"));
+        });
+        // The request thread is done with the caller; the job must not depend on it any more
+        SecurityContextHolder.clearContext();
+
+        NotificationJobStatus status = await(dispatcher, jobId);
+
+        assertEquals(2, status.getSent());
+        assertEquals(List.of("Bearer admin-token", "Bearer admin-token", "Bearer admin-token"), List.copyOf(authorizationHeaders));
+        dispatcher.destroy();
+    }
+
+    private Object feignCall() {
+        RequestTemplate template = new RequestTemplate();
+        feignInterceptor.apply(template);
+        Collection<String> values = template.headers().get("Authorization");
+        authorizationHeaders.add(values == null ? "none" : String.join(",", values));
+        return null;
+    }
+
+    private static NotificationJobStatus await(NotificationDispatcher dispatcher, String jobId) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        NotificationJobStatus job;
+        while (NotificationJob.RUNNING.equals((job = dispatcher.status(jobId).orElseThrow()).getState())) {
+            assertTrue(System.currentTimeMillis() < deadline, "notification job did not finish");
+            Thread.onSpinWait();
+        }
+        return job;
+    }
+}
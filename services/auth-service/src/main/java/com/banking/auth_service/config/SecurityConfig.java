@@ -72,9 +72,12 @@ public class SecurityConfig {
                 // Public endpoints - no authentication required
                 .requestMatchers("/auth/signin").permitAll()
                 .requestMatchers("/auth/signup").permitAll()
+                .requestMatchers("/auth/availability").permitAll()
                 .requestMatchers("/auth/refresh").permitAll()
                 .requestMatchers("/auth/validate").permitAll()
                 .requestMatchers("/auth/public-key").permitAll()
+                .requestMatchers("/auth/.well-known/jwks.json").permitAll()
+                .requestMatchers("/auth/revocations").permitAll()
                 
                 // Swagger/OpenAPI endpoints
                 .requestMatchers("/swagger-ui/**").permitAll()
@@ -9,8 +9,12 @@ import com.banking.auth_service.repository.UserRepository;
 import com.banking.auth_service.security.JwtUtils;
 import com.banking.auth_service.security.UserDetailsImpl;
 import com.banking.auth_service.service.AuthService;
+import com.banking.auth_service.service.LoginActivityWriter;
+import com.banking.auth_service.service.LoginAttemptService;
 import com.banking.auth_service.service.MfaService;
 import com.banking.auth_service.service.RefreshTokenService;
+import com.banking.auth_service.service.TokenRevocationService;
+import com.banking.auth_service.service.UserIdentityIndex;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -18,7 +22,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -42,6 +50,8 @@ import java.util.Optional;
 @Tag(name = "Authentication", description = "Authentication and Authorization APIs")
 public class AuthController {
     
+    static final String MFA_QR_CODE_PATH = "/auth/mfa/qr-code";
+    
     private final AuthenticationManager authenticationManager;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
@@ -49,6 +59,10 @@ public class AuthController {
     private final RefreshTokenService refreshTokenService;
     private final MfaService mfaService;
     private final AuthService authService;
+    private final LoginAttemptService loginAttemptService;
+    private final LoginActivityWriter loginActivityWriter;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserIdentityIndex userIdentityIndex;
     
     public AuthController(AuthenticationManager authenticationManager,
                          UserRepository userRepository,
@@ -56,7 +70,11 @@ public class AuthController {
                          JwtUtils jwtUtils,
                          RefreshTokenService refreshTokenService,
                          MfaService mfaService,
-                         AuthService authService) {
+                         AuthService authService,
+                         LoginAttemptService loginAttemptService,
+                         LoginActivityWriter loginActivityWriter,
+                         TokenRevocationService tokenRevocationService,
+                         UserIdentityIndex userIdentityIndex) {
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
@@ -64,6 +82,10 @@ public class AuthController {
         this.refreshTokenService = refreshTokenService;
         this.mfaService = mfaService;
         this.authService = authService;
+        this.loginAttemptService = loginAttemptService;
+        this.loginActivityWriter = loginActivityWriter;
+        this.tokenRevocationService = tokenRevocationService;
+        this.userIdentityIndex = userIdentityIndex;
     }
     
     @PostMapping("/signup")
@@ -77,14 +99,15 @@ public class AuthController {
     })
     public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
         
-        // Validate username
-        if (userRepository.existsByUsername(signUpRequest.getUsername())) {
+        // Validate username and email (in memory, or one query if either may be taken)
+        UserIdentityIndex.Availability availability =
+            userIdentityIndex.check(signUpRequest.getUsername(), signUpRequest.getEmail());
+        if (!availability.usernameAvailable()) {
             return ResponseEntity.badRequest()
                 .body(new MessageResponse("Error: Username is already taken!"));
         }
         
-        // Validate email
-        if (userRepository.existsByEmail(signUpRequest.getEmail())) {
+        if (!availability.emailAvailable()) {
             return ResponseEntity.badRequest()
                 .body(new MessageResponse("Error: Email is already in use!"));
         }
@@ -106,36 +129,53 @@ public class AuthController {
         user.setAccountNonLocked(true);
         user.setFailedLoginAttempts(0);
         
-        // Handle MFA
-        String mfaQrCode = null;
+        // Handle MFA (the QR code is rendered on request from /auth/mfa/qr-code)
         if (signUpRequest.isMfaEnabled()) {
-            String secret = mfaService.generateMfaSecret();
-            user.setMfaSecret(secret);
+            user.setMfaSecret(mfaService.generateMfaSecret());
             user.setMfaEnabled(true);
-            mfaQrCode = mfaService.generateQrCodeUrl(user.getUsername(), secret);
         }
         
-        user = userRepository.save(user);
+        // The unique constraints settle a race with a concurrent signup for the same name
+        try {
+            user = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error: Username or email is already taken!"));
+        }
+        userIdentityIndex.add(user.getUsername(), user.getEmail());
         
         // Generate JWT token for the new user (auto-login after registration)
         String accessToken = jwtUtils.generateTokenFromUsername(user.getUsername(), user.getRole().name(), user.getId());
-        String refreshToken = refreshTokenService.createRefreshToken(user.getId()).getToken();
-        
-        if (mfaQrCode != null) {
-            return ResponseEntity.ok(new AuthResponse(
-                accessToken, refreshToken, "Bearer", 3600L,
-                user.getId(), user.getUsername(), user.getEmail(), user.getRole().name(),
-                mfaQrCode
-            ));
-        }
+        String refreshToken = refreshTokenService.createRefreshToken(user.getId());
         
         return ResponseEntity.ok(new AuthResponse(
             accessToken, refreshToken, "Bearer", 3600L,
             user.getId(), user.getUsername(), user.getEmail(), user.getRole().name(),
-            null
+            user.isMfaEnabled() ? MFA_QR_CODE_PATH : null
         ));
     }
     
+    @GetMapping("/availability")
+    @Operation(summary = "Check username and email availability", 
+               description = "Check whether a username and/or email are still free, e.g. while the signup form is typed")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Availability checked",
+            content = @Content(schema = @Schema(implementation = AvailabilityResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Neither username nor email given",
+            content = @Content(schema = @Schema(implementation = MessageResponse.class)))
+    })
+    public ResponseEntity<?> checkAvailability(@RequestParam(required = false) String username,
+                                               @RequestParam(required = false) String email) {
+        UserIdentityIndex.Availability availability = userIdentityIndex.check(username, email);
+        if (availability.usernameAvailable() == null && availability.emailAvailable() == null) {
+            return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error: Username or email is required"));
+        }
+        
+        return ResponseEntity.ok(new AvailabilityResponse(
+            availability.usernameAvailable(), availability.emailAvailable()));
+    }
+    
     @PostMapping("/signin")
     @Operation(summary = "User login", 
                description = "Authenticate user and return JWT tokens")
@@ -173,29 +213,32 @@ public class AuthController {
                         .body(new MessageResponse("MFA code required"));
                 }
                 
-                if (!mfaService.verifyCode(userDetails.getMfaSecret(), 
+                if (!mfaService.verifyCode(userDetails.getId(), userDetails.getMfaSecret(), 
                                           loginRequest.getMfaCode())) {
                     return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(new MessageResponse("Invalid MFA code"));
                 }
+                
+                // The authenticator app works, so the QR code is not needed any more
+                if (!userDetails.isMfaEnrolled()) {
+                    authService.markMfaEnrolled(userDetails.getId());
+                }
             }
             
             // Generate JWT token
             String jwt = jwtUtils.generateJwtToken(userDetails);
             
             // Generate refresh token
-            RefreshToken refreshToken = refreshTokenService.createRefreshToken(
+            String refreshToken = refreshTokenService.createRefreshToken(
                 userDetails.getId());
             
-            // Update user last login and reset failed attempts
-            User user = userRepository.findById(userDetails.getId()).orElseThrow();
-            user.setLastLogin(LocalDateTime.now());
-            user.setFailedLoginAttempts(0);
-            userRepository.save(user);
+            // Update user last login and reset failed attempts (written behind)
+            loginAttemptService.reset(userDetails.getUsername());
+            loginActivityWriter.recordSuccess(userDetails.getUsername());
             
             return ResponseEntity.ok(new AuthResponse(
                 jwt,
-                refreshToken.getToken(),
+                refreshToken,
                 "Bearer",
                 900L, // 15 minutes in seconds
                 userDetails.getId(),
@@ -206,22 +249,16 @@ public class AuthController {
             ));
             
         } catch (BadCredentialsException e) {
-            // Handle failed login attempts
-            User user = userRepository.findByUsername(loginRequest.getUsername()).orElse(null);
-            if (user != null) {
-                user.setFailedLoginAttempts(user.getFailedLoginAttempts() + 1);
-                
-                // Lock account after 5 failed attempts
-                if (user.getFailedLoginAttempts() >= 5) {
-                    user.setAccountNonLocked(false);
-                    userRepository.save(user);
-                    
-                    return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body(new MessageResponse(
-                            "Account locked due to too many failed login attempts"));
-                }
-                
-                userRepository.save(user);
+            // Handle failed login attempts (written behind)
+            String username = loginRequest.getUsername();
+            loginActivityWriter.recordFailure(username);
+            
+            // Lock account after too many failed attempts within the lockout window
+            if (loginAttemptService.recordFailure(username) && authService.lockUser(username)) {
+                loginAttemptService.reset(username);
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new MessageResponse(
+                        "Account locked due to too many failed login attempts"));
             }
             
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
@@ -268,25 +305,77 @@ public class AuthController {
     
     @PostMapping("/logout")
     @Operation(summary = "User logout", 
-               description = "Invalidate refresh token and logout user")
+               description = "Invalidate refresh token, revoke the access token used and logout user")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Logout successful",
             content = @Content(schema = @Schema(implementation = MessageResponse.class)))
     })
-    public ResponseEntity<?> logoutUser() {
+    public ResponseEntity<?> logoutUser(@RequestHeader(name = "Authorization", required = false) String authHeader) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
         refreshTokenService.deleteByUserId(userDetails.getId());
         
+        // Revoke the access token too, so it stops working everywhere before it expires
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            jwtUtils.getVerifiedClaims(authHeader.substring(7)).ifPresent(tokenRevocationService::revoke);
+        }
+        
         return ResponseEntity.ok(new MessageResponse("Log out successful!"));
     }
     
+    /**
+     * @deprecated only returns the key signing right now, so a verifier built on it breaks at the
+     * next rotation; use {@code /auth/.well-known/jwks.json}, which lists every published key by kid
+     */
+    @Deprecated
     @GetMapping("/public-key")
-    @Operation(summary = "Get public key", 
-               description = "Retrieve RSA public key for JWT validation")
+    @Operation(summary = "Get public key (deprecated)", deprecated = true,
+               description = "Retrieve the public key currently signing tokens. Deprecated: it changes on every key "
+                   + "rotation and carries no kid. Use /auth/.well-known/jwks.json instead")
     public ResponseEntity<?> getPublicKey() {
         String publicKeyPem = Base64.getEncoder().encodeToString(jwtUtils.getPublicKey().getEncoded());
-        return ResponseEntity.ok(new MessageResponse(publicKeyPem));
+        return ResponseEntity.ok()
+            .header("Deprecation", "true")
+            .header(HttpHeaders.LINK, "</auth/.well-known/jwks.json>; rel=\"successor-version\"")
+            .body(new MessageResponse(publicKeyPem));
+    }
+    
+    @GetMapping("/mfa/qr-code")
+    @Operation(summary = "Get MFA QR code", 
+               description = "Render the current user's MFA enrolment QR code as a PNG. Only available "
+                   + "until the first sign-in with an MFA code, and within auth.mfa.enrolment-window of signup")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "QR code rendered",
+            content = @Content(mediaType = MediaType.IMAGE_PNG_VALUE)),
+        @ApiResponse(responseCode = "403", description = "MFA enrolment is over",
+            content = @Content(schema = @Schema(implementation = MessageResponse.class))),
+        @ApiResponse(responseCode = "404", description = "MFA is not enabled for the user",
+            content = @Content(schema = @Schema(implementation = MessageResponse.class)))
+    })
+    public ResponseEntity<?> getMfaQrCode() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        
+        // The principal is built from the token, so the secret comes from the user row
+        Optional<User> user = authService.getUserById(userDetails.getId());
+        if (user.isEmpty() || !user.get().isMfaEnabled() || user.get().getMfaSecret() == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new MessageResponse("MFA is not enabled"));
+        }
+        
+        // The image is the second factor itself: only during enrolment, and never stored by a cache
+        if (!mfaService.isEnrolmentOpen(user.get(), LocalDateTime.now())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .cacheControl(CacheControl.noStore())
+                .body(new MessageResponse("MFA enrolment is over"));
+        }
+        
+        MfaService.QrCode qrCode = mfaService.getQrCode(
+            user.get().getId(), user.get().getUsername(), user.get().getMfaSecret());
+        return ResponseEntity.ok()
+            .contentType(MediaType.IMAGE_PNG)
+            .cacheControl(CacheControl.noStore())
+            .body(qrCode.png());
     }
     
     @GetMapping("/me")
@@ -296,12 +385,19 @@ public class AuthController {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
         
+        // The principal is built from the token, so the email comes from the user row
+        Optional<User> user = authService.getUserById(userDetails.getId());
+        if (user.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new MessageResponse("User not found"));
+        }
+        
         return ResponseEntity.ok(new AuthResponse(
             null, null, null, null,
-            userDetails.getId(),
-            userDetails.getUsername(),
-            userDetails.getEmail(),
-            userDetails.getRole(),
+            user.get().getId(),
+            user.get().getUsername(),
+            user.get().getEmail(),
+            user.get().getRole().name(),
             null
         ));
     }
@@ -422,7 +518,7 @@ public class AuthController {
         }
         
         user.setUpdatedAt(LocalDateTime.now());
-        user = userRepository.save(user);
+        user = authService.saveUser(user);
         
         return ResponseEntity.ok(user);
     }
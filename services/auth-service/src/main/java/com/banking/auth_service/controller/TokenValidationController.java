@@ -1,7 +1,12 @@
 package com.banking.auth_service.controller;
 
+import com.banking.auth_service.dto.MessageResponse;
+import com.banking.auth_service.dto.RevocationListResponse;
 import com.banking.auth_service.dto.TokenValidationResponse;
 import com.banking.auth_service.security.JwtUtils;
+import com.banking.auth_service.security.SigningKeyStore;
+import com.banking.auth_service.security.UserDetailsImpl;
+import com.banking.auth_service.service.TokenRevocationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,10 +15,16 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.util.Map;
+
 /**
  * REST controller for token validation.
  * Used by other microservices to validate JWT tokens.
@@ -25,9 +36,14 @@ import org.springframework.web.bind.annotation.*;
 public class TokenValidationController {
     
     private final JwtUtils jwtUtils;
+    private final SigningKeyStore signingKeyStore;
+    private final TokenRevocationService tokenRevocationService;
     
-    public TokenValidationController(JwtUtils jwtUtils) {
+    public TokenValidationController(JwtUtils jwtUtils, SigningKeyStore signingKeyStore,
+                                     TokenRevocationService tokenRevocationService) {
         this.jwtUtils = jwtUtils;
+        this.signingKeyStore = signingKeyStore;
+        this.tokenRevocationService = tokenRevocationService;
     }
     
     @PostMapping("/validate")
@@ -52,18 +68,14 @@ public class TokenValidationController {
             
             String token = authHeader.substring(7);
             
-            if (jwtUtils.validateJwtToken(token)) {
-                String username = jwtUtils.getUsernameFromJwtToken(token);
-                String role = jwtUtils.getRoleFromJwtToken(token);
-                Long userId = jwtUtils.getUserIdFromJwtToken(token);
-                
-                return ResponseEntity.ok(new TokenValidationResponse(
-                    true, username, role, userId
-                ));
-            }
-            
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                .body(new TokenValidationResponse(false, null, null, null));
+            // One verification yields every claim the response needs
+            return jwtUtils.getVerifiedClaims(token)
+                .filter(claims -> !tokenRevocationService.isRevoked(claims))
+                .map(claims -> ResponseEntity.ok(new TokenValidationResponse(
+                    true, claims.username(), claims.role(), claims.userId()
+                )))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new TokenValidationResponse(false, null, null, null)));
                 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
@@ -71,4 +83,48 @@ public class TokenValidationController {
         }
     }
     
+    @GetMapping("/.well-known/jwks.json")
+    @Operation(summary = "Get JSON Web Key Set", 
+               description = "Public keys that may have signed a live access token, identified by kid. "
+                   + "Resource servers cache this and verify tokens locally.")
+    public ResponseEntity<Map<String, Object>> getJwkSet() {
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+            .body(signingKeyStore.jwkSet());
+    }
+    
+    @GetMapping("/revocations")
+    @Operation(summary = "Get revoked access tokens", 
+               description = "Revoked jti values with their expiry. Pass the previous response's epoch and "
+                   + "version to get only what changed; resource servers pull this and check tokens in memory.")
+    public ResponseEntity<RevocationListResponse> getRevocations(
+            @RequestParam(name = "epoch", required = false) String epoch,
+            @RequestParam(name = "since", defaultValue = "0") long since) {
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noStore())
+            .body(tokenRevocationService.changesSince(epoch, since));
+    }
+    
+    @PostMapping("/keys/rotate")
+    @Operation(summary = "Rotate signing key", 
+               description = "Generate a new signing key (Admin only). It is published immediately "
+                   + "and starts signing after jwt.keys.activation-delay.",
+               security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "New key generated",
+            content = @Content(schema = @Schema(implementation = MessageResponse.class))),
+        @ApiResponse(responseCode = "403", description = "Access denied - Admin role required",
+            content = @Content(schema = @Schema(implementation = MessageResponse.class)))
+    })
+    public ResponseEntity<MessageResponse> rotateSigningKey() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserDetailsImpl userDetails)
+                || !"ADMIN".equals(userDetails.getRole())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(new MessageResponse("Access denied. Admin role required."));
+        }
+        
+        String kid = signingKeyStore.rotate();
+        return ResponseEntity.ok(new MessageResponse("Generated signing key " + kid));
+    }
 }
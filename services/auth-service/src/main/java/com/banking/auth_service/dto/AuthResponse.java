@@ -36,15 +36,16 @@ public class AuthResponse {
             allowableValues = {"CUSTOMER", "ADMIN"})
     private String role;
     
-    @Schema(description = "MFA QR Code (only present during registration if MFA is enabled)")
-    private String mfaQrCode;
+    @Schema(description = "Path of the MFA QR code image (only present during registration if MFA is enabled)",
+            example = "/auth/mfa/qr-code")
+    private String mfaQrCodeUrl;
     
     public AuthResponse() {
     }
     
     public AuthResponse(String accessToken, String refreshToken, String tokenType, 
                        Long expiresIn, Long id, String username, String email, 
-                       String role, String mfaQrCode) {
+                       String role, String mfaQrCodeUrl) {
         this.accessToken = accessToken;
         this.refreshToken = refreshToken;
         this.tokenType = tokenType;
@@ -53,7 +54,7 @@ public class AuthResponse {
         this.username = username;
         this.email = email;
         this.role = role;
-        this.mfaQrCode = mfaQrCode;
+        this.mfaQrCodeUrl = mfaQrCodeUrl;
     }
     
     public String getAccessToken() {
@@ -120,11 +121,11 @@ public class AuthResponse {
         this.role = role;
     }
     
-    public String getMfaQrCode() {
-        return mfaQrCode;
+    public String getMfaQrCodeUrl() {
+        return mfaQrCodeUrl;
     }
     
-    public void setMfaQrCode(String mfaQrCode) {
-        this.mfaQrCode = mfaQrCode;
+    public void setMfaQrCodeUrl(String mfaQrCodeUrl) {
+        this.mfaQrCodeUrl = mfaQrCodeUrl;
     }
 }
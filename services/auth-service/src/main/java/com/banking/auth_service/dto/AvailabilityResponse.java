@@ -0,0 +1,41 @@
+package com.banking.auth_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Data Transfer Object for username and email availability checks.
+ * A field is null when that value was not asked about.
+ */
+@Schema(description = "Whether a username and/or email can still be used to sign up")
+public class AvailabilityResponse {
+
+    @Schema(description = "True if the username is free", example = "true")
+    private Boolean usernameAvailable;
+
+    @Schema(description = "True if the email is free", example = "false")
+    private Boolean emailAvailable;
+
+    public AvailabilityResponse() {
+    }
+
+    public AvailabilityResponse(Boolean usernameAvailable, Boolean emailAvailable) {
+        this.usernameAvailable = usernameAvailable;
+        this.emailAvailable = emailAvailable;
+    }
+
+    public Boolean getUsernameAvailable() {
+        return usernameAvailable;
+    }
+
+    public void setUsernameAvailable(Boolean usernameAvailable) {
+        this.usernameAvailable = usernameAvailable;
+    }
+
+    public Boolean getEmailAvailable() {
+        return emailAvailable;
+    }
+
+    public void setEmailAvailable(Boolean emailAvailable) {
+        this.emailAvailable = emailAvailable;
+    }
+}
@@ -0,0 +1,74 @@
+package com.banking.auth_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for the access-token revocation list.
+ * Resource servers pull it periodically and keep the list in memory.
+ */
+@Schema(description = "Revoked access tokens, as a full snapshot or the changes since a version")
+public class RevocationListResponse {
+
+    @Schema(description = "Identifies this auth-service instance's sequence; versions from another epoch are not comparable",
+            example = "6f1c2b1e-8a34-4f0e-b3a5-2f4d0c9e7a10")
+    private String epoch;
+
+    @Schema(description = "Version to pass as 'since' on the next pull", example = "42")
+    private long version;
+
+    @Schema(description = "True if 'revoked' is the complete list and replaces what the caller holds", example = "false")
+    private boolean full;
+
+    @Schema(description = "Revoked tokens (all, or those added since the requested version)")
+    private List<Entry> revoked;
+
+    public RevocationListResponse() {
+    }
+
+    public RevocationListResponse(String epoch, long version, boolean full, List<Entry> revoked) {
+        this.epoch = epoch;
+        this.version = version;
+        this.full = full;
+        this.revoked = revoked;
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    public void setEpoch(String epoch) {
+        this.epoch = epoch;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    public void setFull(boolean full) {
+        this.full = full;
+    }
+
+    public List<Entry> getRevoked() {
+        return revoked;
+    }
+
+    public void setRevoked(List<Entry> revoked) {
+        this.revoked = revoked;
+    }
+
+    /**
+     * One revoked token: its jti and expiry (epoch seconds), after which it can be forgotten.
+     */
+    public record Entry(String jti, long exp) {
+    }
+}
@@ -7,8 +7,13 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.time.Instant;
 
+/**
+ * A user's current refresh token. Only its SHA-256 digest is stored, so a leaked table does not
+ * hand out usable tokens; one row per user, replaced on every sign-in.
+ */
 @Entity
-@Table(name = "refresh_tokens")
+@Table(name = "refresh_tokens",
+       indexes = @Index(name = "idx_refresh_tokens_expiry_date", columnList = "expiry_date"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,11 +25,12 @@ public class RefreshToken {
     private Long id;
     
     @OneToOne
-    @JoinColumn(name = "user_id", referencedColumnName = "id", nullable = false)
+    @JoinColumn(name = "user_id", referencedColumnName = "id", nullable = false, unique = true)
     private User user;
     
-    @Column(nullable = false, unique = true)
-    private String token;
+    // Hex SHA-256 of the token handed to the client
+    @Column(name = "token_hash", nullable = false, unique = true, columnDefinition = "CHAR(64)")
+    private String tokenHash;
     
     @Column(name = "expiry_date", nullable = false)
     private Instant expiryDate;
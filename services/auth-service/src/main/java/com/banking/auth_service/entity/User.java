@@ -56,6 +56,10 @@ public class User {
     @Column(name = "mfa_secret")
     private String mfaSecret;
     
+    // First successful MFA sign-in; the enrolment QR code is no longer served after it
+    @Column(name = "mfa_enrolled_at")
+    private LocalDateTime mfaEnrolledAt;
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
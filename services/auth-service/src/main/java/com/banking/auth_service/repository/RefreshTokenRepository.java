@@ -1,11 +1,13 @@
 package com.banking.auth_service.repository;
 
 import com.banking.auth_service.entity.RefreshToken;
-import com.banking.auth_service.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.Optional;
 
 /**
@@ -14,9 +16,25 @@ import java.util.Optional;
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
     
-    Optional<RefreshToken> findByToken(String token);
-    Optional<RefreshToken> findByUserId(Long userId);
+    @Query("SELECT t FROM RefreshToken t JOIN FETCH t.user WHERE t.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHash(@Param("tokenHash") String tokenHash);
     
+    /**
+     * Insert the user's refresh token, or replace it in place if the user already has one.
+     */
     @Modifying
-    int deleteByUser(User user);
+    @Query(value = "INSERT INTO refresh_tokens (user_id, token_hash, expiry_date, created_at) " +
+                   "VALUES (:userId, :tokenHash, :expiryDate, :now) " +
+                   "ON DUPLICATE KEY UPDATE token_hash = VALUES(token_hash), expiry_date = VALUES(expiry_date)",
+           nativeQuery = true)
+    int upsert(@Param("userId") Long userId, @Param("tokenHash") String tokenHash,
+               @Param("expiryDate") Instant expiryDate, @Param("now") Instant now);
+    
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+    
+    @Modifying
+    @Query(value = "DELETE FROM refresh_tokens WHERE expiry_date < :now LIMIT :limit", nativeQuery = true)
+    int deleteExpired(@Param("now") Instant now, @Param("limit") int limit);
 }
@@ -1,9 +1,16 @@
 package com.banking.auth_service.repository;
 
 import com.banking.auth_service.entity.User;
+import com.banking.auth_service.security.UserStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -19,4 +26,37 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Boolean existsByUsername(String username);
     
     Boolean existsByEmail(String email);
+    
+    /**
+     * Rows of (username, email) matching either value; a null value matches nothing.
+     * One query answers both availability checks.
+     */
+    @Query("SELECT u.username, u.email FROM User u WHERE u.username = :username OR u.email = :email")
+    List<Object[]> findByUsernameOrEmail(@Param("username") String username, @Param("email") String email);
+    
+    /**
+     * Rows of (id, username, email) after the given id, in id order, for paging through all users.
+     */
+    @Query("SELECT u.id, u.username, u.email FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Object[]> findIdentitiesAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT new com.banking.auth_service.security.UserStatus(u.enabled, u.accountNonLocked) FROM User u WHERE u.id = :id")
+    Optional<UserStatus> findStatusById(@Param("id") Long id);
+    
+    @Modifying
+    @Query("UPDATE User u SET u.lastLogin = :lastLogin, u.failedLoginAttempts = :failedAttempts WHERE u.username = :username")
+    int recordLogin(@Param("username") String username, @Param("lastLogin") LocalDateTime lastLogin,
+                    @Param("failedAttempts") int failedAttempts);
+    
+    @Modifying
+    @Query("UPDATE User u SET u.failedLoginAttempts = u.failedLoginAttempts + :count WHERE u.username = :username")
+    int addFailedLoginAttempts(@Param("username") String username, @Param("count") int count);
+    
+    @Modifying
+    @Query("UPDATE User u SET u.accountNonLocked = false, u.updatedAt = :now WHERE u.id = :id")
+    int lockById(@Param("id") Long id, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE User u SET u.mfaEnrolledAt = :now WHERE u.id = :id AND u.mfaEnrolledAt IS NULL")
+    int markMfaEnrolled(@Param("id") Long id, @Param("now") LocalDateTime now);
 }
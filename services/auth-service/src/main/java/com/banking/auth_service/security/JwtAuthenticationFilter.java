@@ -1,6 +1,8 @@
 package com.banking.auth_service.security;
 
+import com.banking.auth_service.service.TokenRevocationService;
 import com.banking.auth_service.service.UserDetailsServiceImpl;
+import com.banking.auth_service.service.UserStatusCache;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,6 +10,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,6 +20,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 /**
  * JWT Authentication Filter that intercepts all requests.
@@ -33,6 +37,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
     
+    @Autowired
+    private UserStatusCache userStatusCache;
+    
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
+    // When false, the user is loaded from the database on every request as before
+    @Value("${auth.stateless-principal:true}")
+    private boolean statelessPrincipal;
+    
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                   HttpServletResponse response,
@@ -41,10 +55,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = parseJwt(request);
             
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUsernameFromJwtToken(jwt);
+            Optional<VerifiedClaims> claims = (jwt != null ? jwtUtils.getVerifiedClaims(jwt) : Optional.<VerifiedClaims>empty())
+                .filter(verified -> !tokenRevocationService.isRevoked(verified));
+            
+            if (claims.isPresent()) {
+                String username = claims.get().username();
                 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = statelessPrincipal
+                    ? statelessPrincipal(claims.get())
+                    : userDetailsService.loadUserByUsername(username);
+                
+                if (userDetails == null || !userDetails.isEnabled() || !userDetails.isAccountNonLocked()) {
+                    logger.debug("Rejected token of deleted, disabled or locked user: {}", username);
+                    filterChain.doFilter(request, response);
+                    return;
+                }
                 
                 UsernamePasswordAuthenticationToken authentication =
                     new UsernamePasswordAuthenticationToken(
@@ -66,6 +91,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    /**
+     * Build the principal from the token's claims, with lock/disable state from the cache.
+     * Returns null if the user no longer exists.
+     */
+    private UserDetails statelessPrincipal(VerifiedClaims claims) {
+        if (claims.userId() == null) {
+            return null;
+        }
+        return userStatusCache.getStatus(claims.userId())
+            .map(status -> UserDetailsImpl.build(claims, status))
+            .orElse(null);
+    }
+    
     /**
      * Extract JWT token from Authorization header.
      */
@@ -0,0 +1,109 @@
+package com.banking.auth_service.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.util.Base64URL;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+
+/**
+ * JWS algorithms the access tokens can be signed with, selected by {@code jwt.keys.algorithm}.
+ * RS256 is the most widely supported; ES256 and EdDSA (Ed25519) sign far faster with smaller keys.
+ */
+public enum SigningAlgorithm {
+
+    RS256("RSA", Jwts.SIG.RS256),
+    ES256("EC", Jwts.SIG.ES256),
+    EdDSA("Ed25519", Jwts.SIG.EdDSA);
+
+    // An X.509-encoded Ed25519 public key is a fixed 12-byte header followed by the 32-byte key
+    private static final int ED25519_KEY_LENGTH = 32;
+
+    private final String keyAlgorithm;
+    private final SignatureAlgorithm signatureAlgorithm;
+
+    SigningAlgorithm(String keyAlgorithm, SignatureAlgorithm signatureAlgorithm) {
+        this.keyAlgorithm = keyAlgorithm;
+        this.signatureAlgorithm = signatureAlgorithm;
+    }
+
+    public SignatureAlgorithm signatureAlgorithm() {
+        return signatureAlgorithm;
+    }
+
+    public KeyPair generateKeyPair() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance(keyAlgorithm);
+        switch (this) {
+            case RS256 -> generator.initialize(2048);
+            case ES256 -> generator.initialize(new ECGenParameterSpec("secp256r1"));
+            case EdDSA -> { }
+        }
+        return generator.generateKeyPair();
+    }
+
+    /**
+     * The public key as a JWK, without kid and use, e.g. to compute its thumbprint.
+     */
+    public JWK toJwk(PublicKey publicKey) {
+        return toJwk(publicKey, null);
+    }
+
+    public JWK toJwk(PublicKey publicKey, String kid) {
+        KeyUse use = kid != null ? KeyUse.SIGNATURE : null;
+        JWSAlgorithm alg = kid != null ? JWSAlgorithm.parse(name()) : null;
+        return switch (this) {
+            case RS256 -> new RSAKey.Builder((RSAPublicKey) publicKey)
+                .keyID(kid).keyUse(use).algorithm(alg).build();
+            case ES256 -> new ECKey.Builder(Curve.P_256, (ECPublicKey) publicKey)
+                .keyID(kid).keyUse(use).algorithm(alg).build();
+            case EdDSA -> {
+                byte[] encoded = publicKey.getEncoded();
+                byte[] x = Arrays.copyOfRange(encoded, encoded.length - ED25519_KEY_LENGTH, encoded.length);
+                yield new OctetKeyPair.Builder(Curve.Ed25519, Base64URL.encode(x))
+                    .keyID(kid).keyUse(use).algorithm(alg).build();
+            }
+        };
+    }
+
+    /**
+     * Load a PEM-decoded key pair, working out which algorithm it belongs to from the public key.
+     */
+    public static LoadedKeyPair load(byte[] privateDer, byte[] publicDer) throws GeneralSecurityException {
+        GeneralSecurityException failure = null;
+        for (SigningAlgorithm algorithm : values()) {
+            try {
+                KeyFactory keyFactory = KeyFactory.getInstance(algorithm.keyAlgorithm);
+                PublicKey publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(publicDer));
+                if (publicKey instanceof ECPublicKey ec && ec.getParams().getCurve().getField().getFieldSize() != 256) {
+                    throw new GeneralSecurityException("Only P-256 EC keys are supported");
+                }
+                PrivateKey privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(privateDer));
+                return new LoadedKeyPair(algorithm, privateKey, publicKey);
+            } catch (GeneralSecurityException e) {
+                failure = e;
+            }
+        }
+        throw failure;
+    }
+
+    public record LoadedKeyPair(SigningAlgorithm algorithm, PrivateKey privateKey, PublicKey publicKey) {
+    }
+}
@@ -0,0 +1,265 @@
+package com.banking.auth_service.security;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Access-token signing keys, each identified by a {@code kid} and signing with the algorithm
+ * its key type implies (see {@link SigningAlgorithm}), kept as PEM pairs
+ * ({@code <kid>.key.pem} / {@code <kid>.pub.pem}) in {@code jwt.keys.dir}.
+ * <p>
+ * A new key is published in the JWKS straight away but only signs once it is older than
+ * {@code jwt.keys.activation-delay}, so resource servers have fetched it before the first token
+ * carrying its kid arrives. A replaced key stays published for {@code jwt.keys.retention} so the
+ * tokens it signed keep verifying until they expire; after that its files are deleted, so the
+ * directory does not collect private keys that no longer serve any purpose. The directory is rescanned periodically,
+ * which picks up keys rotated by another instance sharing it. A key's age is taken from its
+ * private key file's modification time, so copy keys with their timestamps preserved.
+ */
+@Component
+public class SigningKeyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SigningKeyStore.class);
+
+    private static final String PRIVATE_SUFFIX = ".key.pem";
+    private static final String PUBLIC_SUFFIX = ".pub.pem";
+
+    public record SigningKey(String kid, SigningAlgorithm algorithm, PrivateKey privateKey, PublicKey publicKey,
+                             Instant createdAt) {
+    }
+
+    private final Path keysDir;
+    private final SigningAlgorithm algorithm;
+    private final boolean generateIfMissing;
+    private final Duration activationDelay;
+    private final Duration retention;
+
+    // Oldest first; replaced as a whole on reload
+    private volatile List<SigningKey> keys = List.of();
+
+    public SigningKeyStore(@Value("${jwt.keys.dir}") String keysDir,
+                           @Value("${jwt.keys.algorithm:RS256}") SigningAlgorithm algorithm,
+                           @Value("${jwt.keys.generate-if-missing:false}") boolean generateIfMissing,
+                           @Value("${jwt.keys.activation-delay:PT10M}") Duration activationDelay,
+                           @Value("${jwt.keys.retention:PT30M}") Duration retention) {
+        this.keysDir = Paths.get(keysDir);
+        this.algorithm = algorithm;
+        this.generateIfMissing = generateIfMissing;
+        this.activationDelay = activationDelay;
+        this.retention = retention;
+    }
+
+    @PostConstruct
+    public void init() {
+        reload();
+        if (keys.isEmpty()) {
+            if (!generateIfMissing) {
+                throw new IllegalStateException("No JWT signing keys found in " + keysDir.toAbsolutePath()
+                    + " (set jwt.keys.generate-if-missing=true to create one)");
+            }
+            logger.info("🔑 No JWT signing keys in {}. Generating the first one...", keysDir.toAbsolutePath());
+            rotate();
+        }
+        logger.info("✅ JWT signing key {} active ({} published)", signingKey().kid(), publishedKeys().size());
+    }
+
+    /**
+     * Rescan the key directory. Keeps the current keys if the scan finds none.
+     */
+    @Scheduled(fixedDelayString = "${jwt.keys.reload-interval-ms:60000}",
+               initialDelayString = "${jwt.keys.reload-interval-ms:60000}")
+    public void reload() {
+        List<SigningKey> loaded = new ArrayList<>();
+        if (Files.isDirectory(keysDir)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(keysDir, "*" + PRIVATE_SUFFIX)) {
+                for (Path privateFile : files) {
+                    String fileName = privateFile.getFileName().toString();
+                    String kid = fileName.substring(0, fileName.length() - PRIVATE_SUFFIX.length());
+                    try {
+                        loaded.add(load(kid, privateFile, keysDir.resolve(kid + PUBLIC_SUFFIX)));
+                    } catch (Exception e) {
+                        logger.error("❌ Skipping JWT key {}: {}", kid, e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                logger.error("❌ Failed to scan JWT key directory {}: {}", keysDir, e.getMessage());
+            }
+        }
+        if (!loaded.isEmpty()) {
+            loaded.sort(Comparator.comparing(SigningKey::createdAt).thenComparing(SigningKey::kid));
+            keys = List.copyOf(loaded);
+            pruneRetired();
+        }
+    }
+
+    /**
+     * Delete the files of keys past their retention. Nothing verifies with them any more, and
+     * another instance sharing the directory reaches the same verdict from the same timestamps.
+     */
+    private synchronized void pruneRetired() {
+        List<SigningKey> current = keys;
+        List<SigningKey> published = publishedKeys();
+        if (published.size() == current.size()) {
+            return;
+        }
+        for (SigningKey key : current) {
+            if (published.contains(key)) {
+                continue;
+            }
+            try {
+                // Private half first: a reader only loads pairs whose private half exists
+                Files.deleteIfExists(keysDir.resolve(key.kid() + PRIVATE_SUFFIX));
+                Files.deleteIfExists(keysDir.resolve(key.kid() + PUBLIC_SUFFIX));
+                logger.info("🗑️ Deleted retired JWT signing key {}", key.kid());
+            } catch (IOException e) {
+                logger.warn("⚠️ Could not delete retired JWT signing key {}: {}", key.kid(), e.getMessage());
+            }
+        }
+        keys = List.copyOf(published);
+    }
+
+    /**
+     * Generate a new key for {@code jwt.keys.algorithm} and add it to the store. It starts signing
+     * after the activation delay; keys of other algorithms stay valid until they are replaced.
+     */
+    public synchronized String rotate() {
+        try {
+            KeyPair keyPair = algorithm.generateKeyPair();
+            String kid = algorithm.toJwk(keyPair.getPublic()).computeThumbprint().toString();
+
+            Files.createDirectories(keysDir);
+            // Public half first: a reader only loads pairs whose private half exists
+            writePem(keysDir.resolve(kid + PUBLIC_SUFFIX), "PUBLIC KEY", keyPair.getPublic().getEncoded(), false);
+            writePem(keysDir.resolve(kid + PRIVATE_SUFFIX), "PRIVATE KEY", keyPair.getPrivate().getEncoded(), true);
+            logger.info("🔑 Generated {} JWT signing key {} in {}", algorithm, kid, keysDir.toAbsolutePath());
+
+            reload();
+            return kid;
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not generate a JWT signing key", e);
+        }
+    }
+
+    /**
+     * The newest key past its activation delay, or the oldest key if none is yet.
+     */
+    public SigningKey signingKey() {
+        return signingKey(keys, Instant.now().minus(activationDelay));
+    }
+
+    private static SigningKey signingKey(List<SigningKey> current, Instant activeBefore) {
+        if (current.isEmpty()) {
+            throw new IllegalStateException("No JWT signing keys loaded");
+        }
+        SigningKey signing = current.get(0);
+        for (SigningKey key : current) {
+            if (!key.createdAt().isAfter(activeBefore)) {
+                signing = key;
+            }
+        }
+        return signing;
+    }
+
+    /**
+     * Keys tokens may be verified with: pending and active keys, plus replaced keys still
+     * within their retention.
+     */
+    public List<SigningKey> publishedKeys() {
+        List<SigningKey> current = keys;
+        Instant now = Instant.now();
+        Instant activeBefore = now.minus(activationDelay);
+        SigningKey signing = signingKey(current, activeBefore);
+        List<SigningKey> published = new ArrayList<>();
+        for (int i = 0; i < current.size(); i++) {
+            SigningKey key = current.get(i);
+            Instant replacedAt = null;
+            if (key.createdAt().isBefore(signing.createdAt())) {
+                // Replaced when the next key that has since activated took over
+                for (int j = i + 1; j < current.size() && replacedAt == null; j++) {
+                    if (!current.get(j).createdAt().isAfter(activeBefore)) {
+                        replacedAt = current.get(j).createdAt().plus(activationDelay);
+                    }
+                }
+            }
+            if (replacedAt == null || replacedAt.plus(retention).isAfter(now)) {
+                published.add(key);
+            }
+        }
+        return published;
+    }
+
+    public PublicKey verificationKey(String kid) {
+        for (SigningKey key : publishedKeys()) {
+            if (key.kid().equals(kid)) {
+                return key.publicKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The published keys as a public JWK set.
+     */
+    public Map<String, Object> jwkSet() {
+        List<JWK> jwks = new ArrayList<>();
+        for (SigningKey key : publishedKeys()) {
+            jwks.add(key.algorithm().toJwk(key.publicKey(), key.kid()));
+        }
+        return new JWKSet(jwks).toJSONObject(true);
+    }
+
+    private static SigningKey load(String kid, Path privateFile, Path publicFile) throws Exception {
+        SigningAlgorithm.LoadedKeyPair pair = SigningAlgorithm.load(readPem(privateFile), readPem(publicFile));
+        Instant createdAt = Files.getLastModifiedTime(privateFile).toInstant();
+        return new SigningKey(kid, pair.algorithm(), pair.privateKey(), pair.publicKey(), createdAt);
+    }
+
+    private static byte[] readPem(Path file) throws IOException {
+        String pem = Files.readString(file, StandardCharsets.US_ASCII)
+            .replaceAll("-----(BEGIN|END) [A-Z ]+-----", "")
+            .replaceAll("\\s", "");
+        return Base64.getDecoder().decode(pem);
+    }
+
+    private static void writePem(Path file, String type, byte[] der, boolean secret) throws IOException {
+        String pem = "-----BEGIN " + type + "-----\n"
+            + Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(der)
+            + "\n-----END " + type + "-----\n";
+        Path tmp = Files.createTempFile(file.getParent(), ".tmp-", ".pem");
+        if (secret && tmp.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.setPosixFilePermissions(tmp, PosixFilePermissions.fromString("rw-------"));
+        }
+        Files.writeString(tmp, pem, StandardCharsets.US_ASCII);
+        try {
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -26,6 +26,7 @@ public class UserDetailsImpl implements UserDetails {
     private String role;
     private boolean mfaEnabled;
     private String mfaSecret;
+    private boolean mfaEnrolled;
     private boolean accountNonLocked;
     private boolean enabled;
     
@@ -58,7 +59,7 @@ public class UserDetailsImpl implements UserDetails {
             new SimpleGrantedAuthority(user.getRole().name())
         );
         
-        return new UserDetailsImpl(
+        UserDetailsImpl details = new UserDetailsImpl(
             user.getId(),
             user.getUsername(),
             user.getEmail(),
@@ -70,6 +71,31 @@ public class UserDetailsImpl implements UserDetails {
             user.isEnabled(),
             authorities
         );
+        details.setMfaEnrolled(user.getMfaEnrolledAt() != null);
+        return details;
+    }
+    
+    /**
+     * Build a stateless principal from verified token claims and the cached account status.
+     * Carries no password, email or MFA data; endpoints that need them load the user.
+     */
+    public static UserDetailsImpl build(VerifiedClaims claims, UserStatus status) {
+        List<GrantedAuthority> authorities = Collections.singletonList(
+            new SimpleGrantedAuthority(claims.role())
+        );
+        
+        return new UserDetailsImpl(
+            claims.userId(),
+            claims.username(),
+            null,
+            null,
+            claims.role(),
+            false,
+            null,
+            status.accountNonLocked(),
+            status.enabled(),
+            authorities
+        );
     }
     
     @Override
@@ -148,6 +174,14 @@ public class UserDetailsImpl implements UserDetails {
         this.mfaSecret = mfaSecret;
     }
     
+    public boolean isMfaEnrolled() {
+        return mfaEnrolled;
+    }
+    
+    public void setMfaEnrolled(boolean mfaEnrolled) {
+        this.mfaEnrolled = mfaEnrolled;
+    }
+    
     public void setPassword(String password) {
         this.password = password;
     }
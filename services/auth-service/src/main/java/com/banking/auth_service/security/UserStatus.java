@@ -0,0 +1,7 @@
+package com.banking.auth_service.security;
+
+/**
+ * The parts of a user row that can revoke an otherwise valid access token.
+ */
+public record UserStatus(boolean enabled, boolean accountNonLocked) {
+}
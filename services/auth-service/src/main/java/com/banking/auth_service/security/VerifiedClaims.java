@@ -0,0 +1,11 @@
+package com.banking.auth_service.security;
+
+import java.time.Instant;
+
+/**
+ * Claims of an access token whose signature and expiry have been checked.
+ * Immutable, so one instance can be shared by every request presenting the same token.
+ * {@code tokenId} is the token's {@code jti}, used to revoke it; null for tokens issued before it existed.
+ */
+public record VerifiedClaims(String username, String role, Long userId, Instant expiresAt, String tokenId) {
+}
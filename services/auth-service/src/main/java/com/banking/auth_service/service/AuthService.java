@@ -17,6 +17,8 @@ import java.util.Optional;
 public class AuthService {
     
     private final UserRepository userRepository;
+    private final UserStatusCache userStatusCache;
+    private final UserIdentityIndex userIdentityIndex;
     
     public List<User> getAllUsers() {
         return userRepository.findAll();
@@ -57,7 +59,42 @@ public class AuthService {
         
         // Update timestamp
         user.setUpdatedAt(LocalDateTime.now());
-        return userRepository.save(user);
+        return saveUser(user);
+    }
+    
+    /**
+     * Save a changed user, drop its cached enabled/locked state and index a changed email.
+     */
+    @Transactional
+    public User saveUser(User user) {
+        User saved = userRepository.save(user);
+        userStatusCache.invalidate(saved.getId());
+        userIdentityIndex.add(null, saved.getEmail());
+        return saved;
+    }
+    
+    /**
+     * Lock a user's account, e.g. after too many failed sign-ins.
+     * Only the lock flag is written, so pending sign-in bookkeeping is not overwritten.
+     *
+     * @return false if no such user exists
+     */
+    @Transactional
+    public boolean lockUser(String username) {
+        Optional<Long> id = userRepository.findByUsername(username).map(User::getId);
+        id.ifPresent(userId -> {
+            userRepository.lockById(userId, LocalDateTime.now());
+            userStatusCache.invalidate(userId);
+        });
+        return id.isPresent();
+    }
+    
+    /**
+     * Record the user's first successful MFA sign-in, which closes MFA enrolment.
+     */
+    @Transactional
+    public void markMfaEnrolled(Long id) {
+        userRepository.markMfaEnrolled(id, LocalDateTime.now());
     }
     
     @Transactional
@@ -65,6 +102,7 @@ public class AuthService {
         User user = userRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("User not found"));
         userRepository.delete(user);
+        userStatusCache.invalidate(id);
     }
     
     public boolean existsByEmail(String email) {
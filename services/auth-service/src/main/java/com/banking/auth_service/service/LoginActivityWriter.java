@@ -0,0 +1,98 @@
+package com.banking.auth_service.service;
+
+import com.banking.auth_service.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind for sign-in bookkeeping ({@code last_login}, {@code failed_login_attempts}), so the
+ * sign-in path does not write to the database. Updates are coalesced per username and flushed in
+ * one transaction every {@code auth.login-activity.flush-interval-ms}; a failed flush is retried
+ * on the next run, and pending updates are flushed on shutdown. A crash loses at most one
+ * interval of bookkeeping, never a lockout: locks are written straight away.
+ */
+@Component
+public class LoginActivityWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginActivityWriter.class);
+
+    /**
+     * Net effect of the sign-ins seen for a username since the last flush. A success sets the
+     * counter to {@code failedAttempts}; otherwise {@code failedAttempts} is added to it.
+     */
+    record PendingUpdate(LocalDateTime lastLogin, boolean reset, int failedAttempts) {
+
+        PendingUpdate then(PendingUpdate later) {
+            if (later.reset()) {
+                return later;
+            }
+            return new PendingUpdate(lastLogin, reset, failedAttempts + later.failedAttempts());
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, PendingUpdate> pending = new ConcurrentHashMap<>();
+
+    public LoginActivityWriter(UserRepository userRepository, TransactionTemplate transactionTemplate) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public void recordSuccess(String username) {
+        enqueue(username, new PendingUpdate(LocalDateTime.now(), true, 0));
+    }
+
+    public void recordFailure(String username) {
+        enqueue(username, new PendingUpdate(null, false, 1));
+    }
+
+    private void enqueue(String username, PendingUpdate update) {
+        pending.merge(username, update, PendingUpdate::then);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.login-activity.flush-interval-ms:1000}")
+    @PreDestroy
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<String, PendingUpdate>> batch = new ArrayList<>();
+        for (String username : pending.keySet()) {
+            // remove() is atomic with merge(), so an update lands either in this batch or the next
+            PendingUpdate update = pending.remove(username);
+            if (update != null) {
+                batch.add(Map.entry(username, update));
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(entry -> write(entry.getKey(), entry.getValue())));
+        } catch (RuntimeException e) {
+            logger.warn("⚠️ Failed to flush {} sign-in updates, retrying next run: {}", batch.size(), e.getMessage());
+            // Put them back ahead of anything recorded since
+            batch.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(), (newer, older) -> older.then(newer)));
+        }
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    private void write(String username, PendingUpdate update) {
+        if (update.reset()) {
+            userRepository.recordLogin(username, update.lastLogin(), update.failedAttempts());
+        } else {
+            userRepository.addFailedLoginAttempts(username, update.failedAttempts());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.banking.auth_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * In-memory sliding window of failed sign-ins per username, used to decide lockouts without
+ * reading the user row. A username is locked out once it has {@code auth.lockout.max-attempts}
+ * failures within {@code auth.lockout.window}; a successful sign-in clears its window. Counts are
+ * per instance and start empty after a restart.
+ */
+@Component
+public class LoginAttemptService {
+
+    private final int maxAttempts;
+    private final long windowMillis;
+    private final Cache<String, Deque<Long>> failures;
+
+    public LoginAttemptService(@Value("${auth.lockout.max-attempts:5}") int maxAttempts,
+                               @Value("${auth.lockout.window:PT15M}") Duration window,
+                               @Value("${auth.lockout.max-tracked-usernames:100000}") long maxTrackedUsernames) {
+        this.maxAttempts = maxAttempts;
+        this.windowMillis = window.toMillis();
+        this.failures = Caffeine.newBuilder()
+            .maximumSize(maxTrackedUsernames)
+            .expireAfterAccess(window)
+            .build();
+    }
+
+    /**
+     * Record a failed sign-in and return whether the username has now reached the lockout threshold.
+     */
+    public boolean recordFailure(String username) {
+        return recordFailure(username, System.currentTimeMillis());
+    }
+
+    boolean recordFailure(String username, long nowMillis) {
+        Deque<Long> window = failures.get(username, key -> new ArrayDeque<>(maxAttempts));
+        synchronized (window) {
+            while (!window.isEmpty() && window.peekFirst() <= nowMillis - windowMillis) {
+                window.pollFirst();
+            }
+            // Only the newest maxAttempts failures can matter
+            if (window.size() == maxAttempts) {
+                window.pollFirst();
+            }
+            window.addLast(nowMillis);
+            return window.size() >= maxAttempts;
+        }
+    }
+
+    public void reset(String username) {
+        failures.invalidate(username);
+    }
+}
@@ -1,5 +1,8 @@
 package com.banking.auth_service.service;
 
+import com.banking.auth_service.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import dev.samstevens.totp.code.*;
 import dev.samstevens.totp.exceptions.QrGenerationException;
 import dev.samstevens.totp.qr.QrData;
@@ -7,10 +10,15 @@ import dev.samstevens.totp.qr.QrGenerator;
 import dev.samstevens.totp.qr.ZxingPngQrGenerator;
 import dev.samstevens.totp.secret.DefaultSecretGenerator;
 import dev.samstevens.totp.secret.SecretGenerator;
-import dev.samstevens.totp.time.SystemTimeProvider;
-import dev.samstevens.totp.time.TimeProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Base64;
 
 /**
@@ -19,19 +27,81 @@ import java.util.Base64;
  */
 @Service
 public class MfaService {
-    
+
+    /**
+     * A rendered enrolment QR code and its strong ETag.
+     */
+    public record QrCode(String etag, byte[] png) {
+    }
+
+    private final TotpVerifier totpVerifier;
+    private final SecretGenerator secretGenerator = new DefaultSecretGenerator();
+    private final QrGenerator qrGenerator = new ZxingPngQrGenerator();
+    private final Cache<Long, QrCode> qrCodes;
+    private final Duration enrolmentWindow;
+
+    public MfaService(TotpVerifier totpVerifier,
+                      @Value("${auth.mfa.qr-cache.ttl:PT5M}") Duration qrCacheTtl,
+                      @Value("${auth.mfa.qr-cache.max-size:1000}") long qrCacheMaxSize,
+                      @Value("${auth.mfa.enrolment-window:PT1H}") Duration enrolmentWindow) {
+        this.totpVerifier = totpVerifier;
+        this.enrolmentWindow = enrolmentWindow;
+        this.qrCodes = Caffeine.newBuilder()
+            .maximumSize(qrCacheMaxSize)
+            .expireAfterWrite(qrCacheTtl)
+            .build();
+    }
+
     /**
      * Generate MFA secret for user.
      */
     public String generateMfaSecret() {
-        SecretGenerator secretGenerator = new DefaultSecretGenerator();
         return secretGenerator.generate();
     }
-    
+
+    /**
+     * Whether the user may still be shown their enrolment QR code: MFA is on, they have not yet
+     * signed in with a code, and they signed up less than {@code auth.mfa.enrolment-window} ago.
+     * The QR code encodes the TOTP secret, so an access token alone must not reveal it later.
+     */
+    public boolean isEnrolmentOpen(User user, LocalDateTime now) {
+        return user.isMfaEnabled()
+            && user.getMfaSecret() != null
+            && user.getMfaEnrolledAt() == null
+            && user.getCreatedAt() != null
+            && now.isBefore(user.getCreatedAt().plus(enrolmentWindow));
+    }
+
+    /**
+     * ETag of a user's enrolment QR code. It is derived from what the image encodes, so it can be
+     * checked without rendering the image.
+     */
+    public String qrCodeEtag(String username, String secret) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest((username + '\n' + secret).getBytes(StandardCharsets.UTF_8));
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
     /**
-     * Generate QR code URL for Google Authenticator.
+     * PNG QR code for Google Authenticator. Rendered on first request and kept briefly, since the
+     * enrolment page is usually loaded a few times in a row.
      */
-    public String generateQrCodeUrl(String username, String secret) {
+    public QrCode getQrCode(Long userId, String username, String secret) {
+        String etag = qrCodeEtag(username, secret);
+        QrCode cached = qrCodes.getIfPresent(userId);
+        if (cached != null && cached.etag().equals(etag)) {
+            return cached;
+        }
+        QrCode rendered = new QrCode(etag, renderQrCode(username, secret));
+        qrCodes.put(userId, rendered);
+        return rendered;
+    }
+
+    private byte[] renderQrCode(String username, String secret) {
         QrData data = new QrData.Builder()
             .label(username)
             .secret(secret)
@@ -40,30 +110,18 @@ public class MfaService {
             .digits(6)
             .period(30)
             .build();
-        
-        QrGenerator generator = new ZxingPngQrGenerator();
-        byte[] imageData;
+
         try {
-            imageData = generator.generate(data);
+            return qrGenerator.generate(data);
         } catch (QrGenerationException e) {
             throw new RuntimeException("Failed to generate QR code", e);
         }
-        
-        return "data:image/png;base64," + Base64.getEncoder().encodeToString(imageData);
     }
-    
+
     /**
-     * Verify MFA code against secret.
+     * Verify a user's MFA code against their secret. Each code is accepted only once.
      */
-    public boolean verifyCode(String secret, String code) {
-        if (secret == null || code == null) {
-            return false;
-        }
-        
-        TimeProvider timeProvider = new SystemTimeProvider();
-        CodeGenerator codeGenerator = new DefaultCodeGenerator();
-        CodeVerifier verifier = new DefaultCodeVerifier(codeGenerator, timeProvider);
-        
-        return verifier.isValidCode(secret, code);
+    public boolean verifyCode(Long userId, String secret, String code) {
+        return totpVerifier.verify(userId, secret, code);
     }
 }
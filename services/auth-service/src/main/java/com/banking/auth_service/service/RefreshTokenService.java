@@ -1,75 +1,77 @@
 package com.banking.auth_service.service;
 
 import com.banking.auth_service.entity.RefreshToken;
-import com.banking.auth_service.entity.User;
 import com.banking.auth_service.exception.TokenRefreshException;
 import com.banking.auth_service.repository.RefreshTokenRepository;
-import com.banking.auth_service.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.util.HexFormat;
 import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Service for managing refresh tokens.
  * Handles token creation, validation, and expiration.
+ * <p>
+ * Tokens are stored and looked up by their SHA-256 digest. Expired rows are left in place on the
+ * request path and purged by {@link #purgeExpired()} in bounded batches.
  */
 @Service
 public class RefreshTokenService {
     
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+    
+    private static final int MAX_SWEEP_BATCHES_PER_RUN = 50;
+    
     @Value("${jwt.refresh-token-expiration}")
     private Long refreshTokenDurationMs;
     
+    @Value("${jwt.refresh-token.sweep-batch-size:1000}")
+    private int sweepBatchSize;
+    
     @Autowired
     private RefreshTokenRepository refreshTokenRepository;
     
     @Autowired
-    private UserRepository userRepository;
+    private TransactionTemplate transactionTemplate;
     
     /**
      * Find refresh token by token string.
      */
     public Optional<RefreshToken> findByToken(String token) {
-        return refreshTokenRepository.findByToken(token);
+        return refreshTokenRepository.findByTokenHash(hash(token));
     }
     
     /**
-     * Create or rotate refresh token for a user.
-     * Ensures a single refresh token row per user (One-to-One mapping).
+     * Create or rotate refresh token for a user and return it. Only its hash is stored, so this
+     * is the one chance to hand it out. A user keeps a single row, replaced by one upsert.
      */
     @Transactional
-    public RefreshToken createRefreshToken(Long userId) {
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
-
-        // Prefer updating existing row to reduce churn; fall back to insert if none
-        return refreshTokenRepository.findByUserId(userId)
-            .map(existing -> {
-                existing.setToken(UUID.randomUUID().toString());
-                existing.setExpiryDate(Instant.now().plusMillis(refreshTokenDurationMs));
-                return refreshTokenRepository.save(existing);
-            })
-            .orElseGet(() -> {
-                RefreshToken refreshToken = new RefreshToken();
-                refreshToken.setUser(user);
-                refreshToken.setExpiryDate(Instant.now().plusMillis(refreshTokenDurationMs));
-                refreshToken.setToken(UUID.randomUUID().toString());
-                return refreshTokenRepository.save(refreshToken);
-            });
+    public String createRefreshToken(Long userId) {
+        String token = UUID.randomUUID().toString();
+        Instant now = Instant.now();
+        refreshTokenRepository.upsert(userId, hash(token), now.plusMillis(refreshTokenDurationMs), now);
+        return token;
     }
     
     /**
      * Verify refresh token expiration.
-     * Deletes token if expired.
+     * Expired rows are removed by the sweeper, not here.
      */
     public RefreshToken verifyExpiration(RefreshToken token) {
         if (token.getExpiryDate().compareTo(Instant.now()) < 0) {
-            refreshTokenRepository.delete(token);
-            throw new TokenRefreshException(token.getToken(),
+            throw new TokenRefreshException(token.getTokenHash(),
                 "Refresh token was expired. Please make a new signin request");
         }
         
@@ -81,8 +83,38 @@ public class RefreshTokenService {
      */
     @Transactional
     public int deleteByUserId(Long userId) {
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
-        return refreshTokenRepository.deleteByUser(user);
+        return refreshTokenRepository.deleteByUserId(userId);
+    }
+    
+    /**
+     * Delete expired tokens, one short transaction per batch so the sweep never holds many locks.
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh-token.sweep-interval-ms:300000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        int removed = 0;
+        for (int i = 0; i < MAX_SWEEP_BATCHES_PER_RUN; i++) {
+            Integer deleted = transactionTemplate.execute(status ->
+                refreshTokenRepository.deleteExpired(now, sweepBatchSize));
+            if (deleted == null || deleted == 0) {
+                break;
+            }
+            removed += deleted;
+            if (deleted < sweepBatchSize) {
+                break;
+            }
+        }
+        if (removed > 0) {
+            logger.info("🧹 Purged {} expired refresh tokens", removed);
+        }
+    }
+    
+    static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
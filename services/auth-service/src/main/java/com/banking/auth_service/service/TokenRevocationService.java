@@ -0,0 +1,134 @@
+package com.banking.auth_service.service;
+
+import com.banking.auth_service.dto.RevocationListResponse;
+import com.banking.auth_service.entity.RevokedToken;
+import com.banking.auth_service.repository.RevokedTokenRepository;
+import com.banking.auth_service.security.VerifiedClaims;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Revoked access tokens by {@code jti}. Revocations are stored in the database and mirrored in
+ * memory, where this service's own checks and the resource servers' pulls are served from.
+ * Revocations made by other auth-service instances are picked up every
+ * {@code jwt.revocations.sync-interval-ms}.
+ * <p>
+ * Each entry gets a sequence number as it enters this instance's memory, so a resource server can
+ * ask for just the changes since the version it holds. The sequence restarts with the instance;
+ * the random epoch tells callers when that happened and that they need a full snapshot.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    // Re-read a little of the past on each sync, for rows committed out of revoked_at order
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(30);
+
+    private record Revocation(long sequence, String jti, Instant expiresAt) {
+    }
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final String epoch = UUID.randomUUID().toString();
+    private final Map<String, Revocation> byJti = new ConcurrentHashMap<>();
+    private final NavigableMap<Long, Revocation> bySequence = new ConcurrentSkipListMap<>();
+    private long sequence;
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository) {
+        this.revokedTokenRepository = revokedTokenRepository;
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            sync();
+        } catch (RuntimeException e) {
+            logger.warn("⚠️ Could not load revoked tokens at startup, retrying on the next sync: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Revoke the token these claims came from, until it expires.
+     *
+     * @return false if the token has no jti (issued before revocation existed) or has expired
+     */
+    @Transactional
+    public boolean revoke(VerifiedClaims claims) {
+        if (claims.tokenId() == null || claims.expiresAt() == null || !claims.expiresAt().isAfter(Instant.now())) {
+            return false;
+        }
+        revokedTokenRepository.save(new RevokedToken(claims.tokenId(), claims.expiresAt(), Instant.now()));
+        remember(claims.tokenId(), claims.expiresAt());
+        return true;
+    }
+
+    public boolean isRevoked(VerifiedClaims claims) {
+        return claims.tokenId() != null && byJti.containsKey(claims.tokenId());
+    }
+
+    /**
+     * The revocations added since {@code since}, or all of them if the caller's version is from
+     * another epoch or newer than this instance's.
+     */
+    public synchronized RevocationListResponse changesSince(String callerEpoch, long since) {
+        boolean full = !epoch.equals(callerEpoch) || since <= 0 || since > sequence;
+        Map<Long, Revocation> entries = full ? bySequence : bySequence.tailMap(since, false);
+        List<RevocationListResponse.Entry> revoked = new ArrayList<>(entries.size());
+        for (Revocation revocation : entries.values()) {
+            revoked.add(new RevocationListResponse.Entry(revocation.jti(), revocation.expiresAt().getEpochSecond()));
+        }
+        return new RevocationListResponse(epoch, sequence, full, revoked);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocations.sync-interval-ms:5000}",
+               initialDelayString = "${jwt.revocations.sync-interval-ms:5000}")
+    public void sync() {
+        Instant now = Instant.now();
+        for (RevokedToken row : revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(
+                lastSync.minus(SYNC_OVERLAP), now)) {
+            remember(row.getJti(), row.getExpiresAt());
+        }
+        lastSync = now;
+    }
+
+    /**
+     * Forget tokens that have expired anyway, in memory and in the database.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocations.purge-interval-ms:60000}")
+    @Transactional
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        synchronized (this) {
+            bySequence.values().removeIf(revocation -> revocation.expiresAt().isBefore(now));
+            byJti.values().removeIf(revocation -> revocation.expiresAt().isBefore(now));
+        }
+        int removed = revokedTokenRepository.deleteExpired(now);
+        if (removed > 0) {
+            logger.info("🧹 Purged {} expired token revocations", removed);
+        }
+    }
+
+    private synchronized void remember(String jti, Instant expiresAt) {
+        if (!byJti.containsKey(jti)) {
+            Revocation revocation = new Revocation(++sequence, jti, expiresAt);
+            byJti.put(jti, revocation);
+            bySequence.put(revocation.sequence(), revocation);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.banking.auth_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.commons.codec.binary.Base32;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TOTP code verification (RFC 6238 with HMAC-SHA1, 6 digits and 30-second steps, accepting one step
+ * of clock drift either way), the parameters the enrolment QR code advertises. Each user's Base32
+ * secret is decoded into an HMAC key once and cached, and every thread reuses one {@link Mac} and
+ * its buffers, so a verification allocates next to nothing.
+ * <p>
+ * A code is accepted only once. The time step of each user's last accepted code is kept until that
+ * step has left the verification window, and codes from that step or an earlier one are refused.
+ * The record is per instance.
+ */
+@Component
+public class TotpVerifier {
+
+    private static final int PERIOD_SECONDS = 30;
+    private static final int DIGITS = 6;
+    private static final int MODULUS = 1_000_000;
+    private static final int ALLOWED_DRIFT_STEPS = 1;
+
+    private static final ThreadLocal<Hotp> HOTP = ThreadLocal.withInitial(Hotp::new);
+
+    private record UserKey(String secret, SecretKeySpec key) {
+    }
+
+    private final Cache<Long, UserKey> keys;
+    private final Cache<Long, AtomicLong> lastAcceptedSteps;
+
+    public TotpVerifier(@Value("${auth.mfa.max-cached-users:100000}") long maxCachedUsers) {
+        this.keys = Caffeine.newBuilder()
+            .maximumSize(maxCachedUsers)
+            .build();
+        // A step stays acceptable for up to (2 * drift + 1) periods after it was used
+        this.lastAcceptedSteps = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofSeconds((2L * ALLOWED_DRIFT_STEPS + 1) * PERIOD_SECONDS))
+            .build();
+    }
+
+    /**
+     * Check a user's code against their Base32 secret and, if it matches, use it up.
+     */
+    public boolean verify(Long userId, String secret, String code) {
+        return verify(userId, secret, code, System.currentTimeMillis() / 1000);
+    }
+
+    boolean verify(Long userId, String secret, String code, long nowSeconds) {
+        int expected = parse(code);
+        if (userId == null || secret == null || secret.isEmpty() || expected < 0) {
+            return false;
+        }
+        SecretKeySpec key = key(userId, secret);
+
+        // Every step in the window is computed, so timing does not reveal which one matched
+        Hotp hotp = HOTP.get();
+        long currentStep = nowSeconds / PERIOD_SECONDS;
+        long matchedStep = Long.MIN_VALUE;
+        for (long step = currentStep - ALLOWED_DRIFT_STEPS; step <= currentStep + ALLOWED_DRIFT_STEPS; step++) {
+            if (hotp.generate(key, step) == expected) {
+                matchedStep = step;
+            }
+        }
+        return matchedStep != Long.MIN_VALUE && markUsed(userId, matchedStep);
+    }
+
+    // A user's secret only changes on re-enrolment; the comparison catches that without an eviction hook
+    private SecretKeySpec key(Long userId, String secret) {
+        UserKey cached = keys.get(userId, id -> decode(secret));
+        if (!cached.secret().equals(secret)) {
+            cached = decode(secret);
+            keys.put(userId, cached);
+        }
+        return cached.key();
+    }
+
+    private boolean markUsed(Long userId, long step) {
+        AtomicLong lastAccepted = lastAcceptedSteps.get(userId, id -> new AtomicLong(Long.MIN_VALUE));
+        long last;
+        do {
+            last = lastAccepted.get();
+            if (last >= step) {
+                return false;
+            }
+        } while (!lastAccepted.compareAndSet(last, step));
+        return true;
+    }
+
+    private static UserKey decode(String secret) {
+        return new UserKey(secret, new SecretKeySpec(new Base32().decode(secret), "HmacSHA1"));
+    }
+
+    // Six ASCII digits, or -1
+    private static int parse(String code) {
+        if (code == null || code.length() != DIGITS) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < DIGITS; i++) {
+            char c = code.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * One thread's HMAC-SHA1 instance and buffers. The Mac keeps its key between calls, so it is
+     * only re-initialised when the key changes.
+     */
+    private static final class Hotp {
+
+        private final Mac mac;
+        private final byte[] counter = new byte[8];
+        private final byte[] digest = new byte[20];
+        private SecretKeySpec currentKey;
+
+        Hotp() {
+            try {
+                this.mac = Mac.getInstance("HmacSHA1");
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA1 is not available", e);
+            }
+        }
+
+        int generate(SecretKeySpec key, long step) {
+            try {
+                if (key != currentKey) {
+                    mac.init(key);
+                    currentKey = key;
+                }
+                for (int i = 7; i >= 0; i--) {
+                    counter[i] = (byte) step;
+                    step >>>= 8;
+                }
+                mac.update(counter);
+                mac.doFinal(digest, 0);
+            } catch (InvalidKeyException | ShortBufferException e) {
+                currentKey = null;
+                throw new IllegalStateException("Could not compute TOTP code", e);
+            }
+            // RFC 4226 dynamic truncation
+            int offset = digest[digest.length - 1] & 0x0f;
+            int binary = ((digest[offset] & 0x7f) << 24)
+                | ((digest[offset + 1] & 0xff) << 16)
+                | ((digest[offset + 2] & 0xff) << 8)
+                | (digest[offset + 3] & 0xff);
+            return binary % MODULUS;
+        }
+    }
+}
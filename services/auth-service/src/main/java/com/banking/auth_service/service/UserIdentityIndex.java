@@ -0,0 +1,152 @@
+package com.banking.auth_service.service;
+
+import com.banking.auth_service.repository.UserRepository;
+import com.banking.common.security.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * In-memory bloom filter over every normalized (trimmed, lower-cased) username and email, so an
+ * availability check can answer "definitely free" without a query. Only names the filter may have
+ * seen go to the database, as one combined query.
+ * <p>
+ * The filter is loaded at startup and updated as users sign up. It is rebuilt every
+ * {@code auth.identity-index.rebuild-interval-ms} to shed deleted users and changed emails, and
+ * to resize as the table grows. Until the first load succeeds, every check goes to the database.
+ */
+@Component
+public class UserIdentityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserIdentityIndex.class);
+
+    private static final int LOAD_PAGE_SIZE = 5_000;
+    private static final int MIN_CAPACITY = 10_000;
+    private static final int KEYS_PER_USER = 2; // username and email
+
+    /**
+     * Result of a check; a field is null when that value was not asked about.
+     */
+    public record Availability(Boolean usernameAvailable, Boolean emailAvailable) {
+    }
+
+    private final UserRepository userRepository;
+
+    private volatile BloomFilter filter;
+    // Set while a rebuild scans the table, so sign-ups during the scan reach the new filter too
+    private volatile BloomFilter building;
+
+    public UserIdentityIndex(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            logger.warn("⚠️ Could not load the username/email index, checking the database until the next rebuild: {}",
+                e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.identity-index.rebuild-interval-ms:3600000}",
+               initialDelayString = "${auth.identity-index.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        long users = userRepository.count();
+        BloomFilter fresh = new BloomFilter(expectedKeys(users));
+        building = fresh;
+        try {
+            long afterId = 0;
+            List<Object[]> page;
+            do {
+                page = userRepository.findIdentitiesAfter(afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+                for (Object[] row : page) {
+                    afterId = (Long) row[0];
+                    putAll(fresh, (String) row[1], (String) row[2]);
+                }
+            } while (page.size() == LOAD_PAGE_SIZE);
+            filter = fresh;
+        } finally {
+            building = null;
+        }
+        logger.info("✅ Username/email index loaded for {} users", users);
+    }
+
+    /**
+     * Record a new user's username and email (either may be null). Call after the row is saved.
+     */
+    public void add(String username, String email) {
+        BloomFilter current = filter;
+        if (current != null) {
+            putAll(current, username, email);
+        }
+        BloomFilter next = building;
+        if (next != null) {
+            putAll(next, username, email);
+        }
+    }
+
+    /**
+     * Check whether a username and/or email (either may be null) are free.
+     */
+    public Availability check(String username, String email) {
+        String normalizedUsername = normalize(username);
+        String normalizedEmail = normalize(email);
+        BloomFilter current = filter;
+        boolean usernameMaybeTaken = normalizedUsername != null
+            && (current == null || current.mightContain(usernameKey(normalizedUsername)));
+        boolean emailMaybeTaken = normalizedEmail != null
+            && (current == null || current.mightContain(emailKey(normalizedEmail)));
+
+        boolean usernameTaken = false;
+        boolean emailTaken = false;
+        if (usernameMaybeTaken || emailMaybeTaken) {
+            for (Object[] row : userRepository.findByUsernameOrEmail(
+                    usernameMaybeTaken ? normalizedUsername : null, emailMaybeTaken ? normalizedEmail : null)) {
+                usernameTaken |= usernameMaybeTaken && normalizedUsername.equals(normalize((String) row[0]));
+                emailTaken |= emailMaybeTaken && normalizedEmail.equals(normalize((String) row[1]));
+            }
+        }
+        return new Availability(
+            normalizedUsername != null ? !usernameTaken : null,
+            normalizedEmail != null ? !emailTaken : null);
+    }
+
+    // Room for every current user, or MIN_CAPACITY users while the table is small
+    static long expectedKeys(long users) {
+        return Math.max(MIN_CAPACITY, users) * KEYS_PER_USER;
+    }
+
+    static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void putAll(BloomFilter target, String username, String email) {
+        String normalizedUsername = normalize(username);
+        if (normalizedUsername != null) {
+            target.put(usernameKey(normalizedUsername));
+        }
+        String normalizedEmail = normalize(email);
+        if (normalizedEmail != null) {
+            target.put(emailKey(normalizedEmail));
+        }
+    }
+
+    private static String usernameKey(String normalized) {
+        return "u:" + normalized;
+    }
+
+    private static String emailKey(String normalized) {
+        return "e:" + normalized;
+    }
+}
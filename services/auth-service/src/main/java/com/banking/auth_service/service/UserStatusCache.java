@@ -0,0 +1,58 @@
+package com.banking.auth_service.service;
+
+import com.banking.auth_service.repository.UserRepository;
+import com.banking.auth_service.security.UserStatus;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Local userId -> enabled/locked map, so authenticating a request with a stateless principal does
+ * not need a database round trip. Deleted users are cached as empty. Entries live for {@code ttl};
+ * this instance evicts a user as soon as a change to them commits, other instances catch up when
+ * their entry expires. Hit/miss counts are published as {@code cache.gets{cache=user-status}}.
+ */
+@Component
+public class UserStatusCache {
+
+    public static final String CACHE_NAME = "user-status";
+
+    private final LoadingCache<Long, Optional<UserStatus>> cache;
+
+    public UserStatusCache(UserRepository userRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${auth.user-status-cache.ttl:PT5M}") Duration ttl,
+                           @Value("${auth.user-status-cache.max-size:50000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build(userRepository::findStatusById);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public Optional<UserStatus> getStatus(Long userId) {
+        return cache.get(userId);
+    }
+
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A request may reload the old row before the change commits, so evict again afterwards
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.banking.auth_service.controller;
 
+import com.banking.auth_service.dto.RevocationListResponse;
 import com.banking.auth_service.security.JwtUtils;
+import com.banking.auth_service.security.SigningKeyStore;
+import com.banking.auth_service.security.VerifiedClaims;
+import com.banking.auth_service.service.TokenRevocationService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,9 +13,19 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -21,6 +35,8 @@ class TokenValidationControllerTests {
 
     @Autowired private MockMvc mockMvc;
     @MockBean private JwtUtils jwtUtils;
+    @MockBean private SigningKeyStore signingKeyStore;
+    @MockBean private TokenRevocationService tokenRevocationService;
     @MockBean private com.banking.auth_service.security.JwtAuthenticationFilter jwtAuthenticationFilter;
     @MockBean private com.banking.auth_service.service.UserDetailsServiceImpl userDetailsService;
     @MockBean private com.banking.auth_service.security.JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
@@ -28,10 +44,8 @@ class TokenValidationControllerTests {
     @Test
     @DisplayName("POST /auth/validate with valid token returns user info (200)")
     void validateToken_ok() throws Exception {
-        when(jwtUtils.validateJwtToken(anyString())).thenReturn(true);
-        when(jwtUtils.getUsernameFromJwtToken(anyString())).thenReturn("user1");
-        when(jwtUtils.getRoleFromJwtToken(anyString())).thenReturn("ADMIN");
-        when(jwtUtils.getUserIdFromJwtToken(anyString())).thenReturn(1L);
+        when(jwtUtils.getVerifiedClaims(anyString())).thenReturn(Optional.of(
+                new VerifiedClaims("user1", "ADMIN", 1L, Instant.now().plusSeconds(60), "jti-1")));
 
         mockMvc.perform(post("/auth/validate").header("Authorization", "Bearer abc"))
                 .andExpect(status().isOk())
@@ -39,6 +53,18 @@ class TokenValidationControllerTests {
                 .andExpect(jsonPath("$.username").value("user1"))
                 .andExpect(jsonPath("$.role").value("ADMIN"))
                 .andExpect(jsonPath("$.userId").value(1));
+        verify(jwtUtils, times(1)).getVerifiedClaims("abc");
+        verifyNoMoreInteractions(jwtUtils);
+    }
+
+    @Test
+    @DisplayName("POST /auth/validate with invalid token returns 401")
+    void validateToken_invalid() throws Exception {
+        when(jwtUtils.getVerifiedClaims(anyString())).thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/auth/validate").header("Authorization", "Bearer abc"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.valid").value(false));
     }
 
     @Test
@@ -47,4 +73,50 @@ class TokenValidationControllerTests {
         mockMvc.perform(post("/auth/validate"))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    @DisplayName("GET /auth/.well-known/jwks.json returns the published keys with a cache header")
+    void jwkSet_ok() throws Exception {
+        when(signingKeyStore.jwkSet()).thenReturn(Map.of("keys", List.of(Map.of("kid", "k1", "kty", "RSA"))));
+
+        mockMvc.perform(get("/auth/.well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=300, public"))
+                .andExpect(jsonPath("$.keys[0].kid").value("k1"));
+    }
+
+    @Test
+    @DisplayName("POST /auth/keys/rotate without an admin principal returns 403")
+    void rotateSigningKey_forbidden() throws Exception {
+        mockMvc.perform(post("/auth/keys/rotate"))
+                .andExpect(status().isForbidden());
+        verifyNoMoreInteractions(signingKeyStore);
+    }
+
+    @Test
+    @DisplayName("POST /auth/validate with a revoked token returns 401")
+    void validateToken_revoked() throws Exception {
+        VerifiedClaims claims = new VerifiedClaims("user1", "ADMIN", 1L, Instant.now().plusSeconds(60), "jti-1");
+        when(jwtUtils.getVerifiedClaims(anyString())).thenReturn(Optional.of(claims));
+        when(tokenRevocationService.isRevoked(claims)).thenReturn(true);
+
+        mockMvc.perform(post("/auth/validate").header("Authorization", "Bearer abc"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.valid").value(false));
+    }
+
+    @Test
+    @DisplayName("GET /auth/revocations returns the changes since the caller's version")
+    void revocations_delta() throws Exception {
+        when(tokenRevocationService.changesSince("e1", 3L)).thenReturn(new RevocationListResponse(
+                "e1", 4L, false, List.of(new RevocationListResponse.Entry("jti-4", 1_900_000_000L))));
+
+        mockMvc.perform(get("/auth/revocations").param("epoch", "e1").param("since", "3"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-store"))
+                .andExpect(jsonPath("$.version").value(4))
+                .andExpect(jsonPath("$.full").value(false))
+                .andExpect(jsonPath("$.revoked[0].jti").value("jti-4"))
+                .andExpect(jsonPath("$.revoked[0].exp").value(1_900_000_000L));
+    }
 }
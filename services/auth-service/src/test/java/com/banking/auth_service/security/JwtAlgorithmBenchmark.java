@@ -0,0 +1,69 @@
+package com.banking.auth_service.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sign and verify throughput of an access token for each signing algorithm, through JwtUtils
+ * with the claims cache off so every verify checks the signature. Opt-in:
+ * <pre>
+ * mvn test -pl services/auth-service -Dtest=JwtAlgorithmBenchmark -Dbenchmark=true
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtAlgorithmBenchmark {
+
+    @Param({"RS256", "ES256", "EdDSA"})
+    public SigningAlgorithm algorithm;
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = JwtUtilsTests.jwtUtils(algorithm, 900_000L, Duration.ZERO);
+        token = jwtUtils.generateTokenFromUsername("bench-user", "CUSTOMER", 42L);
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtUtils.generateTokenFromUsername("bench-user", "CUSTOMER", 42L);
+    }
+
+    @Benchmark
+    public Object verify() {
+        return jwtUtils.getVerifiedClaims(token);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("benchmark: sign and verify per algorithm")
+    void runBenchmark() throws RunnerException {
+        // In-process run: surefire's classpath is not visible to a forked JMH JVM
+        new Runner(new OptionsBuilder()
+                .include(JwtAlgorithmBenchmark.class.getName())
+                .forks(0)
+                .build()).run();
+    }
+}
@@ -0,0 +1,95 @@
+package com.banking.auth_service.security;
+
+import com.banking.auth_service.service.TokenRevocationService;
+import com.banking.auth_service.service.UserDetailsServiceImpl;
+import com.banking.auth_service.service.UserStatusCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTests {
+
+    @Mock private JwtUtils jwtUtils;
+    @Mock private UserDetailsServiceImpl userDetailsService;
+    @Mock private UserStatusCache userStatusCache;
+    @Mock private TokenRevocationService tokenRevocationService;
+    @InjectMocks private JwtAuthenticationFilter filter;
+
+    private final VerifiedClaims claims = new VerifiedClaims("alice", "ADMIN", 5L, Instant.now().plusSeconds(60), "jti-5");
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(filter, "statelessPrincipal", true);
+        when(jwtUtils.getVerifiedClaims("token")).thenReturn(Optional.of(claims));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("stateless mode authenticates from claims without loading the user")
+    void statelessPrincipal_fromClaims() throws Exception {
+        when(userStatusCache.getStatus(5L)).thenReturn(Optional.of(new UserStatus(true, true)));
+
+        filter.doFilter(bearer("token"), new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        UserDetailsImpl principal = (UserDetailsImpl) authentication.getPrincipal();
+        assertEquals(5L, principal.getId());
+        assertEquals("ADMIN", principal.getRole());
+        assertEquals("ADMIN", authentication.getAuthorities().iterator().next().getAuthority());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    @DisplayName("stateless mode rejects tokens of locked or deleted users")
+    void statelessPrincipal_lockedOrDeleted() throws Exception {
+        when(userStatusCache.getStatus(5L))
+                .thenReturn(Optional.of(new UserStatus(true, false)))
+                .thenReturn(Optional.empty());
+
+        filter.doFilter(bearer("token"), new MockHttpServletResponse(), new MockFilterChain());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+
+        filter.doFilter(bearer("token"), new MockHttpServletResponse(), new MockFilterChain());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    @DisplayName("a revoked token does not authenticate")
+    void revokedToken_rejected() throws Exception {
+        when(tokenRevocationService.isRevoked(claims)).thenReturn(true);
+
+        filter.doFilter(bearer("token"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(userStatusCache, userDetailsService);
+    }
+
+    private static MockHttpServletRequest bearer(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/auth/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
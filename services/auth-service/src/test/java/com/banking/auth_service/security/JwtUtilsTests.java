@@ -0,0 +1,89 @@
+package com.banking.auth_service.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilsTests {
+
+    @Test
+    @DisplayName("getVerifiedClaims returns every claim from one parse and reuses it for the same token")
+    void getVerifiedClaims_cachesVerifiedTokens() {
+        JwtUtils jwtUtils = jwtUtils(900_000L, Duration.ofSeconds(30));
+        String token = jwtUtils.generateTokenFromUsername("alice", "CUSTOMER", 7L);
+
+        VerifiedClaims claims = jwtUtils.getVerifiedClaims(token).orElseThrow();
+        assertEquals("alice", claims.username());
+        assertEquals("CUSTOMER", claims.role());
+        assertEquals(7L, claims.userId());
+        assertNotNull(claims.expiresAt());
+
+        assertSame(claims, jwtUtils.getVerifiedClaims(token).orElseThrow());
+        assertTrue(jwtUtils.validateJwtToken(token));
+        assertEquals("alice", jwtUtils.getUsernameFromJwtToken(token));
+    }
+
+    @Test
+    @DisplayName("getVerifiedClaims parses every time when the cache is disabled")
+    void getVerifiedClaims_cacheDisabled() {
+        JwtUtils jwtUtils = jwtUtils(900_000L, Duration.ZERO);
+        String token = jwtUtils.generateTokenFromUsername("bob", "ADMIN", 8L);
+
+        VerifiedClaims first = jwtUtils.getVerifiedClaims(token).orElseThrow();
+        VerifiedClaims second = jwtUtils.getVerifiedClaims(token).orElseThrow();
+        assertEquals(first, second);
+        assertNotSame(first, second);
+    }
+
+    @Test
+    @DisplayName("getVerifiedClaims rejects tampered, expired and empty tokens")
+    void getVerifiedClaims_rejectsInvalidTokens() {
+        JwtUtils jwtUtils = jwtUtils(900_000L, Duration.ofSeconds(30));
+        String token = jwtUtils.generateTokenFromUsername("carol", "CUSTOMER", 9L);
+        int at = token.lastIndexOf('.') + 10;
+        String tampered = token.substring(0, at) + (token.charAt(at) == 'A' ? 'B' : 'A') + token.substring(at + 1);
+
+        assertEquals(Optional.empty(), jwtUtils.getVerifiedClaims(tampered));
+        assertEquals(Optional.empty(), jwtUtils.getVerifiedClaims(""));
+        assertFalse(jwtUtils.validateJwtToken("not-a-jwt"));
+
+        JwtUtils expiring = jwtUtils(-1_000L, Duration.ofSeconds(30));
+        String expired = expiring.generateTokenFromUsername("carol", "CUSTOMER", 9L);
+        assertTrue(expiring.getVerifiedClaims(expired).isEmpty());
+        assertThrows(RuntimeException.class, () -> expiring.getUsernameFromJwtToken(expired));
+    }
+
+    /** Builds JwtUtils over a fresh signing key in a temporary directory, the way Spring would. */
+    static JwtUtils jwtUtils(long accessTokenExpirationMs, Duration claimsCacheTtl) {
+        return jwtUtils(SigningAlgorithm.RS256, accessTokenExpirationMs, claimsCacheTtl);
+    }
+
+    static JwtUtils jwtUtils(SigningAlgorithm algorithm, long accessTokenExpirationMs, Duration claimsCacheTtl) {
+        try {
+            Path keysDir = Files.createTempDirectory("jwt-keys");
+            SigningKeyStore signingKeyStore = new SigningKeyStore(keysDir.toString(), algorithm, true, Duration.ofMinutes(10), Duration.ofMinutes(30));
+            signingKeyStore.init();
+            return jwtUtils(signingKeyStore, accessTokenExpirationMs, claimsCacheTtl);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static JwtUtils jwtUtils(SigningKeyStore signingKeyStore, long accessTokenExpirationMs, Duration claimsCacheTtl) {
+        JwtUtils jwtUtils = new JwtUtils(signingKeyStore);
+        ReflectionTestUtils.setField(jwtUtils, "jwtAccessTokenExpiration", accessTokenExpirationMs);
+        ReflectionTestUtils.setField(jwtUtils, "claimsCacheTtl", claimsCacheTtl);
+        ReflectionTestUtils.setField(jwtUtils, "claimsCacheMaxEntries", 10_000);
+        jwtUtils.init();
+        return jwtUtils;
+    }
+}
@@ -0,0 +1,82 @@
+package com.banking.auth_service.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of POST /auth/validate's token handling: the former four parses with a fresh parser
+ * each, one parse with the shared parser, and one lookup in the verified-claims cache. Opt-in:
+ * <pre>
+ * mvn test -pl services/auth-service -Dtest=JwtValidationBenchmark -Dbenchmark=true
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtValidationBenchmark {
+
+    private JwtUtils uncached;
+    private JwtUtils cached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncached = JwtUtilsTests.jwtUtils(900_000L, Duration.ZERO);
+        cached = JwtUtilsTests.jwtUtils(900_000L, Duration.ofSeconds(30));
+        token = uncached.generateTokenFromUsername("bench-user", "CUSTOMER", 42L);
+    }
+
+    /** What validateToken did before: validate, then one parse per claim, each with a new parser. */
+    @Benchmark
+    public Object fourParses() {
+        RSAPublicKey key = (RSAPublicKey) uncached.getPublicKey();
+        Jwts.parser().verifyWith(key).build().parseSignedClaims(token);
+        String username = Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload().getSubject();
+        Claims roleClaims = Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+        Claims userIdClaims = Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+        return new VerifiedClaims(username, roleClaims.get("role", String.class),
+                userIdClaims.get("userId", Long.class), null, null);
+    }
+
+    @Benchmark
+    public Object singleParse() {
+        return uncached.getVerifiedClaims(token);
+    }
+
+    @Benchmark
+    public Object cachedClaims() {
+        return cached.getVerifiedClaims(token);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("benchmark: four parses vs single parse vs cached claims")
+    void runBenchmark() throws RunnerException {
+        // In-process run: surefire's classpath is not visible to a forked JMH JVM
+        new Runner(new OptionsBuilder()
+                .include(JwtValidationBenchmark.class.getName())
+                .forks(0)
+                .build()).run();
+    }
+}
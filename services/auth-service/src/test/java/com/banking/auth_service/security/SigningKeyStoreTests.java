@@ -0,0 +1,132 @@
+package com.banking.auth_service.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SigningKeyStoreTests {
+
+    @TempDir Path keysDir;
+
+    @Test
+    @DisplayName("a rotated key is published at once but signs only after the activation delay")
+    void rotate_publishesBeforeSigning() throws Exception {
+        SigningKeyStore store = store(true);
+        store.init();
+        String first = store.signingKey().kid();
+        backdate(first, Duration.ofHours(1));
+        store.reload();
+
+        String second = store.rotate();
+        assertEquals(first, store.signingKey().kid());
+        assertEquals(List.of(first, second), kids(store));
+
+        JwtUtils jwtUtils = JwtUtilsTests.jwtUtils(store, 900_000L, Duration.ZERO);
+        String oldToken = jwtUtils.generateTokenFromUsername("alice", "CUSTOMER", 1L);
+
+        backdate(second, Duration.ofMinutes(11));
+        store.reload();
+        assertEquals(second, store.signingKey().kid());
+        // The replaced key keeps verifying the tokens it signed during its retention
+        assertTrue(jwtUtils.validateJwtToken(oldToken));
+        assertTrue(jwtUtils.validateJwtToken(jwtUtils.generateTokenFromUsername("alice", "CUSTOMER", 1L)));
+
+        backdate(second, Duration.ofMinutes(45));
+        store.reload();
+        assertEquals(List.of(second), kids(store));
+        assertFalse(jwtUtils.validateJwtToken(oldToken));
+    }
+
+    @Test
+    @DisplayName("a replaced key's files are deleted once its retention is over")
+    void reload_prunesRetiredKeys() throws Exception {
+        SigningKeyStore store = store(true);
+        store.init();
+        String first = store.signingKey().kid();
+        backdate(first, Duration.ofHours(2));
+        String second = store.rotate();
+
+        backdate(second, Duration.ofMinutes(20)); // active for 10 minutes: first is still retained
+        store.reload();
+        assertTrue(Files.exists(keysDir.resolve(first + ".key.pem")));
+
+        backdate(second, Duration.ofMinutes(45));
+        store.reload();
+        assertFalse(Files.exists(keysDir.resolve(first + ".key.pem")));
+        assertFalse(Files.exists(keysDir.resolve(first + ".pub.pem")));
+        assertTrue(Files.exists(keysDir.resolve(second + ".key.pem")));
+        assertEquals(List.of(second), kids(store));
+    }
+
+    @Test
+    @DisplayName("the JWK set carries the kid, algorithm and public parts only")
+    void jwkSet_isPublic() {
+        SigningKeyStore store = store(true);
+        store.init();
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> jwk = ((List<Map<String, Object>>) store.jwkSet().get("keys")).get(0);
+        assertEquals(store.signingKey().kid(), jwk.get("kid"));
+        assertEquals("RS256", jwk.get("alg"));
+        assertEquals("sig", jwk.get("use"));
+        assertNotNull(jwk.get("n"));
+        assertFalse(jwk.containsKey("d"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(SigningAlgorithm.class)
+    @DisplayName("each algorithm signs, reloads from disk and verifies, with a matching JWK")
+    void algorithm_roundTrip(SigningAlgorithm algorithm) {
+        SigningKeyStore store = store(algorithm, true);
+        store.init();
+        JwtUtils jwtUtils = JwtUtilsTests.jwtUtils(store, 900_000L, Duration.ZERO);
+        String token = jwtUtils.generateTokenFromUsername("bob", "ADMIN", 2L);
+
+        SigningKeyStore reloaded = store(algorithm, false);
+        reloaded.init();
+        assertEquals(algorithm, reloaded.signingKey().algorithm());
+        VerifiedClaims claims = JwtUtilsTests.jwtUtils(reloaded, 900_000L, Duration.ZERO)
+                .getVerifiedClaims(token).orElseThrow();
+        assertEquals("bob", claims.username());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> jwk = ((List<Map<String, Object>>) reloaded.jwkSet().get("keys")).get(0);
+        assertEquals(algorithm.name(), jwk.get("alg"));
+        assertEquals(store.signingKey().kid(), jwk.get("kid"));
+        assertFalse(jwk.containsKey("d"));
+    }
+
+    @Test
+    @DisplayName("startup fails without keys unless generation is allowed")
+    void init_withoutKeys() {
+        assertThrows(IllegalStateException.class, () -> store(false).init());
+    }
+
+    private SigningKeyStore store(boolean generateIfMissing) {
+        return store(SigningAlgorithm.RS256, generateIfMissing);
+    }
+
+    private SigningKeyStore store(SigningAlgorithm algorithm, boolean generateIfMissing) {
+        return new SigningKeyStore(keysDir.toString(), algorithm, generateIfMissing, Duration.ofMinutes(10), Duration.ofMinutes(30));
+    }
+
+    private void backdate(String kid, Duration age) throws Exception {
+        Files.setLastModifiedTime(keysDir.resolve(kid + ".key.pem"), FileTime.from(Instant.now().minus(age)));
+    }
+
+    private static List<String> kids(SigningKeyStore store) {
+        return store.publishedKeys().stream().map(SigningKeyStore.SigningKey::kid).toList();
+    }
+}
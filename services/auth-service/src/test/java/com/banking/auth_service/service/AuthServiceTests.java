@@ -15,12 +15,15 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class AuthServiceTests {
 
     @Mock private UserRepository userRepository;
+    @Mock private UserStatusCache userStatusCache;
+    @Mock private UserIdentityIndex userIdentityIndex;
     @InjectMocks private AuthService authService;
 
     @Test
@@ -67,5 +70,35 @@ class AuthServiceTests {
         assertEquals("new@ex.com", saved.getEmail());
         assertEquals(UserRole.ADMIN, saved.getRole());
         assertTrue(saved.isEnabled());
+        verify(userStatusCache).invalidate(3L);
+        verify(userIdentityIndex).add(null, "new@ex.com");
+    }
+
+    @Test
+    @DisplayName("deleteUser drops the cached user status")
+    void deleteUser_invalidatesStatus() {
+        User existing = new User(); existing.setId(4L);
+        when(userRepository.findById(4L)).thenReturn(Optional.of(existing));
+
+        authService.deleteUser(4L);
+
+        verify(userRepository).delete(existing);
+        verify(userStatusCache).invalidate(4L);
+    }
+
+    @Test
+    @DisplayName("lockUser sets only the lock flag and invalidates the cached status")
+    void lockUser_locksAndInvalidates() {
+        User existing = new User();
+        existing.setId(5L);
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(existing));
+        when(userRepository.findByUsername("nobody")).thenReturn(Optional.empty());
+
+        assertTrue(authService.lockUser("alice"));
+        assertFalse(authService.lockUser("nobody"));
+
+        verify(userRepository).lockById(eq(5L), any());
+        verify(userRepository, never()).save(any());
+        verify(userStatusCache).invalidate(5L);
     }
 }
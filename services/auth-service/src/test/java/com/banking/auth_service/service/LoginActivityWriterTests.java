@@ -0,0 +1,68 @@
+package com.banking.auth_service.service;
+
+import com.banking.auth_service.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoginActivityWriterTests {
+
+    @Mock private UserRepository userRepository;
+    @Mock private PlatformTransactionManager transactionManager;
+    private LoginActivityWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        writer = new LoginActivityWriter(userRepository, new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    @DisplayName("sign-ins are coalesced into one update per user until flushed")
+    void flush_coalescesPerUser() {
+        writer.recordFailure("alice");
+        writer.recordFailure("alice");
+        writer.recordFailure("bob");
+        writer.recordSuccess("bob");
+        writer.recordFailure("bob");
+        verifyNoInteractions(userRepository);
+
+        writer.flush();
+
+        verify(userRepository).addFailedLoginAttempts("alice", 2);
+        // The success resets the counter, then the later failure counts from zero
+        verify(userRepository).recordLogin(eq("bob"), any(LocalDateTime.class), eq(1));
+        verifyNoMoreInteractions(userRepository);
+        verify(transactionManager).commit(any());
+        assertEquals(0, writer.pendingCount());
+    }
+
+    @Test
+    @DisplayName("a failed flush keeps its updates, ahead of newer ones")
+    void flush_retriesAfterFailure() {
+        writer.recordFailure("alice");
+        when(userRepository.addFailedLoginAttempts("alice", 1))
+                .thenThrow(new DataAccessResourceFailureException("database down"));
+        writer.flush();
+        assertEquals(1, writer.pendingCount());
+
+        writer.recordFailure("alice");
+        when(userRepository.addFailedLoginAttempts(anyString(), anyInt())).thenReturn(1);
+        writer.flush();
+
+        verify(userRepository).addFailedLoginAttempts("alice", 2);
+        assertEquals(0, writer.pendingCount());
+    }
+}
@@ -0,0 +1,37 @@
+package com.banking.auth_service.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginAttemptServiceTests {
+
+    private final LoginAttemptService loginAttemptService =
+            new LoginAttemptService(3, Duration.ofMinutes(15), 1000);
+
+    @Test
+    @DisplayName("the threshold is reached only by failures inside the window")
+    void recordFailure_slidingWindow() {
+        long t0 = 1_000_000L;
+        long minute = Duration.ofMinutes(1).toMillis();
+        assertFalse(loginAttemptService.recordFailure("alice", t0));
+        assertFalse(loginAttemptService.recordFailure("alice", t0 + minute));
+        // The first failure has left the window
+        assertFalse(loginAttemptService.recordFailure("alice", t0 + 15 * minute));
+        assertTrue(loginAttemptService.recordFailure("alice", t0 + 15 * minute + minute / 2));
+        assertFalse(loginAttemptService.recordFailure("bob", t0 + 16 * minute));
+    }
+
+    @Test
+    @DisplayName("a successful sign-in clears the window")
+    void reset_clearsFailures() {
+        long now = System.currentTimeMillis();
+        loginAttemptService.recordFailure("alice", now);
+        loginAttemptService.recordFailure("alice", now);
+        loginAttemptService.reset("alice");
+        assertFalse(loginAttemptService.recordFailure("alice", now));
+    }
+}
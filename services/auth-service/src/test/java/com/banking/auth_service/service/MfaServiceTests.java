@@ -0,0 +1,61 @@
+package com.banking.auth_service.service;
+
+import com.banking.auth_service.entity.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MfaServiceTests {
+
+    private final MfaService mfaService = new MfaService(new TotpVerifier(1000), Duration.ofMinutes(5), 100, Duration.ofHours(1));
+
+    @Test
+    @DisplayName("the QR code is rendered once per secret and its ETag matches the unrendered one")
+    void getQrCode_cachesPerSecret() {
+        String secret = mfaService.generateMfaSecret();
+
+        MfaService.QrCode first = mfaService.getQrCode(1L, "alice", secret);
+        MfaService.QrCode second = mfaService.getQrCode(1L, "alice", secret);
+
+        assertSame(first, second);
+        assertEquals(mfaService.qrCodeEtag("alice", secret), first.etag());
+        assertTrue(first.etag().startsWith("\"") && first.etag().endsWith("\""));
+        // PNG signature
+        assertEquals((byte) 0x89, first.png()[0]);
+        assertEquals('P', first.png()[1]);
+    }
+
+    @Test
+    @DisplayName("a new secret renders a new QR code with a different ETag")
+    void getQrCode_rerendersForNewSecret() {
+        MfaService.QrCode first = mfaService.getQrCode(1L, "alice", mfaService.generateMfaSecret());
+        MfaService.QrCode second = mfaService.getQrCode(1L, "alice", mfaService.generateMfaSecret());
+
+        assertNotEquals(first.etag(), second.etag());
+        assertNotSame(first, second);
+    }
+
+    @Test
+    @DisplayName("the QR code is only served until the first MFA sign-in and within the window after signup")
+    void isEnrolmentOpen_onlyDuringEnrolment() {
+        LocalDateTime signup = LocalDateTime.of(2026, 1, 1, 12, 0);
+        User user = new User();
+        user.setMfaEnabled(true);
+        user.setMfaSecret(mfaService.generateMfaSecret());
+        user.setCreatedAt(signup);
+
+        assertTrue(mfaService.isEnrolmentOpen(user, signup.plusMinutes(59)));
+        assertFalse(mfaService.isEnrolmentOpen(user, signup.plusHours(1)));
+
+        user.setMfaEnrolledAt(signup.plusMinutes(5));
+        assertFalse(mfaService.isEnrolmentOpen(user, signup.plusMinutes(10)));
+
+        user.setMfaEnrolledAt(null);
+        user.setMfaEnabled(false);
+        assertFalse(mfaService.isEnrolmentOpen(user, signup.plusMinutes(10)));
+    }
+}
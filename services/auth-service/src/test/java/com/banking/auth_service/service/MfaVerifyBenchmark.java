@@ -0,0 +1,74 @@
+package com.banking.auth_service.service;
+
+import dev.samstevens.totp.code.DefaultCodeGenerator;
+import dev.samstevens.totp.code.DefaultCodeVerifier;
+import dev.samstevens.totp.secret.DefaultSecretGenerator;
+import dev.samstevens.totp.time.SystemTimeProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of MFA code verification: the former path, which built a time provider, generator and
+ * verifier and decoded the secret on every call, against {@link TotpVerifier}. Both check a wrong
+ * code, so every step in the window is computed. Opt-in:
+ * <pre>
+ * mvn test -pl services/auth-service -Dtest=MfaVerifyBenchmark -Dbenchmark=true
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MfaVerifyBenchmark {
+
+    private TotpVerifier verifier;
+    private String secret;
+    private String wrongCode;
+
+    @Setup
+    public void setUp() throws Exception {
+        verifier = new TotpVerifier(1000);
+        secret = new DefaultSecretGenerator().generate();
+        long step = System.currentTimeMillis() / 1000 / 30;
+        wrongCode = String.format("%06d", (Integer.parseInt(TotpVerifierTests.code(secret, step)) + 1) % 1_000_000);
+    }
+
+    /** What MfaService.verifyCode did before. */
+    @Benchmark
+    public boolean perCallVerifier() {
+        return new DefaultCodeVerifier(new DefaultCodeGenerator(), new SystemTimeProvider())
+                .isValidCode(secret, wrongCode);
+    }
+
+    @Benchmark
+    public boolean cachedKeyVerifier() {
+        return verifier.verify(42L, secret, wrongCode);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("benchmark: per-call TOTP verifier vs cached-key verifier")
+    void runBenchmark() throws RunnerException {
+        // In-process run: surefire's classpath is not visible to a forked JMH JVM
+        new Runner(new OptionsBuilder()
+                .include(MfaVerifyBenchmark.class.getName())
+                .forks(0)
+                .build()).run();
+    }
+}
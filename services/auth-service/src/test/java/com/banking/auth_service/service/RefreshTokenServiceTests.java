@@ -0,0 +1,77 @@
+package com.banking.auth_service.service;
+
+import com.banking.auth_service.entity.RefreshToken;
+import com.banking.auth_service.exception.TokenRefreshException;
+import com.banking.auth_service.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTests {
+
+    @Mock private RefreshTokenRepository refreshTokenRepository;
+    @Mock private PlatformTransactionManager transactionManager;
+    @InjectMocks private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(refreshTokenService, "refreshTokenDurationMs", 86_400_000L);
+        ReflectionTestUtils.setField(refreshTokenService, "sweepBatchSize", 100);
+        ReflectionTestUtils.setField(refreshTokenService, "transactionTemplate", new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    @DisplayName("createRefreshToken upserts the token's hash, never the token itself")
+    void createRefreshToken_storesHash() {
+        String token = refreshTokenService.createRefreshToken(7L);
+
+        ArgumentCaptor<String> stored = ArgumentCaptor.forClass(String.class);
+        verify(refreshTokenRepository).upsert(eq(7L), stored.capture(), any(Instant.class), any(Instant.class));
+        assertEquals(64, stored.getValue().length());
+        assertNotEquals(token, stored.getValue());
+        assertEquals(RefreshTokenService.hash(token), stored.getValue());
+        verifyNoMoreInteractions(refreshTokenRepository);
+    }
+
+    @Test
+    @DisplayName("findByToken looks the token up by its hash")
+    void findByToken_byHash() {
+        RefreshToken row = new RefreshToken();
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("abc"))).thenReturn(Optional.of(row));
+        assertSame(row, refreshTokenService.findByToken("abc").orElseThrow());
+    }
+
+    @Test
+    @DisplayName("verifyExpiration rejects an expired token without deleting it inline")
+    void verifyExpiration_leavesDeleteToSweeper() {
+        RefreshToken expired = new RefreshToken();
+        expired.setExpiryDate(Instant.now().minusSeconds(1));
+        assertThrows(TokenRefreshException.class, () -> refreshTokenService.verifyExpiration(expired));
+        verifyNoInteractions(refreshTokenRepository);
+    }
+
+    @Test
+    @DisplayName("purgeExpired deletes in batches until one comes back short")
+    void purgeExpired_batches() {
+        when(refreshTokenRepository.deleteExpired(any(Instant.class), eq(100))).thenReturn(100, 100, 40);
+        refreshTokenService.purgeExpired();
+        verify(refreshTokenRepository, times(3)).deleteExpired(any(Instant.class), eq(100));
+        verify(transactionManager, times(3)).commit(any());
+    }
+}
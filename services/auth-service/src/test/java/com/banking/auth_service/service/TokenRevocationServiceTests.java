@@ -0,0 +1,89 @@
+package com.banking.auth_service.service;
+
+import com.banking.auth_service.dto.RevocationListResponse;
+import com.banking.auth_service.entity.RevokedToken;
+import com.banking.auth_service.repository.RevokedTokenRepository;
+import com.banking.auth_service.security.VerifiedClaims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTests {
+
+    @Mock private RevokedTokenRepository revokedTokenRepository;
+    private TokenRevocationService revocations;
+
+    @BeforeEach
+    void setUp() {
+        revocations = new TokenRevocationService(revokedTokenRepository);
+    }
+
+    @Test
+    @DisplayName("revoke stores the jti and rejects the token from then on")
+    void revoke_storesAndRemembers() {
+        VerifiedClaims claims = claims("jti-1", 60);
+        assertFalse(revocations.isRevoked(claims));
+
+        assertTrue(revocations.revoke(claims));
+
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+        assertTrue(revocations.isRevoked(claims));
+        assertFalse(revocations.isRevoked(claims("jti-2", 60)));
+    }
+
+    @Test
+    @DisplayName("tokens without a jti or already expired are not stored")
+    void revoke_skipsUnrevocable() {
+        assertFalse(revocations.revoke(claims(null, 60)));
+        assertFalse(revocations.revoke(claims("jti-1", -1)));
+        verifyNoInteractions(revokedTokenRepository);
+    }
+
+    @Test
+    @DisplayName("changesSince returns a delta for the current epoch and a full list otherwise")
+    void changesSince_deltaOrFull() {
+        revocations.revoke(claims("jti-1", 60));
+        RevocationListResponse first = revocations.changesSince(null, 0);
+        assertTrue(first.isFull());
+        assertEquals(1, first.getVersion());
+
+        revocations.revoke(claims("jti-2", 60));
+        RevocationListResponse delta = revocations.changesSince(first.getEpoch(), first.getVersion());
+        assertFalse(delta.isFull());
+        assertEquals(2, delta.getVersion());
+        assertEquals(List.of("jti-2"), delta.getRevoked().stream().map(RevocationListResponse.Entry::jti).toList());
+
+        RevocationListResponse otherEpoch = revocations.changesSince("another-instance", 2);
+        assertTrue(otherEpoch.isFull());
+        assertEquals(2, otherEpoch.getRevoked().size());
+    }
+
+    @Test
+    @DisplayName("sync picks up revocations made by other instances")
+    void sync_loadsFromDatabase() {
+        Instant exp = Instant.now().plusSeconds(60);
+        when(revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(any(), any()))
+                .thenReturn(List.of(new RevokedToken("jti-9", exp, Instant.now())));
+
+        revocations.sync();
+        revocations.sync();
+
+        assertTrue(revocations.isRevoked(claims("jti-9", 60)));
+        assertEquals(1, revocations.changesSince(null, 0).getVersion());
+    }
+
+    private static VerifiedClaims claims(String jti, long expiresInSeconds) {
+        return new VerifiedClaims("alice", "CUSTOMER", 1L, Instant.now().plusSeconds(expiresInSeconds), jti);
+    }
+}
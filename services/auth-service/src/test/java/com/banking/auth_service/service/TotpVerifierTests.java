@@ -0,0 +1,59 @@
+package com.banking.auth_service.service;
+
+import dev.samstevens.totp.code.DefaultCodeGenerator;
+import dev.samstevens.totp.secret.DefaultSecretGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TotpVerifierTests {
+
+    private static final long NOW = 1_700_000_015L;
+
+    private final TotpVerifier verifier = new TotpVerifier(1000);
+    private final String secret = new DefaultSecretGenerator().generate();
+
+    @Test
+    @DisplayName("accepts the library's code for the current step and one step of drift")
+    void verify_matchesLibraryCodes() throws Exception {
+        assertTrue(verifier.verify(1L, secret, code(secret, NOW / 30), NOW));
+        assertTrue(verifier.verify(2L, secret, code(secret, NOW / 30 - 1), NOW));
+        assertTrue(verifier.verify(3L, secret, code(secret, NOW / 30 + 1), NOW));
+        assertFalse(verifier.verify(4L, secret, code(secret, NOW / 30 - 2), NOW));
+    }
+
+    @Test
+    @DisplayName("a code cannot be used twice, nor a code from an earlier step")
+    void verify_refusesReplay() throws Exception {
+        String current = code(secret, NOW / 30);
+        String previous = code(secret, NOW / 30 - 1);
+
+        assertTrue(verifier.verify(1L, secret, current, NOW));
+        assertFalse(verifier.verify(1L, secret, current, NOW + 1));
+        assertFalse(verifier.verify(1L, secret, previous, NOW + 1));
+        assertTrue(verifier.verify(1L, secret, code(secret, NOW / 30 + 1), NOW + 30));
+    }
+
+    @Test
+    @DisplayName("malformed codes and missing secrets are rejected")
+    void verify_rejectsMalformed() {
+        assertFalse(verifier.verify(1L, secret, "12345", NOW));
+        assertFalse(verifier.verify(1L, secret, "12a456", NOW));
+        assertFalse(verifier.verify(1L, secret, null, NOW));
+        assertFalse(verifier.verify(1L, null, "123456", NOW));
+    }
+
+    @Test
+    @DisplayName("a changed secret replaces the cached key")
+    void verify_picksUpNewSecret() throws Exception {
+        String newSecret = new DefaultSecretGenerator().generate();
+        assertTrue(verifier.verify(1L, secret, code(secret, NOW / 30), NOW));
+
+        assertTrue(verifier.verify(1L, newSecret, code(newSecret, NOW / 30 + 1), NOW + 30));
+    }
+
+    static String code(String secret, long step) throws Exception {
+        return new DefaultCodeGenerator().generate(secret, step);
+    }
+}
@@ -0,0 +1,103 @@
+package com.banking.auth_service.service;
+
+import com.banking.auth_service.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserIdentityIndexTests {
+
+    @Mock private UserRepository userRepository;
+    private UserIdentityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserIdentityIndex(userRepository);
+    }
+
+    @Test
+    @DisplayName("names the index has not seen are free without a query")
+    void check_unseenIsFreeInMemory() {
+        load(row(1L, "alice", "alice@ex.com"));
+
+        UserIdentityIndex.Availability availability = index.check("bob", "bob@ex.com");
+
+        assertTrue(availability.usernameAvailable());
+        assertTrue(availability.emailAvailable());
+        verify(userRepository, never()).findByUsernameOrEmail(any(), any());
+    }
+
+    @Test
+    @DisplayName("possible hits are confirmed with one combined query, ignoring case and spaces")
+    void check_hitIsConfirmedByQuery() {
+        load(row(1L, "alice", "alice@ex.com"));
+        when(userRepository.findByUsernameOrEmail("alice", null))
+                .thenReturn(List.<Object[]>of(new Object[] {"Alice", "alice@ex.com"}));
+
+        UserIdentityIndex.Availability availability = index.check(" ALICE ", "new@ex.com");
+
+        assertFalse(availability.usernameAvailable());
+        assertTrue(availability.emailAvailable());
+        verify(userRepository).findByUsernameOrEmail("alice", null);
+    }
+
+    @Test
+    @DisplayName("added users are seen; values not asked about come back null")
+    void add_isSeenByCheck() {
+        load();
+        index.add("carol", "carol@ex.com");
+        when(userRepository.findByUsernameOrEmail(isNull(), eq("carol@ex.com"))).thenReturn(List.of());
+
+        UserIdentityIndex.Availability availability = index.check(null, "Carol@ex.com");
+
+        assertNull(availability.usernameAvailable());
+        assertTrue(availability.emailAvailable());
+        verify(userRepository).findByUsernameOrEmail(null, "carol@ex.com");
+    }
+
+    @Test
+    @DisplayName("before the index has loaded every check goes to the database")
+    void check_unloadedFallsBackToQuery() {
+        when(userRepository.count()).thenThrow(new IllegalStateException("database down"));
+        index.init();
+        when(userRepository.findByUsernameOrEmail("dave", "dave@ex.com"))
+                .thenReturn(List.<Object[]>of(new Object[] {"x", "dave@ex.com"}));
+
+        UserIdentityIndex.Availability availability = index.check("dave", "dave@ex.com");
+
+        assertTrue(availability.usernameAvailable());
+        assertFalse(availability.emailAvailable());
+    }
+
+    @Test
+    @DisplayName("the filter is sized for two keys per user, once")
+    void expectedKeys_twoPerUser() {
+        assertEquals(20_000, UserIdentityIndex.expectedKeys(0));
+        assertEquals(2_000_000, UserIdentityIndex.expectedKeys(1_000_000));
+    }
+
+    private void load(Object[]... rows) {
+        List<Object[]> page = new ArrayList<>(List.of(rows));
+        when(userRepository.count()).thenReturn((long) rows.length);
+        when(userRepository.findIdentitiesAfter(anyLong(), any())).thenReturn(page);
+        index.rebuild();
+    }
+
+    private static Object[] row(Long id, String username, String email) {
+        return new Object[] {id, username, email};
+    }
+}
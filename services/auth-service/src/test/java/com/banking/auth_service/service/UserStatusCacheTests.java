@@ -0,0 +1,55 @@
+package com.banking.auth_service.service;
+
+import com.banking.auth_service.repository.UserRepository;
+import com.banking.auth_service.security.UserStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserStatusCacheTests {
+
+    @Mock private UserRepository userRepository;
+    private UserStatusCache userStatusCache;
+
+    @BeforeEach
+    void setUp() {
+        userStatusCache = new UserStatusCache(userRepository, new SimpleMeterRegistry(), Duration.ofMinutes(5), 100);
+    }
+
+    @Test
+    @DisplayName("getStatus loads a user once and reloads after invalidate")
+    void getStatus_cachesUntilInvalidated() {
+        when(userRepository.findStatusById(1L))
+                .thenReturn(Optional.of(new UserStatus(true, true)))
+                .thenReturn(Optional.of(new UserStatus(true, false)));
+
+        assertTrue(userStatusCache.getStatus(1L).orElseThrow().accountNonLocked());
+        assertTrue(userStatusCache.getStatus(1L).orElseThrow().accountNonLocked());
+        verify(userRepository, times(1)).findStatusById(1L);
+
+        userStatusCache.invalidate(1L);
+        assertFalse(userStatusCache.getStatus(1L).orElseThrow().accountNonLocked());
+        verify(userRepository, times(2)).findStatusById(1L);
+    }
+
+    @Test
+    @DisplayName("getStatus caches deleted users as empty")
+    void getStatus_cachesMissingUsers() {
+        when(userRepository.findStatusById(2L)).thenReturn(Optional.empty());
+
+        assertTrue(userStatusCache.getStatus(2L).isEmpty());
+        assertTrue(userStatusCache.getStatus(2L).isEmpty());
+        verify(userRepository, times(1)).findStatusById(2L);
+    }
+}
@@ -2,15 +2,23 @@ package com.banking.credit.controller;
 
 import com.banking.credit.dto.*;
 import com.banking.credit.service.CreditService;
+import com.banking.common.idempotency.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/credits")
@@ -20,6 +28,8 @@ import java.util.List;
 public class CreditController {
     
     private final CreditService creditService;
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
     
     @PostMapping("/loans")
     @Operation(summary = "Apply for loan")
@@ -41,9 +51,11 @@ public class CreditController {
     
     @PostMapping("/approvals/bulk")
     @Operation(summary = "Bulk approve/reject credit applications")
-    public ResponseEntity<String> bulkApprove(@Valid @RequestBody ApprovalRequest request) {
-        creditService.bulkApprove(request);
-        return ResponseEntity.ok("Approvals processed successfully");
+    public ResponseEntity<BulkApprovalResponse> bulkApprove(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody ApprovalRequest request) {
+        return ResponseEntity.ok(idempotencyService.execute("credit.bulk-approve", idempotencyKey, request,
+                BulkApprovalResponse.class, () -> creditService.bulkApprove(request)));
     }
     
     @PutMapping("/{id}")
@@ -78,5 +90,35 @@ public class CreditController {
     public ResponseEntity<List<CreditProductResponse>> getAllCreditProducts() {
         return ResponseEntity.ok(creditService.getAllCreditProducts());
     }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Get credit products by ids", description = "Body is a JSON array of ids (at most 5000). Returns a map of id to credit product; unknown ids are left out.")
+    public ResponseEntity<Map<Long, CreditProductResponse>> getCreditProductsByIds(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(creditService.getCreditProductsByIds(ids));
+    }
+
+    @GetMapping("/page")
+    @Operation(summary = "Get credit products page by cursor", description = "Keyset pagination ordered by id. Pass the returned nextCursor as 'after' to continue; nextCursor is null on the last page.")
+    public ResponseEntity<CursorPage<CreditProductResponse>> getCreditProductsPage(
+            @RequestParam(name = "after", required = false) Long after,
+            @RequestParam(name = "size", defaultValue = "100") int size) {
+        return ResponseEntity.ok(creditService.getCreditProductsPage(after, size));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all credit products as NDJSON", description = "One JSON object per line, read from a database cursor; memory use does not grow with the table.")
+    public ResponseEntity<StreamingResponseBody> streamAllCreditProducts() {
+        StreamingResponseBody body = out -> creditService.streamAllCreditProducts(item -> writeLine(out, item));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void writeLine(OutputStream out, Object item) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(item));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
 
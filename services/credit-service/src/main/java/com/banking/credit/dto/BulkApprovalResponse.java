@@ -0,0 +1,23 @@
+package com.banking.credit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkApprovalResponse {
+    private int requested;
+    private int updated;
+    private List<Outcome> outcomes;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Outcome {
+        private Long id;
+        private String outcome; // UPDATED, NOT_PENDING, NOT_FOUND
+    }
+}
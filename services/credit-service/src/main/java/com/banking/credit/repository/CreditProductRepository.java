@@ -1,17 +1,47 @@
 package com.banking.credit.repository;
 
+import com.banking.credit.dto.CreditProductResponse;
 import com.banking.credit.entity.CreditProduct;
 import com.banking.credit.enums.CreditProductStatus;
 import com.banking.credit.enums.CreditProductType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface CreditProductRepository extends JpaRepository<CreditProduct, Long> {
     List<CreditProduct> findByCustomerId(Long customerId);
     List<CreditProduct> findByStatus(CreditProductStatus status);
     List<CreditProduct> findByProductType(CreditProductType productType);
-}
 
+    @Query(value = "SELECT id, status FROM credit_products WHERE id IN (:ids) FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE CreditProduct x SET x.status = :to, x.updatedAt = :now WHERE x.id IN :ids AND x.status = :from")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids, @Param("from") CreditProductStatus from,
+                           @Param("to") CreditProductStatus to, @Param("now") LocalDateTime now);
+
+    List<CreditProduct> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT x FROM CreditProduct x ORDER BY x.id")
+    Stream<CreditProduct> streamAllByOrderByIdAsc();
+
+    // Batch lookup by id: one IN query straight into the response DTO, no entities loaded
+    @Query("SELECT new com.banking.credit.dto.CreditProductResponse(" +
+           "x.id, x.customerId, CAST(x.productType AS String), CAST(x.cardType AS String), CAST(x.loanType AS String), x.amount, x.creditLimit, x.interestRate, x.termMonths, CAST(x.status AS String), x.createdAt, x.updatedAt) " +
+           "FROM CreditProduct x WHERE x.id IN :ids")
+    List<CreditProductResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+}
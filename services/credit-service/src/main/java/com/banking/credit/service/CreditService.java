@@ -3,12 +3,25 @@ package com.banking.credit.service;
 import com.banking.credit.dto.*;
 import com.banking.credit.entity.CreditProduct;
 import com.banking.credit.repository.CreditProductRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import com.banking.credit.enums.CreditProductStatus;
 import com.banking.credit.enums.CreditProductType;
 
@@ -16,7 +29,13 @@ import com.banking.credit.enums.CreditProductType;
 @RequiredArgsConstructor
 public class CreditService {
     
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BATCH_LOOKUP = 5000;
+    private static final int BULK_CHUNK_SIZE = 1000;
+    
     private final CreditProductRepository creditProductRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
     
     @Transactional
     public CreditProductResponse applyForLoan(LoanRequest request) {
@@ -90,12 +109,50 @@ public class CreditService {
             .collect(Collectors.toList());
     }
     
-    @Transactional
-    public void bulkApprove(ApprovalRequest request) {
-        List<CreditProduct> products = creditProductRepository.findAllById(request.getIds());
-        
-        products.forEach(p -> p.setStatus(CreditProductStatus.valueOf(request.getStatus().toUpperCase())));
-        creditProductRepository.saveAll(products);
+    /**
+     * Set-based approval: each chunk of ids is locked, its PENDING rows are moved with one UPDATE
+     * and the chunk's transaction commits before the next chunk is locked. Ids that are unknown or
+     * no longer PENDING are reported, not touched.
+     */
+    public BulkApprovalResponse bulkApprove(ApprovalRequest request) {
+        CreditProductStatus target = CreditProductStatus.valueOf(request.getStatus().toUpperCase());
+        List<Long> ids = distinctIds(request.getIds());
+        List<BulkApprovalResponse.Outcome> outcomes = new ArrayList<>(ids.size());
+        int updated = 0;
+        for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size()));
+            Map<Long, String> current = transactionTemplate.execute(status -> movePending(chunk, target));
+            for (Long id : chunk) {
+                String outcome = !current.containsKey(id) ? "NOT_FOUND"
+                    : CreditProductStatus.PENDING.name().equals(current.get(id)) ? "UPDATED" : "NOT_PENDING";
+                outcomes.add(new BulkApprovalResponse.Outcome(id, outcome));
+                if (outcome.equals("UPDATED")) {
+                    updated++;
+                }
+            }
+        }
+        return new BulkApprovalResponse(ids.size(), updated, outcomes);
+    }
+    
+    private Map<Long, String> movePending(List<Long> chunk, CreditProductStatus to) {
+        Map<Long, String> current = new HashMap<>();
+        for (Object[] row : creditProductRepository.lockStatusesByIdIn(chunk)) {
+            current.put(((Number) row[0]).longValue(), String.valueOf(row[1]));
+        }
+        List<Long> pending = chunk.stream()
+            .filter(id -> CreditProductStatus.PENDING.name().equals(current.get(id)))
+            .collect(Collectors.toList());
+        if (!pending.isEmpty()) {
+            creditProductRepository.updateStatusByIdIn(pending, CreditProductStatus.PENDING, to, LocalDateTime.now());
+        }
+        return current;
+    }
+    
+    private static List<Long> distinctIds(List<Long> ids) {
+        if (ids == null) {
+            return List.of();
+        }
+        return ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
     }
     
     @Transactional
@@ -173,5 +230,47 @@ public class CreditService {
         List<CreditProduct> products = creditProductRepository.findAll();
         return products.stream().map(this::toResponse).collect(Collectors.toList());
     }
+
+    /** Looks up many credit products in one query; ids that do not exist are simply absent from the map. */
+    public Map<Long, CreditProductResponse> getCreditProductsByIds(List<Long> requestedIds) {
+        List<Long> ids = distinctIds(requestedIds);
+        if (ids.size() > MAX_BATCH_LOOKUP) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "At most " + MAX_BATCH_LOOKUP + " ids per batch lookup, got " + ids.size());
+        }
+        Map<Long, CreditProductResponse> byId = new LinkedHashMap<>();
+        if (ids.isEmpty()) {
+            return byId;
+        }
+        Map<Long, CreditProductResponse> found = creditProductRepository.findResponsesByIdIn(ids).stream()
+            .collect(Collectors.toMap(CreditProductResponse::getId, r -> r));
+        // Answer in the caller's order so the response is stable for identical requests
+        for (Long id : ids) {
+            CreditProductResponse response = found.get(id);
+            if (response != null) {
+                byId.put(id, response);
+            }
+        }
+        return byId;
+    }
+
+    public CursorPage<CreditProductResponse> getCreditProductsPage(Long after, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        List<CreditProduct> rows = creditProductRepository.findByIdGreaterThanOrderByIdAsc(after != null ? after : 0L, PageRequest.of(0, pageSize + 1));
+        List<CreditProductResponse> items = rows.stream().limit(pageSize).map(this::toResponse).collect(Collectors.toList());
+        Long nextCursor = rows.size() > pageSize ? items.get(items.size() - 1).getId() : null;
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAllCreditProducts(Consumer<CreditProductResponse> sink) {
+        try (Stream<CreditProduct> rows = creditProductRepository.streamAllByOrderByIdAsc()) {
+            rows.forEach(row -> {
+                sink.accept(toResponse(row));
+                entityManager.detach(row); // keep the persistence context from growing with the table
+            });
+        }
+    }
 }
 
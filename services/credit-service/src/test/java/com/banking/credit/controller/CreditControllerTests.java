@@ -2,7 +2,9 @@ package com.banking.credit.controller;
 
 import com.banking.credit.dto.*;
 import com.banking.credit.service.CreditService;
+import com.banking.common.idempotency.IdempotencyService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,7 +18,9 @@ import java.math.BigDecimal;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -28,6 +32,13 @@ class CreditControllerTests {
     @Autowired private MockMvc mockMvc;
     @Autowired private ObjectMapper objectMapper;
     @MockBean private CreditService creditService;
+    @MockBean private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void idempotencyPassThrough() {
+        when(idempotencyService.execute(any(), any(), any(), any(), any()))
+                .thenAnswer(inv -> inv.<java.util.function.Supplier<?>>getArgument(4).get());
+    }
 
     @Test
     @DisplayName("POST /credits/loans returns response (200)")
@@ -54,4 +65,52 @@ class CreditControllerTests {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(1)));
     }
+
+    @Test
+    @DisplayName("GET /credits/page returns items and next cursor (200)")
+    void getCreditProductsPage_ok() throws Exception {
+        when(creditService.getCreditProductsPage(10L, 2)).thenReturn(new CursorPage<>(List.of(
+                CreditProductResponse.builder().id(11L).build(),
+                CreditProductResponse.builder().id(12L).build()), 12L));
+
+        mockMvc.perform(get("/credits/page").param("after", "10").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.nextCursor").value(12));
+    }
+
+    @Test
+    @DisplayName("GET /credits/page without a cursor starts at the beginning and ends with a null cursor")
+    void getCreditProductsPage_firstPage() throws Exception {
+        when(creditService.getCreditProductsPage(null, 100)).thenReturn(new CursorPage<>(List.of(
+                CreditProductResponse.builder().id(1L).build()), null));
+
+        mockMvc.perform(get("/credits/page"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /credits/stream writes one JSON object per line")
+    void streamAllCreditProducts_ndjson() throws Exception {
+        doAnswer(inv -> {
+            java.util.function.Consumer<CreditProductResponse> sink = inv.getArgument(0);
+            sink.accept(CreditProductResponse.builder().id(1L).build());
+            sink.accept(CreditProductResponse.builder().id(2L).build());
+            return null;
+        }).when(creditService).streamAllCreditProducts(any());
+
+        org.springframework.test.web.servlet.MvcResult result = mockMvc.perform(get("/credits/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.trim().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(2L, objectMapper.readTree(lines[1]).get("id").asLong());
+    }
 }
@@ -2,15 +2,22 @@ package com.banking.customer.controller;
 
 import com.banking.customer.dto.*;
 import com.banking.customer.service.CustomerService;
+import com.banking.common.idempotency.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
 import com.banking.customer.dto.ActiveCustomerSummary;
@@ -23,6 +30,8 @@ import com.banking.customer.dto.ActiveCustomerSummary;
 public class CustomerController {
     
     private final CustomerService customerService;
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @Operation(summary = "Create customer profile")
@@ -73,9 +82,11 @@ public class CustomerController {
     
     @PostMapping("/approvals/bulk")
     @Operation(summary = "Bulk approve/reject KYC")
-    public ResponseEntity<String> bulkApprove(@Valid @RequestBody ApprovalRequest request) {
-        customerService.bulkApprove(request);
-        return ResponseEntity.ok("Approvals processed successfully");
+    public ResponseEntity<BulkApprovalResponse> bulkApprove(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody ApprovalRequest request) {
+        return ResponseEntity.ok(idempotencyService.execute("customer.bulk-approve", idempotencyKey, request,
+                BulkApprovalResponse.class, () -> customerService.bulkApprove(request)));
     }
     
     @DeleteMapping("/{id}")
@@ -114,5 +125,35 @@ public class CustomerController {
     public ResponseEntity<List<CustomerResponse>> getAllCustomers() {
         return ResponseEntity.ok(customerService.getAllCustomers());
     }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Get customers by ids", description = "Body is a JSON array of ids (at most 5000). Returns a map of id to customer; unknown ids are left out.")
+    public ResponseEntity<Map<Long, CustomerResponse>> getCustomersByIds(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(customerService.getCustomersByIds(ids));
+    }
+
+    @GetMapping("/page")
+    @Operation(summary = "Get customers page by cursor", description = "Keyset pagination ordered by id. Pass the returned nextCursor as 'after' to continue; nextCursor is null on the last page.")
+    public ResponseEntity<CursorPage<CustomerResponse>> getCustomersPage(
+            @RequestParam(name = "after", required = false) Long after,
+            @RequestParam(name = "size", defaultValue = "100") int size) {
+        return ResponseEntity.ok(customerService.getCustomersPage(after, size));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all customers as NDJSON", description = "One JSON object per line, read from a database cursor; memory use does not grow with the table.")
+    public ResponseEntity<StreamingResponseBody> streamAllCustomers() {
+        StreamingResponseBody body = out -> customerService.streamAllCustomers(item -> writeLine(out, item));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void writeLine(OutputStream out, Object item) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(item));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
 
@@ -1,12 +1,23 @@
 package com.banking.customer.repository;
 
+import com.banking.customer.dto.CustomerResponse;
 import com.banking.customer.entity.Customer;
 import com.banking.customer.enums.KYCStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
@@ -16,5 +27,24 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     List<Customer> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(String firstName, String lastName);
     List<Customer> findByEmailContainingIgnoreCase(String email);
     List<Customer> findByPhoneContaining(String phone);
-}
 
+    @Query(value = "SELECT id, kyc_status FROM customers WHERE id IN (:ids) FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Customer x SET x.kycStatus = :to, x.updatedAt = :now WHERE x.id IN :ids AND x.kycStatus = :from")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids, @Param("from") KYCStatus from,
+                           @Param("to") KYCStatus to, @Param("now") LocalDateTime now);
+
+    List<Customer> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT x FROM Customer x ORDER BY x.id")
+    Stream<Customer> streamAllByOrderByIdAsc();
+
+    // Batch lookup by id: one IN query straight into the response DTO, no entities loaded
+    @Query("SELECT new com.banking.customer.dto.CustomerResponse(" +
+           "x.id, x.userId, x.firstName, x.lastName, x.email, x.phone, x.address, CAST(x.kycStatus AS String), x.createdAt, x.updatedAt) " +
+           "FROM Customer x WHERE x.id IN :ids")
+    List<CustomerResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+}
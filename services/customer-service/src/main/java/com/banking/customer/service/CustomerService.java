@@ -3,12 +3,25 @@ package com.banking.customer.service;
 import com.banking.customer.dto.*;
 import com.banking.customer.entity.Customer;
 import com.banking.customer.repository.CustomerRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import com.banking.customer.enums.KYCStatus;
 import com.banking.customer.dto.ActiveCustomerSummary;
 
@@ -16,7 +29,13 @@ import com.banking.customer.dto.ActiveCustomerSummary;
 @RequiredArgsConstructor
 public class CustomerService {
     
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BATCH_LOOKUP = 5000;
+    private static final int BULK_CHUNK_SIZE = 1000;
+    
     private final CustomerRepository customerRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
     
     @Transactional
     public CustomerResponse createCustomer(Long userId, CustomerRequest request) {
@@ -87,12 +106,50 @@ public class CustomerService {
             .collect(Collectors.toList());
     }
     
-    @Transactional
-    public void bulkApprove(ApprovalRequest request) {
-        List<Customer> customers = customerRepository.findAllById(request.getIds());
-        
-        customers.forEach(c -> c.setKycStatus(KYCStatus.valueOf(request.getStatus().toUpperCase())));
-        customerRepository.saveAll(customers);
+    /**
+     * Set-based approval: each chunk of ids is locked, its PENDING rows are moved with one UPDATE
+     * and the chunk's transaction commits before the next chunk is locked. Ids that are unknown or
+     * no longer PENDING are reported, not touched.
+     */
+    public BulkApprovalResponse bulkApprove(ApprovalRequest request) {
+        KYCStatus target = KYCStatus.valueOf(request.getStatus().toUpperCase());
+        List<Long> ids = distinctIds(request.getIds());
+        List<BulkApprovalResponse.Outcome> outcomes = new ArrayList<>(ids.size());
+        int updated = 0;
+        for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size()));
+            Map<Long, String> current = transactionTemplate.execute(status -> movePending(chunk, target));
+            for (Long id : chunk) {
+                String outcome = !current.containsKey(id) ? "NOT_FOUND"
+                    : KYCStatus.PENDING.name().equals(current.get(id)) ? "UPDATED" : "NOT_PENDING";
+                outcomes.add(new BulkApprovalResponse.Outcome(id, outcome));
+                if (outcome.equals("UPDATED")) {
+                    updated++;
+                }
+            }
+        }
+        return new BulkApprovalResponse(ids.size(), updated, outcomes);
+    }
+    
+    private Map<Long, String> movePending(List<Long> chunk, KYCStatus to) {
+        Map<Long, String> current = new HashMap<>();
+        for (Object[] row : customerRepository.lockStatusesByIdIn(chunk)) {
+            current.put(((Number) row[0]).longValue(), String.valueOf(row[1]));
+        }
+        List<Long> pending = chunk.stream()
+            .filter(id -> KYCStatus.PENDING.name().equals(current.get(id)))
+            .collect(Collectors.toList());
+        if (!pending.isEmpty()) {
+            customerRepository.updateStatusByIdIn(pending, KYCStatus.PENDING, to, LocalDateTime.now());
+        }
+        return current;
+    }
+    
+    private static List<Long> distinctIds(List<Long> ids) {
+        if (ids == null) {
+            return List.of();
+        }
+        return ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
     }
     
     @Transactional
@@ -148,6 +205,48 @@ public class CustomerService {
         List<Customer> customers = customerRepository.findAll();
         return customers.stream().map(this::toResponse).collect(Collectors.toList());
     }
+
+    /** Looks up many customers in one query; ids that do not exist are simply absent from the map. */
+    public Map<Long, CustomerResponse> getCustomersByIds(List<Long> requestedIds) {
+        List<Long> ids = distinctIds(requestedIds);
+        if (ids.size() > MAX_BATCH_LOOKUP) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "At most " + MAX_BATCH_LOOKUP + " ids per batch lookup, got " + ids.size());
+        }
+        Map<Long, CustomerResponse> byId = new LinkedHashMap<>();
+        if (ids.isEmpty()) {
+            return byId;
+        }
+        Map<Long, CustomerResponse> found = customerRepository.findResponsesByIdIn(ids).stream()
+            .collect(Collectors.toMap(CustomerResponse::getId, r -> r));
+        // Answer in the caller's order so the response is stable for identical requests
+        for (Long id : ids) {
+            CustomerResponse response = found.get(id);
+            if (response != null) {
+                byId.put(id, response);
+            }
+        }
+        return byId;
+    }
+
+    public CursorPage<CustomerResponse> getCustomersPage(Long after, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        List<Customer> rows = customerRepository.findByIdGreaterThanOrderByIdAsc(after != null ? after : 0L, PageRequest.of(0, pageSize + 1));
+        List<CustomerResponse> items = rows.stream().limit(pageSize).map(this::toResponse).collect(Collectors.toList());
+        Long nextCursor = rows.size() > pageSize ? items.get(items.size() - 1).getId() : null;
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAllCustomers(Consumer<CustomerResponse> sink) {
+        try (Stream<Customer> rows = customerRepository.streamAllByOrderByIdAsc()) {
+            rows.forEach(row -> {
+                sink.accept(toResponse(row));
+                entityManager.detach(row); // keep the persistence context from growing with the table
+            });
+        }
+    }
     
     private CustomerResponse toResponse(Customer customer) {
         String kycStatus = customer.getKycStatus() != null ? customer.getKycStatus().name() : null;
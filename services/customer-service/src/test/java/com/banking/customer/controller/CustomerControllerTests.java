@@ -2,7 +2,9 @@ package com.banking.customer.controller;
 
 import com.banking.customer.dto.*;
 import com.banking.customer.service.CustomerService;
+import com.banking.common.idempotency.IdempotencyService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +19,9 @@ import java.util.List;
 import java.util.Map;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -28,6 +33,13 @@ class CustomerControllerTests {
     @Autowired private MockMvc mockMvc;
     @Autowired private ObjectMapper objectMapper;
     @MockBean private CustomerService customerService;
+    @MockBean private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void idempotencyPassThrough() {
+        when(idempotencyService.execute(any(), any(), any(), any(), any()))
+                .thenAnswer(inv -> inv.<java.util.function.Supplier<?>>getArgument(4).get());
+    }
 
     @Test
     @DisplayName("GET /customers/{id} returns customer (200)")
@@ -64,5 +76,52 @@ class CustomerControllerTests {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.kycStatus").value("APPROVED"));
     }
-}
 
+    @Test
+    @DisplayName("GET /customers/page returns items and next cursor (200)")
+    void getCustomersPage_ok() throws Exception {
+        when(customerService.getCustomersPage(10L, 2)).thenReturn(new CursorPage<>(List.of(
+                CustomerResponse.builder().id(11L).build(),
+                CustomerResponse.builder().id(12L).build()), 12L));
+
+        mockMvc.perform(get("/customers/page").param("after", "10").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.nextCursor").value(12));
+    }
+
+    @Test
+    @DisplayName("GET /customers/page without a cursor starts at the beginning and ends with a null cursor")
+    void getCustomersPage_firstPage() throws Exception {
+        when(customerService.getCustomersPage(null, 100)).thenReturn(new CursorPage<>(List.of(
+                CustomerResponse.builder().id(1L).build()), null));
+
+        mockMvc.perform(get("/customers/page"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /customers/stream writes one JSON object per line")
+    void streamAllCustomers_ndjson() throws Exception {
+        doAnswer(inv -> {
+            java.util.function.Consumer<CustomerResponse> sink = inv.getArgument(0);
+            sink.accept(CustomerResponse.builder().id(1L).build());
+            sink.accept(CustomerResponse.builder().id(2L).build());
+            return null;
+        }).when(customerService).streamAllCustomers(any());
+
+        org.springframework.test.web.servlet.MvcResult result = mockMvc.perform(get("/customers/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.trim().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(2L, objectMapper.readTree(lines[1]).get("id").asLong());
+    }
+}
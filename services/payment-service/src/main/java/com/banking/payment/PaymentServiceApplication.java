@@ -2,10 +2,12 @@ package com.banking.payment;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 
 @SpringBootApplication
+@EnableScheduling
 @EnableFeignClients(basePackages = "com.banking.payment.feign")
 @EnableDiscoveryClient
 public class PaymentServiceApplication {
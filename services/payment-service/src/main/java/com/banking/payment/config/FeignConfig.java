@@ -1,28 +1,73 @@
 package com.banking.payment.config;
 
+import com.banking.common.security.GatewayIdentity;
 import feign.Logger;
 import feign.RequestInterceptor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.util.concurrent.Executor;
+
 public class FeignConfig {
+
+    // Caller's token for Feign calls made off the request thread (e.g. cache refreshes)
+    private static final ThreadLocal<String> DETACHED_AUTHORIZATION = new ThreadLocal<>();
+
     @Bean
     Logger.Level feignLoggerLevel() {
         return Logger.Level.NONE;
     }
 
-    // Propagate Authorization header to downstream services
+    // Propagate Authorization header to downstream services; calls made with no caller (scheduled
+    // jobs) authenticate as this service through the shared identity header instead. Ledger
+    // postings always do, see ServiceFeignConfig
     @Bean
-    public RequestInterceptor authHeaderForwardingInterceptor() {
+    public RequestInterceptor authHeaderForwardingInterceptor(@Value("${gateway.identity.secret:}") String identitySecret,
+                                                              @Value("${spring.application.name}") String applicationName) {
+        GatewayIdentity serviceIdentity = new GatewayIdentity(identitySecret);
         return template -> {
-            var attrs = RequestContextHolder.getRequestAttributes();
-            if (attrs instanceof ServletRequestAttributes sra) {
-                String auth = sra.getRequest().getHeader("Authorization");
-                if (auth != null && !auth.isBlank()) {
-                    template.header("Authorization", auth);
+            String auth = currentAuthorization();
+            if (auth != null && !auth.isBlank()) {
+                template.header("Authorization", auth);
+                // The gateway's identity header for the same token, so the next service can skip verifying it
+                if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes sra) {
+                    String identity = sra.getRequest().getHeader(GatewayIdentity.HEADER);
+                    if (identity != null) {
+                        template.header(GatewayIdentity.HEADER, identity);
+                    }
                 }
+            } else {
+                serviceIdentity.serviceHeaders(applicationName).forEach(template::header);
             }
         };
     }
+
+    /**
+     * Wraps an executor so tasks run with the Authorization header of the thread that submitted
+     * them. The header value is copied eagerly; the servlet request itself may be recycled by the
+     * time the task runs.
+     */
+    public static Executor forwardingAuthorization(Executor delegate) {
+        return task -> {
+            String auth = currentAuthorization();
+            delegate.execute(() -> {
+                DETACHED_AUTHORIZATION.set(auth);
+                try {
+                    task.run();
+                } finally {
+                    DETACHED_AUTHORIZATION.remove();
+                }
+            });
+        };
+    }
+
+    private static String currentAuthorization() {
+        var attrs = RequestContextHolder.getRequestAttributes();
+        if (attrs instanceof ServletRequestAttributes sra) {
+            return sra.getRequest().getHeader("Authorization");
+        }
+        return DETACHED_AUTHORIZATION.get();
+    }
 }
@@ -0,0 +1,57 @@
+package com.banking.payment.config;
+
+import com.banking.payment.entity.Payment;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Payments used to take their id from an AUTO_INCREMENT column. On the first start after the
+ * switch to the pooled table generator, its counter starts at 1 and would hand out ids that are
+ * already taken, so move it past the highest existing id before any payment is created.
+ * <p>
+ * Runs once every singleton (the schema included) is ready but before the web server starts and
+ * the schedulers fire, so no request or background job can insert a payment first.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaymentIdGeneratorAligner implements SmartInitializingSingleton {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        align();
+    }
+
+    public void align() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM payments", Long.class);
+        // The pooled optimizer hands out the block below the stored value, so leave a full block of headroom
+        long floor = (maxId != null ? maxId : 0L) + Payment.ID_ALLOCATION_SIZE + 1;
+        int updated = jdbcTemplate.update(
+            "UPDATE " + Payment.ID_GENERATOR_TABLE + " SET next_val = ? WHERE sequence_name = ? AND next_val < ?",
+            floor, Payment.ID_GENERATOR_KEY, floor);
+        if (updated > 0) {
+            log.info("Moved payment id generator to {}", floor);
+            return;
+        }
+        Integer rows = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM " + Payment.ID_GENERATOR_TABLE + " WHERE sequence_name = ?",
+            Integer.class, Payment.ID_GENERATOR_KEY);
+        if (rows != null && rows == 0) {
+            try {
+                jdbcTemplate.update(
+                    "INSERT INTO " + Payment.ID_GENERATOR_TABLE + " (sequence_name, next_val) VALUES (?, ?)",
+                    Payment.ID_GENERATOR_KEY, floor);
+                log.info("Initialised payment id generator at {}", floor);
+            } catch (DuplicateKeyException e) {
+                // Another instance (or Hibernate itself) created the row first; run again to re-check it
+                align();
+            }
+        }
+    }
+}
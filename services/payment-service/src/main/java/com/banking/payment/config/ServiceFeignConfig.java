@@ -0,0 +1,26 @@
+package com.banking.payment.config;
+
+import com.banking.common.security.GatewayIdentity;
+import feign.Logger;
+import feign.RequestInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Feign configuration for calls payment-service makes on its own behalf, whoever triggered them:
+ * every request authenticates with the service identity and the user's token is never forwarded.
+ */
+public class ServiceFeignConfig {
+
+    @Bean
+    Logger.Level feignLoggerLevel() {
+        return Logger.Level.NONE;
+    }
+
+    @Bean
+    public RequestInterceptor serviceIdentityInterceptor(@Value("${gateway.identity.secret:}") String identitySecret,
+                                                         @Value("${spring.application.name}") String applicationName) {
+        GatewayIdentity serviceIdentity = new GatewayIdentity(identitySecret);
+        return template -> serviceIdentity.serviceHeaders(applicationName).forEach(template::header);
+    }
+}
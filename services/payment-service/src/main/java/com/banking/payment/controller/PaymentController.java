@@ -2,15 +2,24 @@ package com.banking.payment.controller;
 
 import com.banking.payment.dto.*;
 import com.banking.payment.service.PaymentService;
+import com.banking.common.idempotency.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/payments")
@@ -20,11 +29,25 @@ import java.util.List;
 public class PaymentController {
     
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
     
     @PostMapping("/transfer")
-    @Operation(summary = "Create fund transfer")
-    public ResponseEntity<PaymentResponse> createTransfer(@Valid @RequestBody TransferRequest request) {
-        return ResponseEntity.ok(paymentService.createTransfer(request));
+    @Operation(summary = "Create fund transfer", description = "Send an Idempotency-Key header to make retries safe: a repeated key returns the original response.")
+    public ResponseEntity<PaymentResponse> createTransfer(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody TransferRequest request) {
+        return ResponseEntity.ok(idempotencyService.execute("payment.transfer", idempotencyKey, request, PaymentResponse.class,
+            () -> paymentService.createTransfer(request)));
+    }
+    
+    @PostMapping("/transfer/batch")
+    @Operation(summary = "Submit a batch of transfers", description = "Validates every line independently and returns a batch id with a result per line. Send an Idempotency-Key header so a re-uploaded file is not booked twice.")
+    public ResponseEntity<BatchTransferResponse> createTransferBatch(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody BatchTransferRequest request) {
+        return ResponseEntity.ok(idempotencyService.execute("payment.transfer-batch", idempotencyKey, request, BatchTransferResponse.class,
+            () -> paymentService.createTransferBatch(request)));
     }
     
     @GetMapping("/{id}")
@@ -41,9 +64,11 @@ public class PaymentController {
     
     @PostMapping("/approvals/bulk")
     @Operation(summary = "Bulk approve/reject payments")
-    public ResponseEntity<String> bulkApprove(@Valid @RequestBody ApprovalRequest request) {
-        paymentService.bulkApprove(request);
-        return ResponseEntity.ok("Approvals processed successfully");
+    public ResponseEntity<BulkApprovalResponse> bulkApprove(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody ApprovalRequest request) {
+        return ResponseEntity.ok(idempotencyService.execute("payment.bulk-approve", idempotencyKey, request,
+                BulkApprovalResponse.class, () -> paymentService.bulkApprove(request)));
     }
     
     @PutMapping("/{id}")
@@ -62,9 +87,19 @@ public class PaymentController {
     }
     
     @GetMapping("/user/{userId}")
-    @Operation(summary = "Get payments by user ID")
-    public ResponseEntity<List<PaymentResponse>> getPaymentsByUserId(@PathVariable("userId") Long userId) {
-        return ResponseEntity.ok(paymentService.getPaymentsByUserId(userId));
+    @Operation(summary = "Get payments by user ID",
+               description = "Newest first, at most payment.history.max-results (500) per call. Pass the id of the last payment as 'before' for the next page.")
+    public ResponseEntity<List<PaymentResponse>> getPaymentsByUserId(@PathVariable("userId") Long userId,
+                                                                     @RequestParam(value = "before", required = false) Long before) {
+        return ResponseEntity.ok(paymentService.getPaymentsByUserId(userId, before));
+    }
+
+    @DeleteMapping("/account-ownership/{userId}")
+    @Operation(summary = "Evict cached account ownership", description = "Called by account-service when a user's accounts change. Service identity or ADMIN only.")
+    @PreAuthorize("principal.claims['role'] == 'SERVICE' or principal.claims['role'] == 'ADMIN'")
+    public ResponseEntity<Void> evictAccountOwnership(@PathVariable("userId") Long userId) {
+        paymentService.evictAccountOwnership(userId);
+        return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/all")
@@ -72,5 +107,35 @@ public class PaymentController {
     public ResponseEntity<List<PaymentResponse>> getAllPayments() {
         return ResponseEntity.ok(paymentService.getAllPayments());
     }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Get payments by ids", description = "Body is a JSON array of ids (at most 5000). Returns a map of id to payment; unknown ids are left out.")
+    public ResponseEntity<Map<Long, PaymentResponse>> getPaymentsByIds(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(paymentService.getPaymentsByIds(ids));
+    }
+
+    @GetMapping("/page")
+    @Operation(summary = "Get payments page by cursor", description = "Keyset pagination ordered by id. Pass the returned nextCursor as 'after' to continue; nextCursor is null on the last page.")
+    public ResponseEntity<CursorPage<PaymentResponse>> getPaymentsPage(
+            @RequestParam(name = "after", required = false) Long after,
+            @RequestParam(name = "size", defaultValue = "100") int size) {
+        return ResponseEntity.ok(paymentService.getPaymentsPage(after, size));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all payments as NDJSON", description = "One JSON object per line, read from a database cursor; memory use does not grow with the table.")
+    public ResponseEntity<StreamingResponseBody> streamAllPayments() {
+        StreamingResponseBody body = out -> paymentService.streamAllPayments(item -> writeLine(out, item));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void writeLine(OutputStream out, Object item) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(item));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
 
@@ -0,0 +1,17 @@
+package com.banking.payment.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransferRequest {
+    
+    // Lines are validated one by one so a bad line is reported instead of failing the whole file
+    @NotEmpty(message = "At least one transfer is required")
+    private List<TransferRequest> transfers;
+}
@@ -0,0 +1,26 @@
+package com.banking.payment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransferResponse {
+    private String batchId;
+    private int accepted;
+    private int rejected;
+    private List<Line> lines;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private int line; // 1-based position in the submitted file
+        private Long paymentId;
+        private String status; // COMPLETED, PENDING, FAILED, REJECTED
+        private String error;
+    }
+}
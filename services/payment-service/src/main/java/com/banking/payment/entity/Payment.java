@@ -11,15 +11,42 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(
+    name = "payments",
+    indexes = {
+        // Access paths for account history: equality on the account, range/sort on created_at
+        @Index(name = "idx_payments_from_created", columnList = "fromAccountId, created_at"),
+        @Index(name = "idx_payments_to_created", columnList = "toAccountId, created_at"),
+        @Index(name = "idx_payments_batch", columnList = "batchId"),
+        // Payments still waiting for a ledger outcome, for the reconciler
+        @Index(name = "idx_payments_status", columnList = "status, id")
+    }
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Payment {
     
+    // Aggregate type of this entity's outbox events
+    public static final String AGGREGATE_TYPE = "Payment";
+    
+    public static final String ID_GENERATOR_TABLE = "id_generators";
+    public static final String ID_GENERATOR_KEY = "payments";
+    public static final int ID_ALLOCATION_SIZE = 50;
+    
+    // Pooled table generator instead of IDENTITY: ids are reserved 50 at a time, so Hibernate
+    // knows them before the INSERT and can send new rows as JDBC batches.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "payment_ids")
+    @TableGenerator(
+        name = "payment_ids",
+        table = ID_GENERATOR_TABLE,
+        pkColumnName = "sequence_name",
+        valueColumnName = "next_val",
+        pkColumnValue = ID_GENERATOR_KEY,
+        allocationSize = ID_ALLOCATION_SIZE
+    )
     private Long id;
     
     @Column(nullable = false)
@@ -44,6 +71,9 @@ public class Payment {
     
     private String description;
     
+    @Column(length = 36)
+    private String batchId;
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
@@ -2,6 +2,8 @@ package com.banking.payment.enums;
 
 public enum PaymentStatus {
     PENDING,
+    // Accepted and being posted to the ledger; settles to COMPLETED or FAILED
+    PROCESSING,
     COMPLETED,
     FAILED,
     REJECTED,
@@ -3,9 +3,12 @@ package com.banking.payment.feign;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
+import java.util.Map;
 
 @FeignClient(
         name = "account-service",
@@ -18,10 +21,12 @@ public interface AccountServiceClient {
     List<AccountSummary> getAccountsByUserId(@PathVariable("userId") Long userId,
                                              @RequestParam(name = "status", required = false) String status);
 
+    @PostMapping("/batch")
+    Map<Long, AccountSummary> getAccountsByIds(@RequestBody List<Long> ids);
+
     class AccountSummary {
         public Long id;
         public Long customerId;
         public String accountNumber;
     }
 }
-
@@ -0,0 +1,36 @@
+package com.banking.payment.feign;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
+
+/**
+ * account-service's ledger. Only the service identity may post, so these calls never carry the
+ * user's token (see ServiceFeignConfig).
+ */
+@FeignClient(
+        name = "account-service",
+        contextId = "accountLedger",
+        path = "/accounts",
+        configuration = com.banking.payment.config.ServiceFeignConfig.class
+)
+public interface LedgerClient {
+
+    @PostMapping("/transfers")
+    TransferPosting postTransfer(@RequestBody TransferPosting posting);
+
+    @PostMapping("/transfers/batch")
+    List<TransferPosting> postTransfers(@RequestBody List<TransferPosting> postings);
+
+    class TransferPosting {
+        public String reference;
+        public Long fromAccountId;
+        public Long toAccountId;
+        public java.math.BigDecimal amount;
+        public String currency;
+        public String status;
+        public String message;
+    }
+}
@@ -1,11 +1,22 @@
 package com.banking.payment.repository;
 
+import com.banking.payment.dto.PaymentResponse;
 import com.banking.payment.entity.Payment;
 import com.banking.payment.enums.PaymentStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
@@ -15,5 +26,58 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     List<Payment> findByFromAccountIdOrToAccountId(Long fromAccountId, Long toAccountId);
     List<Payment> findByFromAccountIdInOrToAccountIdIn(java.util.Collection<Long> fromAccountIds,
                                                       java.util.Collection<Long> toAccountIds);
-}
 
+    @Query(value = "SELECT id, status FROM payments WHERE id IN (:ids) FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Payment x SET x.status = :to, x.updatedAt = :now WHERE x.id IN :ids AND x.status = :from")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids, @Param("from") PaymentStatus from,
+                           @Param("to") PaymentStatus to, @Param("now") LocalDateTime now);
+
+    List<Payment> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    List<Payment> findByStatusAndIdGreaterThanAndUpdatedAtBeforeOrderByIdAsc(PaymentStatus status, Long afterId,
+                                                                             LocalDateTime updatedBefore, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT x FROM Payment x ORDER BY x.id")
+    Stream<Payment> streamAllByOrderByIdAsc();
+
+    /**
+     * Most recent payments touching any of the given accounts, newest first. Each branch of the
+     * UNION can be answered from its own (account, created_at) index instead of the full scan an
+     * OR across two IN-lists degrades to; UNION also removes the duplicate row of a transfer
+     * between two of the caller's own accounts.
+     */
+    @Query(value = "SELECT * FROM (" +
+            "(SELECT * FROM payments WHERE from_account_id IN (:ids) ORDER BY created_at DESC LIMIT :limit) " +
+            "UNION " +
+            "(SELECT * FROM payments WHERE to_account_id IN (:ids) ORDER BY created_at DESC LIMIT :limit)" +
+            ") p ORDER BY p.created_at DESC, p.id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<Payment> findRecentByAccountIds(@Param("ids") Collection<Long> accountIds, @Param("limit") int limit);
+
+    /**
+     * The page of {@link #findRecentByAccountIds} that follows the payment at
+     * ({@code createdAt}, {@code id}): same order, strictly older rows only. The
+     * {@code created_at <=} bound keeps each branch a range scan of its index.
+     */
+    @Query(value = "SELECT * FROM (" +
+            "(SELECT * FROM payments WHERE from_account_id IN (:ids) AND created_at <= :createdAt " +
+            "AND (created_at < :createdAt OR id < :id) ORDER BY created_at DESC LIMIT :limit) " +
+            "UNION " +
+            "(SELECT * FROM payments WHERE to_account_id IN (:ids) AND created_at <= :createdAt " +
+            "AND (created_at < :createdAt OR id < :id) ORDER BY created_at DESC LIMIT :limit)" +
+            ") p ORDER BY p.created_at DESC, p.id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<Payment> findRecentByAccountIdsBefore(@Param("ids") Collection<Long> accountIds,
+                                               @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") Long id, @Param("limit") int limit);
+
+    // Batch lookup by id: one IN query straight into the response DTO, no entities loaded
+    @Query("SELECT new com.banking.payment.dto.PaymentResponse(" +
+           "x.id, x.fromAccountId, x.toAccountId, x.amount, x.currency, CAST(x.paymentType AS String), CAST(x.status AS String), x.description, x.createdAt, x.updatedAt) " +
+           "FROM Payment x WHERE x.id IN :ids")
+    List<PaymentResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,60 @@
+package com.banking.payment.service;
+
+import com.banking.payment.config.FeignConfig;
+import com.banking.payment.feign.AccountServiceClient;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Local userId -> accountIds map so payment history does not pay an account-service round trip
+ * on every call. Entries live for {@code ttl}; once older than {@code refresh-after} the next read
+ * still returns the cached ids but triggers a background reload (refresh-ahead), so hot users
+ * never see a miss. account-service evicts a user when one of their accounts is opened or closed.
+ * Hit/miss counts are published as {@code cache.gets{cache=account-ownership}}.
+ */
+@Component
+public class AccountOwnershipCache {
+
+    public static final String CACHE_NAME = "account-ownership";
+
+    private final AccountServiceClient accountServiceClient;
+    private final LoadingCache<Long, List<Long>> cache;
+
+    public AccountOwnershipCache(AccountServiceClient accountServiceClient,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${payment.account-cache.ttl:PT10M}") Duration ttl,
+                                 @Value("${payment.account-cache.refresh-after:PT8M}") Duration refreshAfter,
+                                 @Value("${payment.account-cache.max-size:50000}") long maxSize) {
+        this.accountServiceClient = accountServiceClient;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .refreshAfterWrite(refreshAfter)
+            .executor(FeignConfig.forwardingAuthorization(ForkJoinPool.commonPool()))
+            .recordStats()
+            .build(this::load);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public List<Long> getAccountIds(Long userId) {
+        return cache.get(userId);
+    }
+
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    private List<Long> load(Long userId) {
+        // Treat userId as customerId, as account-service does
+        List<AccountServiceClient.AccountSummary> accounts = accountServiceClient.getAccountsByUserId(userId, null);
+        return accounts != null ? accounts.stream().map(a -> a.id).toList() : List.of();
+    }
+}
@@ -0,0 +1,75 @@
+package com.banking.payment.service;
+
+import com.banking.common.security.GatewayIdentity;
+import com.banking.payment.entity.Payment;
+import com.banking.payment.enums.PaymentStatus;
+import com.banking.payment.repository.PaymentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Settles payments whose ledger posting had no definite answer. Anything still PROCESSING after
+ * {@code payment.ledger.retry-after} is posted again with the same reference - the ledger answers
+ * a reference it already posted from its journal - until it is COMPLETED or FAILED.
+ * <p>
+ * Ledger calls carry the service identity (see ServiceFeignConfig), so startup fails when
+ * {@code gateway.identity.secret} is not set: every posting would be refused with 401 and the
+ * payments would stay PROCESSING for good. Turn it off with {@code payment.ledger.reconciler.enabled}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "payment.ledger.reconciler.enabled", havingValue = "true", matchIfMissing = true)
+public class LedgerReconciler {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_BATCHES_PER_RUN = 50;
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentService paymentService;
+    private final Duration retryAfter;
+
+    public LedgerReconciler(PaymentRepository paymentRepository,
+                            PaymentService paymentService,
+                            @Value("${payment.ledger.retry-after:PT1M}") Duration retryAfter,
+                            @Value("${gateway.identity.secret:}") String identitySecret) {
+        if (!new GatewayIdentity(identitySecret).isEnabled()) {
+            throw new IllegalStateException("gateway.identity.secret (GATEWAY_IDENTITY_SECRET) must be set to post to the ledger; "
+                + "set payment.ledger.reconciler.enabled=false to run without the ledger reconciler");
+        }
+        this.paymentRepository = paymentRepository;
+        this.paymentService = paymentService;
+        this.retryAfter = retryAfter;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.ledger.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retryAfter);
+        long afterId = 0;
+        int settled = 0;
+        for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+            List<Payment> batch = paymentRepository.findByStatusAndIdGreaterThanAndUpdatedAtBeforeOrderByIdAsc(
+                PaymentStatus.PROCESSING, afterId, cutoff, PageRequest.of(0, BATCH_SIZE));
+            if (batch.isEmpty()) {
+                break;
+            }
+            Map<Long, PaymentStatus> outcomes = paymentService.postAndSettle(batch);
+            settled += outcomes.size();
+            if (batch.size() < BATCH_SIZE) {
+                break;
+            }
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+        if (settled > 0) {
+            log.info("Reconciled {} payments with the ledger", settled);
+        }
+    }
+}
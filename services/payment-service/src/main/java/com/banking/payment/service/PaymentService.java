@@ -4,46 +4,144 @@ import com.banking.payment.dto.*;
 import com.banking.payment.entity.Payment;
 import com.banking.payment.repository.PaymentRepository;
 import com.banking.payment.feign.AccountServiceClient;
+import com.banking.payment.feign.LedgerClient;
+import feign.FeignException;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import com.banking.payment.enums.PaymentStatus;
 import com.banking.payment.enums.PaymentType;
+import com.banking.common.outbox.OutboxService;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class PaymentService {
     
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BATCH_LOOKUP = 5000;
+    private static final int BATCH_CHUNK_SIZE = 500; // account-service LedgerService.MAX_BATCH_SIZE: the most one ledger batch call takes
+    private static final int BULK_CHUNK_SIZE = 1000;
+    private static final BigDecimal APPROVAL_THRESHOLD = new BigDecimal("50000");
+    
     private final PaymentRepository paymentRepository;
+    private final EntityManager entityManager;
     private final AccountServiceClient accountServiceClient;
+    private final LedgerClient ledgerClient;
+    private final AccountOwnershipCache accountOwnershipCache;
+    private final Validator validator;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
     
-    @Transactional
+    @Value("${payment.history.max-results:500}")
+    private int historyLimit = 500;
+    
+    @Value("${payment.batch.max-lines:10000}")
+    private int maxBatchLines = 10000;
+    
+    /**
+     * Records the payment first and posts it to the ledger only once that has committed, so money
+     * never moves for a payment that was rolled back. See {@link #postAndSettle} for the outcome.
+     */
     public PaymentResponse createTransfer(TransferRequest request) {
-        // Approval threshold: amounts greater than 50,000 require approval (PENDING)
-        // Otherwise, auto-complete the payment (COMPLETED)
-        var amount = request.getAmount();
-        var threshold = new java.math.BigDecimal("50000");
-        var status = (amount != null && amount.compareTo(threshold) > 0)
-            ? PaymentStatus.PENDING
-            : PaymentStatus.COMPLETED;
-
-        Payment payment = Payment.builder()
-            .fromAccountId(request.getFromAccountId())
-            .toAccountId(request.getToAccountId())
-            .amount(request.getAmount())
-            .currency(request.getCurrency() != null ? request.getCurrency() : "USD")
-            .paymentType(PaymentType.TRANSFER)
-            .status(status)
-            .description(request.getDescription())
-            .build();
-        
-        payment = paymentRepository.save(payment);
+        Payment payment = transactionTemplate.execute(status -> {
+            Payment saved = paymentRepository.save(newTransfer(request, null));
+            outboxService.append(Payment.AGGREGATE_TYPE, saved.getId(), "PaymentCreated", toResponse(saved));
+            return saved;
+        });
+        if (payment.getStatus() == PaymentStatus.PROCESSING) {
+            PaymentStatus settled = postAndSettle(List.of(payment)).get(payment.getId());
+            if (settled != null) {
+                payment.setStatus(settled);
+            }
+        }
         return toResponse(payment);
     }
     
+    /**
+     * Books a whole file of transfers. Every line is validated on its own and a bad line is
+     * reported rather than failing the file. Valid lines are inserted a chunk at a time - their ids
+     * come from the pooled generator, so each chunk goes out as JDBC batches - and each chunk is
+     * committed before its payments are posted to the ledger with one call.
+     */
+    public BatchTransferResponse createTransferBatch(BatchTransferRequest request) {
+        List<TransferRequest> transfers = request.getTransfers();
+        if (transfers.size() > maxBatchLines) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "A batch may contain at most " + maxBatchLines + " transfers");
+        }
+        String batchId = UUID.randomUUID().toString();
+        List<BatchTransferResponse.Line> lines = new ArrayList<>(transfers.size());
+        int accepted = 0;
+        for (int from = 0; from < transfers.size(); from += BATCH_CHUNK_SIZE) {
+            List<TransferRequest> chunk = transfers.subList(from, Math.min(from + BATCH_CHUNK_SIZE, transfers.size()));
+            Map<Integer, Payment> valid = new LinkedHashMap<>();
+            Map<Integer, String> errors = new HashMap<>();
+            Set<Long> knownAccounts = existingAccounts(chunk);
+            for (int i = 0; i < chunk.size(); i++) {
+                String error = validate(chunk.get(i));
+                if (error == null && knownAccounts != null) {
+                    error = unknownAccount(chunk.get(i), knownAccounts);
+                }
+                if (error != null) {
+                    errors.put(i, error);
+                } else {
+                    valid.put(i, newTransfer(chunk.get(i), batchId));
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                paymentRepository.saveAll(valid.values());
+                paymentRepository.flush();
+                Map<Long, Object> created = new LinkedHashMap<>();
+                valid.values().forEach(payment -> created.put(payment.getId(), toResponse(payment)));
+                outboxService.appendAll(Payment.AGGREGATE_TYPE, "PaymentCreated", created);
+                entityManager.clear(); // the chunk is written; don't keep it in the persistence context
+            });
+            
+            List<Payment> posting = valid.values().stream()
+                .filter(p -> p.getStatus() == PaymentStatus.PROCESSING)
+                .collect(Collectors.toList());
+            Map<Long, PaymentStatus> settled = posting.isEmpty() ? Map.of() : postAndSettle(posting);
+            
+            for (int i = 0; i < chunk.size(); i++) {
+                int lineNumber = from + i + 1;
+                Payment payment = valid.get(i);
+                if (payment == null) {
+                    lines.add(new BatchTransferResponse.Line(lineNumber, null, "REJECTED", errors.get(i)));
+                    continue;
+                }
+                accepted++;
+                PaymentStatus status = settled.getOrDefault(payment.getId(), payment.getStatus());
+                lines.add(new BatchTransferResponse.Line(lineNumber, payment.getId(), status.name(), null));
+            }
+        }
+        return new BatchTransferResponse(batchId, accepted, transfers.size() - accepted, lines);
+    }
+    
     public PaymentResponse getPayment(Long id) {
         Payment payment = paymentRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Payment not found"));
@@ -63,12 +161,77 @@ public class PaymentService {
             .collect(Collectors.toList());
     }
     
-    @Transactional
-    public void bulkApprove(ApprovalRequest request) {
-        List<Payment> payments = paymentRepository.findAllById(request.getIds());
-        
-        payments.forEach(p -> p.setStatus(PaymentStatus.valueOf(request.getStatus().toUpperCase())));
-        paymentRepository.saveAll(payments);
+    /**
+     * Set-based approval: each chunk of ids is locked, its PENDING rows are moved with one UPDATE
+     * and the transaction commits. An approval moves them to PROCESSING, and only after the commit
+     * are they posted to the ledger - one call per {@value #BATCH_CHUNK_SIZE} payments, no locks
+     * held - and settled like any other transfer. Payments the ledger refuses are reported as
+     * LEDGER_REJECTED, ones without an answer yet as PROCESSING.
+     */
+    public BulkApprovalResponse bulkApprove(ApprovalRequest request) {
+        PaymentStatus target = PaymentStatus.valueOf(request.getStatus().toUpperCase());
+        PaymentStatus moveTo = target == PaymentStatus.COMPLETED ? PaymentStatus.PROCESSING : target;
+        List<Long> ids = distinctIds(request.getIds());
+        List<BulkApprovalResponse.Outcome> outcomes = new ArrayList<>(ids.size());
+        int updated = 0;
+        for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size()));
+            Map<Long, String> current = transactionTemplate.execute(status -> movePending(chunk, moveTo));
+            List<Long> moved = chunk.stream()
+                .filter(id -> PaymentStatus.PENDING.name().equals(current.get(id)))
+                .collect(Collectors.toList());
+            
+            Map<Long, PaymentStatus> settled = new HashMap<>();
+            if (moveTo == PaymentStatus.PROCESSING && !moved.isEmpty()) {
+                List<Payment> posting = paymentRepository.findAllById(moved);
+                entityManager.clear();
+                for (int at = 0; at < posting.size(); at += BATCH_CHUNK_SIZE) {
+                    settled.putAll(postAndSettle(posting.subList(at, Math.min(at + BATCH_CHUNK_SIZE, posting.size()))));
+                }
+            }
+            
+            for (Long id : chunk) {
+                String outcome = !current.containsKey(id) ? "NOT_FOUND"
+                    : !PaymentStatus.PENDING.name().equals(current.get(id)) ? "NOT_PENDING"
+                    : moveTo != PaymentStatus.PROCESSING ? "UPDATED"
+                    : settled.get(id) == PaymentStatus.COMPLETED ? "UPDATED"
+                    : settled.get(id) == PaymentStatus.FAILED ? "LEDGER_REJECTED" : "PROCESSING";
+                outcomes.add(new BulkApprovalResponse.Outcome(id, outcome));
+                if (!outcome.startsWith("NOT_") && !outcome.equals("LEDGER_REJECTED")) {
+                    updated++;
+                }
+            }
+        }
+        return new BulkApprovalResponse(ids.size(), updated, outcomes);
+    }
+    
+    /** Locks a chunk, moves its PENDING rows to {@code to} and returns the status each id had. */
+    private Map<Long, String> movePending(List<Long> chunk, PaymentStatus to) {
+        Map<Long, String> current = new HashMap<>();
+        for (Object[] row : paymentRepository.lockStatusesByIdIn(chunk)) {
+            current.put(((Number) row[0]).longValue(), String.valueOf(row[1]));
+        }
+        List<Long> pending = chunk.stream()
+            .filter(id -> PaymentStatus.PENDING.name().equals(current.get(id)))
+            .collect(Collectors.toList());
+        if (!pending.isEmpty()) {
+            paymentRepository.updateStatusByIdIn(pending, PaymentStatus.PENDING, to, LocalDateTime.now());
+            Map<Long, Object> changes = new LinkedHashMap<>();
+            pending.forEach(id -> changes.put(id, statusChange(id, to)));
+            outboxService.appendAll(Payment.AGGREGATE_TYPE, "PaymentStatusChanged", changes);
+        }
+        return current;
+    }
+    
+    private static Map<String, Object> statusChange(Long paymentId, PaymentStatus status) {
+        return Map.of("paymentId", paymentId, "status", status.name());
+    }
+    
+    private static List<Long> distinctIds(List<Long> ids) {
+        if (ids == null) {
+            return List.of();
+        }
+        return ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
     }
     
     @Transactional
@@ -76,6 +239,7 @@ public class PaymentService {
         Payment payment = paymentRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Payment not found"));
         
+        PaymentStatus previous = payment.getStatus();
         if (request.getStatus() != null) {
             try {
                 PaymentStatus status = PaymentStatus.valueOf(request.getStatus().toUpperCase());
@@ -90,6 +254,9 @@ public class PaymentService {
         }
         
         payment = paymentRepository.save(payment);
+        if (payment.getStatus() != previous) {
+            outboxService.append(Payment.AGGREGATE_TYPE, payment.getId(), "PaymentStatusChanged", statusChange(payment.getId(), payment.getStatus()));
+        }
         return toResponse(payment);
     }
     
@@ -100,24 +267,206 @@ public class PaymentService {
         
         payment.setStatus(PaymentStatus.FAILED);
         paymentRepository.save(payment);
+        outboxService.append(Payment.AGGREGATE_TYPE, id, "PaymentStatusChanged", statusChange(id, PaymentStatus.FAILED));
     }
     
-    public List<PaymentResponse> getPaymentsByUserId(Long userId) {
-        // Resolve user's account IDs from account-service (treat userId as customerId)
-        List<AccountServiceClient.AccountSummary> accounts = accountServiceClient.getAccountsByUserId(userId, null);
-        List<Long> ids = accounts != null ? accounts.stream().map(a -> a.id).collect(Collectors.toList()) : List.of();
-        List<Payment> payments;
+    /**
+     * The user's most recent payments, newest first, at most {@code payment.history.max-results}
+     * of them. Pass the id of the last payment returned as {@code before} to read the next page;
+     * an unknown {@code before} yields an empty page.
+     */
+    public List<PaymentResponse> getPaymentsByUserId(Long userId, Long before) {
+        // Resolve user's account IDs (cached copy of account-service's view)
+        List<Long> ids = accountOwnershipCache.getAccountIds(userId);
         if (ids.isEmpty()) {
             // Fallback to legacy behavior to avoid empty screens if lookup fails
-            payments = paymentRepository.findByFromAccountIdOrToAccountId(userId, userId);
-        } else {
-            payments = paymentRepository.findByFromAccountIdInOrToAccountIdIn(ids, ids);
+            ids = List.of(userId);
         }
+        List<Long> accountIds = ids;
+        List<Payment> payments = before == null
+            ? paymentRepository.findRecentByAccountIds(accountIds, historyLimit)
+            : paymentRepository.findById(before)
+                .map(last -> paymentRepository.findRecentByAccountIdsBefore(accountIds, last.getCreatedAt(), last.getId(), historyLimit))
+                .orElse(List.of());
         return payments.stream()
             .map(this::toResponse)
             .collect(Collectors.toList());
     }
     
+    public void evictAccountOwnership(Long userId) {
+        accountOwnershipCache.invalidate(userId);
+    }
+    
+    /**
+     * Moves the money for PROCESSING payments through account-service's ledger - outside any
+     * transaction, one call for the lot - and settles the ones with a definite answer: COMPLETED
+     * once posted, FAILED when the ledger refuses them. A payment whose outcome is unknown (a
+     * timeout, a 5xx, no answer) stays PROCESSING and is posted again by the
+     * {@link LedgerReconciler}. The payment id is the posting reference and the ledger answers a
+     * reference it already posted from its journal, so a retry never moves money twice.
+     *
+     * @return the settled status by payment id; unsettled payments are absent
+     */
+    Map<Long, PaymentStatus> postAndSettle(List<Payment> payments) {
+        Map<Long, PaymentStatus> outcomes = payments.size() == 1 ? postToLedger(payments.get(0)) : postBatchToLedger(payments);
+        if (outcomes.isEmpty()) {
+            return outcomes;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                Map<Long, Object> changes = new LinkedHashMap<>();
+                for (PaymentStatus settled : List.of(PaymentStatus.COMPLETED, PaymentStatus.FAILED)) {
+                    List<Long> ids = outcomes.entrySet().stream()
+                        .filter(e -> e.getValue() == settled)
+                        .map(Map.Entry::getKey)
+                        .collect(Collectors.toList());
+                    if (!ids.isEmpty()) {
+                        paymentRepository.updateStatusByIdIn(ids, PaymentStatus.PROCESSING, settled, now);
+                        ids.forEach(id -> changes.put(id, statusChange(id, settled)));
+                    }
+                }
+                outboxService.appendAll(Payment.AGGREGATE_TYPE, "PaymentStatusChanged", changes);
+            });
+            return outcomes;
+        } catch (RuntimeException e) {
+            // The postings stand; the reconciler posts these again and records the outcome then
+            log.warn("Could not record the ledger outcome of {} payments: {}", outcomes.size(), e.getMessage());
+            return Map.of();
+        }
+    }
+    
+    private Map<Long, PaymentStatus> postToLedger(Payment payment) {
+        try {
+            ledgerClient.postTransfer(toPosting(payment));
+            return Map.of(payment.getId(), PaymentStatus.COMPLETED);
+        } catch (FeignException e) {
+            if (isRefusal(e)) {
+                log.info("Ledger refused payment {}: {}", payment.getId(), e.getMessage());
+                return Map.of(payment.getId(), PaymentStatus.FAILED);
+            }
+            log.warn("Ledger outcome of payment {} unknown, left PROCESSING: {}", payment.getId(), e.getMessage());
+            return Map.of();
+        } catch (RuntimeException e) {
+            log.warn("Ledger outcome of payment {} unknown, left PROCESSING: {}", payment.getId(), e.getMessage());
+            return Map.of();
+        }
+    }
+    
+    private Map<Long, PaymentStatus> postBatchToLedger(List<Payment> payments) {
+        Map<String, Long> idsByReference = new HashMap<>();
+        List<LedgerClient.TransferPosting> postings = new ArrayList<>(payments.size());
+        for (Payment payment : payments) {
+            LedgerClient.TransferPosting posting = toPosting(payment);
+            idsByReference.put(posting.reference, payment.getId());
+            postings.add(posting);
+        }
+        Map<Long, PaymentStatus> outcomes = new HashMap<>();
+        try {
+            for (LedgerClient.TransferPosting result : ledgerClient.postTransfers(postings)) {
+                Long id = idsByReference.get(result.reference);
+                if (id != null && "POSTED".equals(result.status)) {
+                    outcomes.put(id, PaymentStatus.COMPLETED);
+                } else if (id != null && "REJECTED".equals(result.status)) {
+                    outcomes.put(id, PaymentStatus.FAILED);
+                }
+                // ERROR: not posted this time, left PROCESSING
+            }
+        } catch (RuntimeException e) {
+            // Some lines may have been posted before the call failed; they are answered on the retry
+            log.warn("Ledger outcome of {} payments unknown, left PROCESSING: {}", payments.size(), e.getMessage());
+        }
+        return outcomes;
+    }
+    
+    // A 4xx is the ledger's answer about the posting itself. 401 and 403 (the service identity), 408
+    // and 429 only say this attempt was not let through, and anything else may have been posted.
+    private static boolean isRefusal(FeignException e) {
+        int status = e.status();
+        return status >= 400 && status < 500 && status != 401 && status != 403 && status != 408 && status != 429;
+    }
+    
+    // One lookup per chunk covers every account it touches. Null means the lookup failed and the
+    // check is skipped: the ledger rejects unknown accounts anyway, this only reports them earlier.
+    private Set<Long> existingAccounts(List<TransferRequest> chunk) {
+        Set<Long> ids = new HashSet<>();
+        for (TransferRequest transfer : chunk) {
+            if (transfer != null) {
+                if (transfer.getFromAccountId() != null) {
+                    ids.add(transfer.getFromAccountId());
+                }
+                if (transfer.getToAccountId() != null) {
+                    ids.add(transfer.getToAccountId());
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        try {
+            return accountServiceClient.getAccountsByIds(new ArrayList<>(ids)).keySet();
+        } catch (FeignException e) {
+            log.warn("Account lookup for {} batch accounts failed, leaving the check to the ledger: {}", ids.size(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static String unknownAccount(TransferRequest request, Set<Long> knownAccounts) {
+        if (!knownAccounts.contains(request.getFromAccountId())) {
+            return "Unknown account " + request.getFromAccountId();
+        }
+        if (!knownAccounts.contains(request.getToAccountId())) {
+            return "Unknown account " + request.getToAccountId();
+        }
+        return null;
+    }
+
+    private LedgerClient.TransferPosting toPosting(Payment payment) {
+        LedgerClient.TransferPosting posting = new LedgerClient.TransferPosting();
+        posting.reference = "PAYMENT-" + payment.getId();
+        posting.fromAccountId = payment.getFromAccountId();
+        posting.toAccountId = payment.getToAccountId();
+        posting.amount = payment.getAmount();
+        posting.currency = payment.getCurrency();
+        return posting;
+    }
+    
+    // Approval threshold: amounts greater than 50,000 require approval (PENDING)
+    // Otherwise, go straight to the ledger (PROCESSING)
+    private Payment newTransfer(TransferRequest request, String batchId) {
+        BigDecimal amount = request.getAmount();
+        PaymentStatus status = (amount != null && amount.compareTo(APPROVAL_THRESHOLD) > 0)
+            ? PaymentStatus.PENDING
+            : PaymentStatus.PROCESSING;
+        return Payment.builder()
+            .fromAccountId(request.getFromAccountId())
+            .toAccountId(request.getToAccountId())
+            .amount(amount)
+            .currency(request.getCurrency() != null ? request.getCurrency() : "USD")
+            .paymentType(PaymentType.TRANSFER)
+            .status(status)
+            .description(request.getDescription())
+            .batchId(batchId)
+            .build();
+    }
+    
+    private String validate(TransferRequest request) {
+        if (request == null) {
+            return "Transfer is required";
+        }
+        Set<ConstraintViolation<TransferRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+        if (request.getAmount().signum() <= 0) {
+            return "Amount must be positive";
+        }
+        if (request.getFromAccountId().equals(request.getToAccountId())) {
+            return "Cannot transfer to the same account";
+        }
+        return null;
+    }
+    
     private PaymentResponse toResponse(Payment payment) {
         String paymentType = payment.getPaymentType() != null ? payment.getPaymentType().name() : null;
         String status = payment.getStatus() != null ? payment.getStatus().name() : null;
@@ -139,5 +488,47 @@ public class PaymentService {
         List<Payment> payments = paymentRepository.findAll();
         return payments.stream().map(this::toResponse).collect(Collectors.toList());
     }
+
+    /** Looks up many payments in one query; ids that do not exist are simply absent from the map. */
+    public Map<Long, PaymentResponse> getPaymentsByIds(List<Long> requestedIds) {
+        List<Long> ids = distinctIds(requestedIds);
+        if (ids.size() > MAX_BATCH_LOOKUP) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "At most " + MAX_BATCH_LOOKUP + " ids per batch lookup, got " + ids.size());
+        }
+        Map<Long, PaymentResponse> byId = new LinkedHashMap<>();
+        if (ids.isEmpty()) {
+            return byId;
+        }
+        Map<Long, PaymentResponse> found = paymentRepository.findResponsesByIdIn(ids).stream()
+            .collect(Collectors.toMap(PaymentResponse::getId, r -> r));
+        // Answer in the caller's order so the response is stable for identical requests
+        for (Long id : ids) {
+            PaymentResponse response = found.get(id);
+            if (response != null) {
+                byId.put(id, response);
+            }
+        }
+        return byId;
+    }
+
+    public CursorPage<PaymentResponse> getPaymentsPage(Long after, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        List<Payment> rows = paymentRepository.findByIdGreaterThanOrderByIdAsc(after != null ? after : 0L, PageRequest.of(0, pageSize + 1));
+        List<PaymentResponse> items = rows.stream().limit(pageSize).map(this::toResponse).collect(Collectors.toList());
+        Long nextCursor = rows.size() > pageSize ? items.get(items.size() - 1).getId() : null;
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAllPayments(Consumer<PaymentResponse> sink) {
+        try (Stream<Payment> rows = paymentRepository.streamAllByOrderByIdAsc()) {
+            rows.forEach(row -> {
+                sink.accept(toResponse(row));
+                entityManager.detach(row); // keep the persistence context from growing with the table
+            });
+        }
+    }
 }
 
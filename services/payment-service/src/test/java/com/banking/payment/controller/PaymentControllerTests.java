@@ -2,7 +2,9 @@ package com.banking.payment.controller;
 
 import com.banking.payment.dto.*;
 import com.banking.payment.service.PaymentService;
+import com.banking.common.idempotency.IdempotencyService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,7 +18,11 @@ import java.math.BigDecimal;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -28,6 +34,13 @@ class PaymentControllerTests {
     @Autowired private MockMvc mockMvc;
     @Autowired private ObjectMapper objectMapper;
     @MockBean private PaymentService paymentService;
+    @MockBean private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void idempotencyPassThrough() {
+        when(idempotencyService.execute(any(), any(), any(), any(), any()))
+                .thenAnswer(inv -> inv.<java.util.function.Supplier<?>>getArgument(4).get());
+    }
 
     @Test
     @DisplayName("POST /payments/transfer returns response (200)")
@@ -43,6 +56,30 @@ class PaymentControllerTests {
                 .andExpect(jsonPath("$.id").value(1));
     }
 
+    @Test
+    @DisplayName("POST /payments/transfer/batch returns batch id and per-line results (200)")
+    void createTransferBatch_ok() throws Exception {
+        BatchTransferRequest req = new BatchTransferRequest(List.of(new TransferRequest(1L, 2L, new BigDecimal("100.00"), "USD", "d")));
+        when(paymentService.createTransferBatch(any(BatchTransferRequest.class))).thenReturn(new BatchTransferResponse(
+                "b-1", 1, 0, List.of(new BatchTransferResponse.Line(1, 7L, "COMPLETED", null))));
+
+        mockMvc.perform(post("/payments/transfer/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.batchId").value("b-1"))
+                .andExpect(jsonPath("$.lines[0].paymentId").value(7));
+    }
+
+    @Test
+    @DisplayName("POST /payments/transfer/batch rejects an empty file (400)")
+    void createTransferBatch_empty() throws Exception {
+        mockMvc.perform(post("/payments/transfer/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchTransferRequest(List.of()))))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("GET /payments/approvals returns list (200)")
     void getApprovals_ok() throws Exception {
@@ -53,5 +90,68 @@ class PaymentControllerTests {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(1)));
     }
-}
 
+    @Test
+    @DisplayName("POST /payments/transfer forwards the Idempotency-Key header")
+    void createTransfer_withIdempotencyKey() throws Exception {
+        TransferRequest req = new TransferRequest(1L, 2L, new BigDecimal("100.00"), "USD", "d");
+        when(paymentService.createTransfer(any(TransferRequest.class)))
+                .thenReturn(PaymentResponse.builder().id(1L).status("COMPLETED").build());
+
+        mockMvc.perform(post("/payments/transfer")
+                        .header("Idempotency-Key", "abc-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isOk());
+
+        verify(idempotencyService).execute(eq("payment.transfer"), eq("abc-123"), any(), eq(PaymentResponse.class), any());
+    }
+
+    @Test
+    @DisplayName("GET /payments/page returns items and next cursor (200)")
+    void getPaymentsPage_ok() throws Exception {
+        when(paymentService.getPaymentsPage(10L, 2)).thenReturn(new CursorPage<>(List.of(
+                PaymentResponse.builder().id(11L).build(),
+                PaymentResponse.builder().id(12L).build()), 12L));
+
+        mockMvc.perform(get("/payments/page").param("after", "10").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.nextCursor").value(12));
+    }
+
+    @Test
+    @DisplayName("GET /payments/page without a cursor starts at the beginning and ends with a null cursor")
+    void getPaymentsPage_firstPage() throws Exception {
+        when(paymentService.getPaymentsPage(null, 100)).thenReturn(new CursorPage<>(List.of(
+                PaymentResponse.builder().id(1L).build()), null));
+
+        mockMvc.perform(get("/payments/page"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /payments/stream writes one JSON object per line")
+    void streamAllPayments_ndjson() throws Exception {
+        doAnswer(inv -> {
+            java.util.function.Consumer<PaymentResponse> sink = inv.getArgument(0);
+            sink.accept(PaymentResponse.builder().id(1L).build());
+            sink.accept(PaymentResponse.builder().id(2L).build());
+            return null;
+        }).when(paymentService).streamAllPayments(any());
+
+        org.springframework.test.web.servlet.MvcResult result = mockMvc.perform(get("/payments/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.trim().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(2L, objectMapper.readTree(lines[1]).get("id").asLong());
+    }
+}
@@ -0,0 +1,128 @@
+package com.banking.payment.repository;
+
+import com.banking.payment.entity.Payment;
+import com.banking.payment.enums.PaymentStatus;
+import com.banking.payment.enums.PaymentType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Correctness of the UNION history query, plus an opt-in benchmark comparing the old unindexed
+ * OR-of-IN-lists lookup with the indexed UNION on a large seeded table. Like MySQL, H2 falls back
+ * to a scan for the OR even once the indexes exist.
+ * <pre>
+ * mvn test -pl services/payment-service -Dtest=PaymentHistoryQueryTests -Dbenchmark=true [-Dbenchmark.rows=10000000]
+ * </pre>
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:payment-history;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class PaymentHistoryQueryTests {
+
+    @Autowired private PaymentRepository paymentRepository;
+    @Autowired private DataSource dataSource;
+
+    @Test
+    @DisplayName("UNION query returns newest first, deduplicated and limited")
+    void findRecentByAccountIds_ordersDedupsAndLimits() {
+        LocalDateTime t0 = LocalDateTime.of(2024, 1, 1, 0, 0);
+        Payment outgoing = save(1L, 9L, t0.plusMinutes(1));
+        Payment incoming = save(8L, 2L, t0.plusMinutes(2));
+        Payment ownTransfer = save(1L, 2L, t0.plusMinutes(3));
+        save(7L, 8L, t0.plusMinutes(4)); // unrelated
+
+        List<Payment> all = paymentRepository.findRecentByAccountIds(List.of(1L, 2L), 10);
+        assertEquals(List.of(ownTransfer.getId(), incoming.getId(), outgoing.getId()),
+                all.stream().map(Payment::getId).toList());
+
+        List<Payment> limited = paymentRepository.findRecentByAccountIds(List.of(1L, 2L), 2);
+        assertEquals(List.of(ownTransfer.getId(), incoming.getId()), limited.stream().map(Payment::getId).toList());
+    }
+
+    @Test
+    @DisplayName("the 'before' page continues strictly after the given payment, ties broken by id")
+    void findRecentByAccountIdsBefore_continuesAfterCursor() {
+        LocalDateTime t0 = LocalDateTime.of(2024, 1, 1, 0, 0);
+        Payment oldest = save(1L, 9L, t0);
+        Payment tieLow = save(8L, 2L, t0.plusMinutes(1));
+        Payment tieHigh = save(1L, 2L, t0.plusMinutes(1));
+        save(1L, 9L, t0.plusMinutes(2));
+
+        List<Payment> next = paymentRepository.findRecentByAccountIdsBefore(List.of(1L, 2L), t0.plusMinutes(1), tieHigh.getId(), 10);
+        assertEquals(List.of(tieLow.getId(), oldest.getId()), next.stream().map(Payment::getId).toList());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("benchmark: unindexed OR of IN-lists vs indexed UNION on a seeded table")
+    void benchmark_orVersusUnion() {
+        int rows = Integer.getInteger("benchmark.rows", 10_000_000);
+        int accounts = 100_000;
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("TRUNCATE TABLE payments");
+        // Seed without secondary indexes (faster, and the starting point before this change)
+        jdbc.execute("DROP INDEX IF EXISTS idx_payments_from_created");
+        jdbc.execute("DROP INDEX IF EXISTS idx_payments_to_created");
+        long seedStart = System.nanoTime();
+        jdbc.update("INSERT INTO payments (id, from_account_id, to_account_id, amount, currency, payment_type, status, created_at, updated_at) " +
+                "SELECT X, MOD(X, ?), MOD(X * 7919, ?), 10.00, 'USD', 'TRANSFER', 'COMPLETED', " +
+                "DATEADD('SECOND', X, TIMESTAMP '2024-01-01 00:00:00'), NULL FROM SYSTEM_RANGE(1, ?)",
+                accounts, accounts, rows);
+        System.out.printf("seeded %,d payments in %,d ms%n", rows, (System.nanoTime() - seedStart) / 1_000_000);
+
+        List<Long> ids = List.of(17L, 4242L, 99_001L);
+        long orUnindexedMs = medianMillis(() -> paymentRepository.findByFromAccountIdInOrToAccountIdIn(ids, ids));
+
+        jdbc.execute("CREATE INDEX idx_payments_from_created ON payments (from_account_id, created_at)");
+        jdbc.execute("CREATE INDEX idx_payments_to_created ON payments (to_account_id, created_at)");
+        long orIndexedMs = medianMillis(() -> paymentRepository.findByFromAccountIdInOrToAccountIdIn(ids, ids));
+        long unionMs = medianMillis(() -> paymentRepository.findRecentByAccountIds(ids, 500));
+        System.out.printf("payment history over %,d rows: OR/IN without indexes = %,d ms, OR/IN with indexes = %,d ms, UNION with indexes = %,d ms%n",
+                rows, orUnindexedMs, orIndexedMs, unionMs);
+
+        assertFalse(paymentRepository.findRecentByAccountIds(ids, 500).isEmpty());
+    }
+
+    private Payment save(Long from, Long to, LocalDateTime createdAt) {
+        // Flushed now: ids come from a pooled generator, so a plain save would defer the INSERT
+        Payment payment = paymentRepository.saveAndFlush(Payment.builder()
+                .fromAccountId(from).toAccountId(to).amount(new BigDecimal("1.00")).currency("USD")
+                .paymentType(PaymentType.TRANSFER).status(PaymentStatus.COMPLETED).build());
+        // created_at is not updatable through JPA; pin it so the ordering assertions are deterministic
+        assertEquals(1, new JdbcTemplate(dataSource).update("UPDATE payments SET created_at = ? WHERE id = ?", createdAt, payment.getId()));
+        return payment;
+    }
+
+    private static long medianMillis(Supplier<?> query) {
+        query.get(); // warm-up
+        long[] samples = new long[5];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            query.get();
+            samples[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2];
+    }
+}
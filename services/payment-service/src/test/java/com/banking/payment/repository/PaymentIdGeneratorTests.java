@@ -0,0 +1,94 @@
+package com.banking.payment.repository;
+
+import com.banking.payment.config.PaymentIdGeneratorAligner;
+import com.banking.payment.entity.Payment;
+import com.banking.payment.enums.PaymentStatus;
+import com.banking.payment.enums.PaymentType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:payment-ids;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+// Not transactional: Hibernate reserves ids on its own connection, as it does in production.
+// The aligner only helps before the first block is handed out, i.e. at application start.
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@Import(PaymentIdGeneratorAligner.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PaymentIdGeneratorTests {
+
+    @Autowired private PaymentRepository paymentRepository;
+    @Autowired private PaymentIdGeneratorAligner aligner;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @Order(0)
+    @DisplayName("aligner has already run by the time the context is ready")
+    void alignerRunsAtStartup() {
+        assertTrue(nextVal() > Payment.ID_ALLOCATION_SIZE, "next_val was " + nextVal());
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("aligner moves the generator past ids assigned by the old AUTO_INCREMENT column")
+    void alignerSkipsExistingIds() {
+        jdbcTemplate.update("INSERT INTO payments (id, from_account_id, to_account_id, amount, currency, payment_type, status, created_at) " +
+                "VALUES (10000, 1, 2, 5.00, 'USD', 'TRANSFER', 'COMPLETED', CURRENT_TIMESTAMP)");
+
+        aligner.align();
+        Payment saved = paymentRepository.saveAndFlush(payment());
+
+        assertTrue(saved.getId() > 10_000L, "id was " + saved.getId());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("ids are reserved in blocks, not one round trip per row")
+    void idsAreAllocatedInBlocks() {
+        long before = nextVal();
+        List<Payment> batch = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            batch.add(payment());
+        }
+        List<Long> ids = paymentRepository.saveAll(batch).stream().map(Payment::getId).toList();
+        paymentRepository.flush();
+
+        assertEquals(120, new HashSet<>(ids).size());
+        assertTrue(ids.stream().allMatch(id -> id > 0));
+        // 120 ids fit in three blocks of 50, so the generator row moved at most three times
+        long moved = nextVal() - before;
+        assertTrue(moved <= 3L * Payment.ID_ALLOCATION_SIZE, "generator moved by " + moved);
+    }
+
+    private long nextVal() {
+        return jdbcTemplate.queryForObject(
+                "SELECT next_val FROM id_generators WHERE sequence_name = 'payments'", Long.class);
+    }
+
+    private static Payment payment() {
+        return Payment.builder()
+                .fromAccountId(1L).toAccountId(2L).amount(new BigDecimal("1.00")).currency("USD")
+                .paymentType(PaymentType.TRANSFER).status(PaymentStatus.COMPLETED).build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.banking.payment.service;
+
+import com.banking.payment.feign.AccountServiceClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountOwnershipCacheTests {
+
+    @Mock private AccountServiceClient accountServiceClient;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AccountOwnershipCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AccountOwnershipCache(accountServiceClient, meterRegistry,
+                Duration.ofMinutes(10), Duration.ofMinutes(8), 100);
+    }
+
+    @Test
+    @DisplayName("second lookup is served locally and counted as a hit")
+    void repeatedLookup_hitsCache() {
+        when(accountServiceClient.getAccountsByUserId(5L, null)).thenReturn(List.of(summary(50L), summary(51L)));
+
+        assertEquals(List.of(50L, 51L), cache.getAccountIds(5L));
+        assertEquals(List.of(50L, 51L), cache.getAccountIds(5L));
+
+        verify(accountServiceClient, times(1)).getAccountsByUserId(5L, null);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", AccountOwnershipCache.CACHE_NAME).tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", AccountOwnershipCache.CACHE_NAME).tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("invalidate forces the next lookup back to account-service")
+    void invalidate_reloads() {
+        when(accountServiceClient.getAccountsByUserId(5L, null))
+                .thenReturn(List.of(summary(50L)))
+                .thenReturn(List.of(summary(50L), summary(52L)));
+
+        assertEquals(List.of(50L), cache.getAccountIds(5L));
+        cache.invalidate(5L);
+        assertEquals(List.of(50L, 52L), cache.getAccountIds(5L));
+    }
+
+    private static AccountServiceClient.AccountSummary summary(Long id) {
+        AccountServiceClient.AccountSummary s = new AccountServiceClient.AccountSummary();
+        s.id = id;
+        return s;
+    }
+}
@@ -0,0 +1,45 @@
+package com.banking.payment.service;
+
+import com.banking.payment.entity.Payment;
+import com.banking.payment.enums.PaymentStatus;
+import com.banking.payment.repository.PaymentRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class LedgerReconcilerTests {
+
+    private static final String SECRET = "payment-service-test-identity-secret-0123456789";
+
+    private final PaymentRepository paymentRepository = mock(PaymentRepository.class);
+    private final PaymentService paymentService = mock(PaymentService.class);
+
+    @Test
+    @DisplayName("startup fails without a service identity to post with")
+    void constructor_requiresIdentitySecret() {
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> new LedgerReconciler(paymentRepository, paymentService, Duration.ofMinutes(1), ""));
+        assertTrue(e.getMessage().contains("gateway.identity.secret"));
+    }
+
+    @Test
+    @DisplayName("reconcile posts stale PROCESSING payments again")
+    void reconcile_postsStalePayments() {
+        Payment stale = Payment.builder().id(3L).status(PaymentStatus.PROCESSING).build();
+        when(paymentRepository.findByStatusAndIdGreaterThanAndUpdatedAtBeforeOrderByIdAsc(
+                eq(PaymentStatus.PROCESSING), eq(0L), any(), any())).thenReturn(List.of(stale));
+        when(paymentService.postAndSettle(List.of(stale))).thenReturn(Map.of(3L, PaymentStatus.COMPLETED));
+
+        new LedgerReconciler(paymentRepository, paymentService, Duration.ofMinutes(1), SECRET).reconcile();
+
+        verify(paymentService).postAndSettle(List.of(stale));
+    }
+}
@@ -4,35 +4,147 @@ import com.banking.payment.dto.*;
 import com.banking.payment.entity.Payment;
 import com.banking.payment.enums.PaymentStatus;
 import com.banking.payment.enums.PaymentType;
+import com.banking.payment.feign.AccountServiceClient;
+import com.banking.payment.feign.LedgerClient;
 import com.banking.payment.repository.PaymentRepository;
+import com.banking.common.outbox.OutboxService;
+import feign.FeignException;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class PaymentServiceTests {
 
     @Mock private PaymentRepository repo;
+    @Mock private AccountServiceClient accountServiceClient;
+    @Mock private LedgerClient ledgerClient;
+    @Mock private AccountOwnershipCache accountOwnershipCache;
+    @Mock private EntityManager entityManager;
+    @Mock private Validator validator;
+    @Mock private OutboxService outboxService;
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    @Spy private TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
     @InjectMocks private PaymentService service;
 
     @Test
-    @DisplayName("createTransfer sets COMPLETED for small amount")
+    @DisplayName("createTransfer posts a small amount after the insert and settles it COMPLETED")
     void createTransfer_smallAmount() {
-        when(repo.save(any(Payment.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(repo.save(any(Payment.class))).thenAnswer(inv -> withId(inv.getArgument(0), 1L));
         TransferRequest req = new TransferRequest(1L, 2L, new BigDecimal("100.00"), null, null);
         PaymentResponse resp = service.createTransfer(req);
         assertEquals("COMPLETED", resp.getStatus());
+        verify(ledgerClient).postTransfer(argThat(posting -> "PAYMENT-1".equals(posting.reference)));
+        verify(repo).updateStatusByIdIn(eq(List.of(1L)), eq(PaymentStatus.PROCESSING), eq(PaymentStatus.COMPLETED), any());
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    @DisplayName("createTransfer marks FAILED when the ledger refuses the posting")
+    void createTransfer_ledgerRejects() {
+        when(repo.save(any(Payment.class))).thenAnswer(inv -> withId(inv.getArgument(0), 1L));
+        FeignException rejection = feignStatus(422);
+        when(ledgerClient.postTransfer(any())).thenThrow(rejection);
+        TransferRequest req = new TransferRequest(1L, 2L, new BigDecimal("100.00"), null, null);
+        PaymentResponse resp = service.createTransfer(req);
+        assertEquals("FAILED", resp.getStatus());
+        verify(repo).updateStatusByIdIn(eq(List.of(1L)), eq(PaymentStatus.PROCESSING), eq(PaymentStatus.FAILED), any());
+    }
+
+    @Test
+    @DisplayName("createTransfer leaves the payment PROCESSING when the ledger outcome is unknown")
+    void createTransfer_ledgerUnavailable() {
+        when(repo.save(any(Payment.class))).thenAnswer(inv -> withId(inv.getArgument(0), 1L));
+        FeignException unavailable = feignStatus(503);
+        FeignException unauthorized = feignStatus(401);
+        when(ledgerClient.postTransfer(any()))
+                .thenThrow(unavailable, unauthorized, new IllegalStateException("Read timed out"));
+        TransferRequest req = new TransferRequest(1L, 2L, new BigDecimal("100.00"), null, null);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("PROCESSING", service.createTransfer(req).getStatus());
+        }
+        verify(repo, never()).updateStatusByIdIn(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("postAndSettle reports nothing settled when the ledger outcome cannot be recorded")
+    void postAndSettle_recordFails() {
+        Payment payment = Payment.builder().id(4L).fromAccountId(1L).toAccountId(2L)
+                .amount(new BigDecimal("10.00")).currency("USD").status(PaymentStatus.PROCESSING).build();
+        when(repo.updateStatusByIdIn(any(), any(), any(), any())).thenThrow(new IllegalStateException("deadlock"));
+
+        assertEquals(Map.of(), service.postAndSettle(List.of(payment)));
+        verify(ledgerClient).postTransfer(any());
+    }
+
+    @Test
+    @DisplayName("createTransferBatch reports a result per line and posts settled lines in one ledger call")
+    void createTransferBatch_perLineResults() {
+        AtomicLong ids = new AtomicLong();
+        when(repo.saveAll(any())).thenAnswer(inv -> {
+            List<Payment> saved = new ArrayList<>();
+            inv.<Iterable<Payment>>getArgument(0).forEach(p -> {
+                p.setId(ids.incrementAndGet());
+                saved.add(p);
+            });
+            return saved;
+        });
+        when(accountServiceClient.getAccountsByIds(any())).thenAnswer(inv -> {
+            Map<Long, AccountServiceClient.AccountSummary> known = new HashMap<>();
+            inv.<List<Long>>getArgument(0).stream().filter(id -> id < 9L)
+                    .forEach(id -> known.put(id, new AccountServiceClient.AccountSummary()));
+            return known;
+        });
+        when(ledgerClient.postTransfers(any())).thenAnswer(inv -> {
+            List<LedgerClient.TransferPosting> postings = inv.getArgument(0);
+            postings.forEach(p -> p.status = "PAYMENT-3".equals(p.reference) ? "REJECTED" : "POSTED");
+            return postings;
+        });
+
+        BatchTransferResponse resp = service.createTransferBatch(new BatchTransferRequest(List.of(
+                new TransferRequest(1L, 2L, new BigDecimal("10.00"), null, "salary"),
+                new TransferRequest(1L, 1L, new BigDecimal("10.00"), null, "self"),
+                new TransferRequest(1L, 3L, new BigDecimal("60000"), null, "bonus"),
+                new TransferRequest(4L, 2L, new BigDecimal("20.00"), null, "salary"),
+                new TransferRequest(1L, 9L, new BigDecimal("5.00"), null, "typo"))));
+
+        assertNotNull(resp.getBatchId());
+        assertEquals(3, resp.getAccepted());
+        assertEquals(2, resp.getRejected());
+        assertEquals(List.of("COMPLETED", "REJECTED", "PENDING", "FAILED", "REJECTED"),
+                resp.getLines().stream().map(BatchTransferResponse.Line::getStatus).toList());
+        assertEquals("Cannot transfer to the same account", resp.getLines().get(1).getError());
+        assertEquals("Unknown account 9", resp.getLines().get(4).getError());
+        verify(accountServiceClient, times(1)).getAccountsByIds(any());
+        verify(ledgerClient, times(1)).postTransfers(argThat(postings -> postings.size() == 2));
+        verify(repo).updateStatusByIdIn(eq(List.of(1L)), eq(PaymentStatus.PROCESSING), eq(PaymentStatus.COMPLETED), any());
+        verify(repo).updateStatusByIdIn(eq(List.of(3L)), eq(PaymentStatus.PROCESSING), eq(PaymentStatus.FAILED), any());
+        verify(outboxService).appendAll(eq(Payment.AGGREGATE_TYPE), eq("PaymentCreated"), argThat(m -> m.size() == 3));
     }
 
     @Test
@@ -42,6 +154,57 @@ class PaymentServiceTests {
         TransferRequest req = new TransferRequest(1L, 2L, new BigDecimal("50001"), "USD", "d");
         PaymentResponse resp = service.createTransfer(req);
         assertEquals("PENDING", resp.getStatus());
+        verifyNoInteractions(accountServiceClient, ledgerClient);
+    }
+
+    @Test
+    @DisplayName("bulkApprove to COMPLETED commits PROCESSING first, then posts the chunk in one ledger call")
+    void bulkApprove_completedPostsToLedger() {
+        Payment ok = Payment.builder().id(5L).fromAccountId(1L).toAccountId(2L)
+                .amount(new BigDecimal("60000")).currency("USD").status(PaymentStatus.PROCESSING).build();
+        Payment rejected = Payment.builder().id(6L).fromAccountId(3L).toAccountId(2L)
+                .amount(new BigDecimal("70000")).currency("USD").status(PaymentStatus.PROCESSING).build();
+        Payment unanswered = Payment.builder().id(8L).fromAccountId(4L).toAccountId(2L)
+                .amount(new BigDecimal("80000")).currency("USD").status(PaymentStatus.PROCESSING).build();
+        when(repo.lockStatusesByIdIn(List.of(5L, 6L, 7L, 8L))).thenReturn(List.of(
+                new Object[]{5L, "PENDING"}, new Object[]{6L, "PENDING"}, new Object[]{7L, "COMPLETED"}, new Object[]{8L, "PENDING"}));
+        when(repo.findAllById(List.of(5L, 6L, 8L))).thenReturn(List.of(ok, rejected, unanswered));
+        when(ledgerClient.postTransfers(any())).thenAnswer(inv -> {
+            List<LedgerClient.TransferPosting> postings = inv.getArgument(0);
+            postings.forEach(p -> p.status = switch (p.reference) {
+                case "PAYMENT-5" -> "POSTED";
+                case "PAYMENT-6" -> "REJECTED";
+                default -> "ERROR";
+            });
+            return postings;
+        });
+
+        BulkApprovalResponse resp = service.bulkApprove(new ApprovalRequest(List.of(5L, 6L, 7L, 8L), "COMPLETED"));
+
+        InOrder order = inOrder(repo, transactionManager, ledgerClient);
+        order.verify(repo).updateStatusByIdIn(eq(List.of(5L, 6L, 8L)), eq(PaymentStatus.PENDING), eq(PaymentStatus.PROCESSING), any());
+        order.verify(transactionManager).commit(any());
+        order.verify(ledgerClient).postTransfers(argThat(postings -> postings.size() == 3));
+        verify(repo).updateStatusByIdIn(eq(List.of(5L)), eq(PaymentStatus.PROCESSING), eq(PaymentStatus.COMPLETED), any());
+        verify(repo).updateStatusByIdIn(eq(List.of(6L)), eq(PaymentStatus.PROCESSING), eq(PaymentStatus.FAILED), any());
+        verify(ledgerClient, never()).postTransfer(any());
+        assertEquals(2, resp.getUpdated());
+        assertEquals(List.of("UPDATED", "LEDGER_REJECTED", "NOT_PENDING", "PROCESSING"),
+                resp.getOutcomes().stream().map(BulkApprovalResponse.Outcome::getOutcome).toList());
+    }
+
+    @Test
+    @DisplayName("bulkApprove to FAILED does not touch the ledger")
+    void bulkApprove_rejectSkipsLedger() {
+        when(repo.lockStatusesByIdIn(List.of(8L))).thenReturn(List.<Object[]>of(new Object[]{8L, "PENDING"}));
+        when(repo.updateStatusByIdIn(eq(List.of(8L)), eq(PaymentStatus.PENDING), eq(PaymentStatus.FAILED), any()))
+                .thenReturn(1);
+
+        BulkApprovalResponse resp = service.bulkApprove(new ApprovalRequest(List.of(8L), "FAILED"));
+
+        assertEquals(1, resp.getUpdated());
+        verifyNoInteractions(accountServiceClient, ledgerClient);
+        verify(repo, never()).findAllById(any());
     }
 
     @Test
@@ -63,5 +226,41 @@ class PaymentServiceTests {
         assertEquals(PaymentStatus.FAILED, p.getStatus());
         verify(repo).save(p);
     }
-}
 
+    @Test
+    @DisplayName("getPaymentsByUserId queries history for the user's cached account ids")
+    void getPaymentsByUserId_usesAccountIds() {
+        when(accountOwnershipCache.getAccountIds(7L)).thenReturn(List.of(11L, 12L));
+        when(repo.findRecentByAccountIds(List.of(11L, 12L), 500))
+                .thenReturn(List.of(Payment.builder().id(1L).status(PaymentStatus.COMPLETED).build()));
+
+        List<PaymentResponse> history = service.getPaymentsByUserId(7L, null);
+        assertEquals(1, history.size());
+        verifyNoInteractions(accountServiceClient);
+    }
+
+    @Test
+    @DisplayName("getPaymentsByUserId continues after the 'before' payment")
+    void getPaymentsByUserId_before() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+        when(accountOwnershipCache.getAccountIds(7L)).thenReturn(List.of(11L));
+        when(repo.findById(5L)).thenReturn(Optional.of(Payment.builder().id(5L).createdAt(createdAt).build()));
+        when(repo.findRecentByAccountIdsBefore(List.of(11L), createdAt, 5L, 500))
+                .thenReturn(List.of(Payment.builder().id(4L).status(PaymentStatus.COMPLETED).build()));
+
+        assertEquals(List.of(4L), service.getPaymentsByUserId(7L, 5L).stream().map(PaymentResponse::getId).toList());
+        when(repo.findById(99L)).thenReturn(Optional.empty());
+        assertTrue(service.getPaymentsByUserId(7L, 99L).isEmpty());
+    }
+
+    private static Payment withId(Payment payment, Long id) {
+        payment.setId(id);
+        return payment;
+    }
+
+    private static FeignException feignStatus(int status) {
+        FeignException e = mock(FeignException.class);
+        lenient().when(e.status()).thenReturn(status);
+        return e;
+    }
+}